@@ -1,25 +1,32 @@
 package de.larssh.election.germany.schleswigholstein.local.cli;
 
-import static java.util.stream.Collectors.toList;
-
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.net.InetSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.Comparator;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.jar.Attributes.Name;
 
-import de.larssh.election.germany.schleswigholstein.local.LocalBallot;
+import de.larssh.election.germany.schleswigholstein.ElectionException;
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultBuilder;
+import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
 import de.larssh.election.germany.schleswigholstein.local.file.AwgWebsiteFiles;
+import de.larssh.election.germany.schleswigholstein.local.file.DeltaFiles;
 import de.larssh.election.germany.schleswigholstein.local.file.MetricsFiles;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFiles;
 import de.larssh.election.germany.schleswigholstein.local.file.PresentationFiles;
+import de.larssh.election.germany.schleswigholstein.local.file.PresentationFragmentCache;
+import de.larssh.election.germany.schleswigholstein.local.file.SnapshotFiles;
 import de.larssh.utils.Nullables;
 import de.larssh.utils.function.DoubleToDoubleFunction;
 import de.larssh.utils.function.ThrowingConsumer;
@@ -34,6 +41,7 @@ import picocli.CommandLine.IVersionProvider;
 import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.Spec;
 
@@ -60,14 +68,14 @@ public class LocalElectionResultCli implements IVersionProvider {
 			= DESCRIPTION_FILE + "\nWriting is done atomic to avoid blank browser screens.";
 
 	/**
-	 * One hundred
+	 * CLI parameter label for "either a number of ballots or a percentage"
 	 */
-	private static final int HUNDRED = 100;
+	private static final String PARAM_LABEL_ABSOLUTE_BALLOTS_OR_PERCENTAGE = "<Number of Ballots>|<Percentage>";
 
 	/**
-	 * CLI parameter label for "either a number of ballots or a percentage"
+	 * Format of the message printed after updating output
 	 */
-	private static final String PARAM_LABEL_ABSOLUTE_BALLOTS_OR_PERCENTAGE = "<Number of Ballots>|<Percentage>";
+	private static final String FORMAT_UPDATED_AT = "Updated at %1$tT %1$tZ";
 
 	/**
 	 * Width of the CLI help's usage messages
@@ -110,13 +118,49 @@ public class LocalElectionResultCli implements IVersionProvider {
 		}
 	}
 
+	/**
+	 * Appends the changes of the election result as newline-delimited JSON. The
+	 * first line contains the changes since the start of the count.
+	 *
+	 * @param result the result
+	 * @param output the path to append to
+	 * @param watch  optionally watches the input files for updates
+	 * @throws InterruptedException if interrupted while watching for file changes
+	 * @throws IOException          on IO error
+	 */
+	@Command(showDefaultValues = true,
+			usageHelpWidth = USAGE_HELP_WIDTH,
+			description = "Appends the changes of the election result as newline-delimited JSON.\nThe first line contains the changes since the start of the count.")
+	public void deltas(@Mixin final LocalElectionResultParameter result,
+			@Parameters(paramLabel = "FILE", description = "Path of the file to append to") final Path output,
+			@Mixin final WatchParameter watch) throws InterruptedException, IOException {
+		final LocalElectionResult readResult = result.read();
+		final AtomicReference<LocalElectionResult> previous = new AtomicReference<>(
+				new LocalElectionResultBuilder(readResult.getElection(), readResult.getSainteLagueScale())
+						.setNumberOfAllBallots(readResult.getNumberOfAllBallotsMap())
+						.setDirectDrawResults(readResult.getDirectDrawResults())
+						.setListDrawResults(readResult.getListDrawResults())
+						.build());
+
+		try (Writer writer = Files.newBufferedWriter(output, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			final ThrowingConsumer<LocalElectionResult> handler = current -> {
+				if (DeltaFiles.append(previous.getAndSet(Nullables.orElseThrow(current)), current, writer)) {
+					getStandardOutputWriter().println(String.format(FORMAT_UPDATED_AT, ZonedDateTime.now()));
+				}
+			};
+			handler.accept(readResult);
+			watch.watchIfRequested(result, handler);
+		}
+	}
+
 	/**
 	 * Creates an Excel spreadsheet (XLSX) with metrics of the election result.
 	 *
-	 * @param result   the result
-	 * @param output   the path to write to
-	 * @param extended if {@code true} additional metrics on ballot basis are
-	 *                 included
+	 * @param result    the result
+	 * @param output    the path to write to
+	 * @param extended  if {@code true} additional metrics on ballot basis are
+	 *                  included
+	 * @param streaming if {@code true} rows are streamed with bounded memory
 	 * @throws IOException on IO error
 	 */
 	@Command(description = "Creates an Excel spreadsheet (XLSX) with metrics of the election results.")
@@ -124,10 +168,13 @@ public class LocalElectionResultCli implements IVersionProvider {
 			@Parameters(paramLabel = "FILE", description = DESCRIPTION_FILE) final Path output,
 			@Option(names = "--extended",
 					defaultValue = "false",
-					description = "Adds additional metrics on ballot basis") final boolean extended)
+					description = "Adds additional metrics on ballot basis") final boolean extended,
+			@Option(names = "--streaming",
+					defaultValue = "false",
+					description = "Streams rows with bounded memory, e.g. for large extended metrics") final boolean streaming)
 			throws IOException {
 		try (OutputStream outputStream = Files.newOutputStream(output)) {
-			MetricsFiles.write(result.read(), outputStream, extended);
+			MetricsFiles.write(result.read(), outputStream, extended, streaming);
 		}
 	}
 
@@ -136,9 +183,10 @@ public class LocalElectionResultCli implements IVersionProvider {
 	 *
 	 * @param result      the result
 	 * @param output      the path to write to
-	 * @param watch       if {@code true} the input files are watched for updates
-	 *                    and the application does not return its handle
+	 * @param watch       optionally watches the input files for updates
 	 * @param refreshRate the refresh rate of the HTML file or empty
+	 * @param snapshot    optional path of a snapshot file to resume from and to
+	 *                    update after each update
 	 * @throws InterruptedException if interrupted while watching for file changes
 	 * @throws IOException          on IO error
 	 */
@@ -148,23 +196,152 @@ public class LocalElectionResultCli implements IVersionProvider {
 			description = "Creates a HTML presentation format for the election result.")
 	public void presentation(@Mixin final LocalElectionResultParameter result,
 			@Parameters(paramLabel = "FILE", description = DESCRIPTION_FILE_ATOMIC) final Path output,
-			@Option(names = "--watch",
-					defaultValue = "false",
-					description = "Watches the input files for updates and does not return the application's handle") final boolean watch,
+			@Mixin final WatchParameter watch,
 			@Option(names = "--refresh",
 					defaultValue = "PT0S",
 					paramLabel = "<Duration>",
-					description = "Allows to specify a duration after which the HTML page refreshes automatically\nExample for one second: PT1S") final Duration refreshRate)
+					description = "Allows to specify a duration after which the HTML page refreshes automatically\nExample for one second: PT1S") final Duration refreshRate,
+			@Option(names = "--snapshot",
+					paramLabel = "<Path>",
+					description = "Snapshot file to resume from instantly when starting and to update after each update") final Optional<Path> snapshot)
 			throws InterruptedException, IOException {
+		final PresentationFragmentCache cache = new PresentationFragmentCache();
 		final ThrowingConsumer<LocalElectionResult> handler = readResult -> {
-			writePresentationFile(Nullables.orElseThrow(readResult), Optional.of(refreshRate), output);
-			getStandardOutputWriter().println(String.format("Updated at %1$tT %1$tZ", ZonedDateTime.now()));
+			writePresentationFile(Nullables.orElseThrow(readResult), Optional.of(refreshRate), output, cache);
+			if (snapshot.isPresent()) {
+				writeSnapshotFile(Nullables.orElseThrow(readResult), snapshot.get());
+			}
+			getStandardOutputWriter().println(String.format(FORMAT_UPDATED_AT, ZonedDateTime.now()));
 		};
 
 		// Execute
+		if (snapshot.isPresent() && Files.isRegularFile(snapshot.get())) {
+			resumePresentationFile(result, Optional.of(refreshRate), output, snapshot.get(), cache);
+		}
 		handler.accept(result.read());
-		if (watch) {
-			result.watch(handler);
+		watch.watchIfRequested(result, handler);
+	}
+
+	/**
+	 * Publishes multiple output formats of the election result at once. The input
+	 * files are read and the result is calculated once, while the outputs are
+	 * written in parallel.
+	 *
+	 * @param result          the result
+	 * @param presentation    optional path to write the HTML presentation to
+	 * @param refreshRate     the refresh rate of the HTML presentation
+	 * @param metrics         optional path to write the Excel spreadsheet with
+	 *                        metrics to
+	 * @param extended        if {@code true} additional metrics on ballot basis are
+	 *                        included
+	 * @param awgWebsite      optional path to write the PHP file for the AWG web
+	 *                        site to
+	 * @param pollingStations optional folder to write the polling station result
+	 *                        files to
+	 * @param json            optional path to write the JSON file to
+	 * @param watch           optionally watches the input files for updates
+	 * @throws InterruptedException if interrupted while watching for file changes
+	 *                              or writing outputs
+	 * @throws IOException          on IO error
+	 */
+	@SuppressWarnings("checkstyle:ParameterNumber")
+	@Command(showDefaultValues = true,
+			usageHelpWidth = USAGE_HELP_WIDTH,
+			description = "Publishes multiple output formats of the election result at once.\nThe input files are read once, while the outputs are written in parallel.")
+	public void publish(@Mixin final LocalElectionResultParameter result,
+			@Option(names = "--presentation",
+					paramLabel = "<Path>",
+					description = "Path to write the HTML presentation format to") final Optional<Path> presentation,
+			@Option(names = "--refresh",
+					defaultValue = "PT0S",
+					paramLabel = "<Duration>",
+					description = "Allows to specify a duration after which the HTML page refreshes automatically\nExample for one second: PT1S") final Duration refreshRate,
+			@Option(names = "--metrics",
+					paramLabel = "<Path>",
+					description = "Path to write the Excel spreadsheet (XLSX) with metrics to") final Optional<Path> metrics,
+			@Option(names = "--extended",
+					defaultValue = "false",
+					description = "Adds additional metrics on ballot basis") final boolean extended,
+			@Option(names = "--awg-website",
+					paramLabel = "<Path>",
+					description = "Path to write the PHP file for the AWG web site to") final Optional<Path> awgWebsite,
+			@Option(names = "--polling-stations",
+					paramLabel = "<Folder>",
+					description = "Folder to write one result file per polling station to") final Optional<Path> pollingStations,
+			@Option(names = "--json",
+					paramLabel = "<Path>",
+					description = "Path to write the election result as JSON to") final Optional<Path> json,
+			@Mixin final WatchParameter watch) throws InterruptedException, IOException {
+		final PresentationFragmentCache cache = new PresentationFragmentCache();
+		try (ParallelOutputs outputs = new ParallelOutputs()) {
+			presentation.ifPresent(output -> outputs
+					.add(readResult -> writePresentationFile(readResult, Optional.of(refreshRate), output, cache)));
+			metrics.ifPresent(output -> outputs.add(readResult -> writeAtomic(output, tempFile -> {
+				try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+					MetricsFiles.write(readResult, outputStream, extended);
+				}
+			})));
+			awgWebsite.ifPresent(output -> outputs.add(readResult -> writeAtomic(output, tempFile -> {
+				try (Writer writer = Files.newBufferedWriter(tempFile)) {
+					AwgWebsiteFiles.write(readResult, writer);
+				}
+			})));
+			pollingStations
+					.ifPresent(folder -> outputs.add(readResult -> writePollingStationFiles(readResult, folder)));
+			json.ifPresent(output -> outputs.add(readResult -> writeAtomic(output, tempFile -> {
+				try (Writer writer = Files.newBufferedWriter(tempFile)) {
+					readResult.writeJson(writer);
+				}
+			})));
+			if (outputs.isEmpty()) {
+				throw new ParameterException(Nullables.orElseThrow(commandSpec).commandLine(),
+						"At least one output needs to be specified.");
+			}
+
+			final ThrowingConsumer<LocalElectionResult> handler = readResult -> {
+				outputs.write(Nullables.orElseThrow(readResult));
+				getStandardOutputWriter().println(String.format(FORMAT_UPDATED_AT, ZonedDateTime.now()));
+			};
+			handler.accept(result.read());
+			watch.watchIfRequested(result, handler);
+		}
+	}
+
+	/**
+	 * Serves the HTML presentation format for the election result using a local
+	 * HTTP server. The input files are watched for updates, which are pushed to
+	 * connected browsers.
+	 *
+	 * @param result         the result
+	 * @param host           the host name or address to listen on
+	 * @param port           the port to listen on
+	 * @param updateInterval controls how often the input files are read again
+	 * @throws InterruptedException if interrupted while watching for file changes
+	 * @throws IOException          on IO error
+	 */
+	@Command(showDefaultValues = true,
+			usageHelpWidth = USAGE_HELP_WIDTH,
+			description = "Serves the HTML presentation format for the election result using a local HTTP server.\nUpdates of the input files are pushed to connected browsers.")
+	public void serve(@Mixin final LocalElectionResultParameter result,
+			@Option(names = "--host",
+					defaultValue = "localhost",
+					paramLabel = "<Host>",
+					description = "Host name or address to listen on") final String host,
+			@Option(names = "--port",
+					defaultValue = "8080",
+					paramLabel = "<Port>",
+					description = "Port to listen on") final int port,
+			@Mixin final UpdateIntervalParameter updateInterval) throws InterruptedException, IOException {
+		try (PresentationServer server = new PresentationServer(new InetSocketAddress(host, port))) {
+			server.update(result.read());
+			getStandardOutputWriter().println(String.format("Serving at http://%s:%d/",
+					server.getAddress().getHostString(),
+					server.getAddress().getPort()));
+
+			updateInterval.watch(result, (ThrowingConsumer<LocalElectionResult>) readResult -> {
+				server.update(Nullables.orElseThrow(readResult));
+				getStandardOutputWriter().println(String.format(FORMAT_UPDATED_AT, ZonedDateTime.now()));
+			});
 		}
 	}
 
@@ -179,6 +356,8 @@ public class LocalElectionResultCli implements IVersionProvider {
 	 * @param start         start of the time-travel
 	 * @param end           end of the time-travel
 	 * @param noRefresh     disables automatic browser refreshing
+	 * @param export        writes a single static HTML file animating all steps
+	 *                      instead of rewriting {@code output} per step
 	 * @throws InterruptedException if interrupted while watching for file changes
 	 * @throws IOException          on IO error
 	 */
@@ -187,8 +366,6 @@ public class LocalElectionResultCli implements IVersionProvider {
 			"checkstyle:SuppressWarnings",
 			"PMD.AvoidInstantiatingObjectsInLoops",
 			"resource" })
-	@SuppressFBWarnings(value = "MDM_THREAD_YIELD",
-			justification = "There is really nothin to do for the thread in the meantime.")
 	@Command(name = "time-travel",
 			showDefaultValues = true,
 			usageHelpWidth = USAGE_HELP_WIDTH,
@@ -216,52 +393,41 @@ public class LocalElectionResultCli implements IVersionProvider {
 					description = "End of the time-travel") final DoubleToDoubleFunction end,
 			@Option(names = "--no-refresh",
 					defaultValue = "false",
-					description = "Disables automatic browser refreshing") final boolean noRefresh)
+					description = "Disables automatic browser refreshing") final boolean noRefresh,
+			@Option(names = "--export",
+					defaultValue = "false",
+					description = "Writes a single static HTML file animating all steps instead of rewriting FILE per step") final boolean export)
 			throws InterruptedException, IOException {
-		// Read full result
-		final LocalElectionResult fullResult = result.read();
-
-		// Calculate the loop arguments
-		// Double values are used to be as close to the percentage values as possible
-		final int numberOfAllBallots = fullResult.getBallots().size();
-		final double loopStart = start.applyAsDouble(numberOfAllBallots);
-		final double loopEnd = Math.min(end.applyAsDouble(numberOfAllBallots), numberOfAllBallots);
-		final double loopStepSize = stepSize.applyAsDouble(numberOfAllBallots);
-
-		for (double loopPosition = loopStart; loopPosition < loopEnd + loopStepSize; loopPosition += loopStepSize) {
-			// Calculate the correct discrete position and making sure it does not extend
-			// the number of all ballots
-			final int numberOfBallots = Math.min((int) loopPosition, (int) loopEnd);
+		final TimeTravelFrames frames = new TimeTravelFrames(result.read(), start, end, stepSize);
+		if (export) {
+			writeAtomic(output, tempFile -> {
+				try (Writer writer = Files.newBufferedWriter(tempFile)) {
+					PresentationFiles.writeTimeTravel(frames.results(), sleepDuration, writer);
+				}
+			});
+			getStandardOutputWriter().println(String.format("Exported at %1$tT %1$tZ", ZonedDateTime.now()));
+			return;
+		}
 
+		final int numberOfAllBallots = frames.getNumberOfAllBallots();
+		final PresentationFragmentCache cache = new PresentationFragmentCache();
+		frames.play(sleepDuration, frame -> {
 			// Stop refreshing the page when reached the end
-			final Optional<Duration> refreshRate = noRefresh || numberOfBallots >= numberOfAllBallots
+			final Optional<Duration> refreshRate = noRefresh || frame.getNumberOfBallots() >= numberOfAllBallots
 					? Optional.empty()
 					: Optional.of(sleepDuration);
+			writePresentationFile(frame.getResult(), refreshRate, output, cache);
 
-			// Create partial result and write the presentation file
-			final LocalElectionResult partialResult = new LocalElectionResult(fullResult.getElection(),
-					fullResult.getSainteLagueScale(),
-					fullResult.getNumberOfAllBallotsMap(),
-					fullResult.getDirectDrawResults(),
-					fullResult.getListDrawResults(),
-					fullResult.getBallots()
-							.stream()
-							.sorted(Comparator.comparing(LocalBallot::getPollingStation))
-							.limit(numberOfBallots)
-							.collect(toList()));
-			writePresentationFile(partialResult, refreshRate, output);
-
-			// Provide a user readable status and sleep
+			// Provide a user readable status
 			getStandardOutputWriter().println(String.format(
 					"Travelled to %"
 							+ Integer.toString(numberOfAllBallots).length()
 							+ "d of %d (%5.1f%%) at %4$tT %4$tZ",
-					numberOfBallots,
+					frame.getNumberOfBallots(),
 					numberOfAllBallots,
-					Math.min(loopPosition * HUNDRED / numberOfAllBallots, HUNDRED),
+					frame.getPercentage(),
 					ZonedDateTime.now()));
-			Thread.sleep(sleepDuration.toMillis());
-		}
+		});
 	}
 
 	/**
@@ -291,6 +457,60 @@ public class LocalElectionResultCli implements IVersionProvider {
 		commandSpec = null;
 	}
 
+	/**
+	 * Writes the result of the snapshot file {@code snapshot} as presentation file
+	 * to {@code output}. This allows showing the previous state instantly while the
+	 * input files are still being parsed.
+	 *
+	 * <p>
+	 * Invalid snapshot files are reported and ignored.
+	 *
+	 * @param result      the result
+	 * @param refreshRate the refresh rate of the HTML file or empty
+	 * @param output      the path to write to
+	 * @param snapshot    the path of the snapshot file
+	 * @param cache       the cache of rendered fragments
+	 * @throws IOException on IO error
+	 */
+	private void resumePresentationFile(final LocalElectionResultParameter result,
+			final Optional<Duration> refreshRate,
+			final Path output,
+			final Path snapshot,
+			final PresentationFragmentCache cache) throws IOException {
+		final LocalElectionResult resumedResult;
+		try (InputStream inputStream = Files.newInputStream(snapshot)) {
+			resumedResult = SnapshotFiles.read(result.readElection(), inputStream);
+		} catch (final ElectionException | IOException e) {
+			Nullables.orElseThrow(commandSpec)
+					.commandLine()
+					.getErr()
+					.println(String.format("Ignoring snapshot file \"%s\": %s", snapshot, e.getMessage()));
+			return;
+		}
+		writePresentationFile(resumedResult, refreshRate, output, cache);
+		getStandardOutputWriter().println(String.format("Resumed at %1$tT %1$tZ", ZonedDateTime.now()));
+	}
+
+	/**
+	 * Writes one result file per polling station of {@code result} to
+	 * {@code folder}. The files are named after the polling stations and written
+	 * atomic.
+	 *
+	 * @param result the result
+	 * @param folder the folder to write to
+	 * @throws IOException on IO error
+	 */
+	private void writePollingStationFiles(final LocalElectionResult result, final Path folder) throws IOException {
+		Files.createDirectories(folder);
+		for (final LocalPollingStation pollingStation : result.getElection().getPollingStations()) {
+			writeAtomic(folder.resolve(pollingStation.getName() + ".txt"), tempFile -> {
+				try (Writer writer = Files.newBufferedWriter(tempFile)) {
+					PollingStationResultFiles.write(result, pollingStation, writer);
+				}
+			});
+		}
+	}
+
 	/**
 	 * Writes {@code result} as presentation file to {@code output}. To avoid blank
 	 * browser screens writing is done to a temporary file beneath {@code output}
@@ -300,12 +520,46 @@ public class LocalElectionResultCli implements IVersionProvider {
 	 * @param result      the result
 	 * @param refreshRate the refresh rate of the HTML file or empty
 	 * @param output      the path to write to
+	 * @param cache       the cache of rendered fragments, reused between updates
 	 * @throws IOException on IO error
 	 */
-	@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "\"output\" is really expected to be a user input")
 	private void writePresentationFile(final LocalElectionResult result,
 			final Optional<Duration> refreshRate,
-			final Path output) throws IOException {
+			final Path output,
+			final PresentationFragmentCache cache) throws IOException {
+		writeAtomic(output, tempFile -> {
+			try (Writer writer = Files.newBufferedWriter(tempFile)) {
+				PresentationFiles.write(result, refreshRate, writer, cache);
+			}
+		});
+	}
+
+	/**
+	 * Writes a snapshot of {@code result} to {@code output}. Writing is done
+	 * atomic, so that an interrupted process never leaves a broken snapshot file.
+	 *
+	 * @param result the result
+	 * @param output the path to write to
+	 * @throws IOException on IO error
+	 */
+	private void writeSnapshotFile(final LocalElectionResult result, final Path output) throws IOException {
+		writeAtomic(output, tempFile -> {
+			try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+				SnapshotFiles.write(result, outputStream);
+			}
+		});
+	}
+
+	/**
+	 * Writes to a temporary file beneath {@code output} first using {@code writer}.
+	 * Either creating or overwriting {@code output} is done atomic afterwards.
+	 *
+	 * @param output the path to write to
+	 * @param writer writes the content to the given temporary file
+	 * @throws IOException on IO error
+	 */
+	@SuppressFBWarnings(value = "PATH_TRAVERSAL_IN", justification = "\"output\" is really expected to be a user input")
+	private void writeAtomic(final Path output, final ThrowingConsumer<Path> writer) throws IOException {
 		final Path outputParentFolder = output.toAbsolutePath().getParent();
 		if (outputParentFolder == null) {
 			throw new IllegalArgumentException(
@@ -318,9 +572,7 @@ public class LocalElectionResultCli implements IVersionProvider {
 		tempFile.toFile().deleteOnExit();
 
 		// Write temporary file
-		try (Writer writer = Files.newBufferedWriter(tempFile)) {
-			PresentationFiles.write(result, refreshRate, writer);
-		}
+		writer.accept(tempFile);
 
 		// Move atomic
 		Files.move(tempFile, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
@@ -1,27 +1,48 @@
 package de.larssh.election.germany.schleswigholstein.local.cli;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
-import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static java.util.Collections.unmodifiableMap;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
+import java.util.zip.CRC32;
 
 import de.larssh.election.germany.schleswigholstein.ElectionException;
 import de.larssh.election.germany.schleswigholstein.local.LocalElection;
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultBuilder;
 import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
 import de.larssh.election.germany.schleswigholstein.local.cli.FilesWatchService.FileWatchResult;
 import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFileLineParseException;
 import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFileParseException;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFileTail;
 import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFiles;
 import de.larssh.utils.Nullables;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -40,6 +61,11 @@ import picocli.CommandLine.Spec;
  */
 @RequiredArgsConstructor
 public class LocalElectionResultParameter {
+	/**
+	 * Maximum number of threads to read result files concurrently
+	 */
+	private static final int MAX_READ_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
 	/**
 	 * Path to the election data
 	 */
@@ -71,6 +97,17 @@ public class LocalElectionResultParameter {
 			description = "Any number of key-value pairs with the polling station as key and a path to the corresponding result file as value")
 	Map<String, Path> resultPaths = emptyMap();
 
+	/**
+	 * Cache of the election and the results while watching
+	 *
+	 * <p>
+	 * {@link #read()} reads the election using this cache, too. Therefore
+	 * {@link #watch(Consumer, Duration, Duration)} passes results of the same
+	 * election instance as long as the content of the election file does not
+	 * change.
+	 */
+	WatchedFiles watchedFiles = new WatchedFiles();
+
 	/**
 	 * Current {@link CommandSpec} instance
 	 */
@@ -113,17 +150,43 @@ public class LocalElectionResultParameter {
 	 * loops endlessly and does not return control except an exception is thrown.
 	 *
 	 * <p>
-	 * Results are read using {@link #read()}. Therefore some specific parsing
+	 * Results are read similar to {@link #read()}. Therefore some specific parsing
 	 * errors might be written to standard out while processing continues with a
 	 * probably incomplete result.
 	 *
-	 * @param handler the consumer handling the latest {@link LocalElectionResult}
+	 * <p>
+	 * Only files named by the watch events are checked for changes. Files, whose
+	 * content did not change, are not parsed again. Result files are followed using
+	 * {@link PollingStationResultFileTail}, so that only lines appended since the
+	 * previous event are parsed. The election and the tallies are kept as long as
+	 * the content of the election file does not change.
+	 *
+	 * <p>
+	 * Events are debounced and coalesced by a {@link RenderScheduler}, so that the
+	 * results are read and {@code handler} is executed on a separate thread while
+	 * the watching thread never blocks. Exceptions of reading or of {@code handler}
+	 * are printed and watching continues.
+	 *
+	 * @param handler        the consumer handling the latest
+	 *                       {@link LocalElectionResult}
+	 * @param quietPeriod    duration without further events to wait before reading
+	 * @param renderInterval minimum duration between two executions of
+	 *                       {@code handler}
 	 * @throws InterruptedException if interrupted while watching for file changes
 	 * @throws IOException          on IO error
 	 */
 	@SuppressWarnings({ "resource", "checkstyle:SuppressWarnings" })
-	public void watch(final Consumer<LocalElectionResult> handler) throws InterruptedException, IOException {
-		try (FilesWatchService fileWatchService = new FilesWatchService()) {
+	public void watch(final Consumer<LocalElectionResult> handler,
+			final Duration quietPeriod,
+			final Duration renderInterval) throws InterruptedException, IOException {
+		try (FilesWatchService fileWatchService = new FilesWatchService();
+				RenderScheduler renderScheduler = new RenderScheduler(quietPeriod, renderInterval, changedPaths -> {
+					try {
+						handler.accept(watchedFiles.read(changedPaths));
+					} catch (final IOException e) {
+						e.printStackTrace(getCommandSpec().commandLine().getErr());
+					}
+				}, throwable -> throwable.printStackTrace(getCommandSpec().commandLine().getErr()))) {
 			fileWatchService.register(getElectionPath(), ENTRY_CREATE, ENTRY_MODIFY);
 			for (final Path path : getResultPaths().values()) {
 				fileWatchService.register(path, ENTRY_CREATE, ENTRY_MODIFY);
@@ -132,9 +195,7 @@ public class LocalElectionResultParameter {
 			// Loop endlessly
 			while (true) {
 				try (FileWatchResult fileWatchResult = fileWatchService.watch()) {
-					handler.accept(read());
-				} catch (final IOException e) {
-					e.printStackTrace(getCommandSpec().commandLine().getErr());
+					renderScheduler.schedule(fileWatchResult.getEvents().keySet());
 				}
 			}
 		}
@@ -152,41 +213,185 @@ public class LocalElectionResultParameter {
 		commandSpec = null;
 	}
 
+	/**
+	 * Creates a thread factory for reading result files. Virtual threads are used
+	 * if the runtime supports them, else daemon platform threads.
+	 *
+	 * @return the thread factory
+	 */
+	private static ThreadFactory createThreadFactory() {
+		try {
+			final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+		} catch (final ReflectiveOperationException e) {
+			return runnable -> {
+				final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+				thread.setDaemon(true);
+				return thread;
+			};
+		}
+	}
+
 	/**
 	 * Reads all results specified by {@link #resultPaths} and merges them all
 	 * together.
 	 *
+	 * <p>
+	 * Result files are parsed concurrently on a bounded number of threads. All
+	 * results are merged once at the end.
+	 *
 	 * @return one result containing multiple results
 	 * @throws IOException on IO error
 	 */
-	@SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
 	public LocalElectionResult read() throws IOException {
-		// Read Election
-		final LocalElection election;
+		final LocalElection election
+				= watchedFiles.readElection(singleton(getElectionPath().toAbsolutePath().normalize()));
+		final Map<Path, Callable<LocalElectionResult>> readers = new LinkedHashMap<>();
+		for (final Entry<LocalPollingStation, Path> entry : getPollingStationPaths(election).entrySet()) {
+			readers.put(entry.getValue(), () -> readSingleResult(election, entry.getKey(), entry.getValue()));
+		}
+		return merge(election, readResults(readers));
+	}
+
+	/**
+	 * Reads the election specified by {@link #electionPath}.
+	 *
+	 * @return the election
+	 * @throws IOException on IO error
+	 */
+	public LocalElection readElection() throws IOException {
 		try (Reader reader = Files.newBufferedReader(getElectionPath())) {
-			election = LocalElection.fromJson(reader);
+			return LocalElection.fromJson(reader);
 		}
+	}
 
-		// Read all Election Results
-		LocalElectionResult result = new LocalElectionResult(election,
-				getSainteLagueScale(),
-				emptyMap(),
-				emptySet(),
-				emptySet(),
-				emptyList());
+	/**
+	 * Finds the polling stations of {@link #resultPaths}.
+	 *
+	 * @param election the election
+	 * @return the paths to the polling station results files by polling station
+	 */
+	private Map<LocalPollingStation, Path> getPollingStationPaths(final LocalElection election) {
+		final Map<LocalPollingStation, Path> pollingStationPaths = new LinkedHashMap<>();
 		for (final Entry<String, Path> resultPath : getResultPaths().entrySet()) {
-			// Find Polling Station
 			final LocalPollingStation pollingStation = election.getPollingStations()
 					.stream()
 					.filter(district -> resultPath.getKey().equals(district.getName()))
 					.findAny()
 					.orElseThrow(() -> new ElectionException("Cannot find a polling station named \"%s\".",
 							resultPath.getKey()));
+			pollingStationPaths.put(pollingStation, resultPath.getValue());
+		}
+		return pollingStationPaths;
+	}
+
+	/**
+	 * Merges the results of all polling stations into one result.
+	 *
+	 * @param election the election
+	 * @param results  the results of all polling stations
+	 * @return one result containing multiple results
+	 */
+	private LocalElectionResult merge(final LocalElection election, final List<LocalElectionResult> results) {
+		return new LocalElectionResultBuilder(election, getSainteLagueScale()).mergeAll(results).build();
+	}
+
+	/**
+	 * Reads election results concurrently.
+	 *
+	 * <p>
+	 * Parsing errors are reported in the order of {@code readers}.
+	 *
+	 * @param readers the functions reading the polling station results by the paths
+	 *                to the polling station results files
+	 * @return the loaded results in the order of {@code readers}
+	 * @throws IOException on IO error
+	 */
+	@SuppressWarnings({ "checkstyle:IllegalCatch", "PMD.AvoidCatchingGenericException" })
+	private List<LocalElectionResult> readResults(final Map<Path, Callable<LocalElectionResult>> readers)
+			throws IOException {
+		if (readers.isEmpty()) {
+			return emptyList();
+		}
 
-			// Read Election Results of Polling Station
-			result = result.add(readSingleResult(election, pollingStation, resultPath.getValue()));
+		final ExecutorService executorService
+				= Executors.newFixedThreadPool(Math.min(readers.size(), MAX_READ_THREADS), createThreadFactory());
+		try {
+			final Map<Path, Future<LocalElectionResult>> futures = new LinkedHashMap<>();
+			for (final Entry<Path, Callable<LocalElectionResult>> entry : readers.entrySet()) {
+				futures.put(entry.getKey(), executorService.submit(entry.getValue()));
+			}
+
+			final List<LocalElectionResult> results = new ArrayList<>(futures.size());
+			for (final Entry<Path, Future<LocalElectionResult>> future : futures.entrySet()) {
+				results.add(getResult(future.getKey(), future.getValue()));
+			}
+			return results;
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * Waits for the result of reading a single election result file. Parsing errors
+	 * are printed to standard error and the incomplete result is returned.
+	 *
+	 * @param path   the path to the polling station results file
+	 * @param future the future of reading {@code path}
+	 * @return the loaded result
+	 * @throws IOException on IO error
+	 */
+	@SuppressFBWarnings(value = "INFORMATION_EXPOSURE_THROUGH_AN_ERROR_MESSAGE",
+			justification = "There should be no risk by the exposure of internal information to the user here.")
+	private LocalElectionResult getResult(final Path path, final Future<LocalElectionResult> future)
+			throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof PollingStationResultFileParseException) {
+				printParseException(path, (PollingStationResultFileParseException) cause);
+				return ((PollingStationResultFileParseException) cause).getIncompleteResult();
+			}
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Prints the line parse exceptions of {@code exception} to standard error.
+	 *
+	 * @param path      the path to the polling station results file
+	 * @param exception the parse exception
+	 */
+	@SuppressWarnings({ "checkstyle:SuppressWarnings", "resource" })
+	private void printParseException(final Path path, final PollingStationResultFileParseException exception) {
+		for (final PollingStationResultFileLineParseException lineException : exception
+				.getSuppressedLineParseExceptions()) {
+			getCommandSpec().commandLine()
+					.getErr()
+					.println(String.format("Line %d of \"%s\": %-70s | %s",
+							lineException.getLineNumber(),
+							path.getFileName(),
+							lineException.getMessage(),
+							lineException.getLineContent()));
+
+			final Throwable cause = lineException.getCause();
+			if (cause != null && !(cause instanceof ElectionException)) {
+				cause.printStackTrace(getCommandSpec().commandLine().getErr());
+			}
 		}
-		return result;
 	}
 
 	/**
@@ -196,33 +401,183 @@ public class LocalElectionResultParameter {
 	 * @param pollingStation the polling station to read results for
 	 * @param path           the path to the polling station results file to load
 	 * @return the loaded result
-	 * @throws IOException on IO error
+	 * @throws IOException                            on IO error
+	 * @throws PollingStationResultFileParseException on parsing errors
 	 */
-	@SuppressWarnings({ "checkstyle:SuppressWarnings", "resource" })
-	@SuppressFBWarnings(value = "INFORMATION_EXPOSURE_THROUGH_AN_ERROR_MESSAGE",
-			justification = "There should be no risk by the exposure of internal information to the user here.")
-	private LocalElectionResult readSingleResult(final LocalElection election,
+	private static LocalElectionResult readSingleResult(final LocalElection election,
 			final LocalPollingStation pollingStation,
 			final Path path) throws IOException {
 		try (Reader reader = Files.newBufferedReader(path)) {
 			return PollingStationResultFiles.read(election, pollingStation, reader);
-		} catch (final PollingStationResultFileParseException e) {
-			for (final PollingStationResultFileLineParseException lineException : e
-					.getSuppressedLineParseExceptions()) {
-				getCommandSpec().commandLine()
-						.getErr()
-						.println(String.format("Line %d of \"%s\": %-70s | %s",
-								lineException.getLineNumber(),
-								path.getFileName(),
-								lineException.getMessage(),
-								lineException.getLineContent()));
-
-				final Throwable cause = lineException.getCause();
-				if (cause != null && !(cause instanceof ElectionException)) {
-					cause.printStackTrace(getCommandSpec().commandLine().getErr());
+		}
+	}
+
+	/**
+	 * Caches the election and the results of the polling stations while watching
+	 *
+	 * <p>
+	 * The election file is cached by its path and content checksum and is parsed
+	 * again only if its checksum changed. Result files are cached by their path,
+	 * size and last modified time, so that unchanged result files are not read at
+	 * all. Changed result files are followed using
+	 * {@link PollingStationResultFileTail}, which parses appended lines only and
+	 * parses the file again if previously parsed content changed.
+	 */
+	private class WatchedFiles {
+		/**
+		 * CRC-32 checksum of the election file the current election was read from
+		 */
+		@NonFinal
+		long electionChecksum = 0;
+
+		/**
+		 * Current election or {@code null} if not read, yet
+		 */
+		@NonFinal
+		@Nullable
+		LocalElection election = null;
+
+		/**
+		 * Tails of the result files by absolute path
+		 */
+		Map<Path, PollingStationResultFileTail> tails = new ConcurrentHashMap<>();
+
+		/**
+		 * Sizes of the result files by absolute path as of their latest read
+		 */
+		Map<Path, Long> sizes = new ConcurrentHashMap<>();
+
+		/**
+		 * Last modified times of the result files by absolute path as of their latest
+		 * read
+		 */
+		Map<Path, FileTime> lastModifiedTimes = new ConcurrentHashMap<>();
+
+		/**
+		 * Results of the latest read of the result files by absolute path. In case of
+		 * parsing errors the incomplete result is cached, so that parsing errors are
+		 * reported only when reading a file, but not for unchanged files.
+		 */
+		Map<Path, LocalElectionResult> results = new ConcurrentHashMap<>();
+
+		/**
+		 * Reads the results specified by {@link #resultPaths} and merges them all
+		 * together. Only files inside {@code changedPaths} and files not read before
+		 * are checked for changes.
+		 *
+		 * <p>
+		 * In case the content of the election file changed, all result files are read
+		 * from their start again.
+		 *
+		 * @param changedPaths the absolute paths of changed files
+		 * @return one result containing multiple results
+		 * @throws IOException on IO error
+		 */
+		public LocalElectionResult read(final Collection<Path> changedPaths) throws IOException {
+			final LocalElection current = readElection(changedPaths);
+
+			final Map<Path, Callable<LocalElectionResult>> readers = new LinkedHashMap<>();
+			for (final Entry<LocalPollingStation, Path> entry : getPollingStationPaths(current).entrySet()) {
+				final Path path = entry.getValue().toAbsolutePath().normalize();
+				final LocalElectionResult cachedResult = results.get(path);
+				if (cachedResult == null || changedPaths.contains(path)) {
+					readers.put(entry.getValue(), () -> readResult(current, entry.getKey(), path));
+				} else {
+					readers.put(entry.getValue(), () -> cachedResult);
 				}
 			}
-			return e.getIncompleteResult();
+			return merge(current, readResults(readers));
+		}
+
+		/**
+		 * Reads the election file in case it is not read, yet, or its content changed.
+		 * All cached results are dropped if the election changed.
+		 *
+		 * @param changedPaths the absolute paths of changed files
+		 * @return the current election
+		 * @throws IOException on IO error
+		 */
+		private LocalElection readElection(final Collection<Path> changedPaths) throws IOException {
+			final LocalElection cachedElection = election;
+			final Path path = getElectionPath().toAbsolutePath().normalize();
+			if (cachedElection != null && !changedPaths.contains(path)) {
+				return cachedElection;
+			}
+
+			final byte[] content = Files.readAllBytes(path);
+			final CRC32 checksum = new CRC32();
+			checksum.update(content, 0, content.length);
+			if (cachedElection != null && checksum.getValue() == electionChecksum) {
+				return cachedElection;
+			}
+
+			final LocalElection newElection;
+			try (Reader reader = new InputStreamReader(new ByteArrayInputStream(content), UTF_8)) {
+				newElection = LocalElection.fromJson(reader);
+			}
+			election = newElection;
+			electionChecksum = checksum.getValue();
+			tails.clear();
+			sizes.clear();
+			lastModifiedTimes.clear();
+			results.clear();
+			return newElection;
+		}
+
+		/**
+		 * Reads the result file {@code path} in case it is not read, yet, or its size
+		 * or last modified time changed.
+		 *
+		 * <p>
+		 * Parsing errors are thrown only when actually reading the file. Unchanged
+		 * files return their cached, possibly incomplete result instead.
+		 *
+		 * @param election       the election
+		 * @param pollingStation the polling station to read results for
+		 * @param path           the absolute path to the polling station results file
+		 * @return the loaded result
+		 * @throws IOException                            on IO error
+		 * @throws PollingStationResultFileParseException on parsing errors
+		 */
+		private LocalElectionResult readResult(final LocalElection election,
+				final LocalPollingStation pollingStation,
+				final Path path) throws IOException {
+			final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			final LocalElectionResult cachedResult = results.get(path);
+			if (cachedResult != null
+					&& Long.valueOf(attributes.size()).equals(sizes.get(path))
+					&& attributes.lastModifiedTime().equals(lastModifiedTimes.get(path))) {
+				return cachedResult;
+			}
+
+			// The tail compares the previously parsed content itself, so that corrected
+			// lines are detected without reading the file twice.
+			final PollingStationResultFileTail tail = tails.computeIfAbsent(path,
+					key -> new PollingStationResultFileTail(election, pollingStation, key));
+			try {
+				return cache(path, attributes, tail.read());
+			} catch (final PollingStationResultFileParseException e) {
+				cache(path, attributes, e.getIncompleteResult());
+				throw e;
+			}
+		}
+
+		/**
+		 * Caches {@code result} as the result of the result file {@code path} with
+		 * {@code attributes}.
+		 *
+		 * @param path       the absolute path to the polling station results file
+		 * @param attributes the attributes of the file as of reading it
+		 * @param result     the result to cache
+		 * @return {@code result}
+		 */
+		private LocalElectionResult cache(final Path path,
+				final BasicFileAttributes attributes,
+				final LocalElectionResult result) {
+			sizes.put(path, attributes.size());
+			lastModifiedTimes.put(path, attributes.lastModifiedTime());
+			results.put(path, result);
+			return result;
 		}
 	}
 }
@@ -0,0 +1,131 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.utils.SneakyException;
+import de.larssh.utils.annotations.PackagePrivate;
+import de.larssh.utils.function.ThrowingConsumer;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NoArgsConstructor;
+import lombok.experimental.NonFinal;
+
+/**
+ * Writes multiple outputs of the same election result in parallel
+ *
+ * <p>
+ * Each output is written on a separate thread, while all of them share the same
+ * immutable {@link LocalElectionResult}. Therefore reading the input files and
+ * calculating the result happens once per update, no matter the number of
+ * outputs. {@link #write(LocalElectionResult)} returns after all outputs were
+ * written, so that an output is never written by two threads at the same time.
+ */
+@PackagePrivate
+@NoArgsConstructor
+final class ParallelOutputs implements Closeable {
+	/**
+	 * Output writers
+	 */
+	List<ThrowingConsumer<LocalElectionResult>> writers = new ArrayList<>();
+
+	/**
+	 * Executor writing the outputs or {@code null} before the first write
+	 */
+	@Nullable
+	@NonFinal
+	ExecutorService executor = null;
+
+	/**
+	 * Adds an output writer.
+	 *
+	 * @param writer writes an election result to the output
+	 * @return this for chaining
+	 */
+	@PackagePrivate
+	ParallelOutputs add(final ThrowingConsumer<LocalElectionResult> writer) {
+		writers.add(writer);
+		return this;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Determines if no output writer was added.
+	 *
+	 * @return {@code true} if there is no output writer, else {@code false}
+	 */
+	@PackagePrivate
+	boolean isEmpty() {
+		return writers.isEmpty();
+	}
+
+	/**
+	 * Writes {@code result} to all outputs in parallel and waits for all of them to
+	 * finish. In case of failures the first failure is thrown after all outputs
+	 * finished, with further failures added as suppressed.
+	 *
+	 * @param result the election result to write
+	 * @throws InterruptedException if interrupted while waiting for the outputs
+	 * @throws IOException          on IO error
+	 */
+	@PackagePrivate
+	void write(final LocalElectionResult result) throws InterruptedException, IOException {
+		final List<Future<?>> futures = new ArrayList<>(writers.size());
+		for (final ThrowingConsumer<LocalElectionResult> writer : writers) {
+			futures.add(getExecutor().submit(() -> {
+				writer.acceptThrowing(result);
+				return null;
+			}));
+		}
+
+		Throwable failure = null;
+		for (final Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (final ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				} else {
+					failure.addSuppressed(e.getCause());
+				}
+			}
+		}
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		}
+		if (failure != null) {
+			throw new SneakyException(failure);
+		}
+	}
+
+	/**
+	 * Executor writing the outputs with one thread per output, created on first use
+	 *
+	 * @return the executor
+	 */
+	private ExecutorService getExecutor() {
+		ExecutorService currentExecutor = executor;
+		if (currentExecutor == null) {
+			currentExecutor = Executors.newFixedThreadPool(writers.size(), runnable -> {
+				final Thread thread = new Thread(runnable, ParallelOutputs.class.getSimpleName());
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor = currentExecutor;
+		}
+		return currentExecutor;
+	}
+}
@@ -0,0 +1,604 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.file.PresentationFiles;
+import de.larssh.election.germany.schleswigholstein.local.file.PresentationFragmentCache;
+import de.larssh.utils.annotations.PackagePrivate;
+import de.larssh.utils.text.SplitLimit;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.NonFinal;
+
+/**
+ * Serves the presentation of an election result from memory using the JDK's
+ * built-in HTTP server
+ *
+ * <p>
+ * The page is rendered and compressed once per {@link #update}. Requests for
+ * the page are answered using ETags, so that unchanged pages are not
+ * transferred again. Uncompressed and compressed bodies carry different ETags.
+ * Browsers subscribe to Server-Sent Events at {@value #PATH_EVENTS}, which push
+ * the version of the page on each update. A script injected into the page
+ * reloads its content on such events instead of refreshing periodically. Newly
+ * connected streams start at the version of the {@code Last-Event-ID} request
+ * header or the version embedded into the served page, so that events are
+ * pushed on actual changes only and no change is missed in between. The number
+ * of concurrent event streams is limited, as each stream occupies a thread.
+ * Clients rejected due to that limit retry after some time.
+ */
+@PackagePrivate
+final class PresentationServer implements Closeable {
+	/**
+	 * Path of the presentation page
+	 */
+	private static final String PATH_PAGE = "/";
+
+	/**
+	 * Path of the Server-Sent Events
+	 */
+	private static final String PATH_EVENTS = "/events";
+
+	/**
+	 * Interval of comments keeping idle event streams alive in milliseconds
+	 */
+	private static final long KEEP_ALIVE_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+	/**
+	 * Maximum number of concurrent event streams
+	 */
+	private static final int MAX_EVENT_STREAMS = 64;
+
+	/**
+	 * Time in seconds after which clients retry connecting to the event stream in
+	 * case the server is unavailable
+	 */
+	private static final int RETRY_AFTER_SECONDS = 5;
+
+	/**
+	 * HTML end tag of the head element, which the script is injected before
+	 */
+	private static final String HEAD_END_TAG = "</head>";
+
+	/**
+	 * Name of the query parameter of event streams holding the ID of the last event
+	 * known to the client
+	 */
+	private static final String PARAMETER_LAST_EVENT_ID = "lastEventId";
+
+	/**
+	 * Pattern matching the value of {@link #PARAMETER_LAST_EVENT_ID} inside a raw
+	 * query string
+	 */
+	private static final Pattern QUERY_LAST_EVENT_ID
+			= Pattern.compile("(^|&)" + PARAMETER_LAST_EVENT_ID + "=(?<id>[^&]*)");
+
+	/**
+	 * Pattern matching event IDs, consisting of {@link #etagPrefix} and the version
+	 */
+	private static final Pattern LAST_EVENT_ID = Pattern.compile("(?<prefix>[0-9a-z]+)-(?<version>[0-9]{1,18})");
+
+	/**
+	 * Pattern matching a single content coding of the {@code Accept-Encoding}
+	 * request header, optionally weighted by a quality value
+	 */
+	private static final Pattern ACCEPT_ENCODING_CODING = Pattern.compile(
+			"\\s*(?<coding>[!#$%&'*+.^_`|~0-9A-Za-z-]+)\\s*(;\\s*[qQ]\\s*=\\s*(?<quality>[01](\\.[0-9]{0,3})?))?\\s*");
+
+	/**
+	 * HTTP header name for the content type
+	 */
+	private static final String HEADER_CONTENT_TYPE = "Content-Type";
+
+	/**
+	 * HTTP header name for cache control
+	 */
+	private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+
+	/**
+	 * HTTP header name for the accepted content encodings
+	 */
+	private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+
+	/**
+	 * HTTP content encoding of GZIP compressed bodies
+	 */
+	private static final String GZIP = "gzip";
+
+	/**
+	 * HTTP content encoding of GZIP compressed bodies, deprecated alias
+	 */
+	private static final String X_GZIP = "x-gzip";
+
+	/**
+	 * HTTP content coding matching any coding not listed explicitly
+	 */
+	private static final String ANY_CODING = "*";
+
+	/**
+	 * HTTP header name for the time after which to retry
+	 */
+	private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+	/**
+	 * HTTP header value disallowing to use cached responses without validation
+	 */
+	private static final String NO_CACHE = "no-cache";
+
+	/**
+	 * Creates the script reloading the page's content on Server-Sent Events. The
+	 * event stream starts at {@code eventId}, which is the ID of the event of the
+	 * page the script is part of. That way updates published between serving the
+	 * page and connecting to the event stream are pushed, too.
+	 *
+	 * @param eventId the ID of the event of the page
+	 * @return the script
+	 */
+	private static String createScript(final String eventId) {
+		return "<script>//<![CDATA[\n"
+				+ "if (window.EventSource && window === window.parent) {\n"
+				+ "\tlet lastEventId = '"
+				+ eventId
+				+ "';\n"
+				+ "\tconst reload = () => fetch(location.href, { cache: 'no-cache' })\n"
+				+ "\t\t.then((response) => response.text())\n"
+				+ "\t\t.then((text) => document.body.replaceWith(new DOMParser().parseFromString(text, 'text/html').body));\n"
+				+ "\tconst connect = () => {\n"
+				+ "\t\tconst source = new EventSource('"
+				+ PATH_EVENTS.substring(1)
+				+ "?"
+				+ PARAMETER_LAST_EVENT_ID
+				+ "=' + encodeURIComponent(lastEventId));\n"
+				+ "\t\tsource.onmessage = (event) => {\n"
+				+ "\t\t\tlastEventId = event.lastEventId;\n"
+				+ "\t\t\treload();\n"
+				+ "\t\t};\n"
+				+ "\t\tsource.addEventListener('error', () => {\n"
+				+ "\t\t\tif (source.readyState === EventSource.CLOSED) {\n"
+				+ "\t\t\t\tsetTimeout(() => reload().finally(connect), "
+				+ TimeUnit.SECONDS.toMillis(RETRY_AFTER_SECONDS)
+				+ ");\n"
+				+ "\t\t\t}\n"
+				+ "\t\t});\n"
+				+ "\t};\n"
+				+ "\tconnect();\n"
+				+ "}\n"
+				+ "//]]></script>\n\t";
+	}
+
+	/**
+	 * Compresses {@code bytes} using GZIP.
+	 *
+	 * @param bytes the bytes to compress
+	 * @return the compressed bytes
+	 * @throws IOException on IO error
+	 */
+	private static byte[] gzip(final byte[] bytes) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (OutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+			gzipOutputStream.write(bytes);
+		}
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Checks if {@code acceptEncoding} accepts GZIP compressed bodies. GZIP is
+	 * accepted if listed with a positive quality value. If GZIP is not listed, the
+	 * wildcard coding decides. Content codings with a quality value of zero are not
+	 * acceptable.
+	 *
+	 * @param acceptEncoding the value of the {@code Accept-Encoding} request header
+	 *                       or {@code null}
+	 * @return {@code true} if GZIP compressed bodies are accepted
+	 */
+	@PackagePrivate
+	static boolean isGzipAccepted(@Nullable final String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+
+		boolean gzipListed = false;
+		boolean gzipAccepted = false;
+		boolean anyAccepted = false;
+		for (final String coding : acceptEncoding.split(",", SplitLimit.NO_LIMIT)) {
+			final Matcher matcher = ACCEPT_ENCODING_CODING.matcher(coding);
+			if (matcher.matches()) {
+				final String quality = matcher.group("quality");
+				final boolean accepted = quality == null || Double.parseDouble(quality) > 0;
+				final String name = matcher.group("coding");
+				if (GZIP.equalsIgnoreCase(name) || X_GZIP.equalsIgnoreCase(name)) {
+					gzipListed = true;
+					gzipAccepted |= accepted;
+				} else if (ANY_CODING.equals(name)) {
+					anyAccepted = accepted;
+				}
+			}
+		}
+		return gzipListed ? gzipAccepted : anyAccepted;
+	}
+
+	/**
+	 * The HTTP server
+	 */
+	HttpServer server;
+
+	/**
+	 * Executor handling requests, including long-running event streams
+	 */
+	ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		final Thread thread = new Thread(runnable, PresentationServer.class.getSimpleName());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Permits of concurrent event streams, limiting the threads occupied by event
+	 * streams
+	 */
+	Semaphore eventStreams;
+
+	/**
+	 * Cache of rendered fragments, reused between updates
+	 */
+	PresentationFragmentCache cache = new PresentationFragmentCache();
+
+	/**
+	 * Prefix of ETags to distinguish pages of multiple server runs
+	 */
+	String etagPrefix = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+	/**
+	 * Lock guarding {@link #page}
+	 */
+	Lock lock = new ReentrantLock();
+
+	/**
+	 * Condition signaled on updates of {@link #page}
+	 */
+	Condition updated = lock.newCondition();
+
+	/**
+	 * The current page or {@code null} before the first update
+	 *
+	 * <p>
+	 * The page is replaced under {@link #lock}, while requests for the page read it
+	 * without locking.
+	 */
+	@Nullable
+	@NonFinal
+	volatile Page page = null;
+
+	/**
+	 * Creates and starts a presentation server listening on {@code address}.
+	 *
+	 * @param address the address to listen on
+	 * @throws IOException on IO error
+	 */
+	@PackagePrivate
+	PresentationServer(final InetSocketAddress address) throws IOException {
+		this(address, MAX_EVENT_STREAMS);
+	}
+
+	/**
+	 * Creates and starts a presentation server listening on {@code address},
+	 * serving at most {@code maxEventStreams} event streams at the same time.
+	 *
+	 * @param address         the address to listen on
+	 * @param maxEventStreams the maximum number of concurrent event streams
+	 * @throws IOException on IO error
+	 */
+	@PackagePrivate
+	PresentationServer(final InetSocketAddress address, final int maxEventStreams) throws IOException {
+		eventStreams = new Semaphore(maxEventStreams);
+		server = HttpServer.create(address, 0);
+		server.setExecutor(executor);
+		server.createContext(PATH_PAGE, exchange -> {
+			try {
+				handlePage(exchange);
+			} finally {
+				exchange.close();
+			}
+		});
+		server.createContext(PATH_EVENTS, exchange -> {
+			try {
+				handleEvents(exchange);
+			} finally {
+				exchange.close();
+			}
+		});
+		server.start();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * The address the server listens on
+	 *
+	 * @return the address the server listens on
+	 */
+	@PackagePrivate
+	InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	/**
+	 * Renders {@code result} and pushes its version to all event streams.
+	 *
+	 * @param result the election result to present
+	 * @throws IOException on IO error
+	 */
+	@PackagePrivate
+	void update(final LocalElectionResult result) throws IOException {
+		final StringWriter writer = new StringWriter();
+		PresentationFiles.write(result, Optional.empty(), writer, cache);
+		publish(writer.toString());
+	}
+
+	/**
+	 * Publishes {@code html} as new version of the page and notifies the clients of
+	 * event streams.
+	 *
+	 * <p>
+	 * The page embeds its own event ID, so that the event stream of its client
+	 * starts at the served version instead of the version current at connecting.
+	 *
+	 * @param html the HTML content of the page
+	 * @throws IOException on IO error
+	 */
+	@PackagePrivate
+	void publish(final String html) throws IOException {
+		final int headEnd = html.indexOf(HEAD_END_TAG);
+
+		lock.lock();
+		try {
+			final long version = page == null ? 1 : page.getVersion() + 1;
+			final String etag = etagPrefix + '-' + version;
+			final String script = createScript(etag);
+			final byte[] bytes = (headEnd == -1 ? html : html.substring(0, headEnd) + script + html.substring(headEnd))
+					.getBytes(StandardCharsets.UTF_8);
+			final byte[] gzipBytes = gzip(bytes);
+			page = new Page(version, '"' + etag + '"', '"' + etag + '-' + GZIP + '"', bytes, gzipBytes);
+			updated.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits for a page with a version other than {@code version} for at most
+	 * {@code timeoutMillis}.
+	 *
+	 * @param version       the version known to the caller
+	 * @param timeoutMillis the maximum time to wait in milliseconds
+	 * @return the current page or {@code null} before the first update
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	@Nullable
+	private Page awaitPage(final long version, final long timeoutMillis) throws InterruptedException {
+		lock.lock();
+		try {
+			if (page == null || page.getVersion() == version) {
+				updated.await(timeoutMillis, TimeUnit.MILLISECONDS);
+			}
+			return page;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Answers requests for the presentation page. Unchanged pages are answered with
+	 * {@code 304 Not Modified} and compressed bodies are sent to clients accepting
+	 * them.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @throws IOException on IO error
+	 */
+	private void handlePage(final HttpExchange exchange) throws IOException {
+		final Page current = page;
+		final Headers responseHeaders = exchange.getResponseHeaders();
+		if (!PATH_PAGE.equals(exchange.getRequestURI().getPath())) {
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+			return;
+		}
+		if (current == null) {
+			responseHeaders.set(HEADER_RETRY_AFTER, "1");
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+			return;
+		}
+
+		final boolean gzip = isGzipAccepted(exchange.getRequestHeaders().getFirst(HEADER_ACCEPT_ENCODING));
+		final String etag = gzip ? current.getGzipEtag() : current.getEtag();
+		responseHeaders.set("ETag", etag);
+		responseHeaders.set(HEADER_CACHE_CONTROL, NO_CACHE);
+		responseHeaders.set("Vary", HEADER_ACCEPT_ENCODING);
+		final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+		if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+			return;
+		}
+
+		final byte[] body = gzip ? current.getGzipBytes() : current.getBytes();
+		responseHeaders.set(HEADER_CONTENT_TYPE, "text/html; charset=UTF-8");
+		if (gzip) {
+			responseHeaders.set("Content-Encoding", GZIP);
+		}
+		if ("HEAD".equals(exchange.getRequestMethod())) {
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, -1);
+		} else {
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+			exchange.getResponseBody().write(body);
+		}
+	}
+
+	/**
+	 * Streams Server-Sent Events with the page's version until the client
+	 * disconnects or the server stops. Clients are answered with
+	 * {@code 503 Service Unavailable} while the maximum number of event streams is
+	 * reached.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @throws IOException on IO error, including disconnected clients
+	 */
+	private void handleEvents(final HttpExchange exchange) throws IOException {
+		if (!eventStreams.tryAcquire()) {
+			exchange.getResponseHeaders().set(HEADER_RETRY_AFTER, Integer.toString(RETRY_AFTER_SECONDS));
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+			return;
+		}
+		try {
+			streamEvents(exchange);
+		} finally {
+			eventStreams.release();
+		}
+	}
+
+	/**
+	 * Streams Server-Sent Events with the page's version until the client
+	 * disconnects or the server stops.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @throws IOException on IO error, including disconnected clients
+	 */
+	@SuppressFBWarnings(value = "VA_FORMAT_STRING_USES_NEWLINE",
+			justification = "Server-Sent Events require line feeds by specification")
+	private void streamEvents(final HttpExchange exchange) throws IOException {
+		final Headers responseHeaders = exchange.getResponseHeaders();
+		responseHeaders.set(HEADER_CONTENT_TYPE, "text/event-stream; charset=UTF-8");
+		responseHeaders.set(HEADER_CACHE_CONTROL, NO_CACHE);
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+
+		final Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+		long version = getLastEventVersion(exchange);
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				final Page current = awaitPage(version, KEEP_ALIVE_MILLIS);
+				if (current == null || current.getVersion() == version) {
+					writer.write(": keep-alive\n\n");
+				} else {
+					version = current.getVersion();
+					writer.write(String.format("id: %1$s-%2$d\ndata: %2$d\n\n", etagPrefix, version));
+				}
+				writer.flush();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Determines the version known to the client of an event stream. That is the
+	 * version of the {@code Last-Event-ID} request header when reconnecting, else
+	 * the version of the {@link #PARAMETER_LAST_EVENT_ID} query parameter, which
+	 * the page embeds. Clients without either get the version of the current page.
+	 *
+	 * @param exchange the HTTP exchange
+	 * @return the version known to the client or {@code 0} before the first update
+	 */
+	private long getLastEventVersion(final HttpExchange exchange) {
+		final String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+		if (lastEventId != null) {
+			return parseLastEventVersion(lastEventId);
+		}
+
+		final String query = exchange.getRequestURI().getRawQuery();
+		if (query != null) {
+			final Matcher matcher = QUERY_LAST_EVENT_ID.matcher(query);
+			if (matcher.find()) {
+				return parseLastEventVersion(matcher.group("id"));
+			}
+		}
+
+		final Page current = page;
+		return current == null ? 0 : current.getVersion();
+	}
+
+	/**
+	 * Parses the version of the event ID {@code lastEventId}.
+	 *
+	 * @param lastEventId the event ID
+	 * @return the version or {@code 0} if {@code lastEventId} does not refer to
+	 *         this server run
+	 */
+	private long parseLastEventVersion(final String lastEventId) {
+		// Event IDs of a previous server run do not refer to any current version
+		final Matcher matcher = LAST_EVENT_ID.matcher(lastEventId);
+		return matcher.matches() && etagPrefix.equals(matcher.group("prefix"))
+				? Long.parseLong(matcher.group("version"))
+				: 0;
+	}
+
+	/**
+	 * Rendered presentation page
+	 */
+	@Getter
+	@RequiredArgsConstructor
+	private static final class Page {
+		/**
+		 * Version, increasing with each update
+		 *
+		 * @return the version
+		 */
+		long version;
+
+		/**
+		 * Entity tag identifying the uncompressed body of this page
+		 *
+		 * @return the entity tag of the uncompressed body
+		 */
+		String etag;
+
+		/**
+		 * Entity tag identifying the GZIP compressed body of this page
+		 *
+		 * @return the entity tag of the GZIP compressed body
+		 */
+		String gzipEtag;
+
+		/**
+		 * UTF-8 encoded page
+		 *
+		 * @return the UTF-8 encoded page
+		 */
+		byte[] bytes;
+
+		/**
+		 * GZIP compressed, UTF-8 encoded page
+		 *
+		 * @return the GZIP compressed, UTF-8 encoded page
+		 */
+		byte[] gzipBytes;
+	}
+}
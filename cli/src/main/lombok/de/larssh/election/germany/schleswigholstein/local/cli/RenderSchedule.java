@@ -0,0 +1,142 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.experimental.NonFinal;
+
+/**
+ * Pending render of {@link RenderScheduler}, deciding when to render based on
+ * the times of file change events
+ *
+ * <p>
+ * A render is due after no further event occurred for the quiet period, but no
+ * later than the longer of quiet period and render interval after the first
+ * pending event. Two renders start at least the render interval apart from each
+ * other.
+ *
+ * <p>
+ * Times are given in nanoseconds as of {@link System#nanoTime()}. Instances of
+ * this class are not thread-safe.
+ */
+@PackagePrivate
+final class RenderSchedule {
+	/**
+	 * Duration without further events to wait before rendering in nanoseconds
+	 */
+	long quietPeriod;
+
+	/**
+	 * Minimum duration between the start of two renders in nanoseconds
+	 */
+	long renderInterval;
+
+	/**
+	 * Paths changed since the previous render
+	 */
+	Set<Path> pendingPaths = new LinkedHashSet<>();
+
+	/**
+	 * {@code true} if a render is pending
+	 */
+	@NonFinal
+	boolean pending = false;
+
+	/**
+	 * Time of the first event of the pending render
+	 */
+	@NonFinal
+	long firstEvent = 0;
+
+	/**
+	 * Time of the latest event of the pending render
+	 */
+	@NonFinal
+	long lastEvent = 0;
+
+	/**
+	 * Start time of the previous render
+	 */
+	@NonFinal
+	long lastRender;
+
+	/**
+	 * Creates an empty render schedule, allowing to render right away.
+	 *
+	 * @param quietPeriod    duration without further events to wait before
+	 *                       rendering
+	 * @param renderInterval minimum duration between the start of two renders
+	 * @param now            the current time
+	 */
+	@PackagePrivate
+	RenderSchedule(final Duration quietPeriod, final Duration renderInterval, final long now) {
+		this.quietPeriod = quietPeriod.toNanos();
+		this.renderInterval = renderInterval.toNanos();
+		lastRender = now - this.renderInterval;
+	}
+
+	/**
+	 * Checks if a render is pending.
+	 *
+	 * @return {@code true} if a render is pending
+	 */
+	@PackagePrivate
+	boolean isPending() {
+		return pending;
+	}
+
+	/**
+	 * Adds the event of {@code changedPaths} at {@code now} to the pending render.
+	 *
+	 * @param changedPaths the changed paths
+	 * @param now          the current time
+	 */
+	@PackagePrivate
+	void schedule(final Collection<Path> changedPaths, final long now) {
+		if (!pending) {
+			pending = true;
+			firstEvent = now;
+		}
+		lastEvent = now;
+		pendingPaths.addAll(changedPaths);
+	}
+
+	/**
+	 * Calculates the remaining time until the pending render is due. Must be called
+	 * only while a render is pending.
+	 *
+	 * @param now the current time
+	 * @return the remaining time in nanoseconds, zero or negative if due
+	 */
+	@PackagePrivate
+	long getRemainingNanos(final long now) {
+		final long debounced = Math.min(lastEvent + quietPeriod, firstEvent + Math.max(quietPeriod, renderInterval));
+		return Math.max(debounced, lastRender + renderInterval) - now;
+	}
+
+	/**
+	 * Takes the paths of the pending render if it is due at {@code now}. The render
+	 * is considered to be started at {@code now}.
+	 *
+	 * @param now the current time
+	 * @return the paths changed since the previous render or empty if no render is
+	 *         due
+	 */
+	@PackagePrivate
+	Optional<Set<Path>> take(final long now) {
+		if (!pending || getRemainingNanos(now) > 0) {
+			return Optional.empty();
+		}
+
+		final Set<Path> changedPaths = new LinkedHashSet<>(pendingPaths);
+		pendingPaths.clear();
+		pending = false;
+		lastRender = now;
+		return Optional.of(changedPaths);
+	}
+}
@@ -0,0 +1,170 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import de.larssh.utils.annotations.PackagePrivate;
+
+/**
+ * Debounces and coalesces file change events before rendering
+ *
+ * <p>
+ * Changed paths are collected by {@link #schedule(Collection)}, which never
+ * blocks. A single render thread passes all paths collected since the previous
+ * render to the render task, so that bursts of events result in one render.
+ * Therefore at most one render is in flight and at most one render is pending.
+ *
+ * <p>
+ * {@link RenderSchedule} decides when a render starts.
+ *
+ * <p>
+ * Runtime exceptions of the render task are passed to the failure handler and
+ * rendering continues with the next changes. Errors are passed to the failure
+ * handler, too, but stop the render thread.
+ */
+@PackagePrivate
+final class RenderScheduler implements Closeable {
+	/**
+	 * The render task, taking the paths changed since the previous render
+	 */
+	Consumer<Set<Path>> task;
+
+	/**
+	 * Handler of failures of the render task, such as printing them
+	 */
+	Consumer<Throwable> failureHandler;
+
+	/**
+	 * Lock guarding the pending render
+	 */
+	Lock lock = new ReentrantLock();
+
+	/**
+	 * Condition signaled on new events
+	 */
+	Condition scheduled = lock.newCondition();
+
+	/**
+	 * The pending render, guarded by {@link #lock}
+	 */
+	RenderSchedule schedule;
+
+	/**
+	 * Error of the render task, which stopped the render thread
+	 */
+	AtomicReference<Error> failure = new AtomicReference<>();
+
+	/**
+	 * The render thread
+	 */
+	Thread thread;
+
+	/**
+	 * Creates and starts a render scheduler.
+	 *
+	 * @param quietPeriod    duration without further events to wait before
+	 *                       rendering
+	 * @param renderInterval minimum duration between the start of two renders
+	 * @param task           the render task, taking the paths changed since the
+	 *                       previous render
+	 * @param failureHandler the handler of failures of the render task
+	 */
+	@PackagePrivate
+	RenderScheduler(final Duration quietPeriod,
+			final Duration renderInterval,
+			final Consumer<Set<Path>> task,
+			final Consumer<Throwable> failureHandler) {
+		this.task = task;
+		this.failureHandler = failureHandler;
+		schedule = new RenderSchedule(quietPeriod, renderInterval, System.nanoTime());
+
+		thread = new Thread(this::run, getClass().getSimpleName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void close() {
+		thread.interrupt();
+	}
+
+	/**
+	 * Schedules a render for {@code changedPaths} without blocking. An error, which
+	 * stopped the render thread, is thrown instead.
+	 *
+	 * @param changedPaths the changed paths
+	 */
+	@PackagePrivate
+	void schedule(final Collection<Path> changedPaths) {
+		final Error error = failure.get();
+		if (error != null) {
+			throw error;
+		}
+
+		lock.lock();
+		try {
+			schedule.schedule(changedPaths, System.nanoTime());
+			scheduled.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Renders pending changes until interrupted or the render task throws an error.
+	 */
+	@SuppressWarnings({ "checkstyle:IllegalCatch", "PMD.AvoidCatchingGenericException" })
+	private void run() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				final Set<Path> changedPaths = awaitRender();
+				try {
+					task.accept(changedPaths);
+				} catch (final RuntimeException e) {
+					failureHandler.accept(e);
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final Error e) {
+			failure.set(e);
+			failureHandler.accept(e);
+		}
+	}
+
+	/**
+	 * Waits until a render is due and takes its changed paths.
+	 *
+	 * @return the paths changed since the previous render
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private Set<Path> awaitRender() throws InterruptedException {
+		lock.lock();
+		try {
+			while (true) {
+				if (schedule.isPending()) {
+					final long now = System.nanoTime();
+					final Optional<Set<Path>> changedPaths = schedule.take(now);
+					if (changedPaths.isPresent()) {
+						return changedPaths.get();
+					}
+					scheduled.awaitNanos(schedule.getRemainingNanos(now));
+				} else {
+					scheduled.await();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+}
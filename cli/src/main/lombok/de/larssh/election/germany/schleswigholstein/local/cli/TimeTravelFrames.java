@@ -0,0 +1,257 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import static java.util.stream.Collectors.toList;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalBallot;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultBuilder;
+import de.larssh.utils.SneakyException;
+import de.larssh.utils.annotations.PackagePrivate;
+import de.larssh.utils.function.DoubleToDoubleFunction;
+import de.larssh.utils.function.ThrowingConsumer;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.NonFinal;
+
+/**
+ * Frames of a time-travel through the counting process
+ *
+ * <p>
+ * The ballots are sorted by polling station once. Each frame advances a cursor
+ * over the sorted ballots and adds the ballots passed to a running
+ * {@link LocalElectionResultBuilder}, so that the ballots of earlier frames are
+ * not counted again.
+ *
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+@PackagePrivate
+final class TimeTravelFrames implements Iterator<TimeTravelFrames.Frame> {
+	/**
+	 * One hundred
+	 */
+	private static final int HUNDRED = 100;
+
+	/**
+	 * Ballots sorted by polling station
+	 */
+	List<LocalBallot> ballots;
+
+	/**
+	 * Running tally of the ballots before the cursor
+	 */
+	LocalElectionResultBuilder builder;
+
+	/**
+	 * Position of the last frame, limited to the number of all ballots
+	 */
+	double end;
+
+	/**
+	 * Size per step
+	 */
+	double stepSize;
+
+	/**
+	 * Position of the next frame
+	 *
+	 * <p>
+	 * Double values are used to be as close to the percentage values as possible.
+	 */
+	@NonFinal
+	double position;
+
+	/**
+	 * Number of ballots added to {@link #builder}
+	 */
+	@NonFinal
+	int cursor = 0;
+
+	/**
+	 * Prepares the frames of a time-travel through {@code result}.
+	 *
+	 * @param result   the full result
+	 * @param start    start of the time-travel based on the number of all ballots
+	 * @param end      end of the time-travel based on the number of all ballots
+	 * @param stepSize size per step based on the number of all ballots
+	 */
+	@PackagePrivate
+	TimeTravelFrames(final LocalElectionResult result,
+			final DoubleToDoubleFunction start,
+			final DoubleToDoubleFunction end,
+			final DoubleToDoubleFunction stepSize) {
+		ballots = result.getBallots()
+				.stream()
+				.sorted(Comparator.comparing(LocalBallot::getPollingStation))
+				.collect(toList());
+		builder = new LocalElectionResultBuilder(result.getElection(), result.getSainteLagueScale())
+				.setNumberOfAllBallots(result.getNumberOfAllBallotsMap())
+				.setDirectDrawResults(result.getDirectDrawResults())
+				.setListDrawResults(result.getListDrawResults());
+
+		final int numberOfAllBallots = ballots.size();
+		position = start.applyAsDouble(numberOfAllBallots);
+		this.end = Math.min(end.applyAsDouble(numberOfAllBallots), numberOfAllBallots);
+		this.stepSize = stepSize.applyAsDouble(numberOfAllBallots);
+	}
+
+	/**
+	 * Number of all ballots
+	 *
+	 * @return the number of all ballots
+	 */
+	@PackagePrivate
+	int getNumberOfAllBallots() {
+		return ballots.size();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasNext() {
+		return position < end + stepSize;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Frame next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		// Calculate the correct discrete position and making sure it does not extend
+		// the number of all ballots
+		final int numberOfBallots = Math.min((int) position, (int) end);
+		while (cursor < numberOfBallots) {
+			builder.add(ballots.get(cursor));
+			cursor += 1;
+		}
+
+		final Frame frame
+				= new Frame(numberOfBallots, Math.min(position * HUNDRED / ballots.size(), HUNDRED), builder.build());
+		position += stepSize;
+		return frame;
+	}
+
+	/**
+	 * Iterates the election results of all remaining frames, e.g. to precompute
+	 * them without waiting between two frames.
+	 *
+	 * @return the election results of all remaining frames in order
+	 */
+	@PackagePrivate
+	Iterator<LocalElectionResult> results() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+				.map(Frame::getResult)
+				.iterator();
+	}
+
+	/**
+	 * Passes all remaining frames to {@code renderer}, starting a frame every
+	 * {@code interval}.
+	 *
+	 * <p>
+	 * While a frame is being rendered, the next frame is calculated on a separate
+	 * thread. Waiting between two frames takes the time of rendering into account,
+	 * so that frames start at a fixed rate unless rendering takes longer than
+	 * {@code interval}.
+	 *
+	 * @param interval the duration between the start of two frames
+	 * @param renderer renders a frame
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	@PackagePrivate
+	@SuppressFBWarnings(value = "MDM_THREAD_YIELD",
+			justification = "There is really nothing to do for the thread until the next frame is due.")
+	void play(final Duration interval, final ThrowingConsumer<Frame> renderer) throws InterruptedException {
+		final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, getClass().getSimpleName());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			Optional<Future<Frame>> nextFrame = submitNext(executor);
+			long start = System.nanoTime();
+			while (nextFrame.isPresent()) {
+				final Frame frame = getFrame(nextFrame.get());
+				nextFrame = submitNext(executor);
+				renderer.accept(frame);
+
+				start += interval.toNanos();
+				TimeUnit.NANOSECONDS.sleep(start - System.nanoTime());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Calculates the next frame using {@code executor} if there is one.
+	 *
+	 * @param executor the executor to calculate the next frame
+	 * @return the future of the next frame or empty if there is no next frame
+	 */
+	private Optional<Future<Frame>> submitNext(final ExecutorService executor) {
+		return hasNext() ? Optional.of(executor.submit(this::next)) : Optional.empty();
+	}
+
+	/**
+	 * Waits for the calculation of {@code frame} and rethrows its failure.
+	 *
+	 * @param frame the future of the frame
+	 * @return the calculated frame
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private static Frame getFrame(final Future<Frame> frame) throws InterruptedException {
+		try {
+			return frame.get();
+		} catch (final ExecutionException e) {
+			throw new SneakyException(e.getCause());
+		}
+	}
+
+	/**
+	 * Frame of a time-travel
+	 */
+	@Getter
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	@PackagePrivate
+	static final class Frame {
+		/**
+		 * Number of ballots counted up to this frame
+		 *
+		 * @return the number of ballots counted up to this frame
+		 */
+		int numberOfBallots;
+
+		/**
+		 * Position of this frame in percentage of all ballots
+		 *
+		 * @return the position in percentage of all ballots
+		 */
+		double percentage;
+
+		/**
+		 * Result of the ballots counted up to this frame
+		 *
+		 * @return the result of the ballots counted up to this frame
+		 */
+		LocalElectionResult result;
+	}
+}
@@ -0,0 +1,75 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.utils.Nullables;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.NonFinal;
+import picocli.CommandLine.Option;
+
+/**
+ * A picocli compatible parameter set to control how often election results are
+ * updated while watching their files via command line options.
+ */
+@RequiredArgsConstructor
+public class UpdateIntervalParameter {
+	/**
+	 * Duration without further file changes to wait before updating
+	 */
+	@NonFinal
+	@Nullable
+	@Option(names = "--quiet-period",
+			defaultValue = "PT0.25S",
+			paramLabel = "<Duration>",
+			description = "Duration without further file changes to wait before updating while watching")
+	Duration quietPeriod = null;
+
+	/**
+	 * Minimum duration between two updates
+	 */
+	@NonFinal
+	@Nullable
+	@Option(names = "--render-interval",
+			defaultValue = "PT1S",
+			paramLabel = "<Duration>",
+			description = "Minimum duration between two updates while watching")
+	Duration renderInterval = null;
+
+	/**
+	 * Duration without further file changes to wait before updating
+	 *
+	 * @return the duration without further file changes to wait before updating
+	 */
+	public Duration getQuietPeriod() {
+		return Nullables.orElseThrow(quietPeriod);
+	}
+
+	/**
+	 * Minimum duration between two updates
+	 *
+	 * @return the minimum duration between two updates
+	 */
+	public Duration getRenderInterval() {
+		return Nullables.orElseThrow(renderInterval);
+	}
+
+	/**
+	 * Watches the files of {@code result} for changes and executes {@code handler}
+	 * passing updated {@link LocalElectionResult} using the update intervals of
+	 * this parameter set. This method loops endlessly and does not return control
+	 * except an exception is thrown.
+	 *
+	 * @param result  the parameter set to load election results
+	 * @param handler the consumer handling the latest {@link LocalElectionResult}
+	 * @throws InterruptedException if interrupted while watching for file changes
+	 * @throws IOException          on IO error
+	 */
+	public void watch(final LocalElectionResultParameter result, final Consumer<LocalElectionResult> handler)
+			throws InterruptedException, IOException {
+		result.watch(handler, getQuietPeriod(), getRenderInterval());
+	}
+}
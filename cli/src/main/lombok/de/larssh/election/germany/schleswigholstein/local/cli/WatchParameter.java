@@ -0,0 +1,47 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.NonFinal;
+import picocli.CommandLine.Option;
+
+/**
+ * A picocli compatible parameter set to optionally watch the files of election
+ * results for updates via command line options.
+ */
+@RequiredArgsConstructor
+public class WatchParameter extends UpdateIntervalParameter {
+	/**
+	 * Watches the input files for updates and does not return the application's
+	 * handle
+	 *
+	 * @return {@code true} if the input files are watched for updates
+	 */
+	@Getter
+	@NonFinal
+	@Option(names = "--watch",
+			defaultValue = "false",
+			description = "Watches the input files for updates and does not return the application's handle")
+	boolean watch = false;
+
+	/**
+	 * Watches the files of {@code result} for changes and executes {@code handler}
+	 * passing updated {@link LocalElectionResult} if {@link #isWatch()}. Else this
+	 * method returns immediately.
+	 *
+	 * @param result  the parameter set to load election results
+	 * @param handler the consumer handling the latest {@link LocalElectionResult}
+	 * @throws InterruptedException if interrupted while watching for file changes
+	 * @throws IOException          on IO error
+	 */
+	public void watchIfRequested(final LocalElectionResultParameter result, final Consumer<LocalElectionResult> handler)
+			throws InterruptedException, IOException {
+		if (watch) {
+			watch(result, handler);
+		}
+	}
+}
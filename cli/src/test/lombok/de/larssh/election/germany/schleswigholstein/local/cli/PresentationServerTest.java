@@ -0,0 +1,279 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.utils.annotations.PackagePrivate;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link PresentationServer}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class PresentationServerTest {
+	/**
+	 * Timeout of connecting to and reading from the server in milliseconds
+	 */
+	private static final int TIMEOUT_MILLIS = 5000;
+
+	/**
+	 * Pattern matching the event ID embedded into the page
+	 */
+	private static final Pattern EMBEDDED_EVENT_ID = Pattern.compile("lastEventId = '(?<id>[^']*)'");
+
+	/**
+	 * Creates the HTML content of a page with {@code body}.
+	 *
+	 * @param body the body
+	 * @return the HTML content
+	 */
+	private static String html(final String body) {
+		return "<!DOCTYPE html><html><head><title>Test</title></head><body>" + body + "</body></html>";
+	}
+
+	/**
+	 * Opens a connection to {@code path} of {@code server}.
+	 *
+	 * @param server         the server
+	 * @param path           the path
+	 * @param acceptEncoding the value of the {@code Accept-Encoding} request header
+	 *                       or {@code null}
+	 * @param ifNoneMatch    the value of the {@code If-None-Match} request header
+	 *                       or {@code null}
+	 * @return the connection
+	 * @throws IOException on IO error
+	 */
+	private static HttpURLConnection open(final PresentationServer server,
+			final String path,
+			@Nullable final String acceptEncoding,
+			@Nullable final String ifNoneMatch) throws IOException {
+		final InetSocketAddress address = server.getAddress();
+		final HttpURLConnection connection
+				= (HttpURLConnection) new URL("http", address.getHostString(), address.getPort(), path)
+						.openConnection();
+		connection.setConnectTimeout(TIMEOUT_MILLIS);
+		connection.setReadTimeout(TIMEOUT_MILLIS);
+		connection.setUseCaches(false);
+		if (acceptEncoding != null) {
+			connection.setRequestProperty("Accept-Encoding", acceptEncoding);
+		}
+		if (ifNoneMatch != null) {
+			connection.setRequestProperty("If-None-Match", ifNoneMatch);
+		}
+		return connection;
+	}
+
+	/**
+	 * Reads the body of {@code connection} as UTF-8 text.
+	 *
+	 * @param connection the connection
+	 * @return the body
+	 * @throws IOException on IO error
+	 */
+	private static String read(final HttpURLConnection connection) throws IOException {
+		final InputStream inputStream = "gzip".equals(connection.getContentEncoding())
+				? new GZIPInputStream(connection.getInputStream())
+				: connection.getInputStream();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+			final StringBuilder builder = new StringBuilder();
+			for (int character = reader.read(); character != -1; character = reader.read()) {
+				builder.append((char) character);
+			}
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * Starts a presentation server on an ephemeral port of the loopback address.
+	 *
+	 * @param maxEventStreams the maximum number of concurrent event streams
+	 * @return the presentation server
+	 * @throws IOException on IO error
+	 */
+	private static PresentationServer start(final int maxEventStreams) throws IOException {
+		return new PresentationServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), maxEventStreams);
+	}
+
+	/**
+	 * Test parsing the {@code Accept-Encoding} request header
+	 */
+	@Test
+	@PackagePrivate
+	void testIsGzipAccepted() {
+		assertThat(PresentationServer.isGzipAccepted(null)).isFalse();
+		assertThat(PresentationServer.isGzipAccepted("")).isFalse();
+		assertThat(PresentationServer.isGzipAccepted("identity")).isFalse();
+		assertThat(PresentationServer.isGzipAccepted("notgzip, br")).isFalse();
+
+		assertThat(PresentationServer.isGzipAccepted("gzip")).isTrue();
+		assertThat(PresentationServer.isGzipAccepted("GZIP")).isTrue();
+		assertThat(PresentationServer.isGzipAccepted("x-gzip")).isTrue();
+		assertThat(PresentationServer.isGzipAccepted("deflate, gzip, br")).isTrue();
+
+		// Quality values
+		assertThat(PresentationServer.isGzipAccepted("gzip;q=1")).isTrue();
+		assertThat(PresentationServer.isGzipAccepted("gzip ; q=0.5")).isTrue();
+		assertThat(PresentationServer.isGzipAccepted("gzip;q=0.001")).isTrue();
+		assertThat(PresentationServer.isGzipAccepted("gzip;q=0")).isFalse();
+		assertThat(PresentationServer.isGzipAccepted("gzip;Q=0.000")).isFalse();
+		assertThat(PresentationServer.isGzipAccepted("gzip;q=0, x-gzip")).isTrue();
+
+		// Wildcard
+		assertThat(PresentationServer.isGzipAccepted("*")).isTrue();
+		assertThat(PresentationServer.isGzipAccepted("br, *;q=0.1")).isTrue();
+		assertThat(PresentationServer.isGzipAccepted("*;q=0")).isFalse();
+		assertThat(PresentationServer.isGzipAccepted("*, gzip;q=0")).isFalse();
+		assertThat(PresentationServer.isGzipAccepted("gzip;q=0, *")).isFalse();
+		assertThat(PresentationServer.isGzipAccepted("gzip, *;q=0")).isTrue();
+	}
+
+	/**
+	 * Test, that compressed and uncompressed pages carry different ETags and the
+	 * same content
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testEtags() throws IOException {
+		try (PresentationServer server = start(1)) {
+			server.publish(html("content"));
+
+			final HttpURLConnection identity = open(server, "/", "identity", null);
+			final HttpURLConnection gzip = open(server, "/", "gzip", null);
+
+			assertThat(identity.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+			assertThat(identity.getContentEncoding()).isNull();
+			assertThat(identity.getHeaderField("Vary")).isEqualTo("Accept-Encoding");
+			assertThat(gzip.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+			assertThat(gzip.getContentEncoding()).isEqualTo("gzip");
+			assertThat(gzip.getHeaderField("Vary")).isEqualTo("Accept-Encoding");
+
+			final String identityEtag = identity.getHeaderField("ETag");
+			final String gzipEtag = gzip.getHeaderField("ETag");
+			assertThat(identityEtag).startsWith("\"").endsWith("\"");
+			assertThat(gzipEtag).endsWith("-gzip\"").isNotEqualTo(identityEtag);
+
+			final String identityBody = read(identity);
+			assertThat(identityBody).contains("<body>content</body>").contains("EventSource");
+			assertThat(read(gzip)).isEqualTo(identityBody);
+		}
+	}
+
+	/**
+	 * Test, that {@code If-None-Match} with the current ETag results in
+	 * {@code 304 Not Modified}
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testIfNoneMatch() throws IOException {
+		try (PresentationServer server = start(1)) {
+			server.publish(html("first"));
+			final String identityEtag = open(server, "/", null, null).getHeaderField("ETag");
+			final String gzipEtag = open(server, "/", "gzip", null).getHeaderField("ETag");
+
+			// Current ETag
+			final HttpURLConnection notModified = open(server, "/", null, identityEtag);
+			assertThat(notModified.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_NOT_MODIFIED);
+			assertThat(notModified.getHeaderField("ETag")).isEqualTo(identityEtag);
+			assertThat(open(server, "/", "gzip", gzipEtag).getResponseCode())
+					.isEqualTo(HttpURLConnection.HTTP_NOT_MODIFIED);
+			assertThat(open(server, "/", "gzip", "\"other\", " + gzipEtag).getResponseCode())
+					.isEqualTo(HttpURLConnection.HTTP_NOT_MODIFIED);
+
+			// ETag of the other encoding
+			assertThat(open(server, "/", "gzip", identityEtag).getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+			assertThat(open(server, "/", null, gzipEtag).getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+
+			// ETag of a previous version
+			server.publish(html("second"));
+			final HttpURLConnection modified = open(server, "/", null, identityEtag);
+			assertThat(modified.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+			assertThat(modified.getHeaderField("ETag")).isNotEqualTo(identityEtag);
+			assertThat(read(modified)).contains("<body>second</body>");
+		}
+	}
+
+	/**
+	 * Test, that event streams exceeding the maximum number of concurrent event
+	 * streams are rejected with {@code 503 Service Unavailable}
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testMaxEventStreams() throws IOException {
+		final int maxEventStreams = 2;
+		try (PresentationServer server = start(maxEventStreams)) {
+			server.publish(html("content"));
+
+			final List<HttpURLConnection> streams = new ArrayList<>();
+			try {
+				for (int index = 0; index < maxEventStreams; index += 1) {
+					final HttpURLConnection stream = open(server, "/events", null, null);
+					streams.add(stream);
+					assertThat(stream.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+					assertThat(stream.getContentType()).startsWith("text/event-stream");
+				}
+
+				final HttpURLConnection rejected = open(server, "/events", null, null);
+				assertThat(rejected.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_UNAVAILABLE);
+				assertThat(rejected.getHeaderField("Retry-After")).isEqualTo("5");
+
+				// The page is still served
+				assertThat(open(server, "/", null, null).getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+			} finally {
+				streams.forEach(HttpURLConnection::disconnect);
+			}
+		}
+	}
+
+	/**
+	 * Test, that an update published between serving the page and connecting to the
+	 * event stream is pushed right away
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testUpdateBeforeEventStream() throws IOException {
+		try (PresentationServer server = start(1)) {
+			server.publish(html("first"));
+			final Matcher matcher = EMBEDDED_EVENT_ID.matcher(read(open(server, "/", null, null)));
+			assertThat(matcher.find()).isTrue();
+			final String eventId = matcher.group("id");
+			assertThat(eventId).endsWith("-1");
+
+			server.publish(html("second"));
+
+			final HttpURLConnection stream = open(server, "/events?lastEventId=" + eventId, null, null);
+			try (BufferedReader reader
+					= new BufferedReader(new InputStreamReader(stream.getInputStream(), StandardCharsets.UTF_8))) {
+				assertThat(reader.readLine()).isEqualTo("id: " + eventId.substring(0, eventId.length() - 1) + "2");
+				assertThat(reader.readLine()).isEqualTo("data: 2");
+			} finally {
+				stream.disconnect();
+			}
+		}
+	}
+}
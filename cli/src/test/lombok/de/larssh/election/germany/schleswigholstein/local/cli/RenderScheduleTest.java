@@ -0,0 +1,147 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link RenderSchedule}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class RenderScheduleTest {
+	/**
+	 * Arbitrary time the schedules of the tests are created at
+	 */
+	private static final long START = 123_456_789L;
+
+	/**
+	 * Duration without further events to wait before rendering
+	 */
+	private static final Duration QUIET_PERIOD = Duration.ofMillis(100);
+
+	/**
+	 * Minimum duration between the start of two renders
+	 */
+	private static final Duration RENDER_INTERVAL = Duration.ofSeconds(1);
+
+	/**
+	 * Calculates the time {@code millis} milliseconds after {@link #START}.
+	 *
+	 * @param millis the number of milliseconds after {@link #START}
+	 * @return the time in nanoseconds
+	 */
+	private static long at(final long millis) {
+		return START + Duration.ofMillis(millis).toNanos();
+	}
+
+	/**
+	 * Test, that a burst of events within the quiet period results in exactly one
+	 * render containing all paths
+	 */
+	@Test
+	@PackagePrivate
+	@SuppressWarnings("checkstyle:MagicNumber")
+	void testBurst() {
+		// given
+		final Path first = Paths.get("first.txt");
+		final Path second = Paths.get("second.txt");
+		final Path third = Paths.get("third.txt");
+		final RenderSchedule schedule = new RenderSchedule(QUIET_PERIOD, RENDER_INTERVAL, START);
+
+		// when
+		schedule.schedule(singleton(first), at(0));
+		schedule.schedule(singleton(second), at(50));
+		schedule.schedule(singleton(first), at(90));
+		schedule.schedule(singleton(third), at(90));
+
+		// then
+		assertThat(schedule.take(at(90))).isEmpty();
+		assertThat(schedule.take(at(189))).isEmpty();
+		assertThat(schedule.take(at(190)))
+				.hasValueSatisfying(changedPaths -> assertThat(changedPaths).containsExactly(first, second, third));
+		assertThat(schedule.isPending()).isFalse();
+		assertThat(schedule.take(at(10_000))).isEmpty();
+	}
+
+	/**
+	 * Test, that no render starts before the quiet period ended
+	 */
+	@Test
+	@PackagePrivate
+	@SuppressWarnings("checkstyle:MagicNumber")
+	void testQuietPeriod() {
+		// given
+		final Path path = Paths.get("file.txt");
+		final RenderSchedule schedule = new RenderSchedule(QUIET_PERIOD, RENDER_INTERVAL, START);
+
+		// when
+		schedule.schedule(singleton(path), at(10));
+
+		// then
+		assertThat(schedule.isPending()).isTrue();
+		assertThat(schedule.getRemainingNanos(at(10))).isEqualTo(QUIET_PERIOD.toNanos());
+		assertThat(schedule.take(at(10))).isEmpty();
+		assertThat(schedule.take(at(109))).isEmpty();
+		assertThat(schedule.take(at(110)))
+				.hasValueSatisfying(changedPaths -> assertThat(changedPaths).containsExactly(path));
+	}
+
+	/**
+	 * Test, that a continuous stream of events is rendered no later than the render
+	 * interval after its first event
+	 */
+	@Test
+	@PackagePrivate
+	@SuppressWarnings("checkstyle:MagicNumber")
+	void testContinuousEvents() {
+		// given
+		final Path path = Paths.get("file.txt");
+		final RenderSchedule schedule = new RenderSchedule(QUIET_PERIOD, RENDER_INTERVAL, START);
+
+		// when
+		for (long millis = 0; millis < 1000; millis += 50) {
+			schedule.schedule(singleton(path), at(millis));
+			assertThat(schedule.take(at(millis))).isEmpty();
+		}
+		schedule.schedule(singleton(path), at(1000));
+
+		// then
+		assertThat(schedule.take(at(1000))).isPresent();
+	}
+
+	/**
+	 * Test, that consecutive renders start at least the render interval apart from
+	 * each other
+	 */
+	@Test
+	@PackagePrivate
+	@SuppressWarnings("checkstyle:MagicNumber")
+	void testRenderInterval() {
+		// given
+		final Path first = Paths.get("first.txt");
+		final Path second = Paths.get("second.txt");
+		final RenderSchedule schedule = new RenderSchedule(QUIET_PERIOD, RENDER_INTERVAL, START);
+
+		// when
+		schedule.schedule(singleton(first), at(0));
+		final boolean firstRendered = schedule.take(at(100)).isPresent();
+		schedule.schedule(singleton(second), at(150));
+
+		// then
+		assertThat(firstRendered).isTrue();
+		assertThat(schedule.getRemainingNanos(at(250))).isEqualTo(Duration.ofMillis(850).toNanos());
+		assertThat(schedule.take(at(250))).isEmpty();
+		assertThat(schedule.take(at(1099))).isEmpty();
+		assertThat(schedule.take(at(1100)))
+				.hasValueSatisfying(changedPaths -> assertThat(changedPaths).containsExactly(second));
+	}
+}
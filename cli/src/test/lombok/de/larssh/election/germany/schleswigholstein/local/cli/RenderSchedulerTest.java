@@ -0,0 +1,60 @@
+package de.larssh.election.germany.schleswigholstein.local.cli;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link RenderScheduler}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class RenderSchedulerTest {
+	/**
+	 * Maximum number of seconds to wait for a render
+	 */
+	private static final long TIMEOUT_SECONDS = 10;
+
+	/**
+	 * Test, that a failing render is passed to the failure handler and later
+	 * changes are still rendered
+	 */
+	@Test
+	@PackagePrivate
+	void testFailure() throws InterruptedException {
+		// given
+		final Path failingPath = Paths.get("failing.txt");
+		final Path succeedingPath = Paths.get("succeeding.txt");
+		final BlockingQueue<Set<Path>> renders = new LinkedBlockingQueue<>();
+		final BlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+
+		try (RenderScheduler renderScheduler = new RenderScheduler(Duration.ZERO, Duration.ZERO, changedPaths -> {
+			if (changedPaths.contains(failingPath)) {
+				throw new IllegalStateException("Failing render");
+			}
+			renders.add(changedPaths);
+		}, failures::add)) {
+			// when
+			renderScheduler.schedule(singleton(failingPath));
+			final Throwable failure = failures.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			renderScheduler.schedule(singleton(succeedingPath));
+			final Set<Path> render = renders.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+			// then
+			assertThat(failure).isInstanceOf(IllegalStateException.class).hasMessage("Failing render");
+			assertThat(render).containsExactly(succeedingPath);
+		}
+	}
+}
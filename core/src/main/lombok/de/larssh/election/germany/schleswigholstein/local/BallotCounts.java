@@ -0,0 +1,80 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.NonFinal;
+
+/**
+ * Mutable numbers of ballots and votes of a Wahlgebiet, Wahlkreis oder
+ * Wahlbezirk
+ */
+@Getter
+@ToString
+@NoArgsConstructor
+@PackagePrivate
+final class BallotCounts {
+	/**
+	 * Anzahl der Stimmzettel
+	 *
+	 * @return the number of ballots
+	 */
+	@NonFinal
+	int numberOfBallots = 0;
+
+	/**
+	 * Anzahl ungültiger Stimmzettel
+	 *
+	 * @return the number of invalid ballots
+	 */
+	@NonFinal
+	int numberOfInvalidBallots = 0;
+
+	/**
+	 * Anzahl der Briefwahlstimmzettel
+	 *
+	 * @return the number of postal ballots
+	 */
+	@NonFinal
+	int numberOfPostalBallots = 0;
+
+	/**
+	 * Anzahl der Stimmen
+	 *
+	 * @return the number of votes
+	 */
+	@NonFinal
+	int numberOfVotes = 0;
+
+	/**
+	 * Copies the numbers of ballots and votes of {@code counts}.
+	 *
+	 * @param counts the numbers to copy
+	 */
+	@PackagePrivate
+	BallotCounts(final BallotCounts counts) {
+		numberOfBallots = counts.getNumberOfBallots();
+		numberOfInvalidBallots = counts.getNumberOfInvalidBallots();
+		numberOfPostalBallots = counts.getNumberOfPostalBallots();
+		numberOfVotes = counts.getNumberOfVotes();
+	}
+
+	/**
+	 * Updates the numbers by {@code weight} occurrences of {@code ballot}.
+	 *
+	 * @param ballot Stimmzettel
+	 * @param weight number of occurrences to add, negative to remove
+	 */
+	public void add(final LocalBallot ballot, final int weight) {
+		numberOfBallots += weight;
+		if (ballot.isPostalVote()) {
+			numberOfPostalBallots += weight;
+		}
+		if (ballot.isValid()) {
+			numberOfVotes += weight * ballot.getNominations().size();
+		} else {
+			numberOfInvalidBallots += weight;
+		}
+	}
+}
@@ -0,0 +1,326 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static de.larssh.utils.Finals.lazy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
+
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.utils.annotations.PackagePrivate;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Determines the certain result types of all nominations of an election result
+ * at once.
+ *
+ * <p>
+ * Direct results are based on the number of votes of each district's
+ * nominations in their order of result. List results are based on the rank of
+ * each nomination within its party's list, ignoring certain direct results.
+ * Both tables are calculated once per election result.
+ *
+ * <p>
+ * Remark: As a small inaccuracy this analysis does not take care of possible
+ * overhang seats.
+ */
+@Getter
+@PackagePrivate
+@RequiredArgsConstructor
+final class CertainResultAnalysis {
+	/**
+	 * Returns the number of votes of the nomination at {@code position} or zero if
+	 * there is no such nomination.
+	 *
+	 * @param nominationResults nomination results in order of result
+	 * @param position          the position inside {@code nominationResults}
+	 * @return the number of votes
+	 */
+	private static int getNumberOfVotes(final List<LocalNominationResult> nominationResults, final int position) {
+		return position >= 0 && position < nominationResults.size()
+				? nominationResults.get(position).getNumberOfVotes()
+				: 0;
+	}
+
+	/**
+	 * Wahlergebnis
+	 *
+	 * @return Wahlergebnis
+	 */
+	LocalElectionResult electionResult;
+
+	/**
+	 * Certain direct results and direct result candidates by nomination ordinal
+	 */
+	@Getter(AccessLevel.NONE)
+	Supplier<DirectResults> directResults = lazy(this::createDirectResults);
+
+	/**
+	 * Certain result types by nomination ordinal, {@code null} if no result type is
+	 * certain
+	 */
+	@Getter(AccessLevel.NONE)
+	Supplier<LocalNominationResultType[]> certainResultTypes = lazy(this::createCertainResultTypes);
+
+	/**
+	 * Calculates the certain direct results and direct result candidates of all
+	 * nominations by comparing with the number of votes of the last direct
+	 * nomination of their district.
+	 *
+	 * @return certain direct results and direct result candidates
+	 */
+	private DirectResults createDirectResults() {
+		final LocalElection election = getElectionResult().getElection();
+		final DirectResults results = new DirectResults(election.getIndex().getNominations().size());
+		final int numberOfDirectSeats = election.getNumberOfDirectSeatsPerLocalDistrict();
+
+		// The number of all ballots is required to calculate the number of direct
+		// result candidates.
+		final OptionalInt numberOfAllBallots = getElectionResult().getNumberOfAllBallots();
+		final int numberOfBallots = getElectionResult().getNumberOfBallots();
+
+		for (final Map.Entry<LocalDistrict, List<LocalNominationResult>> entry : getNominationResultsByDistrict()
+				.entrySet()) {
+			final List<LocalNominationResult> nominationResults = entry.getValue();
+
+			// The number of all ballots of the nomination's district is required to
+			// calculate the number of remaining ballots in that district.
+			final OptionalInt numberOfAllBallotsOfDistrict = getElectionResult().getNumberOfAllBallots(entry.getKey());
+			final int numberOfEvaluatedBallotsOfDistrict = getElectionResult().getNumberOfBallots(entry.getKey());
+
+			// The number of votes of the last direct nomination is used as comparison
+			// value. Excluding a nomination up to that position moves the next one up.
+			final int numberOfVotesOfLastDirectNomination
+					= getNumberOfVotes(nominationResults, numberOfDirectSeats - 1);
+			final int numberOfVotesOfNextNomination = getNumberOfVotes(nominationResults, numberOfDirectSeats);
+
+			for (int position = 0; position < nominationResults.size(); position += 1) {
+				final LocalNominationResult nominationResult = nominationResults.get(position);
+				final int ordinal = election.getIndex().getOrdinal(nominationResult.getNomination());
+				final int numberOfVotes = nominationResult.getNumberOfVotes();
+
+				// In case of no votes there's no election
+				if (numberOfVotes > 0 && numberOfAllBallotsOfDistrict.isPresent()) {
+					final int numberOfVotesOfLastOtherDirectNomination = position < numberOfDirectSeats
+							? numberOfVotesOfNextNomination
+							: numberOfVotesOfLastDirectNomination;
+					results.certain[ordinal] = numberOfVotes > numberOfVotesOfLastOtherDirectNomination
+							+ Math.max(numberOfAllBallotsOfDistrict.getAsInt(), numberOfEvaluatedBallotsOfDistrict)
+							- numberOfEvaluatedBallotsOfDistrict;
+				}
+
+				// The only chance to be a direct candidate is to have a direct nomination.
+				// The number of votes plus possibly remaining ballots need to be at least as
+				// great as the number of votes of the last direct nomination.
+				results.candidates[ordinal] = nominationResult.getNomination().isDirectNomination()
+						&& numberOfAllBallots.isPresent()
+						&& numberOfVotes
+								+ numberOfAllBallots.getAsInt()
+								- numberOfBallots >= numberOfVotesOfLastDirectNomination;
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Groups the nomination results by district, keeping their order of result.
+	 *
+	 * @return the nomination results by district
+	 */
+	private Map<LocalDistrict, List<LocalNominationResult>> getNominationResultsByDistrict() {
+		final Map<LocalDistrict, List<LocalNominationResult>> nominationResultsByDistrict = new LinkedHashMap<>();
+		for (final LocalNominationResult nominationResult : getElectionResult().getNominationResults().values()) {
+			nominationResultsByDistrict
+					.computeIfAbsent(nominationResult.getNomination().getDistrict(), district -> new ArrayList<>())
+					.add(nominationResult);
+		}
+		return nominationResultsByDistrict;
+	}
+
+	/**
+	 * Calculates the certain result types of all nominations.
+	 *
+	 * @return the certain result types by nomination ordinal
+	 */
+	private LocalNominationResultType[] createCertainResultTypes() {
+		final LocalElectionIndex index = getElectionResult().getElection().getIndex();
+		final LocalNominationResultType[] resultTypes = new LocalNominationResultType[index.getNominations().size()];
+		final boolean[] certainListResults = new boolean[resultTypes.length];
+		final boolean[] listResultCandidates = new boolean[resultTypes.length];
+		for (final Party party : index.getParties()) {
+			analyzeListResults(party, certainListResults, listResultCandidates);
+		}
+
+		for (final LocalNominationResult nominationResult : getElectionResult().getNominationResults().values()) {
+			final int ordinal = index.getOrdinal(nominationResult.getNomination());
+			resultTypes[ordinal] = determineCertainResultType(nominationResult,
+					certainListResults[ordinal],
+					listResultCandidates[ordinal]);
+		}
+		return resultTypes;
+	}
+
+	/**
+	 * Determines the certain result type of {@code nominationResult}.
+	 *
+	 * @param nominationResult    the nomination result
+	 * @param certainListResult   {@code true} if the nomination's result is a
+	 *                            certain list result
+	 * @param listResultCandidate {@code true} if the nomination is a candidate for
+	 *                            a list result
+	 * @return the certain result type or {@code null}
+	 */
+	@Nullable
+	private LocalNominationResultType determineCertainResultType(final LocalNominationResult nominationResult,
+			final boolean certainListResult,
+			final boolean listResultCandidate) {
+		// The number of all ballots of the nomination's district is required to
+		// decide if all ballots were evaluated already.
+		final LocalDistrict district = nominationResult.getNomination().getDistrict();
+		final OptionalInt numberOfAllBallots = getElectionResult().getNumberOfAllBallots(district);
+		if (!numberOfAllBallots.isPresent()) {
+			return null;
+		}
+
+		// If all ballots were evaluated already, the final result can be returned,
+		// except for direct draws, which might be overwritten by a certain list result.
+		if (getElectionResult().getNumberOfBallots(district) >= numberOfAllBallots.getAsInt()) {
+			return nominationResult.getType();
+		}
+
+		if (isCertainDirectResult(nominationResult.getNomination())) {
+			return LocalNominationResultType.DIRECT;
+		}
+		if (certainListResult) {
+			return LocalNominationResultType.LIST;
+		}
+		if (!isDirectResultCandidate(nominationResult.getNomination()) && !listResultCandidate) {
+			return LocalNominationResultType.NOT_ELECTED;
+		}
+		return null;
+	}
+
+	/**
+	 * Determines the certain list results and list result candidates of the
+	 * nominations of {@code party}.
+	 *
+	 * <p>
+	 * Nominations of the party are ranked by their list position, ignoring certain
+	 * direct results. A rank below the number of possibly certain list seats
+	 * results in a certain list result, as long as direct result candidates of that
+	 * party cannot take that seat. A rank below the number of list result
+	 * candidates of the party results in a list result candidate.
+	 *
+	 * @param party                the party
+	 * @param certainListResults   certain list results by nomination ordinal
+	 * @param listResultCandidates list result candidates by nomination ordinal
+	 */
+	private void analyzeListResults(final Party party,
+			final boolean[] certainListResults,
+			final boolean[] listResultCandidates) {
+		final LocalElectionIndex index = getElectionResult().getElection().getIndex();
+		final LocalPartyResult partyResult = getElectionResult().getPartyResults().get(party);
+		final Map<LocalNomination, LocalNominationResult> certainDirectNominationsOfParty
+				= partyResult.getCertainDirectNominationResults();
+
+		// In case of certain directly elected nominations of the party the number of
+		// possibly certain list seats and list result candidates needs to be reduced.
+		final int numberOfPossiblyCertainListSeatsOfParty
+				= partyResult.getNumberOfCertainSeats() - certainDirectNominationsOfParty.size();
+		final int numberOfListResultCandidatesOfParty
+				= partyResult.getNumberOfListResultCandidates() - certainDirectNominationsOfParty.size();
+
+		// Direct result candidates of that party could still take a seat.
+		int numberOfDirectResultCandidatesOfParty = 0;
+		for (final LocalNomination nomination : index.getDirectNominations(party)) {
+			if (!certainDirectNominationsOfParty.containsKey(nomination) && isDirectResultCandidate(nomination)) {
+				numberOfDirectResultCandidatesOfParty += 1;
+			}
+		}
+
+		int rank = 0;
+		for (final LocalNomination nomination : index.getListNominations(party)) {
+			if (!certainDirectNominationsOfParty.containsKey(nomination)) {
+				final int ordinal = index.getOrdinal(nomination);
+				final int numberOfOtherDirectResultCandidates
+						= numberOfDirectResultCandidatesOfParty - (isDirectResultCandidate(nomination) ? 1 : 0);
+
+				certainListResults[ordinal] = rank < numberOfPossiblyCertainListSeatsOfParty
+						&& rank < numberOfPossiblyCertainListSeatsOfParty - numberOfOtherDirectResultCandidates;
+				listResultCandidates[ordinal] = rank < numberOfListResultCandidatesOfParty;
+				rank += 1;
+			}
+		}
+	}
+
+	/**
+	 * Determines if the nomination's election is certain and returns the guaranteed
+	 * {@link LocalNominationResultType}. In case no result type is certain empty is
+	 * returned.
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return the guaranteed result type or empty
+	 */
+	public Optional<LocalNominationResultType> getCertainResultType(final LocalNomination nomination) {
+		final int ordinal = getElectionResult().getElection().getIndex().getOrdinal(nomination);
+		return ordinal == -1 ? Optional.empty() : Optional.ofNullable(certainResultTypes.get()[ordinal]);
+	}
+
+	/**
+	 * Determines if the nomination's result is a certain
+	 * {@link LocalNominationResultType#DIRECT}.
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return {@code true} if the nomination's result is a certain direct result,
+	 *         else {@code false}
+	 */
+	public boolean isCertainDirectResult(final LocalNomination nomination) {
+		final int ordinal = getElectionResult().getElection().getIndex().getOrdinal(nomination);
+		return ordinal != -1 && directResults.get().certain[ordinal];
+	}
+
+	/**
+	 * Determines if the nomination is a candidate for
+	 * {@link LocalNominationResultType#DIRECT}.
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return {@code true} if the nomination is a candidate for a direct result or
+	 *         {@code false}
+	 */
+	public boolean isDirectResultCandidate(final LocalNomination nomination) {
+		final int ordinal = getElectionResult().getElection().getIndex().getOrdinal(nomination);
+		return ordinal != -1 && directResults.get().candidates[ordinal];
+	}
+
+	/**
+	 * Certain direct results and direct result candidates by nomination ordinal
+	 */
+	private static final class DirectResults {
+		/**
+		 * Certain direct results by nomination ordinal
+		 */
+		boolean[] certain;
+
+		/**
+		 * Direct result candidates by nomination ordinal
+		 */
+		boolean[] candidates;
+
+		/**
+		 * Certain direct results and direct result candidates by nomination ordinal
+		 *
+		 * @param numberOfNominations the number of nominations
+		 */
+		DirectResults(final int numberOfNominations) {
+			certain = new boolean[numberOfNominations];
+			candidates = new boolean[numberOfNominations];
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Co-occurrences of parties and nominations on the ballots of an election
+ * result
+ *
+ * <p>
+ * The matrix of parties by parties, parties by nominations, nominations by
+ * parties and nominations by nominations is counted in one pass over the
+ * run-length encoded ballots and stored in primitive arrays by ordinal of
+ * {@link LocalElectionIndex}. Nominations without party are not part of the
+ * party columns and rows.
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class CoOccurrenceMatrix {
+	/**
+	 * Wahlergebnis
+	 *
+	 * @return Wahlergebnis
+	 */
+	@Getter
+	@ToString.Include
+	LocalElectionResult electionResult;
+
+	/**
+	 * Number of parties
+	 */
+	@Getter(AccessLevel.NONE)
+	int numberOfParties;
+
+	/**
+	 * Number of nominations
+	 */
+	@Getter(AccessLevel.NONE)
+	int numberOfNominations;
+
+	/**
+	 * Votes of the column party on ballots containing the row party
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] partyParty;
+
+	/**
+	 * Ballots containing the row party and the column nomination
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] partyNomination;
+
+	/**
+	 * Votes of the column party on ballots containing the row nomination
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] nominationParty;
+
+	/**
+	 * Ballots containing the row nomination and the column nomination
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] nominationNomination;
+
+	/**
+	 * Counts the co-occurrences of all ballots of {@code electionResult}.
+	 *
+	 * @param electionResult Wahlergebnis
+	 */
+	@PackagePrivate
+	CoOccurrenceMatrix(final LocalElectionResult electionResult) {
+		this.electionResult = electionResult;
+
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		numberOfParties = index.getParties().size();
+		numberOfNominations = index.getNominations().size();
+		partyParty = new int[numberOfParties * numberOfParties];
+		partyNomination = new int[numberOfParties * numberOfNominations];
+		nominationParty = new int[numberOfNominations * numberOfParties];
+		nominationNomination = new int[numberOfNominations * numberOfNominations];
+
+		final int[] nominations = new int[numberOfNominations];
+		final int[] parties = new int[numberOfParties];
+		final int[] votesOfParties = new int[numberOfParties];
+		for (final LocalWeightedBallot weightedBallot : electionResult.getWeightedBallots()) {
+			// Ordinals of the ballot's nominations and parties
+			int size = 0;
+			int numberOfBallotParties = 0;
+			for (final LocalNomination nomination : weightedBallot.getBallot().getNominations()) {
+				nominations[size] = index.getOrdinal(nomination);
+				size += 1;
+
+				final int party = index.getPartyOrdinal(nomination);
+				if (party != -1) {
+					if (votesOfParties[party] == 0) {
+						parties[numberOfBallotParties] = party;
+						numberOfBallotParties += 1;
+					}
+					votesOfParties[party] += 1;
+				}
+			}
+
+			count(weightedBallot.getWeight(), nominations, size, parties, numberOfBallotParties, votesOfParties);
+
+			for (int partyIndex = 0; partyIndex < numberOfBallotParties; partyIndex += 1) {
+				votesOfParties[parties[partyIndex]] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Adds the co-occurrences of one ballot.
+	 *
+	 * @param weight                the ballot's number of occurrences
+	 * @param nominations           the ordinals of the ballot's nominations
+	 * @param size                  the number of the ballot's nominations
+	 * @param parties               the ordinals of the ballot's parties
+	 * @param numberOfBallotParties the number of the ballot's parties
+	 * @param votesOfParties        the ballot's number of votes by party ordinal
+	 */
+	private void count(final int weight,
+			final int[] nominations,
+			final int size,
+			final int[] parties,
+			final int numberOfBallotParties,
+			final int[] votesOfParties) {
+		for (int rowIndex = 0; rowIndex < numberOfBallotParties; rowIndex += 1) {
+			final int row = parties[rowIndex];
+			for (int columnIndex = 0; columnIndex < numberOfBallotParties; columnIndex += 1) {
+				final int column = parties[columnIndex];
+				partyParty[row * numberOfParties + column] += weight * votesOfParties[column];
+			}
+			for (int columnIndex = 0; columnIndex < size; columnIndex += 1) {
+				partyNomination[row * numberOfNominations + nominations[columnIndex]] += weight;
+			}
+		}
+		for (int rowIndex = 0; rowIndex < size; rowIndex += 1) {
+			final int row = nominations[rowIndex];
+			for (int columnIndex = 0; columnIndex < numberOfBallotParties; columnIndex += 1) {
+				final int column = parties[columnIndex];
+				nominationParty[row * numberOfParties + column] += weight * votesOfParties[column];
+			}
+			for (int columnIndex = 0; columnIndex < size; columnIndex += 1) {
+				nominationNomination[row * numberOfNominations + nominations[columnIndex]] += weight;
+			}
+		}
+	}
+
+	/**
+	 * Number of votes of the nominations of {@code party} on ballots containing at
+	 * least one nomination of {@code ballotParty}
+	 *
+	 * @param ballotParty the party the ballots contain
+	 * @param party       the party to count the votes of
+	 * @return the number of votes
+	 */
+	public int getNumberOfVotes(final Party ballotParty, final Party party) {
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		final int row = index.getOrdinal(ballotParty);
+		final int column = index.getOrdinal(party);
+		return row == -1 || column == -1 ? 0 : partyParty[row * numberOfParties + column];
+	}
+
+	/**
+	 * Number of votes of the nominations of {@code party} on ballots containing
+	 * {@code ballotNomination}
+	 *
+	 * @param ballotNomination the nomination the ballots contain
+	 * @param party            the party to count the votes of
+	 * @return the number of votes
+	 */
+	public int getNumberOfVotes(final LocalNomination ballotNomination, final Party party) {
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		final int row = index.getOrdinal(ballotNomination);
+		final int column = index.getOrdinal(party);
+		return row == -1 || column == -1 ? 0 : nominationParty[row * numberOfParties + column];
+	}
+
+	/**
+	 * Number of ballots containing {@code nomination} and at least one nomination
+	 * of {@code party}
+	 *
+	 * @param party      the party the ballots contain
+	 * @param nomination the nomination the ballots contain
+	 * @return the number of ballots
+	 */
+	public int getNumberOfBallots(final Party party, final LocalNomination nomination) {
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		final int row = index.getOrdinal(party);
+		final int column = index.getOrdinal(nomination);
+		return row == -1 || column == -1 ? 0 : partyNomination[row * numberOfNominations + column];
+	}
+
+	/**
+	 * Number of ballots containing both, {@code nomination} and {@code other}
+	 *
+	 * @param nomination the nomination the ballots contain
+	 * @param other      the other nomination the ballots contain
+	 * @return the number of ballots
+	 */
+	public int getNumberOfBallots(final LocalNomination nomination, final LocalNomination other) {
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		final int row = index.getOrdinal(nomination);
+		final int column = index.getOrdinal(other);
+		return row == -1 || column == -1 ? 0 : nominationNomination[row * numberOfNominations + column];
+	}
+}
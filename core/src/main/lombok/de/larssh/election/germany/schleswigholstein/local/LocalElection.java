@@ -4,9 +4,7 @@ import static de.larssh.utils.Collectors.toLinkedHashSet;
 import static de.larssh.utils.Collectors.toMap;
 import static de.larssh.utils.Finals.lazy;
 import static java.util.Collections.unmodifiableList;
-import static java.util.Collections.unmodifiableSet;
 import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -46,6 +44,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
+import lombok.experimental.NonFinal;
 
 /**
  * Wahl der Vertretung einer Gemeinde oder eines Kreises in Schleswig-Holstein
@@ -130,16 +129,6 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 	@JsonProperty(access = Access.READ_ONLY, index = 4)
 	DistrictValueMap numberOfEligibleVoters = new DistrictValueMap(this);
 
-	/**
-	 * Unmittelbare Wahlvorschläge (§ 18 Absatz 1 GKWG)
-	 */
-	@ToString.Exclude
-	Supplier<Set<LocalNomination>> directNominations = lazy(() -> unmodifiableSet(getParties().stream()
-			.flatMap(party -> getNominations().stream()
-					.filter(nomination -> nomination.getParty().filter(party::equals).isPresent())
-					.limit(getNumberOfDirectSeats()))
-			.collect(toLinkedHashSet())));
-
 	/**
 	 * Bewerberinnen und Bewerber
 	 */
@@ -152,6 +141,16 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 	@ToString.Exclude
 	Supplier<Set<District<?>>> allDistricts = lazy(() -> getDistrict().getAllChildren());
 
+	/**
+	 * Compiled index of this election or {@code null} if it needs to be compiled
+	 * (again)
+	 */
+	@Nullable
+	@NonFinal
+	@ToString.Exclude
+	@Getter(AccessLevel.NONE)
+	volatile LocalElectionIndex index;
+
 	/**
 	 * Collects all {@link LocalPollingStation}s of this election.
 	 */
@@ -175,6 +174,7 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 		population.putAllByKey(parsable.getPopulation());
 		numberOfEligibleVoters.putAllByKey(parsable.getNumberOfEligibleVoters());
 		parsable.addNominationsTo(this);
+		index = new LocalElectionIndex(this);
 	}
 
 	/**
@@ -188,6 +188,27 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 		return allDistricts.get();
 	}
 
+	/**
+	 * Compiled index of this election, providing ordinals and constant time lookups
+	 * of nominations, parties and districts
+	 *
+	 * <p>
+	 * The index is compiled on first access and compiled again after nominations or
+	 * population information changed.
+	 *
+	 * @return the compiled index
+	 */
+	@JsonIgnore
+	public LocalElectionIndex getIndex() {
+		final LocalElectionIndex index = this.index;
+		if (index != null) {
+			return index;
+		}
+		final LocalElectionIndex compiledIndex = new LocalElectionIndex(this);
+		this.index = compiledIndex;
+		return compiledIndex;
+	}
+
 	/**
 	 * Collects all {@link LocalPollingStation}s of this election.
 	 *
@@ -208,6 +229,7 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 	@Override
 	public void setPopulation(final District<?> district, final OptionalInt population) {
 		this.population.put(district, population);
+		index = null;
 	}
 
 	/** {@inheritDoc} */
@@ -240,6 +262,7 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 					district.getKey());
 		}
 		nominations.add(nomination);
+		index = null;
 		return nomination;
 	}
 
@@ -256,7 +279,7 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 	 */
 	@JsonIgnore
 	public Set<LocalNomination> getDirectNominations() {
-		return directNominations.get();
+		return getIndex().getDirectNominations();
 	}
 
 	/**
@@ -266,9 +289,7 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 	 * @return Unmittelbare Wahlvorschläge der {@link Party}
 	 */
 	public Set<LocalNomination> getDirectNominations(final Party party) {
-		return getDirectNominations().stream()
-				.filter(nomination -> nomination.getParty().filter(party::equals).isPresent())
-				.collect(toLinkedHashSet());
+		return getIndex().getDirectNominations(party);
 	}
 
 	/**
@@ -288,9 +309,7 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 	 * @return Listenwahlvorschläge der {@link Party}
 	 */
 	public List<LocalNomination> getListNominations(final Party party) {
-		return getListNominations().stream()
-				.filter(nomination -> nomination.getParty().filter(party::equals).isPresent())
-				.collect(toList());
+		return getIndex().getListNominations(party);
 	}
 
 	/**
@@ -363,12 +382,7 @@ public class LocalElection implements Election<LocalDistrictRoot, LocalNominatio
 	@JsonProperty(access = Access.READ_ONLY, index = 6)
 	@SuppressWarnings("checkstyle:MagicNumber")
 	public List<Party> getParties() {
-		return getNominations().stream()
-				.map(LocalNomination::getParty)
-				.filter(Optional::isPresent)
-				.map(Optional::get)
-				.distinct()
-				.collect(toList());
+		return getIndex().getParties();
 	}
 
 	/**
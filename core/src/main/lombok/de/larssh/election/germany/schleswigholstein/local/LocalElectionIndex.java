@@ -0,0 +1,329 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static de.larssh.utils.Finals.lazy;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import de.larssh.election.germany.schleswigholstein.District;
+import de.larssh.election.germany.schleswigholstein.Party;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Compiled, read-only index of a {@link LocalElection}
+ *
+ * <p>
+ * The index assigns a dense ordinal to each nomination, party and district and
+ * precomputes the per-party direct and list nominations. Lookups, which would
+ * otherwise require searching or filtering the election's collections, take
+ * constant time.
+ *
+ * <p>
+ * An index describes the election at the time of its creation.
+ * {@link LocalElection} recompiles its index after nominations or population
+ * information changed.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public final class LocalElectionIndex {
+	/**
+	 * Wahl
+	 *
+	 * @return Wahl
+	 */
+	@ToString.Include
+	LocalElection election;
+
+	/**
+	 * Bewerberinnen und Bewerber by ordinal
+	 *
+	 * @return Bewerberinnen und Bewerber by ordinal
+	 */
+	List<LocalNomination> nominations;
+
+	/**
+	 * Ordinals of Bewerberinnen und Bewerber
+	 */
+	@Getter(AccessLevel.NONE)
+	Map<LocalNomination, Integer> nominationOrdinals = new HashMap<>();
+
+	/**
+	 * Politische Parteien und Wählergruppen by ordinal
+	 *
+	 * @return Politische Parteien und Wählergruppen by ordinal
+	 */
+	List<Party> parties;
+
+	/**
+	 * Ordinals of Politische Parteien und Wählergruppen
+	 */
+	@Getter(AccessLevel.NONE)
+	Map<Party, Integer> partyOrdinals = new HashMap<>();
+
+	/**
+	 * Wahlgebiet, Wahlkreise und Wahlbezirke by ordinal, starting with the
+	 * Wahlgebiet
+	 *
+	 * @return Wahlgebiet, Wahlkreise und Wahlbezirke by ordinal
+	 */
+	List<District<?>> districts;
+
+	/**
+	 * Ordinals of Wahlgebiet, Wahlkreise und Wahlbezirke
+	 */
+	@Getter(AccessLevel.NONE)
+	Map<District<?>, Integer> districtOrdinals = new HashMap<>();
+
+	/**
+	 * Party ordinal by nomination ordinal or {@code -1} for independent nominations
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] partyOrdinalsOfNominations;
+
+	/**
+	 * Position on the party's list by nomination ordinal, starting at {@code 1}, or
+	 * {@code 0} for independent nominations
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] listPositions;
+
+	/**
+	 * Listenwahlvorschläge (§ 18 Absatz 2 GKWG) by party ordinal
+	 */
+	@Getter(AccessLevel.NONE)
+	List<List<LocalNomination>> listNominationsOfParties;
+
+	/**
+	 * Unmittelbare Wahlvorschläge (§ 18 Absatz 1 GKWG) by party ordinal
+	 *
+	 * <p>
+	 * Calculating direct nominations requires population information, therefore
+	 * they are calculated on first access.
+	 */
+	@Getter(AccessLevel.NONE)
+	Supplier<List<Set<LocalNomination>>> directNominationsOfParties = lazy(this::createDirectNominationsOfParties);
+
+	/**
+	 * Unmittelbare Wahlvorschläge (§ 18 Absatz 1 GKWG)
+	 */
+	@Getter(AccessLevel.NONE)
+	Supplier<Set<LocalNomination>> directNominations = lazy(() -> {
+		final Set<LocalNomination> directNominations = new LinkedHashSet<>();
+		getDirectNominationsOfParties().forEach(directNominations::addAll);
+		return unmodifiableSet(directNominations);
+	});
+
+	/**
+	 * Flag per nomination ordinal, if the nomination is an Unmittelbarer
+	 * Wahlvorschlag (§ 18 Absatz 1 GKWG)
+	 */
+	@Getter(AccessLevel.NONE)
+	Supplier<boolean[]> directNominationFlags = lazy(() -> {
+		final boolean[] flags = new boolean[getNominations().size()];
+		for (final LocalNomination nomination : getDirectNominations()) {
+			flags[getOrdinal(nomination)] = true;
+		}
+		return flags;
+	});
+
+	/**
+	 * Compiles the index of {@code election}.
+	 *
+	 * @param election Wahl
+	 */
+	@SuppressWarnings("PMD.ConstructorCallsOverridableMethod")
+	LocalElectionIndex(final LocalElection election) {
+		this.election = election;
+		nominations = unmodifiableList(new ArrayList<>(election.getNominations()));
+
+		final List<Party> parties = new ArrayList<>();
+		final List<List<LocalNomination>> listNominationsOfParties = new ArrayList<>();
+		partyOrdinalsOfNominations = new int[nominations.size()];
+		listPositions = new int[nominations.size()];
+		for (int ordinal = 0; ordinal < nominations.size(); ordinal += 1) {
+			final LocalNomination nomination = nominations.get(ordinal);
+			nominationOrdinals.put(nomination, ordinal);
+
+			final Optional<Party> party = nomination.getParty();
+			if (party.isPresent()) {
+				final int partyOrdinal = partyOrdinals.computeIfAbsent(party.get(), key -> {
+					parties.add(key);
+					listNominationsOfParties.add(new ArrayList<>());
+					return parties.size() - 1;
+				});
+				final List<LocalNomination> listNominationsOfParty = listNominationsOfParties.get(partyOrdinal);
+				listNominationsOfParty.add(nomination);
+
+				partyOrdinalsOfNominations[ordinal] = partyOrdinal;
+				listPositions[ordinal] = listNominationsOfParty.size();
+			} else {
+				partyOrdinalsOfNominations[ordinal] = -1;
+			}
+		}
+		this.parties = unmodifiableList(parties);
+		listNominationsOfParties.replaceAll(listNominationsOfParty -> unmodifiableList(listNominationsOfParty));
+		this.listNominationsOfParties = unmodifiableList(listNominationsOfParties);
+
+		final List<District<?>> districts = new ArrayList<>();
+		districts.add(election.getDistrict());
+		districts.addAll(election.getAllDistricts());
+		for (int ordinal = 0; ordinal < districts.size(); ordinal += 1) {
+			districtOrdinals.put(districts.get(ordinal), ordinal);
+		}
+		this.districts = unmodifiableList(districts);
+	}
+
+	/**
+	 * Calculates the Unmittelbare Wahlvorschläge (§ 18 Absatz 1 GKWG) by party
+	 * ordinal. Each party gets its first list nominations up to the number of
+	 * direct seats.
+	 *
+	 * @return Unmittelbare Wahlvorschläge by party ordinal
+	 */
+	private List<Set<LocalNomination>> createDirectNominationsOfParties() {
+		final int numberOfDirectSeats = getElection().getNumberOfDirectSeats();
+
+		final List<Set<LocalNomination>> directNominationsOfParties = new ArrayList<>(listNominationsOfParties.size());
+		for (final List<LocalNomination> listNominationsOfParty : listNominationsOfParties) {
+			directNominationsOfParties.add(unmodifiableSet(new LinkedHashSet<>(
+					listNominationsOfParty.subList(0, Math.min(numberOfDirectSeats, listNominationsOfParty.size())))));
+		}
+		return unmodifiableList(directNominationsOfParties);
+	}
+
+	/**
+	 * Unmittelbare Wahlvorschläge (§ 18 Absatz 1 GKWG)
+	 *
+	 * @return Unmittelbare Wahlvorschläge
+	 */
+	public Set<LocalNomination> getDirectNominations() {
+		return directNominations.get();
+	}
+
+	/**
+	 * Unmittelbare Wahlvorschläge (§ 18 Absatz 1 GKWG) der {@link Party}
+	 *
+	 * @param party the party
+	 * @return Unmittelbare Wahlvorschläge der {@link Party}
+	 */
+	public Set<LocalNomination> getDirectNominations(final Party party) {
+		final int partyOrdinal = getOrdinal(party);
+		return partyOrdinal == -1 ? emptySet() : getDirectNominationsOfParties().get(partyOrdinal);
+	}
+
+	/**
+	 * Unmittelbare Wahlvorschläge (§ 18 Absatz 1 GKWG) by party ordinal
+	 *
+	 * @return Unmittelbare Wahlvorschläge by party ordinal
+	 */
+	private List<Set<LocalNomination>> getDirectNominationsOfParties() {
+		return directNominationsOfParties.get();
+	}
+
+	/**
+	 * Listenwahlvorschläge (§ 18 Absatz 2 GKWG) der {@link Party}
+	 *
+	 * @param party the party
+	 * @return Listenwahlvorschläge der {@link Party}
+	 */
+	public List<LocalNomination> getListNominations(final Party party) {
+		final int partyOrdinal = getOrdinal(party);
+		return partyOrdinal == -1 ? emptyList() : listNominationsOfParties.get(partyOrdinal);
+	}
+
+	/**
+	 * Determines the position of {@code nomination} on its party's list.
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return the position on the party's list, starting at {@code 1}, or empty if
+	 *         the nomination has no party assigned
+	 */
+	public OptionalInt getListPosition(final LocalNomination nomination) {
+		final int ordinal = getOrdinal(nomination);
+		if (ordinal == -1) {
+			return nomination.getParty().isPresent() ? OptionalInt.of(0) : OptionalInt.empty();
+		}
+		return partyOrdinalsOfNominations[ordinal] == -1 ? OptionalInt.empty() : OptionalInt.of(listPositions[ordinal]);
+	}
+
+	/**
+	 * Determines the ordinal of {@code district}.
+	 *
+	 * @param district Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 * @return the ordinal or {@code -1} if {@code district} is not part of the
+	 *         election
+	 */
+	public int getOrdinal(final District<?> district) {
+		return districtOrdinals.getOrDefault(district, -1);
+	}
+
+	/**
+	 * Determines the ordinal of {@code nomination}, which is its index inside
+	 * {@link LocalElection#getNominations()}.
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return the ordinal or {@code -1} if {@code nomination} is not part of the
+	 *         election
+	 */
+	public int getOrdinal(final LocalNomination nomination) {
+		return nominationOrdinals.getOrDefault(nomination, -1);
+	}
+
+	/**
+	 * Determines the ordinal of {@code party}, which is its index inside
+	 * {@link LocalElection#getParties()}.
+	 *
+	 * @param party Politische Partei oder Wählergruppe
+	 * @return the ordinal or {@code -1} if {@code party} is not part of the
+	 *         election
+	 */
+	public int getOrdinal(final Party party) {
+		return partyOrdinals.getOrDefault(party, -1);
+	}
+
+	/**
+	 * Determines the ordinal of the party of {@code nomination}.
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return the party's ordinal or {@code -1} if {@code nomination} has no party
+	 *         or is not part of the election
+	 */
+	public int getPartyOrdinal(final LocalNomination nomination) {
+		final int ordinal = getOrdinal(nomination);
+		return ordinal == -1 ? -1 : partyOrdinalsOfNominations[ordinal];
+	}
+
+	/**
+	 * Unmittelbarer Wahlvorschlag (§ 18 Absatz 1 GKWG)
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return {@code true} if direct nomination, else {@code false}
+	 */
+	public boolean isDirectNomination(final LocalNomination nomination) {
+		final int ordinal = getOrdinal(nomination);
+		return ordinal != -1 && directNominationFlags.get()[ordinal];
+	}
+
+	/**
+	 * Listenwahlvorschlag (§ 18 Absatz 2 GKWG)
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return {@code true} if list nomination, else {@code false}
+	 */
+	public boolean isListNomination(final LocalNomination nomination) {
+		return getOrdinal(nomination) != -1;
+	}
+}
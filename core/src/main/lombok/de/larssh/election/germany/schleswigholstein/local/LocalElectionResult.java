@@ -3,24 +3,23 @@ package de.larssh.election.germany.schleswigholstein.local;
 import static de.larssh.utils.Collectors.toLinkedHashMap;
 import static de.larssh.utils.Collectors.toLinkedHashSet;
 import static de.larssh.utils.Collectors.toMap;
-import static java.util.Collections.emptyMap;
+import static de.larssh.utils.Finals.lazy;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -30,27 +29,22 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.stream.IntStream;
+import java.util.function.Supplier;
 
-import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonCreator.Mode;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonProperty.Access;
 import com.fasterxml.jackson.databind.ObjectWriter;
 
-import de.larssh.election.germany.schleswigholstein.Ballot;
 import de.larssh.election.germany.schleswigholstein.District;
 import de.larssh.election.germany.schleswigholstein.DistrictValueMap;
 import de.larssh.election.germany.schleswigholstein.ElectionException;
 import de.larssh.election.germany.schleswigholstein.ElectionResult;
-import de.larssh.election.germany.schleswigholstein.Nomination;
 import de.larssh.election.germany.schleswigholstein.Party;
 import de.larssh.election.germany.schleswigholstein.PartyResult;
 import de.larssh.election.utils.BigDecimals;
 import de.larssh.utils.Nullables;
 import de.larssh.utils.OptionalInts;
-import de.larssh.utils.Optionals;
 import de.larssh.utils.annotations.PackagePrivate;
 import de.larssh.utils.collection.Maps;
 import de.larssh.utils.text.Strings;
@@ -58,7 +52,6 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
 /**
@@ -69,20 +62,6 @@ import lombok.ToString;
 @EqualsAndHashCode(doNotUseGetters = true, onlyExplicitlyIncluded = true)
 @SuppressWarnings({ "PMD.CyclomaticComplexity", "PMD.DataClass", "PMD.ExcessiveImports", "PMD.GodClass" })
 public final class LocalElectionResult implements ElectionResult<LocalBallot, LocalNomination> {
-	/**
-	 * Thread-local temporary storage of a {@link LocalElection}, used while parsing
-	 * JSON data.
-	 *
-	 * <p>
-	 * This thread-local variable is empty and must not be set outside of
-	 * {@link #fromJson(Reader, LocalElection)}.
-	 */
-	@PackagePrivate
-	static final ThreadLocal<LocalElection> ELECTION_FOR_JSON_CREATOR = ThreadLocal.withInitial(() -> {
-		throw new ElectionException(
-				"Cannot initialize electionForJsonCreator. Use LocalElection.fromJson(...) instead.");
-	});
-
 	/**
 	 * Comparator by value (high to low) and nomination
 	 */
@@ -110,12 +89,7 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 * @throws IOException on IO error
 	 */
 	public static LocalElectionResult fromJson(final Reader reader, final LocalElection election) throws IOException {
-		try {
-			ELECTION_FOR_JSON_CREATOR.set(election);
-			return LocalElection.OBJECT_MAPPER.readValue(reader, LocalElectionResult.class);
-		} finally {
-			ELECTION_FOR_JSON_CREATOR.remove();
-		}
+		return new LocalElectionResultJsonReader(election).read(reader);
 	}
 
 	/**
@@ -170,13 +144,80 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	@EqualsAndHashCode.Include
 	Set<LocalNomination> listDrawResults;
 
+	/**
+	 * Stimmzettel, run-length encoded
+	 *
+	 * @return Stimmzettel and their number of consecutive occurrences
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	List<LocalWeightedBallot> weightedBallots;
+
 	/**
 	 * Stimmzettel
+	 */
+	@ToString.Exclude
+	@Getter(AccessLevel.NONE)
+	Supplier<List<LocalBallot>> ballots = lazy(() -> LocalWeightedBallot.expand(getWeightedBallots()));
+
+	/**
+	 * Number of votes per nomination, sorted by value (high to low) and nomination.
+	 * Nominations, which were not voted for are not part of this map.
 	 *
-	 * @return Stimmzettel
+	 * @return the number of votes per nomination
 	 */
+	@JsonIgnore
 	@ToString.Exclude
-	List<LocalBallot> ballots;
+	@Getter(AccessLevel.PACKAGE)
+	Map<LocalNomination, Integer> votesOfNominations;
+
+	/**
+	 * Number of votes per party. Parties, which were not voted for are not part of
+	 * this map.
+	 *
+	 * @return the number of votes per party
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@Getter(AccessLevel.PACKAGE)
+	Map<Party, Integer> votesOfParties;
+
+	/**
+	 * Stimmzettel und Anzahlen nach Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 *
+	 * <p>
+	 * This index contains the election's district and all of its children.
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@Getter(AccessLevel.NONE)
+	Map<District<?>, DistrictBallots> districtBallots;
+
+	/**
+	 * Certain result types of all nominations, calculated on first access
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@Getter(AccessLevel.NONE)
+	Supplier<CertainResultAnalysis> certainResultAnalysis = lazy(() -> new CertainResultAnalysis(this));
+
+	/**
+	 * Co-occurrences of parties and nominations on the ballots, calculated on first
+	 * access
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@Getter(AccessLevel.NONE)
+	Supplier<CoOccurrenceMatrix> coOccurrenceMatrix = lazy(() -> new CoOccurrenceMatrix(this));
+
+	/**
+	 * Numbers of votes, block votes and invalid ballots by Wahlbezirk, calculated
+	 * on first access
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	@Getter(AccessLevel.NONE)
+	Supplier<PollingStationBreakdown> pollingStationBreakdown = lazy(() -> new PollingStationBreakdown(this));
 
 	/**
 	 * Wahlergebnis einzelner Bewerberinnen und Bewerber
@@ -196,21 +237,6 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	@ToString.Exclude
 	Map<Party, LocalPartyResult> partyResults;
 
-	/**
-	 * Wahlergebnis
-	 *
-	 * @param parsable JSON delegate
-	 */
-	@JsonCreator(mode = Mode.DELEGATING)
-	private LocalElectionResult(final ParsableLocalElectionResult parsable) {
-		this(ELECTION_FOR_JSON_CREATOR.get(),
-				parsable.getSainteLagueScale(),
-				parsable.getNumberOfAllBallots(),
-				parsable.getDirectDrawResults(),
-				parsable.getListDrawResults(),
-				parsable.getLocalBallots());
-	}
-
 	/**
 	 * Wahlergebnis
 	 *
@@ -221,33 +247,50 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 * @param listDrawResults    Ausgeloste Loskandidaten mit Listenmandat
 	 * @param ballots            Stimmzettel
 	 */
-	@SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "Election is no longer modifiable when passed here.")
 	public LocalElectionResult(final LocalElection election,
 			final int sainteLagueScale,
 			final Map<District<?>, OptionalInt> numberOfAllBallots,
 			final Set<LocalNomination> directDrawResults,
 			final Set<LocalNomination> listDrawResults,
 			final List<LocalBallot> ballots) {
-		this.election = election;
-		this.sainteLagueScale = sainteLagueScale;
-		this.directDrawResults = unmodifiableSet(new LinkedHashSet<>(directDrawResults));
-		this.listDrawResults = unmodifiableSet(new LinkedHashSet<>(listDrawResults));
-		this.ballots = unmodifiableList(ballots);
-
-		this.numberOfAllBallots = new DistrictValueMap(election);
-		this.numberOfAllBallots.putAll(numberOfAllBallots);
-
-		for (final LocalBallot ballot : ballots) {
-			if (!ballot.getElection().equals(election)) {
-				throw new ElectionException("Election \"%s\" of ballot does not match given election \"%s\".",
-						ballot.getElection().getName(),
-						election.getName());
-			}
-		}
+		this(new LocalElectionResultBuilder(election, sainteLagueScale).setNumberOfAllBallots(numberOfAllBallots)
+				.setDirectDrawResults(directDrawResults)
+				.setListDrawResults(listDrawResults)
+				.addAll(ballots), Optional.empty());
+	}
+
+	/**
+	 * Wahlergebnis as snapshot of a {@link LocalElectionResultBuilder}
+	 *
+	 * <p>
+	 * The number of votes are taken from {@code builder} instead of counting them
+	 * again. In case {@code allocation} is present, its seat allocation is reused
+	 * instead of calculating it again. The caller is responsible for
+	 * {@code allocation} to be based on the same number of votes and draw results.
+	 *
+	 * @param builder    the tally to take a snapshot of
+	 * @param allocation optional result to take the seat allocation from
+	 */
+	@PackagePrivate
+	@SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "Election is no longer modifiable when passed here.")
+	LocalElectionResult(final LocalElectionResultBuilder builder, final Optional<LocalElectionResult> allocation) {
+		election = builder.getElection();
+		sainteLagueScale = builder.getSainteLagueScale();
+		directDrawResults = unmodifiableSet(new LinkedHashSet<>(builder.getDirectDrawResults()));
+		listDrawResults = unmodifiableSet(new LinkedHashSet<>(builder.getListDrawResults()));
+		weightedBallots = builder.getWeightedBallots();
+		votesOfNominations
+				= unmodifiableMap(Maps.sort(builder.getVotesOfNominations(), VOTES_OF_NOMINATIONS_COMPARATOR));
+		votesOfParties = unmodifiableMap(new HashMap<>(builder.getVotesOfParties()));
+
+		numberOfAllBallots = new DistrictValueMap(election);
+		numberOfAllBallots.putAll(builder.getNumberOfAllBallots());
+		districtBallots = unmodifiableMap(createDistrictBallots(builder));
 
 		// Creating the nomination results first, because party results are based on the
 		// nomination results
-		nominationResults = unmodifiableMap(createNominationResults());
+		nominationResults
+				= unmodifiableMap(allocation.map(this::copyNominationResults).orElseGet(this::createNominationResults));
 		partyResults = unmodifiableMap(createPartyResults());
 	}
 
@@ -269,44 +312,21 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 		results.add(this);
 		results.addAll(Arrays.asList(resultsToAdd));
 
-		// Calculate number of all ballots
-		final Map<District<?>, OptionalInt> numberOfAllBallots = new HashMap<>();
-		for (final District<?> district : getElection().getAllDistricts()) {
-			Optionals.ofSingle(results.stream()
-					.map(result -> result.getNumberOfAllBallots(district))
-					.filter(OptionalInt::isPresent)
-					.distinct()).ifPresent(value -> numberOfAllBallots.put(district, value));
-		}
-
-		final Set<LocalNomination> directDrawResults = results.stream()
-				.map(LocalElectionResult::getDirectDrawResults)
-				.flatMap(Collection::stream)
-				.collect(toSet());
-		final Set<LocalNomination> listDrawResults = results.stream()
-				.map(LocalElectionResult::getListDrawResults)
-				.flatMap(Collection::stream)
-				.collect(toSet());
-		final List<LocalBallot> ballots
-				= results.stream().map(LocalElectionResult::getBallots).flatMap(Collection::stream).collect(toList());
-		return new LocalElectionResult(getElection(),
-				sainteLagueScale,
-				numberOfAllBallots,
-				directDrawResults,
-				listDrawResults,
-				ballots);
+		return new LocalElectionResultBuilder(getElection(), sainteLagueScale).mergeAll(results).build();
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public LocalElectionResult filter(final Predicate<? super LocalBallot> filter) {
-		final List<LocalBallot> filteredBallots = getBallots().stream().filter(filter).collect(toList());
-
-		return new LocalElectionResult(getElection(),
-				sainteLagueScale,
-				emptyMap(),
-				getDirectDrawResults(),
-				getListDrawResults(),
-				filteredBallots);
+		final LocalElectionResultBuilder builder = new LocalElectionResultBuilder(getElection(), sainteLagueScale)
+				.setDirectDrawResults(directDrawResults)
+				.setListDrawResults(listDrawResults);
+		for (final LocalWeightedBallot weightedBallot : weightedBallots) {
+			if (filter.test(weightedBallot.getBallot())) {
+				builder.add(weightedBallot);
+			}
+		}
+		return builder.build();
 	}
 
 	/**
@@ -317,12 +337,49 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 * @return a new {@link ElectionResult} with filtered ballots
 	 */
 	public LocalElectionResult filterByDistrict(final District<?> district) {
-		return new LocalElectionResult(getElection(),
-				sainteLagueScale,
-				numberOfAllBallots,
-				getDirectDrawResults(),
-				getListDrawResults(),
-				getBallots(district));
+		return new LocalElectionResultBuilder(getElection(), sainteLagueScale).setNumberOfAllBallots(numberOfAllBallots)
+				.setDirectDrawResults(directDrawResults)
+				.setListDrawResults(listDrawResults)
+				.addAllWeighted(getWeightedBallots(district))
+				.build();
+	}
+
+	/**
+	 * Certain result types of all nominations
+	 *
+	 * @return the analysis of certain result types
+	 */
+	@PackagePrivate
+	CertainResultAnalysis getCertainResultAnalysis() {
+		return certainResultAnalysis.get();
+	}
+
+	/**
+	 * Co-occurrences of parties and nominations on the ballots, calculated on first
+	 * access
+	 *
+	 * @return the co-occurrence matrix
+	 */
+	@JsonIgnore
+	public CoOccurrenceMatrix getCoOccurrenceMatrix() {
+		return coOccurrenceMatrix.get();
+	}
+
+	/**
+	 * Numbers of votes, block votes and invalid ballots by Wahlbezirk, calculated
+	 * on first access
+	 *
+	 * @return the breakdown by polling station
+	 */
+	@JsonIgnore
+	public PollingStationBreakdown getPollingStationBreakdown() {
+		return pollingStationBreakdown.get();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public List<LocalBallot> getBallots() {
+		return ballots.get();
 	}
 
 	/**
@@ -332,17 +389,74 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 * @return Stimmzettel
 	 */
 	public List<LocalBallot> getBallots(final District<?> district) {
-		return ballots.stream().filter(ballot -> district.contains(ballot.getPollingStation())).collect(toList());
+		return getDistrictBallots(district).getBallots();
 	}
 
 	/**
-	 * Stimmzettel
+	 * Stimmzettel eines Wahlgebiets, Wahlkreises oder Wahlbezirks, run-length
+	 * encoded
 	 *
-	 * @return Stimmzettel
+	 * @param district the district to filter for
+	 * @return Stimmzettel and their number of consecutive occurrences
+	 */
+	public List<LocalWeightedBallot> getWeightedBallots(final District<?> district) {
+		return unmodifiableList(getDistrictBallots(district).getWeightedBallots());
+	}
+
+	/**
+	 * Stimmzettel, grouped by Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 *
+	 * <p>
+	 * Districts, which are not part of the election's hierarchy, are collected on
+	 * the fly.
+	 *
+	 * @param district Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 * @return Stimmzettel und Anzahlen des Wahlgebiets, Wahlkreises oder
+	 *         Wahlbezirks
+	 */
+	private DistrictBallots getDistrictBallots(final District<?> district) {
+		final DistrictBallots ballotsOfDistrict = districtBallots.get(district);
+		if (ballotsOfDistrict != null) {
+			return ballotsOfDistrict;
+		}
+
+		final BallotCounts counts = new BallotCounts();
+		final List<LocalWeightedBallot> weightedBallotsOfDistrict = filterWeightedBallots(district);
+		for (final LocalWeightedBallot weightedBallot : weightedBallotsOfDistrict) {
+			counts.add(weightedBallot.getBallot(), weightedBallot.getWeight());
+		}
+		return new DistrictBallots(counts, weightedBallotsOfDistrict);
+	}
+
+	/**
+	 * Stimmzettel eines Wahlgebiets, Wahlkreises oder Wahlbezirks, run-length
+	 * encoded
+	 *
+	 * @param district Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 * @return Stimmzettel and their number of consecutive occurrences
+	 */
+	private List<LocalWeightedBallot> filterWeightedBallots(final District<?> district) {
+		final List<LocalWeightedBallot> weightedBallotsOfDistrict = new ArrayList<>();
+		for (final LocalWeightedBallot weightedBallot : weightedBallots) {
+			if (district.contains(weightedBallot.getBallot().getPollingStation())) {
+				weightedBallotsOfDistrict.add(weightedBallot);
+			}
+		}
+		return weightedBallotsOfDistrict;
+	}
+
+	/**
+	 * Stimmzettel and their number of occurrences, independent of their order
+	 *
+	 * @return Stimmzettel and their number of occurrences
 	 */
 	@EqualsAndHashCode.Include
-	private List<LocalBallot> getBallotsForEqualsAndHashCode() {
-		return ballots.stream().sorted().collect(toList());
+	private Map<LocalBallot, Integer> getBallotsForEqualsAndHashCode() {
+		final Map<LocalBallot, Integer> ballotsForEqualsAndHashCode = new HashMap<>();
+		for (final LocalWeightedBallot weightedBallot : weightedBallots) {
+			ballotsForEqualsAndHashCode.merge(weightedBallot.getBallot(), weightedBallot.getWeight(), Integer::sum);
+		}
+		return ballotsForEqualsAndHashCode;
 	}
 
 	/**
@@ -369,7 +483,7 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 		return OptionalInts
 				.mapToObj(getNumberOfAllBallots(district),
 						numberOfAllBallots -> BigDecimals
-								.divideOrZero(100L * getBallots(district).size(), numberOfAllBallots, scale))
+								.divideOrZero(100L * getNumberOfBallots(district), numberOfAllBallots, scale))
 				.map(BigDecimal.valueOf(100).setScale(scale)::min);
 	}
 
@@ -386,6 +500,27 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 				.collect(toSet());
 	}
 
+	/**
+	 * Anzahl der ausgewerteten Stimmzettel
+	 *
+	 * @return the number of evaluated ballots
+	 */
+	@JsonIgnore
+	public int getNumberOfBallots() {
+		return getNumberOfBallots(getElection().getDistrict());
+	}
+
+	/**
+	 * Anzahl der ausgewerteten Stimmzettel nach Wahlgebiet, Wahlkreis oder
+	 * Wahlbezirk
+	 *
+	 * @param district Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 * @return the number of evaluated ballots
+	 */
+	public int getNumberOfBallots(final District<?> district) {
+		return getDistrictBallots(district).getNumberOfBallots();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public OptionalInt getNumberOfAllBallots() {
@@ -437,7 +572,7 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 * @return the number of invalid ballots
 	 */
 	public int getNumberOfInvalidBallots(final District<?> district) {
-		return (int) getBallots(district).stream().filter(ballot -> !ballot.isValid()).count();
+		return getDistrictBallots(district).getNumberOfInvalidBallots();
 	}
 
 	/**
@@ -447,7 +582,7 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 */
 	@JsonIgnore
 	public int getNumberOfPostalBallots() {
-		return (int) getBallots().stream().filter(LocalBallot::isPostalVote).count();
+		return getDistrictBallots(getElection().getDistrict()).getNumberOfPostalBallots();
 	}
 
 	/**
@@ -467,11 +602,61 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 * @return the number of votes
 	 */
 	public int getNumberOfVotes(final District<?> district) {
-		return getBallots(district).stream()
-				.filter(LocalBallot::isValid)
-				.map(LocalBallot::getNominations)
-				.mapToInt(Set::size)
-				.sum();
+		return getDistrictBallots(district).getNumberOfVotes();
+	}
+
+	/**
+	 * Writes this election result as JSON to {@code writer}, compatible with
+	 * {@link #fromJson(Reader, LocalElection)}.
+	 *
+	 * @param writer JSON data
+	 * @throws IOException on IO error
+	 */
+	public void writeJson(final Writer writer) throws IOException {
+		createJacksonObjectWriter().writeValue(writer, this);
+	}
+
+	/**
+	 * Groups the ballots by Wahlgebiet, Wahlkreis and Wahlbezirk.
+	 *
+	 * <p>
+	 * This method is used within the method constructor. The numbers are copied
+	 * from the builder and the ballots of each district are taken as snapshots of
+	 * the builder, which grouped them while adding them.
+	 *
+	 * @param builder the tally to take a snapshot of
+	 * @return Stimmzettel und Anzahlen nach Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 */
+	private static Map<District<?>, DistrictBallots> createDistrictBallots(final LocalElectionResultBuilder builder) {
+		final Map<District<?>, DistrictBallots> ballotsOfDistricts = new HashMap<>();
+		for (final Entry<District<?>, BallotCounts> entry : builder.getDistrictCounts().entrySet()) {
+			final District<?> district = entry.getKey();
+			ballotsOfDistricts.put(district,
+					new DistrictBallots(new BallotCounts(entry.getValue()), builder.getWeightedBallots(district)));
+		}
+		return ballotsOfDistricts;
+	}
+
+	/**
+	 * Copies the nomination results of {@code allocation}, referencing {@code this}
+	 * instead.
+	 *
+	 * <p>
+	 * This method is used within the method constructor in case the number of votes
+	 * and draw results did not change compared to {@code allocation}.
+	 *
+	 * @param allocation the result to take the seat allocation from
+	 * @return Wahlergebnis einzelner Bewerberinnen und Bewerber
+	 */
+	private Map<LocalNomination, LocalNominationResult> copyNominationResults(final LocalElectionResult allocation) {
+		return allocation.getNominationResults()
+				.values()
+				.stream()
+				.map(nominationResult -> new LocalNominationResult(this,
+						nominationResult.getNomination(),
+						nominationResult.getType(),
+						nominationResult.getSainteLagueValue()))
+				.collect(toLinkedHashMap(LocalNominationResult::getNomination, identity()));
 	}
 
 	/**
@@ -547,25 +732,6 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 				.collect(toLinkedHashMap(LocalNominationResult::getNomination, identity()));
 	}
 
-	/**
-	 * Calculates the number of votes per nomination. The returned map is sorted by
-	 * value (high to low) and nomination. Nominations, which were not voted for are
-	 * not part of the result.
-	 *
-	 * @return the number of votes per nomination
-	 */
-	private Map<LocalNomination, Integer> getVotesOfNominations() {
-		// Calculate
-		final Map<LocalNomination, Integer> votes = getBallots().stream()
-				.filter(Ballot::isValid)
-				.map(LocalBallot::getNominations)
-				.flatMap(Set::stream)
-				.collect(toMap(identity(), nomination -> 1, (oldValue, thisValue) -> oldValue + thisValue));
-
-		// Sort
-		return Maps.sort(votes, VOTES_OF_NOMINATIONS_COMPARATOR);
-	}
-
 	/**
 	 * Returns a set of nominations, which were elected directly.
 	 *
@@ -705,60 +871,12 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 * @return the Sainte Laguë value for each nomination
 	 */
 	private Map<LocalNomination, BigDecimal> getSainteLague(final Map<LocalNomination, Integer> votes) {
-		// Calculate
-		final Map<LocalNomination, BigDecimal> sainteLague = getVotesOfParties().entrySet()
-				.stream()
-				.map(entry -> getSainteLagueOfParty(votes, entry.getKey(), entry.getValue()))
-				.map(Map::entrySet)
-				.flatMap(Set::stream)
-				.collect(toLinkedHashMap());
-
-		// Sort
-		return Maps.sort(sainteLague,
-				Comparator.<Entry<LocalNomination, BigDecimal>, BigDecimal>comparing(Entry::getValue)
-						.thenComparing(entry -> votes.getOrDefault(entry.getKey(), 0))
-						.reversed()
-						.thenComparing(Entry::getKey));
-	}
-
-	/**
-	 * Calculates the number of votes per party. The returned map is sorted by value
-	 * (low to high) and party. Parties, which were not voted for are not part of
-	 * the result.
-	 *
-	 * @return the number of votes per party
-	 */
-	private Map<Party, Integer> getVotesOfParties() {
-		return getBallots().stream()
-				.filter(Ballot::isValid)
-				.map(Ballot::getNominations)
-				.flatMap(Set::stream)
-				.map(Nomination::getParty)
-				.filter(Optional::isPresent)
-				.map(Optional::get)
-				.collect(toMap(identity(), party -> 1, (oldValue, thisValue) -> oldValue + thisValue));
-	}
-
-	/**
-	 * Calculates the Sainte Laguë value for each nomination of {@code party}.
-	 *
-	 * <p>
-	 * The returned map is ordered by Sainte Laguë value (high to low).
-	 *
-	 * @param votes        the number of votes per nomination
-	 * @param party        the party
-	 * @param votesOfParty the number of votes for {@code party}
-	 * @return the Sainte Laguë value for each nomination of {@code party}
-	 */
-	private Map<LocalNomination, BigDecimal> getSainteLagueOfParty(final Map<LocalNomination, Integer> votes,
-			final Party party,
-			final int votesOfParty) {
-		final Set<LocalNomination> nominationsOfParty = getSainteLagueNominationsOfParty(votes, party);
-		final Iterator<LocalNomination> iterator = nominationsOfParty.iterator();
-
-		return IntStream.range(0, nominationsOfParty.size())
-				.mapToObj(step -> getSainteLagueValue(votesOfParty, step))
-				.collect(toLinkedHashMap(step -> iterator.next(), identity()));
+		final Set<LocalNomination> directResults = getDirectResults(votes);
+		final SainteLagueAllocator allocator = new SainteLagueAllocator(getSainteLagueScale());
+		for (final Entry<Party, Integer> entry : getVotesOfParties().entrySet()) {
+			allocator.add(entry.getValue(), getSainteLagueNominationsOfParty(directResults, entry.getKey()), votes);
+		}
+		return allocator.allocate();
 	}
 
 	/**
@@ -770,17 +888,17 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	 * number of votes (high to low). All other nominations of {@code party} follow
 	 * in given order.
 	 *
-	 * @param votes the number of votes per nomination
-	 * @param party the party
+	 * @param directResults the directly elected nominations
+	 * @param party         the party
 	 * @return the nominations of {@code party} in their order of Sainte Laguë value
 	 *         assignment
 	 */
-	private Set<LocalNomination> getSainteLagueNominationsOfParty(final Map<LocalNomination, Integer> votes,
+	private Set<LocalNomination> getSainteLagueNominationsOfParty(final Set<LocalNomination> directResults,
 			final Party party) {
 		final Set<LocalNomination> nominations = new LinkedHashSet<>();
 
 		// Result Type: Direct and Direct Draw
-		getDirectResults(votes).stream()
+		directResults.stream()
 				.filter(nomination -> nomination.getParty().map(party::equals).orElse(Boolean.FALSE))
 				.forEach(nominations::add);
 
@@ -790,25 +908,6 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 		return nominations;
 	}
 
-	/**
-	 * Calculates the Sainte Laguë value using the formula:
-	 *
-	 * <p>
-	 * {@code votesOfParty / (step + 0.5)}
-	 *
-	 * <p>
-	 * {@code step} starts at zero and the scale of the returned {@link BigDecimal}
-	 * is given by {@link LocalElection#getSainteLagueScale()}.
-	 *
-	 * @param votesOfParty the number of votes of the corresponding party
-	 * @param step         step, starting at zero
-	 * @return the Sainte Laguë value
-	 */
-	@SuppressWarnings("checkstyle:MagicNumber")
-	private BigDecimal getSainteLagueValue(final int votesOfParty, final int step) {
-		return BigDecimals.divide(votesOfParty, BigDecimal.valueOf(step * 10 + 5, 1), getSainteLagueScale());
-	}
-
 	/**
 	 * Returns nominations, which have balance seats.
 	 *
@@ -910,9 +1009,10 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	private Set<LocalNomination> getOverhangSeats(final Map<LocalNomination, LocalNominationResultType> resultTypes,
 			final Map<LocalNomination, Integer> votes,
 			final Map<LocalNomination, BigDecimal> sainteLague) {
+		final Set<LocalNomination> directResults = getDirectResults(votes);
 		return sainteLague.keySet()
 				.stream()
-				.filter(nomination -> !getDirectResults(votes).contains(nomination))
+				.filter(nomination -> !directResults.contains(nomination))
 				.skip(getElection().getNumberOfListSeats())
 				.filter(nomination -> resultTypes.get(nomination) == LocalNominationResultType.LIST)
 				.collect(toSet());
@@ -937,173 +1037,88 @@ public final class LocalElectionResult implements ElectionResult<LocalBallot, Lo
 	}
 
 	/**
-	 * JSON delegate for {@link LocalElectionResult}
+	 * Stimmzettel und Anzahlen eines Wahlgebiets, Wahlkreises oder Wahlbezirks
 	 */
-	@Getter
-	@RequiredArgsConstructor
-	private static class ParsableLocalElectionResult {
-		/**
-		 * Finds a set of {@link LocalNomination}s by their keys.
-		 *
-		 * @param nominationKeys the keys to find
-		 * @return a set of {@link LocalNomination}s, found by their keys
-		 */
-		public static Set<LocalNomination> findNominations(final Set<String> nominationKeys) {
-			final LocalElection election = ELECTION_FOR_JSON_CREATOR.get();
-			return nominationKeys.stream()
-					.map(nominationKey -> Optionals
-							.ofSingle(election.getNominations()
-									.stream()
-									.filter(nomination -> nomination.getKey().equals(nominationKey)))
-							.orElseThrow(() -> new ElectionException(
-									"Could not find nomination with key \"%s\" for election \"%s\".",
-									nominationKey,
-									election.getName())))
-					.collect(toLinkedHashSet());
-		}
-
+	private static final class DistrictBallots {
 		/**
-		 * Anzahl aller Stimmzettel nach Wahlgebiet, Wahlkreis oder Wahlbezirk
-		 *
-		 * <p>
-		 * In case this number is larger than the size of the list of ballots for the
-		 * district, not all ballots were evaluated, yet.
-		 */
-		Map<String, OptionalInt> numberOfAllBallots;
-
-		/**
-		 * Scale (decimal places) of Sainte Laguë values
-		 *
-		 * <p>
-		 * Usually this is {@code 2}.
-		 *
-		 * @return the scale (decimal places) of Sainte Laguë values
+		 * Anzahlen der Stimmzettel und Stimmen
 		 */
-		int sainteLagueScale;
+		BallotCounts counts;
 
 		/**
-		 * Ausgeloste Loskandidaten mit Direktmandat
+		 * Stimmzettel, run-length encoded
 		 */
-		Set<String> directDrawResults;
+		List<LocalWeightedBallot> weightedBallots;
 
 		/**
-		 * Ausgeloste Loskandidaten mit Listenmandat
+		 * Stimmzettel, expanded on first access
 		 */
-		Set<String> listDrawResults;
+		Supplier<List<LocalBallot>> ballots = lazy(() -> LocalWeightedBallot.expand(getWeightedBallots()));
 
 		/**
-		 * Stimmzettel
+		 * Stimmzettel und Anzahlen eines Wahlgebiets, Wahlkreises oder Wahlbezirks
+		 *
+		 * @param counts          Anzahlen der Stimmzettel und Stimmen, not modified
+		 *                        afterwards
+		 * @param weightedBallots Stimmzettel, run-length encoded
 		 */
-		List<ParsableLocalBallot> ballots;
+		DistrictBallots(final BallotCounts counts, final List<LocalWeightedBallot> weightedBallots) {
+			this.counts = counts;
+			this.weightedBallots = weightedBallots;
+		}
 
 		/**
 		 * Stimmzettel
 		 *
 		 * @return Stimmzettel
 		 */
-		public List<LocalBallot> getLocalBallots() {
-			final LocalElection election = ELECTION_FOR_JSON_CREATOR.get();
-			return ballots.stream()
-					.map(ballot -> ballot.isValid()
-							? LocalBallot.createValidBallot(election,
-									ballot.getPollingStation(),
-									ballot.isPostalVote(),
-									ballot.getNominations())
-							: LocalBallot
-									.createInvalidBallot(election, ballot.getPollingStation(), ballot.isPostalVote()))
-					.collect(toList());
+		public List<LocalBallot> getBallots() {
+			return ballots.get();
 		}
 
 		/**
-		 * Ausgeloste Loskandidaten mit Direktmandat
+		 * Stimmzettel, run-length encoded
 		 *
-		 * @return Ausgeloste Loskandidaten mit Direktmandat
+		 * @return Stimmzettel and their number of consecutive occurrences
 		 */
-		public Set<LocalNomination> getDirectDrawResults() {
-			return findNominations(directDrawResults);
+		public List<LocalWeightedBallot> getWeightedBallots() {
+			return weightedBallots;
 		}
 
 		/**
-		 * Ausgeloste Loskandidaten mit Listenmandat
+		 * Anzahl der Stimmzettel
 		 *
-		 * @return Ausgeloste Loskandidaten mit Listenmandat
+		 * @return the number of ballots
 		 */
-		public Set<LocalNomination> getListDrawResults() {
-			return findNominations(listDrawResults);
+		public int getNumberOfBallots() {
+			return counts.getNumberOfBallots();
 		}
 
 		/**
-		 * Anzahl aller Stimmzettel nach Wahlgebiet, Wahlkreis oder Wahlbezirk
-		 *
-		 * <p>
-		 * In case this number is larger than the size of the list of ballots for the
-		 * district, not all ballots were evaluated, yet.
+		 * Anzahl ungültiger Stimmzettel
 		 *
-		 * @return Anzahl aller Stimmzettel nach Wahlgebiet, Wahlkreis oder Wahlbezirk
+		 * @return the number of invalid ballots
 		 */
-		public Map<District<?>, OptionalInt> getNumberOfAllBallots() {
-			return ELECTION_FOR_JSON_CREATOR.get()
-					.getAllDistricts()
-					.stream()
-					.collect(toMap(identity(),
-							district -> numberOfAllBallots.getOrDefault(district.getKey(), OptionalInt.empty())));
+		public int getNumberOfInvalidBallots() {
+			return counts.getNumberOfInvalidBallots();
 		}
-	}
 
-	/**
-	 * JSON delegate for {@link LocalBallot}
-	 */
-	@Getter
-	@RequiredArgsConstructor
-	private static class ParsableLocalBallot {
 		/**
-		 * Wahlbezirk
-		 */
-		String pollingStation;
-
-		/**
-		 * Briefwahl
-		 *
-		 * @return {@code true} for postal vote ballots, else {@code false}
-		 */
-		boolean postalVote;
-
-		/**
-		 * Ungültige Stimme
-		 *
-		 * @return {@code true} for valid ballots, else {@code false}
-		 */
-		boolean valid;
-
-		/**
-		 * Gewählte Bewerberinnen und Bewerber
-		 */
-		Set<String> nominations;
-
-		/**
-		 * Wahlbezirk
+		 * Anzahl der Briefwahlstimmzettel
 		 *
-		 * @return Wahlbezirk
+		 * @return the number of postal ballots
 		 */
-		public LocalPollingStation getPollingStation() {
-			return ELECTION_FOR_JSON_CREATOR.get()
-					.getPollingStations()
-					.stream()
-					.filter(district -> pollingStation.equals(district.getKey()))
-					.findAny()
-					.orElseThrow(() -> new ElectionException(
-							"Could not find polling station with key \"%s\" for election \"%s\".",
-							getPollingStation(),
-							ELECTION_FOR_JSON_CREATOR.get().getName()));
+		public int getNumberOfPostalBallots() {
+			return counts.getNumberOfPostalBallots();
 		}
 
 		/**
-		 * Gewählte Bewerberinnen und Bewerber
+		 * Anzahl der Stimmen
 		 *
-		 * @return Gewählte Bewerberinnen und Bewerber
+		 * @return the number of votes
 		 */
-		public Set<LocalNomination> getNominations() {
-			return ParsableLocalElectionResult.findNominations(nominations);
+		public int getNumberOfVotes() {
+			return counts.getNumberOfVotes();
 		}
 	}
 }
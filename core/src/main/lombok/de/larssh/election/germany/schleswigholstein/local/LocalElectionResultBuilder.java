@@ -0,0 +1,614 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import de.larssh.election.germany.schleswigholstein.District;
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.utils.annotations.PackagePrivate;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.NonFinal;
+
+/**
+ * Mutable tally of an election, which creates immutable
+ * {@link LocalElectionResult} snapshots
+ *
+ * <p>
+ * Adding and removing ballots updates the number of votes per nomination and
+ * per party in time proportional to the changed ballots. Creating a snapshot
+ * using {@link #build()} re-runs the seat allocation only in case the number of
+ * votes or draw results changed since the last snapshot.
+ *
+ * <p>
+ * Snapshots share the run-length encoded ballots with this builder in chunks,
+ * which are copied on their next modification only. Removing a ballot looks up
+ * the chunks of its runs by ballot instead of scanning all runs.
+ *
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+@ToString(onlyExplicitlyIncluded = true)
+@Getter(AccessLevel.PACKAGE)
+public final class LocalElectionResultBuilder {
+	/**
+	 * Wahl
+	 *
+	 * @return Wahl
+	 */
+	@ToString.Include
+	@Getter(AccessLevel.PUBLIC)
+	LocalElection election;
+
+	/**
+	 * Scale (decimal places) of Sainte Laguë values
+	 *
+	 * @return the scale (decimal places) of Sainte Laguë values
+	 */
+	@ToString.Include
+	@Getter(AccessLevel.PUBLIC)
+	int sainteLagueScale;
+
+	/**
+	 * Anzahl aller Stimmzettel nach Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 */
+	Map<District<?>, OptionalInt> numberOfAllBallots = new HashMap<>();
+
+	/**
+	 * Ausgeloste Loskandidaten mit Direktmandat
+	 */
+	Set<LocalNomination> directDrawResults = new LinkedHashSet<>();
+
+	/**
+	 * Ausgeloste Loskandidaten mit Listenmandat
+	 */
+	Set<LocalNomination> listDrawResults = new LinkedHashSet<>();
+
+	/**
+	 * Stimmzettel, run-length encoded
+	 */
+	@Getter(AccessLevel.NONE)
+	WeightedBallotChunks weightedBallots = new WeightedBallotChunks();
+
+	/**
+	 * Anzahl der Stimmzettel
+	 *
+	 * @return the number of ballots
+	 */
+	@NonFinal
+	@Getter(AccessLevel.PUBLIC)
+	int numberOfBallots = 0;
+
+	/**
+	 * Number of votes per nomination. Nominations, which were not voted for are not
+	 * part of this map.
+	 */
+	Map<LocalNomination, Integer> votesOfNominations = new HashMap<>();
+
+	/**
+	 * Number of votes per party. Parties, which were not voted for are not part of
+	 * this map.
+	 */
+	Map<Party, Integer> votesOfParties = new HashMap<>();
+
+	/**
+	 * Anzahlen nach Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 *
+	 * <p>
+	 * This index contains the election's district and all of its children.
+	 */
+	Map<District<?>, BallotCounts> districtCounts = new HashMap<>();
+
+	/**
+	 * Stimmzettel nach Wahlgebiet, Wahlkreis oder Wahlbezirk, run-length encoded
+	 *
+	 * <p>
+	 * This index contains the same districts as {@link #districtCounts}.
+	 */
+	@Getter(AccessLevel.NONE)
+	Map<District<?>, WeightedBallotChunks> districtWeightedBallots = new HashMap<>();
+
+	/**
+	 * The most recently built snapshot or {@code null} if it needs to be built
+	 * again
+	 */
+	@Nullable
+	@NonFinal
+	@Getter(AccessLevel.NONE)
+	LocalElectionResult result = null;
+
+	/**
+	 * The most recently built snapshot, kept to reuse its seat allocation
+	 */
+	@Nullable
+	@NonFinal
+	@Getter(AccessLevel.NONE)
+	LocalElectionResult previousResult = null;
+
+	/**
+	 * Mutable tally of an election
+	 *
+	 * @param election         Wahl
+	 * @param sainteLagueScale Scale (decimal places) of Sainte Laguë values
+	 */
+	@SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "Election is no longer modifiable when passed here.")
+	public LocalElectionResultBuilder(final LocalElection election, final int sainteLagueScale) {
+		this.election = election;
+		this.sainteLagueScale = sainteLagueScale;
+
+		districtCounts.put(election.getDistrict(), new BallotCounts());
+		districtWeightedBallots.put(election.getDistrict(), new WeightedBallotChunks());
+		for (final District<?> district : election.getAllDistricts()) {
+			districtCounts.put(district, new BallotCounts());
+			districtWeightedBallots.put(district, new WeightedBallotChunks());
+		}
+	}
+
+	/**
+	 * Adds a ballot and updates the number of votes accordingly.
+	 *
+	 * @param ballot Stimmzettel
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder add(final LocalBallot ballot) {
+		return add(ballot, 1);
+	}
+
+	/**
+	 * Adds {@code weight} occurrences of a ballot and updates the number of votes
+	 * accordingly.
+	 *
+	 * @param ballot Stimmzettel
+	 * @param weight number of occurrences, must not be negative
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder add(final LocalBallot ballot, final int weight) {
+		if (!ballot.getElection().equals(election)) {
+			throw new ElectionException("Election \"%s\" of ballot does not match given election \"%s\".",
+					ballot.getElection().getName(),
+					election.getName());
+		}
+		if (weight < 0) {
+			throw new ElectionException("Cannot add a ballot %d times.", weight);
+		}
+		if (weight == 0) {
+			return this;
+		}
+
+		weightedBallots.add(ballot, weight);
+		count(ballot, weight);
+		return this;
+	}
+
+	/**
+	 * Adds a weighted ballot and updates the number of votes accordingly.
+	 *
+	 * @param weightedBallot Stimmzettel and its number of occurrences
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder add(final LocalWeightedBallot weightedBallot) {
+		return add(weightedBallot.getBallot(), weightedBallot.getWeight());
+	}
+
+	/**
+	 * Adds ballots and updates the number of votes accordingly.
+	 *
+	 * @param ballots Stimmzettel
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder addAll(final Collection<LocalBallot> ballots) {
+		for (final LocalBallot ballot : ballots) {
+			add(ballot);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds weighted ballots and updates the number of votes accordingly.
+	 *
+	 * @param weightedBallots Stimmzettel and their number of occurrences
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder addAllWeighted(final Collection<LocalWeightedBallot> weightedBallots) {
+		for (final LocalWeightedBallot weightedBallot : weightedBallots) {
+			add(weightedBallot);
+		}
+		return this;
+	}
+
+	/**
+	 * Merges the ballots, draw results and numbers of all ballots of a result of
+	 * the same election into this builder.
+	 *
+	 * <p>
+	 * Draw results are united. All merged results with a number of all ballots for
+	 * a district must agree on it.
+	 *
+	 * @param result Wahlergebnis to merge
+	 * @return this builder
+	 * @throws IllegalArgumentException if {@code result} belongs to a different
+	 *                                  election
+	 * @throws ElectionException        if {@code result} states a number of all
+	 *                                  ballots differing from the one of this
+	 *                                  builder for the same district
+	 */
+	public LocalElectionResultBuilder merge(final LocalElectionResult result) {
+		if (result.getElection() != election) {
+			throw new IllegalArgumentException("Election results of a different election cannot be merged.");
+		}
+
+		final Map<District<?>, OptionalInt> mergedNumberOfAllBallots = new HashMap<>();
+		for (final District<?> district : election.getAllDistricts()) {
+			final OptionalInt value = result.getNumberOfAllBallots(district);
+			if (value.isPresent()) {
+				checkNumberOfAllBallots(district, value.getAsInt());
+				mergedNumberOfAllBallots.put(district, value);
+			}
+		}
+		numberOfAllBallots.putAll(mergedNumberOfAllBallots);
+		directDrawResults.addAll(result.getDirectDrawResults());
+		listDrawResults.addAll(result.getListDrawResults());
+		modified();
+		return addAllWeighted(result.getWeightedBallots());
+	}
+
+	/**
+	 * Merges the results of the same election into this builder.
+	 *
+	 * @param results Wahlergebnisse to merge
+	 * @return this builder
+	 * @throws IllegalArgumentException if any result belongs to a different
+	 *                                  election
+	 * @throws ElectionException        if the results state differing numbers of
+	 *                                  all ballots for the same district
+	 * @see #merge(LocalElectionResult)
+	 */
+	public LocalElectionResultBuilder mergeAll(final Collection<LocalElectionResult> results) {
+		for (final LocalElectionResult result : results) {
+			merge(result);
+		}
+		return this;
+	}
+
+	/**
+	 * Checks that {@code numberOfAllBallots} of a merged result agrees with the
+	 * number of all ballots of this builder for {@code district}.
+	 *
+	 * @param district           Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 * @param numberOfAllBallots Anzahl aller Stimmzettel of the merged result
+	 * @throws ElectionException if the numbers of all ballots differ
+	 */
+	private void checkNumberOfAllBallots(final District<?> district, final int numberOfAllBallots) {
+		final OptionalInt current = this.numberOfAllBallots.getOrDefault(district, OptionalInt.empty());
+		if (current.isPresent() && current.getAsInt() != numberOfAllBallots) {
+			throw new ElectionException("Cannot merge differing numbers of all ballots %d and %d of district \"%s\".",
+					current.getAsInt(),
+					numberOfAllBallots,
+					district.getName());
+		}
+	}
+
+	/**
+	 * Removes all ballots and resets the number of votes.
+	 *
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder clearBallots() {
+		weightedBallots.clear();
+		numberOfBallots = 0;
+		votesOfNominations.clear();
+		votesOfParties.clear();
+		districtCounts.replaceAll((district, counts) -> new BallotCounts());
+		districtWeightedBallots.values().forEach(WeightedBallotChunks::clear);
+		modified();
+		return this;
+	}
+
+	/**
+	 * Removes the last occurrence of a ballot and updates the number of votes
+	 * accordingly.
+	 *
+	 * @param ballot Stimmzettel
+	 * @return this builder
+	 * @throws ElectionException if {@code ballot} was not added before
+	 */
+	public LocalElectionResultBuilder remove(final LocalBallot ballot) {
+		if (weightedBallots.remove(ballot)) {
+			count(ballot, -1);
+			return this;
+		}
+		throw new ElectionException("Cannot remove a ballot of polling station \"%s\", which was not added before.",
+				ballot.getPollingStation().getKey());
+	}
+
+	/**
+	 * Removes one occurrence of each of the given ballots and updates the number of
+	 * votes accordingly.
+	 *
+	 * @param ballots Stimmzettel
+	 * @return this builder
+	 * @throws ElectionException if any ballot was not added before
+	 */
+	public LocalElectionResultBuilder removeAll(final Collection<LocalBallot> ballots) {
+		for (final LocalBallot ballot : ballots) {
+			remove(ballot);
+		}
+		return this;
+	}
+
+	/**
+	 * Updates the number of ballots and votes by {@code weight} occurrences of
+	 * {@code ballot}. The ballots of {@code ballot}'s districts are updated within
+	 * the same pass.
+	 *
+	 * @param ballot Stimmzettel
+	 * @param weight number of occurrences to add or {@code -1} to remove the last
+	 *               occurrence
+	 */
+	private void count(final LocalBallot ballot, final int weight) {
+		numberOfBallots += weight;
+		if (ballot.isValid()) {
+			for (final LocalNomination nomination : ballot.getNominations()) {
+				votesOfNominations.compute(nomination, (key, votes) -> sum(votes, weight));
+				nomination.getParty()
+						.ifPresent(party -> votesOfParties.compute(party, (key, votes) -> sum(votes, weight)));
+			}
+		}
+
+		Optional<? extends District<?>> district = Optional.of(ballot.getPollingStation());
+		while (district.isPresent()) {
+			final BallotCounts counts = districtCounts.get(district.get());
+			if (counts != null) {
+				counts.add(ballot, weight);
+
+				final WeightedBallotChunks weightedBallotsOfDistrict = districtWeightedBallots.get(district.get());
+				if (weight > 0) {
+					weightedBallotsOfDistrict.add(ballot, weight);
+				} else {
+					weightedBallotsOfDistrict.remove(ballot);
+				}
+			}
+			district = district.get().getParent();
+		}
+		modified();
+	}
+
+	/**
+	 * Sums up {@code votes} and {@code weight}, returning {@code null} if the sum
+	 * is zero.
+	 *
+	 * @param votes  the current number of votes or {@code null}
+	 * @param weight the number of votes to add
+	 * @return the sum or {@code null}
+	 */
+	@Nullable
+	@SuppressWarnings("PMD.NullAssignment")
+	private static Integer sum(@Nullable final Integer votes, final int weight) {
+		final int sum = (votes == null ? 0 : votes) + weight;
+		return sum == 0 ? null : sum;
+	}
+
+	/**
+	 * Sets the number of all ballots of a district.
+	 *
+	 * @param district           Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 * @param numberOfAllBallots Anzahl aller Stimmzettel or empty
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder setNumberOfAllBallots(final District<?> district,
+			final OptionalInt numberOfAllBallots) {
+		this.numberOfAllBallots.put(district, numberOfAllBallots);
+		modified();
+		return this;
+	}
+
+	/**
+	 * Sets the number of all ballots of multiple districts.
+	 *
+	 * @param numberOfAllBallots Anzahl aller Stimmzettel nach Wahlgebiet, Wahlkreis
+	 *                           oder Wahlbezirk
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder setNumberOfAllBallots(
+			final Map<? extends District<?>, OptionalInt> numberOfAllBallots) {
+		this.numberOfAllBallots.putAll(numberOfAllBallots);
+		modified();
+		return this;
+	}
+
+	/**
+	 * Replaces the direct draw results.
+	 *
+	 * @param directDrawResults Ausgeloste Loskandidaten mit Direktmandat
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder setDirectDrawResults(final Collection<LocalNomination> directDrawResults) {
+		this.directDrawResults.clear();
+		this.directDrawResults.addAll(directDrawResults);
+		modified();
+		return this;
+	}
+
+	/**
+	 * Replaces the list draw results.
+	 *
+	 * @param listDrawResults Ausgeloste Loskandidaten mit Listenmandat
+	 * @return this builder
+	 */
+	public LocalElectionResultBuilder setListDrawResults(final Collection<LocalNomination> listDrawResults) {
+		this.listDrawResults.clear();
+		this.listDrawResults.addAll(listDrawResults);
+		modified();
+		return this;
+	}
+
+	/**
+	 * Stimmzettel
+	 *
+	 * @return Stimmzettel
+	 */
+	public List<LocalBallot> getBallots() {
+		return LocalWeightedBallot.expand(getWeightedBallots());
+	}
+
+	/**
+	 * Stimmzettel, run-length encoded
+	 *
+	 * <p>
+	 * The returned list is an immutable snapshot, which is not affected by later
+	 * modifications of this builder. Creating it costs time proportional to the
+	 * number of chunks of weighted ballots.
+	 *
+	 * @return Stimmzettel and their number of consecutive occurrences
+	 */
+	public List<LocalWeightedBallot> getWeightedBallots() {
+		return weightedBallots.snapshot();
+	}
+
+	/**
+	 * Stimmzettel eines Wahlgebiets, Wahlkreises oder Wahlbezirks, run-length
+	 * encoded
+	 *
+	 * <p>
+	 * The returned list is an immutable snapshot like
+	 * {@link #getWeightedBallots()}. {@code district} must be part of
+	 * {@link #getDistrictCounts()}.
+	 *
+	 * @param district Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 * @return Stimmzettel and their number of consecutive occurrences
+	 */
+	@PackagePrivate
+	List<LocalWeightedBallot> getWeightedBallots(final District<?> district) {
+		return districtWeightedBallots.get(district).snapshot();
+	}
+
+	/**
+	 * Ausgeloste Loskandidaten mit Direktmandat
+	 *
+	 * @return Ausgeloste Loskandidaten mit Direktmandat
+	 */
+	public Set<LocalNomination> getDirectDrawResults() {
+		return unmodifiableSet(directDrawResults);
+	}
+
+	/**
+	 * Ausgeloste Loskandidaten mit Listenmandat
+	 *
+	 * @return Ausgeloste Loskandidaten mit Listenmandat
+	 */
+	public Set<LocalNomination> getListDrawResults() {
+		return unmodifiableSet(listDrawResults);
+	}
+
+	/**
+	 * Anzahl der Stimmen einer Bewerberin oder eines Bewerbers
+	 *
+	 * @param nomination Bewerberin oder Bewerber
+	 * @return the current number of votes
+	 */
+	public int getNumberOfVotes(final LocalNomination nomination) {
+		return votesOfNominations.getOrDefault(nomination, 0);
+	}
+
+	/**
+	 * Anzahl der Stimmen einer politischen Partei oder Wählergruppe
+	 *
+	 * @param party Politische Partei oder Wählergruppe
+	 * @return the current number of votes
+	 */
+	public int getNumberOfVotes(final Party party) {
+		return votesOfParties.getOrDefault(party, 0);
+	}
+
+	/**
+	 * Number of votes per nomination. Nominations, which were not voted for are not
+	 * part of this map.
+	 *
+	 * @return the number of votes per nomination
+	 */
+	@PackagePrivate
+	Map<LocalNomination, Integer> getVotesOfNominations() {
+		return unmodifiableMap(votesOfNominations);
+	}
+
+	/**
+	 * Number of votes per party. Parties, which were not voted for are not part of
+	 * this map.
+	 *
+	 * @return the number of votes per party
+	 */
+	@PackagePrivate
+	Map<Party, Integer> getVotesOfParties() {
+		return unmodifiableMap(votesOfParties);
+	}
+
+	/**
+	 * Anzahlen nach Wahlgebiet, Wahlkreis oder Wahlbezirk
+	 *
+	 * <p>
+	 * This index contains the election's district and all of its children. Its
+	 * values are modified by this builder and need to be copied to be kept.
+	 *
+	 * @return the numbers of ballots and votes by district
+	 */
+	@PackagePrivate
+	Map<District<?>, BallotCounts> getDistrictCounts() {
+		return unmodifiableMap(districtCounts);
+	}
+
+	/**
+	 * Creates an immutable snapshot of the current tally.
+	 *
+	 * <p>
+	 * The same snapshot is returned until this builder is modified. The seat
+	 * allocation of the previous snapshot is reused if neither the number of votes
+	 * per nomination nor the draw results changed.
+	 *
+	 * @return Wahlergebnis
+	 */
+	@SuppressWarnings("PMD.NullAssignment")
+	public LocalElectionResult build() {
+		LocalElectionResult current = result;
+		if (current == null) {
+			current = new LocalElectionResult(this, Optional.ofNullable(previousResult).filter(this::isAllocationOf));
+			result = current;
+			previousResult = current;
+		}
+		return current;
+	}
+
+	/**
+	 * Determines if the seat allocation of {@code snapshot} is based on the same
+	 * number of votes and draw results as this builder.
+	 *
+	 * @param snapshot a previously built snapshot
+	 * @return {@code true} if the seat allocation of {@code snapshot} can be
+	 *         reused, else {@code false}
+	 */
+	private boolean isAllocationOf(final LocalElectionResult snapshot) {
+		return snapshot.getVotesOfNominations().equals(votesOfNominations)
+				&& snapshot.getDirectDrawResults().equals(directDrawResults)
+				&& snapshot.getListDrawResults().equals(listDrawResults);
+	}
+
+	/**
+	 * Invalidates the most recently built snapshot.
+	 */
+	@SuppressWarnings("PMD.NullAssignment")
+	private void modified() {
+		result = null;
+	}
+}
@@ -0,0 +1,352 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import de.larssh.election.germany.schleswigholstein.Party;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Changes between two snapshots of the same election result, e.g. while
+ * following the count
+ *
+ * <p>
+ * The changes are calculated by comparing the numbers of votes, ballots and
+ * seats, which both results already counted while being created, instead of
+ * walking their ballots again. Nominations, parties and polling stations
+ * without changes are not part of the delta.
+ */
+@Getter
+@ToString
+public final class LocalElectionResultDelta {
+	/**
+	 * Scale (decimal places) of evaluation progress values
+	 */
+	private static final int EVALUATION_PROGRESS_SCALE = 1;
+
+	/**
+	 * Previous Wahlergebnis
+	 *
+	 * @return the previous Wahlergebnis
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	LocalElectionResult previous;
+
+	/**
+	 * Current Wahlergebnis
+	 *
+	 * @return the current Wahlergebnis
+	 */
+	@JsonIgnore
+	@ToString.Exclude
+	LocalElectionResult current;
+
+	/**
+	 * Changes of Bewerberinnen und Bewerber
+	 *
+	 * @return the changes of Bewerberinnen und Bewerber
+	 */
+	@JsonProperty(index = 0)
+	List<NominationDelta> nominations;
+
+	/**
+	 * Changes of politische Parteien und Wählergruppen
+	 *
+	 * @return the changes of politische Parteien und Wählergruppen
+	 */
+	@JsonProperty(index = 1)
+	List<PartyDelta> parties;
+
+	/**
+	 * Changes of Wahlbezirke
+	 *
+	 * @return the changes of Wahlbezirke
+	 */
+	@JsonProperty(index = 2)
+	List<PollingStationDelta> pollingStations;
+
+	/**
+	 * Calculates the changes from {@code previous} to {@code current}.
+	 *
+	 * @param previous the previous Wahlergebnis
+	 * @param current  the current Wahlergebnis
+	 * @throws ElectionException if both results belong to different elections
+	 */
+	public LocalElectionResultDelta(final LocalElectionResult previous, final LocalElectionResult current) {
+		if (previous.getElection() != current.getElection()) {
+			throw new ElectionException("Cannot calculate changes between results of different elections.");
+		}
+		this.previous = previous;
+		this.current = current;
+
+		nominations = unmodifiableList(createNominationDeltas());
+		parties = unmodifiableList(createPartyDeltas());
+		pollingStations = unmodifiableList(createPollingStationDeltas());
+	}
+
+	/**
+	 * Determines if neither nominations, parties nor polling stations changed.
+	 *
+	 * @return {@code true} if nothing changed, else {@code false}
+	 */
+	@JsonIgnore
+	public boolean isEmpty() {
+		return nominations.isEmpty() && parties.isEmpty() && pollingStations.isEmpty();
+	}
+
+	/**
+	 * Compares the number of votes and result types of all nominations.
+	 *
+	 * @return the changes of nominations
+	 */
+	private List<NominationDelta> createNominationDeltas() {
+		final List<NominationDelta> deltas = new ArrayList<>();
+		for (final LocalNomination nomination : current.getElection().getNominations()) {
+			final LocalNominationResult previousResult = previous.getNominationResults().get(nomination);
+			final LocalNominationResult currentResult = current.getNominationResults().get(nomination);
+			final NominationDelta delta = new NominationDelta(nomination,
+					current.getVotesOfNominations().getOrDefault(nomination, 0)
+							- previous.getVotesOfNominations().getOrDefault(nomination, 0),
+					previousResult.getType(),
+					currentResult.getType(),
+					previousResult.getCertainResultType(),
+					currentResult.getCertainResultType());
+			if (delta.isChanged()) {
+				deltas.add(delta);
+			}
+		}
+		return deltas;
+	}
+
+	/**
+	 * Compares the number of votes and seats of all parties.
+	 *
+	 * @return the changes of parties
+	 */
+	private List<PartyDelta> createPartyDeltas() {
+		final List<PartyDelta> deltas = new ArrayList<>();
+		for (final Party party : current.getElection().getParties()) {
+			final PartyDelta delta = new PartyDelta(party,
+					current.getVotesOfParties().getOrDefault(party, 0)
+							- previous.getVotesOfParties().getOrDefault(party, 0),
+					current.getPartyResults().get(party).getNumberOfSeats()
+							- previous.getPartyResults().get(party).getNumberOfSeats());
+			if (delta.getNumberOfVotes() != 0 || delta.getNumberOfSeats() != 0) {
+				deltas.add(delta);
+			}
+		}
+		return deltas;
+	}
+
+	/**
+	 * Compares the number of evaluated and invalid ballots of all polling stations.
+	 *
+	 * @return the changes of polling stations
+	 */
+	private List<PollingStationDelta> createPollingStationDeltas() {
+		final List<PollingStationDelta> deltas = new ArrayList<>();
+		for (final LocalPollingStation pollingStation : current.getElection().getPollingStations()) {
+			final Optional<BigDecimal> evaluationProgress
+					= current.getEvaluationProgress(EVALUATION_PROGRESS_SCALE, pollingStation);
+			final PollingStationDelta delta = new PollingStationDelta(pollingStation,
+					current.getNumberOfBallots(pollingStation) - previous.getNumberOfBallots(pollingStation),
+					current.getNumberOfInvalidBallots(pollingStation)
+							- previous.getNumberOfInvalidBallots(pollingStation),
+					evaluationProgress);
+			if (delta.getNumberOfBallots() != 0
+					|| delta.getNumberOfInvalidBallots() != 0
+					|| !evaluationProgress
+							.equals(previous.getEvaluationProgress(EVALUATION_PROGRESS_SCALE, pollingStation))) {
+				deltas.add(delta);
+			}
+		}
+		return deltas;
+	}
+
+	/**
+	 * Changes of a Bewerberin oder eines Bewerbers
+	 */
+	@Getter
+	@ToString
+	@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+	public static final class NominationDelta {
+		/**
+		 * Bewerberin oder Bewerber
+		 *
+		 * @return Bewerberin oder Bewerber
+		 */
+		@JsonIgnore
+		LocalNomination nomination;
+
+		/**
+		 * Change of the number of votes
+		 *
+		 * @return the change of the number of votes
+		 */
+		@JsonProperty(index = 1)
+		int numberOfVotes;
+
+		/**
+		 * Previous Art der Vertreterin oder des Vertreters
+		 *
+		 * @return the previous Art der Vertreterin oder des Vertreters
+		 */
+		@JsonProperty(index = 2)
+		LocalNominationResultType previousType;
+
+		/**
+		 * Current Art der Vertreterin oder des Vertreters
+		 *
+		 * @return the current Art der Vertreterin oder des Vertreters
+		 */
+		@SuppressWarnings("checkstyle:MagicNumber")
+		@JsonProperty(index = 3)
+		LocalNominationResultType type;
+
+		/**
+		 * Previous guaranteed result type or empty
+		 *
+		 * @return the previous guaranteed result type or empty
+		 */
+		@SuppressWarnings("checkstyle:MagicNumber")
+		@JsonProperty(index = 4)
+		Optional<LocalNominationResultType> previousCertainType;
+
+		/**
+		 * Current guaranteed result type or empty
+		 *
+		 * @return the current guaranteed result type or empty
+		 */
+		@SuppressWarnings("checkstyle:MagicNumber")
+		@JsonProperty(index = 5)
+		Optional<LocalNominationResultType> certainType;
+
+		/**
+		 * Unique key of the Bewerberin oder des Bewerbers
+		 *
+		 * @return the unique key of the nomination
+		 */
+		@JsonProperty(value = "nomination", index = 0)
+		public String getNominationKey() {
+			return getNomination().getKey();
+		}
+
+		/**
+		 * Determines if the number of votes, the result type or the certain result type
+		 * changed.
+		 *
+		 * @return {@code true} if anything changed, else {@code false}
+		 */
+		@JsonIgnore
+		public boolean isChanged() {
+			return numberOfVotes != 0 || previousType != type || !Objects.equals(previousCertainType, certainType);
+		}
+	}
+
+	/**
+	 * Changes of a politische Partei oder Wählergruppe
+	 */
+	@Getter
+	@ToString
+	@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+	public static final class PartyDelta {
+		/**
+		 * Politische Partei oder Wählergruppe
+		 *
+		 * @return politische Partei oder Wählergruppe
+		 */
+		@JsonIgnore
+		Party party;
+
+		/**
+		 * Change of the number of votes
+		 *
+		 * @return the change of the number of votes
+		 */
+		@JsonProperty(index = 1)
+		int numberOfVotes;
+
+		/**
+		 * Change of the number of seats
+		 *
+		 * @return the change of the number of seats
+		 */
+		@JsonProperty(index = 2)
+		int numberOfSeats;
+
+		/**
+		 * Unique key of the politische Partei oder Wählergruppe
+		 *
+		 * @return the unique key of the party
+		 */
+		@JsonProperty(value = "party", index = 0)
+		public String getPartyKey() {
+			return getParty().getKey();
+		}
+	}
+
+	/**
+	 * Changes of a Wahlbezirk
+	 */
+	@Getter
+	@ToString
+	@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+	public static final class PollingStationDelta {
+		/**
+		 * Wahlbezirk
+		 *
+		 * @return Wahlbezirk
+		 */
+		@JsonIgnore
+		LocalPollingStation pollingStation;
+
+		/**
+		 * Change of the number of evaluated ballots
+		 *
+		 * @return the change of the number of evaluated ballots
+		 */
+		@JsonProperty(index = 1)
+		int numberOfBallots;
+
+		/**
+		 * Change of the number of invalid ballots
+		 *
+		 * @return the change of the number of invalid ballots
+		 */
+		@JsonProperty(index = 2)
+		int numberOfInvalidBallots;
+
+		/**
+		 * Current ballot evaluation progress in percentage or empty if the number of
+		 * all ballots is unknown
+		 *
+		 * @return the current ballot evaluation progress in percentage or empty
+		 */
+		@SuppressWarnings("checkstyle:MagicNumber")
+		@JsonProperty(index = 3)
+		Optional<BigDecimal> evaluationProgress;
+
+		/**
+		 * Unique key of the Wahlbezirk
+		 *
+		 * @return the unique key of the polling station
+		 */
+		@JsonProperty(value = "pollingStation", index = 0)
+		public String getPollingStationKey() {
+			return getPollingStation().getKey();
+		}
+	}
+}
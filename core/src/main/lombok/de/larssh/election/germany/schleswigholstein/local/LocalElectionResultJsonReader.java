@@ -0,0 +1,304 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import de.larssh.election.germany.schleswigholstein.District;
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import de.larssh.utils.annotations.PackagePrivate;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.ToString;
+import lombok.experimental.NonFinal;
+
+/**
+ * Streaming JSON reader for {@link LocalElectionResult}
+ *
+ * <p>
+ * Keys of districts, polling stations and nominations are resolved using hash
+ * indexes, which are built once per reader. The ballots array is read token by
+ * token. Consecutive equal ballots are counted as {@link LocalWeightedBallot}
+ * right away, so that no intermediate representation of all ballots is created.
+ *
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+@PackagePrivate
+@ToString(onlyExplicitlyIncluded = true)
+final class LocalElectionResultJsonReader {
+	/**
+	 * Wahl
+	 */
+	@ToString.Include
+	LocalElection election;
+
+	/**
+	 * Wahlgebiet, Wahlkreise und Wahlbezirke by key
+	 */
+	Map<String, District<?>> districts = new HashMap<>();
+
+	/**
+	 * Wahlbezirke by key
+	 */
+	Map<String, LocalPollingStation> pollingStations = new HashMap<>();
+
+	/**
+	 * Bewerberinnen und Bewerber by key
+	 */
+	Map<String, LocalNomination> nominations = new HashMap<>();
+
+	/**
+	 * Stimmzettel read so far, run-length encoded
+	 */
+	List<LocalWeightedBallot> weightedBallots = new ArrayList<>();
+
+	/**
+	 * The most recently read ballot or {@code null} if no ballot was read, yet
+	 */
+	@Nullable
+	@NonFinal
+	LocalBallot currentBallot = null;
+
+	/**
+	 * Number of consecutive occurrences of {@link #currentBallot}
+	 */
+	@NonFinal
+	int currentWeight = 0;
+
+	/**
+	 * Creates a reader for results of {@code election}, building the key indexes.
+	 *
+	 * @param election Wahl
+	 */
+	@PackagePrivate
+	LocalElectionResultJsonReader(final LocalElection election) {
+		this.election = election;
+
+		for (final District<?> district : election.getAllDistricts()) {
+			districts.put(district.getKey(), district);
+		}
+		for (final LocalPollingStation pollingStation : election.getPollingStations()) {
+			pollingStations.put(pollingStation.getKey(), pollingStation);
+		}
+		for (final LocalNomination nomination : election.getNominations()) {
+			nominations.put(nomination.getKey(), nomination);
+		}
+	}
+
+	/**
+	 * Reads a {@link LocalElectionResult} from JSON.
+	 *
+	 * @param reader JSON data
+	 * @return the created {@link LocalElectionResult}
+	 * @throws IOException on IO error
+	 */
+	@PackagePrivate
+	LocalElectionResult read(final Reader reader) throws IOException {
+		try (JsonParser parser = LocalElection.OBJECT_MAPPER.createParser(reader)) {
+			expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+			int sainteLagueScale = 0;
+			final Map<District<?>, OptionalInt> numberOfAllBallots = new HashMap<>();
+			Set<LocalNomination> directDrawResults = new LinkedHashSet<>();
+			Set<LocalNomination> listDrawResults = new LinkedHashSet<>();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final String fieldName = parser.getCurrentName();
+				final JsonToken token = parser.nextToken();
+				if ("sainteLagueScale".equals(fieldName)) {
+					expect(parser, token, JsonToken.VALUE_NUMBER_INT);
+					sainteLagueScale = parser.getIntValue();
+				} else if ("numberOfAllBallots".equals(fieldName)) {
+					readNumberOfAllBallots(parser, numberOfAllBallots);
+				} else if ("directDrawResults".equals(fieldName)) {
+					directDrawResults = readNominations(parser);
+				} else if ("listDrawResults".equals(fieldName)) {
+					listDrawResults = readNominations(parser);
+				} else if ("ballots".equals(fieldName)) {
+					readBallots(parser);
+				} else {
+					throw new JsonParseException(parser,
+							String.format("Unrecognized field \"%s\" of election result.", fieldName));
+				}
+			}
+			expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+			flushCurrentBallot();
+
+			return new LocalElectionResultBuilder(election, sainteLagueScale).setNumberOfAllBallots(numberOfAllBallots)
+					.setDirectDrawResults(directDrawResults)
+					.setListDrawResults(listDrawResults)
+					.addAllWeighted(weightedBallots)
+					.build();
+		}
+	}
+
+	/**
+	 * Verifies that {@code token} is of type {@code expected}.
+	 *
+	 * @param parser   the JSON parser
+	 * @param token    the current token
+	 * @param expected the expected token
+	 * @throws JsonParseException if {@code token} does not match
+	 */
+	private static void expect(final JsonParser parser, @Nullable final JsonToken token, final JsonToken expected)
+			throws JsonParseException {
+		if (token != expected) {
+			throw new JsonParseException(parser, String.format("Expected %s, but found %s.", expected, token));
+		}
+	}
+
+	/**
+	 * Reads the object of the numbers of all ballots by district key.
+	 *
+	 * @param parser             the JSON parser, positioned at the start of the
+	 *                           object
+	 * @param numberOfAllBallots the map to fill
+	 * @throws IOException on IO error
+	 */
+	private void readNumberOfAllBallots(final JsonParser parser, final Map<District<?>, OptionalInt> numberOfAllBallots)
+			throws IOException {
+		expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			final String key = parser.getCurrentName();
+			final District<?> district = districts.get(key);
+			if (district == null) {
+				throw new ElectionException("Could not find district with key \"%s\" for election \"%s\".",
+						key,
+						election.getName());
+			}
+			numberOfAllBallots.put(district,
+					parser.nextToken() == JsonToken.VALUE_NULL
+							? OptionalInt.empty()
+							: OptionalInt.of(parser.getIntValue()));
+		}
+	}
+
+	/**
+	 * Reads an array of nomination keys.
+	 *
+	 * @param parser the JSON parser, positioned at the start of the array
+	 * @return the nominations
+	 * @throws IOException on IO error
+	 */
+	private Set<LocalNomination> readNominations(final JsonParser parser) throws IOException {
+		expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+		final Set<LocalNomination> nominationsOfArray = new LinkedHashSet<>();
+		while (parser.nextToken() == JsonToken.VALUE_STRING) {
+			final String key = parser.getText();
+			final LocalNomination nomination = nominations.get(key);
+			if (nomination == null) {
+				throw new ElectionException("Could not find nomination with key \"%s\" for election \"%s\".",
+						key,
+						election.getName());
+			}
+			nominationsOfArray.add(nomination);
+		}
+		expect(parser, parser.currentToken(), JsonToken.END_ARRAY);
+		return nominationsOfArray;
+	}
+
+	/**
+	 * Reads the array of ballots token by token.
+	 *
+	 * @param parser the JSON parser, positioned at the start of the array
+	 * @throws IOException on IO error
+	 */
+	private void readBallots(final JsonParser parser) throws IOException {
+		expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+		while (parser.nextToken() == JsonToken.START_OBJECT) {
+			readBallot(parser);
+		}
+		expect(parser, parser.currentToken(), JsonToken.END_ARRAY);
+	}
+
+	/**
+	 * Reads one ballot object and counts it.
+	 *
+	 * @param parser the JSON parser, positioned at the start of the object
+	 * @throws IOException on IO error
+	 */
+	private void readBallot(final JsonParser parser) throws IOException {
+		LocalPollingStation pollingStation = null;
+		boolean postalVote = false;
+		boolean valid = false;
+		Set<LocalNomination> nominationsOfBallot = new LinkedHashSet<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			final String fieldName = parser.getCurrentName();
+			final JsonToken token = parser.nextToken();
+			if ("pollingStation".equals(fieldName)) {
+				final String key = parser.getText();
+				pollingStation = pollingStations.get(key);
+				if (pollingStation == null) {
+					throw new ElectionException("Could not find polling station with key \"%s\" for election \"%s\".",
+							key,
+							election.getName());
+				}
+			} else if ("postalVote".equals(fieldName)) {
+				postalVote = token == JsonToken.VALUE_TRUE;
+			} else if ("valid".equals(fieldName)) {
+				valid = token == JsonToken.VALUE_TRUE;
+			} else if ("nominations".equals(fieldName)) {
+				nominationsOfBallot = readNominations(parser);
+			} else {
+				throw new JsonParseException(parser, String.format("Unrecognized field \"%s\" of ballot.", fieldName));
+			}
+		}
+		expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+		if (pollingStation == null) {
+			throw new JsonParseException(parser, "Missing polling station of ballot.");
+		}
+		count(pollingStation, postalVote, valid, nominationsOfBallot);
+	}
+
+	/**
+	 * Counts a ballot. Ballots equal to {@link #currentBallot} increase its weight
+	 * without creating a new {@link LocalBallot}.
+	 *
+	 * @param pollingStation Wahlbezirk
+	 * @param postalVote     {@code true} for postal vote ballots, else
+	 *                       {@code false}
+	 * @param valid          {@code true} for valid ballots, else {@code false}
+	 * @param nominations    gewählte Bewerberinnen und Bewerber
+	 */
+	private void count(final LocalPollingStation pollingStation,
+			final boolean postalVote,
+			final boolean valid,
+			final Set<LocalNomination> nominations) {
+		final LocalBallot ballot = currentBallot;
+		if (ballot != null
+				&& ballot.getPollingStation() == pollingStation
+				&& ballot.isPostalVote() == postalVote
+				&& ballot.isValid() == valid
+				&& (!valid || Objects.equals(ballot.getNominations(), nominations))) {
+			currentWeight += 1;
+			return;
+		}
+
+		flushCurrentBallot();
+		currentBallot = valid
+				? LocalBallot.createValidBallot(election, pollingStation, postalVote, nominations)
+				: LocalBallot.createInvalidBallot(election, pollingStation, postalVote);
+		currentWeight = 1;
+	}
+
+	/**
+	 * Appends {@link #currentBallot} to {@link #weightedBallots}, if present.
+	 */
+	private void flushCurrentBallot() {
+		final LocalBallot ballot = currentBallot;
+		if (ballot != null) {
+			weightedBallots.add(new LocalWeightedBallot(ballot, currentWeight));
+			currentBallot = null;
+		}
+	}
+}
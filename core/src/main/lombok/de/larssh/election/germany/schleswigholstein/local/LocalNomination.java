@@ -11,7 +11,6 @@ import de.larssh.election.germany.schleswigholstein.Keys;
 import de.larssh.election.germany.schleswigholstein.Nomination;
 import de.larssh.election.germany.schleswigholstein.Party;
 import de.larssh.election.germany.schleswigholstein.Person;
-import de.larssh.utils.Optionals;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import lombok.AccessLevel;
@@ -32,7 +31,7 @@ public class LocalNomination implements Nomination<LocalNomination>, Comparable<
 	 * Comparator by election, party and nomination order
 	 */
 	private static final Comparator<LocalNomination> COMPARATOR = Comparator.comparing(LocalNomination::getElection)
-			.thenComparing(nomination -> nomination.getElection().getNominations().indexOf(nomination));
+			.thenComparingInt(nomination -> nomination.getElection().getIndex().getOrdinal(nomination));
 
 	/**
 	 * Wahl
@@ -104,7 +103,7 @@ public class LocalNomination implements Nomination<LocalNomination>, Comparable<
 	 */
 	@JsonIgnore
 	public OptionalInt getListPosition() {
-		return Optionals.mapToInt(getParty(), party -> getElection().getListNominations(party).indexOf(this) + 1);
+		return getElection().getIndex().getListPosition(this);
 	}
 
 	/**
@@ -126,7 +125,7 @@ public class LocalNomination implements Nomination<LocalNomination>, Comparable<
 	 */
 	@JsonIgnore
 	public boolean isDirectNomination() {
-		return getElection().getDirectNominations().contains(this);
+		return getElection().getIndex().isDirectNomination(this);
 	}
 
 	/**
@@ -136,6 +135,6 @@ public class LocalNomination implements Nomination<LocalNomination>, Comparable<
 	 */
 	@JsonIgnore
 	public boolean isListNomination() {
-		return getElection().getListNominations().contains(this);
+		return getElection().getIndex().isListNomination(this);
 	}
 }
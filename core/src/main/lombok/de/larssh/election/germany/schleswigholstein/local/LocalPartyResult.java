@@ -11,7 +11,6 @@ import java.util.Map;
 import java.util.OptionalInt;
 import java.util.function.Supplier;
 
-import de.larssh.election.germany.schleswigholstein.Ballot;
 import de.larssh.election.germany.schleswigholstein.Election;
 import de.larssh.election.germany.schleswigholstein.Party;
 import de.larssh.election.germany.schleswigholstein.PartyResult;
@@ -39,7 +38,7 @@ public class LocalPartyResult implements PartyResult<LocalBallot>, Comparable<Lo
 					.reversed()
 					.thenComparing(LocalPartyResult::getNumberOfVotes)
 					.reversed()
-					.thenComparing(result -> result.getElection().getParties().indexOf(result.getParty()));
+					.thenComparingInt(result -> result.getElection().getIndex().getOrdinal(result.getParty()));
 
 	/**
 	 * Wahlergebnis
@@ -58,15 +57,18 @@ public class LocalPartyResult implements PartyResult<LocalBallot>, Comparable<Lo
 	Party party;
 
 	/**
-	 * Stimmzettel mit Stimmen für diese politische Partei oder Wählerguppe
+	 * Stimmzettel mit Stimmen für diese politische Partei oder Wählerguppe,
+	 * run-length encoded
 	 */
 	@ToString.Exclude
-	Supplier<List<LocalBallot>> ballots = lazy(() -> unmodifiableList(getElectionResult().getBallots()
+	Supplier<List<LocalWeightedBallot>> weightedBallots = lazy(() -> unmodifiableList(getElectionResult()
+			.getWeightedBallots()
 			.stream()
-			.filter(Ballot::isValid)
-			.filter(ballot -> ballot.getNominations()
-					.stream()
-					.anyMatch(nomination -> nomination.getParty().filter(getParty()::equals).isPresent()))
+			.filter(weightedBallot -> weightedBallot.getBallot().isValid()
+					&& weightedBallot.getBallot()
+							.getNominations()
+							.stream()
+							.anyMatch(nomination -> nomination.getParty().filter(getParty()::equals).isPresent()))
 			.collect(toList())));
 
 	/**
@@ -81,8 +83,10 @@ public class LocalPartyResult implements PartyResult<LocalBallot>, Comparable<Lo
 	/**
 	 * Anzahl der Blockstimmen für diese politische Partei oder Wählerguppe
 	 */
-	Supplier<Integer> numberOfBlockVotings
-			= lazy(() -> (int) getBallots().stream().filter(LocalBallot::isBlockVoting).count());
+	Supplier<Integer> numberOfBlockVotings = lazy(() -> getWeightedBallots().stream()
+			.filter(weightedBallot -> weightedBallot.getBallot().isBlockVoting())
+			.mapToInt(LocalWeightedBallot::getWeight)
+			.sum());
 
 	/**
 	 * Anzahl der Sitze für diese politische Partei oder Wählerguppe
@@ -94,14 +98,6 @@ public class LocalPartyResult implements PartyResult<LocalBallot>, Comparable<Lo
 					&& nominationResult.getNomination().getParty().filter(getParty()::equals).isPresent())
 			.count());
 
-	/**
-	 * Anzahl der Stimmen für diese politische Partei oder Wählerguppe
-	 */
-	Supplier<Integer> numberOfVotes = lazy(() -> getNominationResults().values()
-			.stream()
-			.mapToInt(nominationResult -> nominationResult.getBallots().size())
-			.sum());
-
 	/** {@inheritDoc} */
 	@Override
 	public int compareTo(@Nullable final LocalPartyResult partyResult) {
@@ -111,7 +107,17 @@ public class LocalPartyResult implements PartyResult<LocalBallot>, Comparable<Lo
 	/** {@inheritDoc} */
 	@Override
 	public List<LocalBallot> getBallots() {
-		return ballots.get();
+		return LocalWeightedBallot.expand(getWeightedBallots());
+	}
+
+	/**
+	 * Stimmzettel mit Stimmen für diese politische Partei oder Wählerguppe,
+	 * run-length encoded
+	 *
+	 * @return Stimmzettel and their number of consecutive occurrences
+	 */
+	public List<LocalWeightedBallot> getWeightedBallots() {
+		return weightedBallots.get();
 	}
 
 	/**
@@ -191,13 +197,13 @@ public class LocalPartyResult implements PartyResult<LocalBallot>, Comparable<Lo
 		}
 
 		// In case all ballots were evaluated we already know the precise result.
-		if (getElectionResult().getBallots().size() >= numberOfAllBallots.getAsInt()) {
+		if (getElectionResult().getNumberOfBallots() >= numberOfAllBallots.getAsInt()) {
 			return getNumberOfSeats();
 		}
 
 		// Determine the number of all possible votes to use it as divisor.
 		final long numberOfAllPossibleVotes = getElectionResult().getNumberOfVotes()
-				+ (numberOfAllBallots.getAsInt() - getElectionResult().getBallots().size())
+				+ (numberOfAllBallots.getAsInt() - getElectionResult().getNumberOfBallots())
 						* Math.min(getElection().getNumberOfVotesPerBallot(),
 								getElection().getDirectNominations(getParty()).size());
 		if (numberOfAllPossibleVotes == 0) {
@@ -238,13 +244,13 @@ public class LocalPartyResult implements PartyResult<LocalBallot>, Comparable<Lo
 		}
 
 		// In case all ballots were evaluated we already know the precise result.
-		if (getElectionResult().getBallots().size() >= numberOfAllBallots.getAsInt()) {
+		if (getElectionResult().getNumberOfBallots() >= numberOfAllBallots.getAsInt()) {
 			return getNumberOfSeats();
 		}
 
 		// Determine the maximum number of unevaluated votes to use it as divisor.
 		final int numberOfPossiblyMissingVotes
-				= (numberOfAllBallots.getAsInt() - getElectionResult().getBallots().size())
+				= (numberOfAllBallots.getAsInt() - getElectionResult().getNumberOfBallots())
 						* Math.min(getElection().getNumberOfVotesPerBallot(),
 								getElection().getDirectNominations(getParty()).size());
 		if (numberOfPossiblyMissingVotes == 0) {
@@ -278,6 +284,6 @@ public class LocalPartyResult implements PartyResult<LocalBallot>, Comparable<Lo
 	@Override
 	@EqualsAndHashCode.Include
 	public int getNumberOfVotes() {
-		return numberOfVotes.get();
+		return getElectionResult().getVotesOfParties().getOrDefault(getParty(), 0);
 	}
 }
@@ -0,0 +1,127 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Stimmzettel together with the number of its consecutive occurrences
+ *
+ * <p>
+ * Lists of weighted ballots are run-length encoded lists of ballots. They allow
+ * counting with costs proportional to the number of distinct ballot runs
+ * instead of the number of all ballots.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class LocalWeightedBallot {
+	/**
+	 * Creates a read-only list view of {@code weightedBallots}, which contains each
+	 * ballot as often as given by its weight.
+	 *
+	 * <p>
+	 * The returned list does not copy the ballots. Its memory footprint and the
+	 * costs of accessing an element by index depend on the number of weighted
+	 * ballots only.
+	 *
+	 * @param weightedBallots the weighted ballots
+	 * @return the list of ballots
+	 */
+	public static List<LocalBallot> expand(final List<LocalWeightedBallot> weightedBallots) {
+		return new ExpandedBallots(weightedBallots.toArray(new LocalWeightedBallot[0]));
+	}
+
+	/**
+	 * Stimmzettel
+	 *
+	 * @return Stimmzettel
+	 */
+	LocalBallot ballot;
+
+	/**
+	 * Number of occurrences of {@link #ballot}, always larger than zero
+	 *
+	 * @return the number of occurrences
+	 */
+	int weight;
+
+	/**
+	 * Stimmzettel together with the number of its consecutive occurrences
+	 *
+	 * @param ballot Stimmzettel
+	 * @param weight number of occurrences, must be larger than zero
+	 */
+	public LocalWeightedBallot(final LocalBallot ballot, final int weight) {
+		if (weight < 1) {
+			throw new ElectionException("The weight of a ballot must be larger than zero, but is %d.", weight);
+		}
+		this.ballot = ballot;
+		this.weight = weight;
+	}
+
+	/**
+	 * Creates a weighted ballot based on the same ballot, but using {@code weight}.
+	 *
+	 * @param weight number of occurrences, must be larger than zero
+	 * @return the weighted ballot
+	 */
+	public LocalWeightedBallot withWeight(final int weight) {
+		return weight == this.weight ? this : new LocalWeightedBallot(ballot, weight);
+	}
+
+	/**
+	 * Read-only list view of weighted ballots, containing each ballot as often as
+	 * given by its weight
+	 */
+	private static final class ExpandedBallots extends AbstractList<LocalBallot> implements RandomAccess {
+		/**
+		 * Weighted ballots
+		 */
+		LocalWeightedBallot[] weightedBallots;
+
+		/**
+		 * Index of the first occurrence of each weighted ballot followed by the size of
+		 * this list
+		 */
+		int[] offsets;
+
+		/**
+		 * Read-only list view of weighted ballots
+		 *
+		 * @param weightedBallots weighted ballots
+		 */
+		@SuppressWarnings("PMD.ArrayIsStoredDirectly")
+		ExpandedBallots(final LocalWeightedBallot[] weightedBallots) {
+			this.weightedBallots = weightedBallots;
+
+			offsets = new int[weightedBallots.length + 1];
+			for (int index = 0; index < weightedBallots.length; index += 1) {
+				offsets[index + 1] = offsets[index] + weightedBallots[index].getWeight();
+			}
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public LocalBallot get(final int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+
+			final int position = Arrays.binarySearch(offsets, index);
+			return weightedBallots[position >= 0 ? position : -position - 2].getBallot();
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int size() {
+			return offsets[offsets.length - 1];
+		}
+	}
+}
@@ -0,0 +1,230 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toList;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.election.utils.BigDecimals;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Numbers of votes, block votes and invalid ballots of an election result by
+ * Wahlbezirk
+ *
+ * <p>
+ * The numbers of all polling stations are counted in one pass over the
+ * run-length encoded ballots and stored in primitive arrays by ordinal of
+ * {@link LocalElectionIndex}. Reading a single number does not require
+ * filtering the election result by polling station.
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public final class PollingStationBreakdown {
+	/**
+	 * Wahlergebnis
+	 *
+	 * @return Wahlergebnis
+	 */
+	@Getter
+	@ToString.Include
+	LocalElectionResult electionResult;
+
+	/**
+	 * Number of parties
+	 */
+	@Getter(AccessLevel.NONE)
+	int numberOfParties;
+
+	/**
+	 * Number of nominations
+	 */
+	@Getter(AccessLevel.NONE)
+	int numberOfNominations;
+
+	/**
+	 * Votes by district ordinal and nomination ordinal
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] votesOfNominations;
+
+	/**
+	 * Votes by district ordinal and party ordinal
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] votesOfParties;
+
+	/**
+	 * Block votes by district ordinal and party ordinal
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] blockVotingsOfParties;
+
+	/**
+	 * Invalid ballots by district ordinal
+	 */
+	@Getter(AccessLevel.NONE)
+	int[] invalidBallots;
+
+	/**
+	 * Counts the numbers of all polling stations of {@code electionResult}.
+	 *
+	 * @param electionResult Wahlergebnis
+	 */
+	@PackagePrivate
+	PollingStationBreakdown(final LocalElectionResult electionResult) {
+		this.electionResult = electionResult;
+
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		final int numberOfDistricts = index.getDistricts().size();
+		numberOfParties = index.getParties().size();
+		numberOfNominations = index.getNominations().size();
+		votesOfNominations = new int[numberOfDistricts * numberOfNominations];
+		votesOfParties = new int[numberOfDistricts * numberOfParties];
+		blockVotingsOfParties = new int[numberOfDistricts * numberOfParties];
+		invalidBallots = new int[numberOfDistricts];
+
+		for (final LocalWeightedBallot weightedBallot : electionResult.getWeightedBallots()) {
+			final LocalBallot ballot = weightedBallot.getBallot();
+			final int weight = weightedBallot.getWeight();
+			final int district = index.getOrdinal(ballot.getPollingStation());
+			if (ballot.isValid()) {
+				int partyOfBallot = -1;
+				for (final LocalNomination nomination : ballot.getNominations()) {
+					votesOfNominations[district * numberOfNominations + index.getOrdinal(nomination)] += weight;
+
+					final int party = index.getPartyOrdinal(nomination);
+					if (party != -1) {
+						votesOfParties[district * numberOfParties + party] += weight;
+						partyOfBallot = party;
+					}
+				}
+
+				// Block votings contain nominations of exactly one party
+				if (partyOfBallot != -1 && ballot.isBlockVoting()) {
+					blockVotingsOfParties[district * numberOfParties + partyOfBallot] += weight;
+				}
+			} else {
+				invalidBallots[district] += weight;
+			}
+		}
+	}
+
+	/**
+	 * Number of votes for {@code nomination} inside {@code pollingStation}
+	 *
+	 * @param pollingStation Wahlbezirk
+	 * @param nomination     Bewerberin oder Bewerber
+	 * @return the number of votes
+	 */
+	public int getNumberOfVotes(final LocalPollingStation pollingStation, final LocalNomination nomination) {
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		final int district = index.getOrdinal(pollingStation);
+		final int ordinal = index.getOrdinal(nomination);
+		return district == -1 || ordinal == -1 ? 0 : votesOfNominations[district * numberOfNominations + ordinal];
+	}
+
+	/**
+	 * Number of votes for nominations of {@code party} inside
+	 * {@code pollingStation}
+	 *
+	 * @param pollingStation Wahlbezirk
+	 * @param party          Politische Partei oder Wählergruppe
+	 * @return the number of votes
+	 */
+	public int getNumberOfVotes(final LocalPollingStation pollingStation, final Party party) {
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		final int district = index.getOrdinal(pollingStation);
+		final int ordinal = index.getOrdinal(party);
+		return district == -1 || ordinal == -1 ? 0 : votesOfParties[district * numberOfParties + ordinal];
+	}
+
+	/**
+	 * Anzahl der Blockstimmen für {@code party} inside {@code pollingStation}
+	 *
+	 * @param pollingStation Wahlbezirk
+	 * @param party          Politische Partei oder Wählergruppe
+	 * @return the number of block votes
+	 */
+	public int getNumberOfBlockVotings(final LocalPollingStation pollingStation, final Party party) {
+		final LocalElectionIndex index = electionResult.getElection().getIndex();
+		final int district = index.getOrdinal(pollingStation);
+		final int ordinal = index.getOrdinal(party);
+		return district == -1 || ordinal == -1 ? 0 : blockVotingsOfParties[district * numberOfParties + ordinal];
+	}
+
+	/**
+	 * Anzahl ungültiger Stimmzettel inside {@code pollingStation}
+	 *
+	 * @param pollingStation Wahlbezirk
+	 * @return the number of invalid ballots
+	 */
+	public int getNumberOfInvalidBallots(final LocalPollingStation pollingStation) {
+		final int district = electionResult.getElection().getIndex().getOrdinal(pollingStation);
+		return district == -1 ? 0 : invalidBallots[district];
+	}
+
+	/**
+	 * Calculates the Sainte Laguë value of each nomination inside
+	 * {@code pollingStation}, equal to the values of the election result filtered
+	 * by {@code pollingStation}.
+	 *
+	 * <p>
+	 * Nominations without Sainte Laguë value are not part of the returned map.
+	 *
+	 * @param pollingStation Wahlbezirk
+	 * @return the Sainte Laguë value per nomination
+	 */
+	@SuppressWarnings("checkstyle:MagicNumber")
+	public Map<LocalNomination, BigDecimal> getSainteLagueValues(final LocalPollingStation pollingStation) {
+		final LocalElection election = electionResult.getElection();
+		final LocalElectionIndex index = election.getIndex();
+		final int district = index.getOrdinal(pollingStation);
+		if (district == -1) {
+			return emptyMap();
+		}
+
+		// Direct results: the nominations with the most votes
+		final List<LocalNomination> directResults = index.getNominations()
+				.stream()
+				.filter(nomination -> getNumberOfVotes(pollingStation, nomination) > 0)
+				.sorted(Comparator
+						.<LocalNomination>comparingInt(nomination -> getNumberOfVotes(pollingStation, nomination))
+						.reversed()
+						.thenComparing(Comparator.naturalOrder()))
+				.limit(election.getNumberOfDirectSeatsPerLocalDistrict())
+				.collect(toList());
+
+		// Directly elected nominations come first, followed by the list nominations
+		final Map<LocalNomination, BigDecimal> sainteLagueValues = new HashMap<>();
+		for (final Party party : index.getParties()) {
+			final int votesOfParty = votesOfParties[district * numberOfParties + index.getOrdinal(party)];
+			if (votesOfParty != 0) {
+				final Set<LocalNomination> nominations = new LinkedHashSet<>();
+				directResults.stream()
+						.filter(nomination -> nomination.getParty().map(party::equals).orElse(Boolean.FALSE))
+						.forEach(nominations::add);
+				nominations.addAll(index.getListNominations(party));
+
+				int step = 0;
+				for (final LocalNomination nomination : nominations) {
+					sainteLagueValues.put(nomination,
+							BigDecimals.divide(votesOfParty,
+									BigDecimal.valueOf(step * 10L + 5, 1),
+									electionResult.getSainteLagueScale()));
+					step += 1;
+				}
+			}
+		}
+		return sainteLagueValues;
+	}
+}
@@ -0,0 +1,346 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.larssh.election.utils.BigDecimals;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.NonFinal;
+
+/**
+ * Highest averages allocator for Sainte Laguë values
+ *
+ * <p>
+ * Each party assigns its values {@code votesOfParty / (step + 0.5)} to its
+ * nominations in the order given. The allocator merges the sequences of all
+ * parties using a priority queue of parties. Values are compared as
+ * {@code long} values at the Sainte Laguë scale, so that ranking and ties equal
+ * comparing the rounded {@link BigDecimal} values. {@link BigDecimal} values
+ * are materialized for the resulting map only.
+ *
+ * <p>
+ * Scaled values of larger scales might not fit into a {@code long} value.
+ * Values of such scales are calculated and sorted as {@link BigDecimal} values.
+ */
+@PackagePrivate
+@RequiredArgsConstructor
+final class SainteLagueAllocator {
+	/**
+	 * Largest scale, for which scaled values of any {@code int} number of votes fit
+	 * into a {@code long} value
+	 */
+	private static final int MAX_PRIMITIVE_SCALE = 9;
+
+	/**
+	 * Calculates the Sainte Laguë value using the formula
+	 * {@code votesOfParty / (step + 0.5)} at {@code scale} and with
+	 * {@link java.math.RoundingMode#HALF_UP}. {@code scale} must be in the range of
+	 * {@code 0} to {@link #MAX_PRIMITIVE_SCALE}.
+	 *
+	 * @param votesOfParty the number of votes of the corresponding party
+	 * @param step         step, starting at zero
+	 * @param scale        the scale of the value
+	 * @return the unscaled Sainte Laguë value
+	 */
+	@SuppressWarnings("checkstyle:MagicNumber")
+	private static long getScaledValue(final int votesOfParty, final int step, final int scale) {
+		long dividend = 2L * votesOfParty;
+		for (int index = 0; index < scale; index += 1) {
+			dividend *= 10;
+		}
+		final long divisor = 2L * step + 1;
+		final long quotient = dividend / divisor;
+		return dividend % divisor * 2 >= divisor ? quotient + 1 : quotient;
+	}
+
+	/**
+	 * Scale (decimal places) of Sainte Laguë values
+	 */
+	int scale;
+
+	/**
+	 * Number of votes per party
+	 */
+	List<Integer> votesOfParties = new ArrayList<>();
+
+	/**
+	 * Nominations per party in order of their Sainte Laguë value assignment
+	 */
+	List<LocalNomination[]> nominationsOfParties = new ArrayList<>();
+
+	/**
+	 * Number of votes per nomination per party
+	 */
+	List<int[]> votesOfNominationsOfParties = new ArrayList<>();
+
+	/**
+	 * Adds a party and its nominations.
+	 *
+	 * @param votesOfParty the number of votes of the party
+	 * @param nominations  the nominations of the party in order of their Sainte
+	 *                     Laguë value assignment
+	 * @param votes        the number of votes per nomination
+	 */
+	public void add(final int votesOfParty,
+			final Collection<LocalNomination> nominations,
+			final Map<LocalNomination, Integer> votes) {
+		final LocalNomination[] nominationsOfParty = nominations.toArray(new LocalNomination[0]);
+		final int[] votesOfNominations = new int[nominationsOfParty.length];
+		for (int index = 0; index < nominationsOfParty.length; index += 1) {
+			votesOfNominations[index] = votes.getOrDefault(nominationsOfParty[index], 0);
+		}
+
+		votesOfParties.add(votesOfParty);
+		nominationsOfParties.add(nominationsOfParty);
+		votesOfNominationsOfParties.add(votesOfNominations);
+	}
+
+	/**
+	 * Calculates the Sainte Laguë value for each nomination.
+	 *
+	 * <p>
+	 * The returned map is ordered by Sainte Laguë value (high to low), the number
+	 * of votes (high to low) and the nominations' order.
+	 *
+	 * @return the Sainte Laguë value for each nomination
+	 */
+	public Map<LocalNomination, BigDecimal> allocate() {
+		if (scale < 0 || scale > MAX_PRIMITIVE_SCALE) {
+			return allocateBigDecimals();
+		}
+
+		final int numberOfParties = votesOfParties.size();
+		int size = 0;
+		for (final LocalNomination[] nominationsOfParty : nominationsOfParties) {
+			size += nominationsOfParty.length;
+		}
+
+		final LocalNomination[] nominations = new LocalNomination[size];
+		final long[] values = new long[size];
+		final int[] votes = new int[size];
+		final int[] ordinals = new int[size];
+
+		// Merge the parties' sequences. Values of each party do not increase, so
+		// taking the party of the highest next value results in descending values.
+		final int[] steps = new int[numberOfParties];
+		final long[] nextValues = new long[numberOfParties];
+		final PartyQueue queue = new PartyQueue(nextValues, numberOfParties);
+		for (int party = 0; party < numberOfParties; party += 1) {
+			if (nominationsOfParties.get(party).length > 0) {
+				nextValues[party] = getScaledValue(votesOfParties.get(party), 0, scale);
+				queue.offer(party);
+			}
+		}
+		for (int position = 0; position < size; position += 1) {
+			final int party = queue.poll();
+			final int step = steps[party];
+			nominations[position] = nominationsOfParties.get(party)[step];
+			values[position] = nextValues[party];
+			votes[position] = votesOfNominationsOfParties.get(party)[step];
+			ordinals[position] = nominations[position].getElection().getIndex().getOrdinal(nominations[position]);
+
+			steps[party] = step + 1;
+			if (step + 1 < nominationsOfParties.get(party).length) {
+				nextValues[party] = getScaledValue(votesOfParties.get(party), step + 1, scale);
+				queue.offer(party);
+			}
+		}
+
+		sortTies(nominations, values, votes, ordinals);
+
+		final Map<LocalNomination, BigDecimal> sainteLague = new LinkedHashMap<>(size * 2);
+		for (int position = 0; position < size; position += 1) {
+			sainteLague.put(nominations[position], BigDecimal.valueOf(values[position], scale));
+		}
+		return sainteLague;
+	}
+
+	/**
+	 * Calculates the Sainte Laguë value for each nomination as {@link BigDecimal}
+	 * values. This is used for scales, which values might not fit into a
+	 * {@code long} value.
+	 *
+	 * <p>
+	 * The returned map is ordered by Sainte Laguë value (high to low), the number
+	 * of votes (high to low) and the nominations' order.
+	 *
+	 * @return the Sainte Laguë value for each nomination
+	 */
+	@SuppressWarnings("checkstyle:MagicNumber")
+	private Map<LocalNomination, BigDecimal> allocateBigDecimals() {
+		final List<LocalNomination> nominations = new ArrayList<>();
+		final Map<LocalNomination, BigDecimal> values = new HashMap<>();
+		final Map<LocalNomination, Integer> votes = new HashMap<>();
+		for (int party = 0; party < votesOfParties.size(); party += 1) {
+			final LocalNomination[] nominationsOfParty = nominationsOfParties.get(party);
+			for (int step = 0; step < nominationsOfParty.length; step += 1) {
+				nominations.add(nominationsOfParty[step]);
+				values.put(nominationsOfParty[step],
+						BigDecimals.divide(votesOfParties.get(party), BigDecimal.valueOf(step * 10L + 5, 1), scale));
+				votes.put(nominationsOfParty[step], votesOfNominationsOfParties.get(party)[step]);
+			}
+		}
+
+		nominations.sort(Comparator.<LocalNomination, BigDecimal>comparing(values::get)
+				.thenComparing(votes::get)
+				.reversed()
+				.thenComparingInt(nomination -> nomination.getElection().getIndex().getOrdinal(nomination)));
+
+		final Map<LocalNomination, BigDecimal> sainteLague = new LinkedHashMap<>(nominations.size() * 2);
+		for (final LocalNomination nomination : nominations) {
+			sainteLague.put(nomination, values.get(nomination));
+		}
+		return sainteLague;
+	}
+
+	/**
+	 * Sorts nominations of equal values by their number of votes (high to low) and
+	 * their ordinal.
+	 *
+	 * @param nominations the nominations
+	 * @param values      the Sainte Laguë value per nomination, ordered from high
+	 *                    to low
+	 * @param votes       the number of votes per nomination
+	 * @param ordinals    the ordinal per nomination
+	 */
+	private static void sortTies(final LocalNomination[] nominations,
+			final long[] values,
+			final int[] votes,
+			final int[] ordinals) {
+		int start = 0;
+		while (start < nominations.length) {
+			int end = start + 1;
+			while (end < nominations.length && values[end] == values[start]) {
+				end += 1;
+			}
+			sortTies(nominations, votes, ordinals, start, end);
+			start = end;
+		}
+	}
+
+	/**
+	 * Sorts the nominations from {@code start} (inclusive) to {@code end}
+	 * (exclusive) by their number of votes (high to low) and their ordinal.
+	 *
+	 * <p>
+	 * Ties are usually short, therefore insertion sort is used.
+	 *
+	 * @param nominations the nominations
+	 * @param votes       the number of votes per nomination
+	 * @param ordinals    the ordinal per nomination
+	 * @param start       the first index to sort
+	 * @param end         the index after the last index to sort
+	 */
+	private static void sortTies(final LocalNomination[] nominations,
+			final int[] votes,
+			final int[] ordinals,
+			final int start,
+			final int end) {
+		for (int index = start + 1; index < end; index += 1) {
+			final LocalNomination nomination = nominations[index];
+			final int votesOfNomination = votes[index];
+			final int ordinal = ordinals[index];
+
+			int position = index - 1;
+			while (position >= start
+					&& (votes[position] < votesOfNomination
+							|| votes[position] == votesOfNomination && ordinals[position] > ordinal)) {
+				nominations[position + 1] = nominations[position];
+				votes[position + 1] = votes[position];
+				ordinals[position + 1] = ordinals[position];
+				position -= 1;
+			}
+			nominations[position + 1] = nomination;
+			votes[position + 1] = votesOfNomination;
+			ordinals[position + 1] = ordinal;
+		}
+	}
+
+	/**
+	 * Binary max-heap of party indexes, ordered by their next Sainte Laguë value
+	 */
+	private static final class PartyQueue {
+		/**
+		 * Next Sainte Laguë value per party
+		 */
+		long[] nextValues;
+
+		/**
+		 * Heap of party indexes
+		 */
+		int[] heap;
+
+		/**
+		 * Number of parties inside {@link #heap}
+		 */
+		@NonFinal
+		int size;
+
+		/**
+		 * Binary max-heap of party indexes
+		 *
+		 * @param nextValues      next Sainte Laguë value per party
+		 * @param numberOfParties the number of parties
+		 */
+		@SuppressWarnings("PMD.ArrayIsStoredDirectly")
+		PartyQueue(final long[] nextValues, final int numberOfParties) {
+			this.nextValues = nextValues;
+			heap = new int[numberOfParties];
+		}
+
+		/**
+		 * Adds {@code party} based on its current next value.
+		 *
+		 * @param party the party index
+		 */
+		void offer(final int party) {
+			int index = size;
+			size += 1;
+			while (index > 0 && nextValues[heap[(index - 1) / 2]] < nextValues[party]) {
+				heap[index] = heap[(index - 1) / 2];
+				index = (index - 1) / 2;
+			}
+			heap[index] = party;
+		}
+
+		/**
+		 * Removes and returns the party with the highest next value.
+		 *
+		 * @return the party index
+		 */
+		int poll() {
+			final int first = heap[0];
+			size -= 1;
+			final int last = heap[size];
+
+			int index = 0;
+			int child = getLargerChild(index);
+			while (child < size && nextValues[last] < nextValues[heap[child]]) {
+				heap[index] = heap[child];
+				index = child;
+				child = getLargerChild(index);
+			}
+			heap[index] = last;
+			return first;
+		}
+
+		/**
+		 * Determines the position of the child of {@code index} with the higher next
+		 * value.
+		 *
+		 * @param index the position of the parent
+		 * @return the position of the child, which might be outside of the heap
+		 */
+		private int getLargerChild(final int index) {
+			final int child = index * 2 + 1;
+			return child + 1 < size && nextValues[heap[child + 1]] > nextValues[heap[child]] ? child + 1 : child;
+		}
+	}
+}
@@ -0,0 +1,320 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+import lombok.experimental.NonFinal;
+
+/**
+ * Mutable run-length encoded list of ballots, stored in chunks of limited size
+ *
+ * <p>
+ * Snapshots share the chunks with this list instead of copying the weighted
+ * ballots. A chunk is copied on its first modification after a snapshot was
+ * taken. Therefore taking a snapshot costs time proportional to the number of
+ * chunks and modifying a weighted ballot costs time proportional to the size of
+ * a chunk.
+ *
+ * <p>
+ * The chunks are indexed by ballot, so that the last occurrence of a ballot is
+ * found without scanning all weighted ballots.
+ *
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+@NoArgsConstructor
+@PackagePrivate
+final class WeightedBallotChunks {
+	/**
+	 * Maximum number of weighted ballots per chunk
+	 */
+	private static final int CHUNK_SIZE = 64;
+
+	/**
+	 * Checks if {@code first} and {@code second} are equal, comparing references
+	 * first to take care of shared ballot instances.
+	 *
+	 * @param first  a ballot
+	 * @param second another ballot
+	 * @return {@code true} if both ballots are equal, else {@code false}
+	 */
+	private static boolean isSameBallot(final LocalBallot first, final LocalBallot second) {
+		return first == second || first.equals(second);
+	}
+
+	/**
+	 * Chunks in order of their weighted ballots. Empty chunks are removed
+	 * immediately.
+	 */
+	List<Chunk> chunks = new ArrayList<>();
+
+	/**
+	 * Chunks by ballot, containing one entry per weighted ballot in order of the
+	 * weighted ballots
+	 */
+	Map<LocalBallot, Deque<Chunk>> chunksOfBallots = new HashMap<>();
+
+	/**
+	 * Adds {@code weight} occurrences of a ballot, extending the last weighted
+	 * ballot if possible.
+	 *
+	 * @param ballot Stimmzettel
+	 * @param weight number of occurrences, must be larger than zero
+	 */
+	public void add(final LocalBallot ballot, final int weight) {
+		if (!chunks.isEmpty()) {
+			final Chunk last = chunks.get(chunks.size() - 1);
+			final LocalWeightedBallot lastWeightedBallot = last.get(last.getSize() - 1);
+			if (isSameBallot(lastWeightedBallot.getBallot(), ballot)) {
+				last.set(last.getSize() - 1, lastWeightedBallot.withWeight(lastWeightedBallot.getWeight() + weight));
+				return;
+			}
+		}
+
+		final Chunk chunk;
+		if (chunks.isEmpty() || chunks.get(chunks.size() - 1).isFull()) {
+			chunk = new Chunk();
+			chunks.add(chunk);
+		} else {
+			chunk = chunks.get(chunks.size() - 1);
+		}
+		chunk.add(new LocalWeightedBallot(ballot, weight));
+		chunksOfBallots.computeIfAbsent(ballot, key -> new ArrayDeque<>()).addLast(chunk);
+	}
+
+	/**
+	 * Removes the last occurrence of a ballot.
+	 *
+	 * @param ballot Stimmzettel
+	 * @return {@code true} if {@code ballot} was removed, {@code false} if it was
+	 *         not added before
+	 */
+	public boolean remove(final LocalBallot ballot) {
+		final Deque<Chunk> chunksOfBallot = chunksOfBallots.get(ballot);
+		if (chunksOfBallot == null) {
+			return false;
+		}
+
+		final Chunk chunk = chunksOfBallot.getLast();
+		final int index = chunk.lastIndexOf(ballot);
+		final LocalWeightedBallot weightedBallot = chunk.get(index);
+		if (weightedBallot.getWeight() > 1) {
+			chunk.set(index, weightedBallot.withWeight(weightedBallot.getWeight() - 1));
+			return true;
+		}
+
+		chunk.remove(index);
+		chunksOfBallot.removeLast();
+		if (chunksOfBallot.isEmpty()) {
+			chunksOfBallots.remove(ballot);
+		}
+		if (chunk.getSize() == 0) {
+			chunks.remove(chunks.lastIndexOf(chunk));
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all weighted ballots.
+	 */
+	public void clear() {
+		chunks.clear();
+		chunksOfBallots.clear();
+	}
+
+	/**
+	 * Creates an immutable list of the current weighted ballots, sharing the chunks
+	 * with this list.
+	 *
+	 * @return Stimmzettel and their number of consecutive occurrences
+	 */
+	public List<LocalWeightedBallot> snapshot() {
+		final LocalWeightedBallot[][] weightedBallotsOfChunks = new LocalWeightedBallot[chunks.size()][];
+		final int[] offsets = new int[chunks.size() + 1];
+		for (int index = 0; index < chunks.size(); index += 1) {
+			final Chunk chunk = chunks.get(index);
+			weightedBallotsOfChunks[index] = chunk.share();
+			offsets[index + 1] = offsets[index] + chunk.getSize();
+		}
+		return new Snapshot(weightedBallotsOfChunks, offsets);
+	}
+
+	/**
+	 * Weighted ballots of a chunk, copied on write after being shared
+	 */
+	private static final class Chunk {
+		/**
+		 * Weighted ballots, of which the first {@link #size} are in use
+		 */
+		@NonFinal
+		LocalWeightedBallot[] weightedBallots = new LocalWeightedBallot[CHUNK_SIZE];
+
+		/**
+		 * Number of weighted ballots in use
+		 */
+		@NonFinal
+		int size = 0;
+
+		/**
+		 * {@code true} if {@link #weightedBallots} is referenced by a snapshot and
+		 * needs to be copied before modifying any weighted ballot in use
+		 */
+		@NonFinal
+		boolean shared = false;
+
+		/**
+		 * Weighted ballot at {@code index}
+		 *
+		 * @param index the index
+		 * @return the weighted ballot
+		 */
+		public LocalWeightedBallot get(final int index) {
+			return weightedBallots[index];
+		}
+
+		/**
+		 * Number of weighted ballots in use
+		 *
+		 * @return the number of weighted ballots
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * Determines if no further weighted ballot can be appended.
+		 *
+		 * @return {@code true} if this chunk is full, else {@code false}
+		 */
+		public boolean isFull() {
+			return size == weightedBallots.length;
+		}
+
+		/**
+		 * Index of the last weighted ballot of {@code ballot}
+		 *
+		 * @param ballot Stimmzettel
+		 * @return the index or {@code -1} if this chunk does not contain {@code ballot}
+		 */
+		public int lastIndexOf(final LocalBallot ballot) {
+			for (int index = size - 1; index >= 0; index -= 1) {
+				if (isSameBallot(weightedBallots[index].getBallot(), ballot)) {
+					return index;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Appends a weighted ballot. Snapshots do not see entries after their size,
+		 * therefore appending does not require copying a shared chunk.
+		 *
+		 * @param weightedBallot Stimmzettel and its number of occurrences
+		 */
+		public void add(final LocalWeightedBallot weightedBallot) {
+			weightedBallots[size] = weightedBallot;
+			size += 1;
+		}
+
+		/**
+		 * Replaces the weighted ballot at {@code index}.
+		 *
+		 * @param index          the index
+		 * @param weightedBallot Stimmzettel and its number of occurrences
+		 */
+		public void set(final int index, final LocalWeightedBallot weightedBallot) {
+			copyIfShared();
+			weightedBallots[index] = weightedBallot;
+		}
+
+		/**
+		 * Removes the weighted ballot at {@code index}.
+		 *
+		 * @param index the index
+		 */
+		public void remove(final int index) {
+			copyIfShared();
+			System.arraycopy(weightedBallots, index + 1, weightedBallots, index, size - index - 1);
+			size -= 1;
+			weightedBallots[size] = null;
+		}
+
+		/**
+		 * Marks this chunk as shared.
+		 *
+		 * @return the weighted ballots, of which the first {@link #getSize()} must not
+		 *         be modified afterwards
+		 */
+		@SuppressWarnings("PMD.MethodReturnsInternalArray")
+		public LocalWeightedBallot[] share() {
+			shared = true;
+			return weightedBallots;
+		}
+
+		/**
+		 * Copies the weighted ballots in case they are referenced by a snapshot.
+		 */
+		private void copyIfShared() {
+			if (shared) {
+				weightedBallots = weightedBallots.clone();
+				shared = false;
+			}
+		}
+	}
+
+	/**
+	 * Immutable list view of the weighted ballots of shared chunks
+	 */
+	private static final class Snapshot extends AbstractList<LocalWeightedBallot> implements RandomAccess {
+		/**
+		 * Weighted ballots by chunk
+		 */
+		LocalWeightedBallot[][] weightedBallotsOfChunks;
+
+		/**
+		 * Index of the first weighted ballot of each chunk followed by the size of this
+		 * list
+		 */
+		int[] offsets;
+
+		/**
+		 * Immutable list view of the weighted ballots of shared chunks
+		 *
+		 * @param weightedBallotsOfChunks weighted ballots by chunk
+		 * @param offsets                 index of the first weighted ballot of each
+		 *                                chunk followed by the size of this list
+		 */
+		@SuppressWarnings("PMD.ArrayIsStoredDirectly")
+		Snapshot(final LocalWeightedBallot[][] weightedBallotsOfChunks, final int[] offsets) {
+			this.weightedBallotsOfChunks = weightedBallotsOfChunks;
+			this.offsets = offsets;
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public LocalWeightedBallot get(final int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+			}
+
+			final int position = Arrays.binarySearch(offsets, index);
+			final int chunk = position >= 0 ? position : -position - 2;
+			return weightedBallotsOfChunks[chunk][index - offsets[chunk]];
+		}
+
+		/** {@inheritDoc} */
+		@Override
+		public int size() {
+			return offsets[offsets.length - 1];
+		}
+	}
+}
@@ -1,20 +1,28 @@
 package de.larssh.election.germany.schleswigholstein.local.file;
 
-import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import de.larssh.election.germany.schleswigholstein.Party;
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalNomination;
+import de.larssh.election.germany.schleswigholstein.local.LocalPartyResult;
 import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
+import de.larssh.election.germany.schleswigholstein.local.PollingStationBreakdown;
+import de.larssh.election.germany.schleswigholstein.local.file.CompiledTemplate.Fragment;
 import de.larssh.utils.Finals;
 import de.larssh.utils.OptionalInts;
 import de.larssh.utils.annotations.PackagePrivate;
@@ -52,6 +60,16 @@ public class AwgWebsiteFiles {
 		 */
 		private static final String PHP_ARRAY_ENTRIES_DELIMITER = ",\n";
 
+		/**
+		 * Arrow between the key and the value of a PHP array entry
+		 */
+		private static final String PHP_ARRAY_ARROW = " => ";
+
+		/**
+		 * Indentation of PHP array entries inside a function
+		 */
+		private static final String PHP_ARRAY_ENTRY_INDENTATION = "\t\t";
+
 		/**
 		 * Prefix to start PHP array entries with
 		 */
@@ -86,15 +104,16 @@ public class AwgWebsiteFiles {
 		private static final String PHP_STRING_LITERAL = "'";
 
 		/**
-		 * Template file body (lazily loaded)
+		 * Compiled template file body (lazily loaded)
 		 */
-		private static final Supplier<String> TEMPLATE = Finals.lazy(() -> loadResourceRelativeToClass("template.php"));
+		private static final Supplier<CompiledTemplate> TEMPLATE
+				= Finals.lazy(() -> CompiledTemplate.compile(loadResourceRelativeToClass("template.php")));
 
 		/**
-		 * Template file body for a person object (lazily loaded)
+		 * Compiled template file body for a person object (lazily loaded)
 		 */
-		private static final Supplier<String> TEMPLATE_PERSONS
-				= Finals.lazy(() -> loadResourceRelativeToClass("template-person.php"));
+		private static final Supplier<CompiledTemplate> TEMPLATE_PERSONS
+				= Finals.lazy(() -> CompiledTemplate.compile(loadResourceRelativeToClass("template-person.php")));
 
 		/**
 		 * Creates a PHP string literal with a stripped-down {@code value} to be used
@@ -177,111 +196,148 @@ public class AwgWebsiteFiles {
 		 */
 		@PackagePrivate
 		void write() throws IOException {
-			writer.write(String.format(TEMPLATE.get(),
-					result.getElection().getDate(),
-					OptionalInts.mapToObj(result.getElection().getNumberOfEligibleVoters(), Integer::toString)
-							.orElse(PHP_NULL),
-					OptionalInts.mapToObj(result.getNumberOfAllBallots(), Integer::toString).orElse(PHP_NULL),
-					result.getNumberOfPostalBallots(),
-					result.getNumberOfInvalidBallots(),
-					formatData(),
-					formatPersons(),
-					formatSeats(),
-					formatTypes()));
+			TEMPLATE.get()
+					.write(writer,
+							result.getElection().getDate(),
+							OptionalInts.mapToObj(result.getElection().getNumberOfEligibleVoters(), Integer::toString)
+									.orElse(PHP_NULL),
+							OptionalInts.mapToObj(result.getNumberOfAllBallots(), Integer::toString).orElse(PHP_NULL),
+							result.getNumberOfPostalBallots(),
+							result.getNumberOfInvalidBallots(),
+							(Fragment) this::writeData,
+							(Fragment) this::writePersons,
+							(Fragment) this::writeSeats,
+							(Fragment) this::writeTypes);
 		}
 
 		/**
-		 * Returns PHP array entries by polling station for the "data" array. An
+		 * Writes PHP array entries by polling station for the "data" array. An
 		 * identifier is generated out of the polling station's name, referencing an
 		 * object with its direct nominations and their number of votes.
 		 *
-		 * @return the PHP array entries
+		 * @param writer the writer to write to
+		 * @throws IOException on IO error
 		 */
-		private String formatData() {
-			return result.getElection()
-					.getPollingStations()
-					.stream()
-					.map(pollingStation -> String.format("\t\t%s => array(%s)",
-							createPhpIdentifier(pollingStation.getName()),
-							formatNominationVotes(pollingStation)))
-					.collect(joining(PHP_ARRAY_ENTRIES_DELIMITER, PHP_ARRAY_ENTRIES_PREFIX, PHP_ARRAY_ENTRIES_SUFFIX));
+		private void writeData(final Writer writer) throws IOException {
+			writer.write(PHP_ARRAY_ENTRIES_PREFIX);
+			String delimiter = "";
+			for (final LocalPollingStation pollingStation : result.getElection().getPollingStations()) {
+				writer.write(delimiter);
+				writer.write(PHP_ARRAY_ENTRY_INDENTATION);
+				writer.write(createPhpIdentifier(pollingStation.getName()));
+				writer.write(" => array(");
+				writeNominationVotes(writer, pollingStation);
+				writer.write(')');
+				delimiter = PHP_ARRAY_ENTRIES_DELIMITER;
+			}
+			writer.write(PHP_ARRAY_ENTRIES_SUFFIX);
 		}
 
 		/**
-		 * Returns PHP array entries by the nominations of {@code pollingStation} for
-		 * the objects inside the "data" array. An identifier is generated out of the
-		 * nomination's key, referencing its number of votes.
+		 * Writes PHP array entries by the nominations of {@code pollingStation} for the
+		 * objects inside the "data" array. An identifier is generated out of the
+		 * nomination's key, referencing its number of votes. Nominations are ordered by
+		 * their number of votes, their Sainte Laguë value inside {@code pollingStation}
+		 * and their nomination order.
 		 *
+		 * @param writer         the writer to write to
 		 * @param pollingStation the polling station
-		 * @return the PHP array entries
+		 * @throws IOException on IO error
 		 */
-		private String formatNominationVotes(final LocalPollingStation pollingStation) {
-			return result.filterByDistrict(pollingStation)
-					.getNominationResults()
-					.values()
+		private void writeNominationVotes(final Writer writer, final LocalPollingStation pollingStation)
+				throws IOException {
+			final PollingStationBreakdown breakdown = result.getPollingStationBreakdown();
+			final Map<LocalNomination, BigDecimal> sainteLagueValues = breakdown.getSainteLagueValues(pollingStation);
+			final List<LocalNomination> nominations = result.getElection()
+					.getDirectNominations()
 					.stream()
-					.filter(nominationResult -> nominationResult.getNomination().isDirectNomination())
-					.map(nominationResult -> String.format("\t\t\t%s => %d",
-							createPhpIdentifier(nominationResult.getNomination().getPerson().getKey()),
-							nominationResult.getNumberOfVotes()))
-					.collect(joining(PHP_ARRAY_ENTRIES_DELIMITER,
-							PHP_ARRAY_ENTRIES_PREFIX,
-							PHP_ARRAY_ENTRIES_SUFFIX + '\t'));
+					.sorted(Comparator
+							.<LocalNomination>comparingInt(
+									nomination -> breakdown.getNumberOfVotes(pollingStation, nomination))
+							.thenComparing(nomination -> sainteLagueValues.getOrDefault(nomination, BigDecimal.ZERO))
+							.reversed()
+							.thenComparing(Comparator.naturalOrder()))
+					.collect(toList());
+
+			writer.write(PHP_ARRAY_ENTRIES_PREFIX);
+			String delimiter = "";
+			for (final LocalNomination nomination : nominations) {
+				writer.write(delimiter);
+				writer.write(PHP_ARRAY_ENTRY_INDENTATION);
+				writer.write('\t');
+				writer.write(createPhpIdentifier(nomination.getPerson().getKey()));
+				writer.write(PHP_ARRAY_ARROW);
+				writer.write(Integer.toString(breakdown.getNumberOfVotes(pollingStation, nomination)));
+				delimiter = PHP_ARRAY_ENTRIES_DELIMITER;
+			}
+			writer.write(PHP_ARRAY_ENTRIES_SUFFIX);
+			writer.write('\t');
 		}
 
 		/**
-		 * Returns PHP array entries by nomination for the "persons" array. An
-		 * identifier is generated out of the nomination's key, referencing an object
-		 * with its party, family name and given name.
+		 * Writes PHP array entries by nomination for the "persons" array. An identifier
+		 * is generated out of the nomination's key, referencing an object with its
+		 * party, family name and given name.
 		 *
-		 * @return the PHP array entries
+		 * @param writer the writer to write to
+		 * @throws IOException on IO error
 		 */
-		private String formatPersons() {
-			return result.getElection()
-					.getNominations()
-					.stream()
-					.map(nomination -> String.format(TEMPLATE_PERSONS.get(),
-							createPhpIdentifier(nomination.getPerson().getKey()),
-							nomination.getParty()
-									.map(Party::getShortName)
-									.map(AwgWebsiteFileWriter::createPhpIdentifier)
-									.orElse(PHP_NULL),
-							createPhpString(nomination.getPerson().getFamilyName()),
-							createPhpString(nomination.getPerson().getGivenName())))
-					.collect(joining(PHP_ARRAY_ENTRIES_DELIMITER, PHP_ARRAY_ENTRIES_PREFIX, PHP_ARRAY_ENTRIES_SUFFIX));
+		private void writePersons(final Writer writer) throws IOException {
+			writer.write(PHP_ARRAY_ENTRIES_PREFIX);
+			String delimiter = "";
+			for (final LocalNomination nomination : result.getElection().getNominations()) {
+				writer.write(delimiter);
+				TEMPLATE_PERSONS.get()
+						.write(writer,
+								createPhpIdentifier(nomination.getPerson().getKey()),
+								nomination.getParty()
+										.map(Party::getShortName)
+										.map(AwgWebsiteFileWriter::createPhpIdentifier)
+										.orElse(PHP_NULL),
+								createPhpString(nomination.getPerson().getFamilyName()),
+								createPhpString(nomination.getPerson().getGivenName()));
+				delimiter = PHP_ARRAY_ENTRIES_DELIMITER;
+			}
+			writer.write(PHP_ARRAY_ENTRIES_SUFFIX);
 		}
 
 		/**
-		 * Returns PHP array entries by party for the "seats" array. An identifier is
+		 * Writes PHP array entries by party for the "seats" array. An identifier is
 		 * generated out of the party's short name, referencing its number of seats.
 		 *
-		 * @return the PHP array entries
+		 * @param writer the writer to write to
+		 * @throws IOException on IO error
 		 */
-		private String formatSeats() {
-			return result.getPartyResults()
-					.values()
-					.stream()
-					.map(partyResult -> String.format("\t\t%s => %d",
-							createPhpIdentifier(partyResult.getParty().getShortName()),
-							partyResult.getNumberOfSeats()))
-					.collect(joining(PHP_ARRAY_ENTRIES_DELIMITER, PHP_ARRAY_ENTRIES_PREFIX, PHP_ARRAY_ENTRIES_SUFFIX));
+		private void writeSeats(final Writer writer) throws IOException {
+			writer.write(PHP_ARRAY_ENTRIES_PREFIX);
+			String delimiter = "";
+			for (final LocalPartyResult partyResult : result.getPartyResults().values()) {
+				writer.write(delimiter);
+				writer.write(PHP_ARRAY_ENTRY_INDENTATION);
+				writer.write(createPhpIdentifier(partyResult.getParty().getShortName()));
+				writer.write(PHP_ARRAY_ARROW);
+				writer.write(Integer.toString(partyResult.getNumberOfSeats()));
+				delimiter = PHP_ARRAY_ENTRIES_DELIMITER;
+			}
+			writer.write(PHP_ARRAY_ENTRIES_SUFFIX);
 		}
 
 		/**
-		 * Returns PHP array entries by polling station for the "types" array. An
+		 * Writes PHP array entries by polling station for the "types" array. An
 		 * identifier is generated out of the polling station's name, referencing its
 		 * name.
 		 *
-		 * @return the PHP array entries
+		 * @param writer the writer to write to
+		 * @throws IOException on IO error
 		 */
-		private String formatTypes() {
-			return result.getElection()
-					.getPollingStations()
-					.stream()
-					.map(pollingStation -> String.format("\t\t%s => %s",
-							createPhpIdentifier(pollingStation.getName()),
-							createPhpString(pollingStation.getName())))
-					.collect(joining(PHP_ARRAY_ENTRIES_DELIMITER, PHP_ARRAY_ENTRIES_DELIMITER, ""));
+		private void writeTypes(final Writer writer) throws IOException {
+			for (final LocalPollingStation pollingStation : result.getElection().getPollingStations()) {
+				writer.write(PHP_ARRAY_ENTRIES_DELIMITER);
+				writer.write(PHP_ARRAY_ENTRY_INDENTATION);
+				writer.write(createPhpIdentifier(pollingStation.getName()));
+				writer.write(PHP_ARRAY_ARROW);
+				writer.write(createPhpString(pollingStation.getName()));
+			}
 		}
 	}
 }
@@ -0,0 +1,204 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Template using the format string syntax of {@link Formatter}, which is parsed
+ * once into literal and placeholder segments
+ *
+ * <p>
+ * Writing a template streams its segments and values straight into a
+ * {@link Writer}. Values implementing {@link Fragment} write themselves into
+ * the same {@link Writer}, so that nested templates do not need to be built as
+ * intermediate strings.
+ */
+@PackagePrivate
+@ToString(onlyExplicitlyIncluded = true)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class CompiledTemplate {
+	/**
+	 * Pattern matching format specifiers as defined by {@link Formatter}
+	 */
+	private static final Pattern FORMAT_SPECIFIER = Pattern
+			.compile("%(?:(?<index>\\d+)\\$|(?<relative><))?(?<format>[-#+ 0,(]*\\d*(?:\\.\\d+)?[tT]?[a-zA-Z%])");
+
+	/**
+	 * Format specifier writing the string representation of a value
+	 */
+	private static final String FORMAT_STRING = "%s";
+
+	/**
+	 * Compiles {@code template} into literal and placeholder segments.
+	 *
+	 * @param template the template using the format string syntax of
+	 *                 {@link Formatter}
+	 * @return the compiled template
+	 * @throws ElectionException if {@code template} refers to a relative argument
+	 *                           without a previous argument
+	 */
+	@PackagePrivate
+	static CompiledTemplate compile(final String template) {
+		final List<Segment> segments = new ArrayList<>();
+		final StringBuilder literal = new StringBuilder();
+		final Matcher matcher = FORMAT_SPECIFIER.matcher(template);
+		int position = 0;
+		int ordinaryIndex = 0;
+		int lastIndex = -1;
+		while (matcher.find()) {
+			literal.append(template, position, matcher.start());
+			position = matcher.end();
+
+			final String format = "%" + matcher.group("format");
+			if ("%%".equals(format)) {
+				literal.append('%');
+			} else if ("%n".equals(format)) {
+				literal.append(System.lineSeparator());
+			} else {
+				if (literal.length() > 0) {
+					segments.add(new Segment(Optional.of(literal.toString()), -1, ""));
+					literal.setLength(0);
+				}
+
+				final String index = matcher.group("index");
+				if (index != null) {
+					lastIndex = Integer.parseInt(index) - 1;
+				} else if (matcher.group("relative") == null) {
+					lastIndex = ordinaryIndex;
+					ordinaryIndex += 1;
+				} else if (lastIndex == -1) {
+					throw new ElectionException("Missing previous argument for format specifier \"%s\" at %d.",
+							matcher.group(),
+							matcher.start());
+				}
+				segments.add(new Segment(Optional.empty(), lastIndex, format));
+			}
+		}
+		literal.append(template, position, template.length());
+		if (literal.length() > 0) {
+			segments.add(new Segment(Optional.of(literal.toString()), -1, ""));
+		}
+		return new CompiledTemplate(unmodifiableList(segments));
+	}
+
+	/**
+	 * Literal and placeholder segments
+	 */
+	@Getter(AccessLevel.NONE)
+	List<Segment> segments;
+
+	/**
+	 * Writes this template to {@code writer}, formatting values using the default
+	 * locale for formatting, same as {@link String#format(String, Object...)}.
+	 *
+	 * @param writer    the writer to write to
+	 * @param arguments the values referenced by the format specifiers
+	 * @throws IOException on IO error
+	 */
+	@PackagePrivate
+	void write(final Writer writer, final Object... arguments) throws IOException {
+		write(writer, Locale.getDefault(Locale.Category.FORMAT), arguments);
+	}
+
+	/**
+	 * Writes this template to {@code writer}, formatting values using
+	 * {@code locale}.
+	 *
+	 * <p>
+	 * Literal segments and values of {@code %s} specifiers are written as they are.
+	 * {@link Fragment} values write themselves. Other specifiers are formatted by a
+	 * {@link Formatter} writing to {@code writer}.
+	 *
+	 * @param writer    the writer to write to
+	 * @param locale    the locale to format values
+	 * @param arguments the values referenced by the format specifiers
+	 * @throws IOException on IO error
+	 */
+	@PackagePrivate
+	void write(final Writer writer, final Locale locale, final Object... arguments) throws IOException {
+		// The formatter must not be closed, as that would close the writer.
+		Formatter formatter = null;
+		for (final Segment segment : segments) {
+			final Optional<String> literal = segment.getLiteral();
+			final Object value = literal.isPresent() ? null : arguments[segment.getIndex()];
+			if (literal.isPresent()) {
+				writer.write(literal.get());
+			} else if (value instanceof Fragment) {
+				((Fragment) value).write(writer);
+			} else if (FORMAT_STRING.equals(segment.getFormat()) && !(value instanceof Formattable)) {
+				writer.write(String.valueOf(value));
+			} else {
+				if (formatter == null) {
+					formatter = new Formatter(writer, locale);
+				}
+				formatter.format(segment.getFormat(), value);
+
+				final IOException exception = formatter.ioException();
+				if (exception != null) {
+					throw exception;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Value writing itself into the writer of a {@link CompiledTemplate}
+	 */
+	@FunctionalInterface
+	@PackagePrivate
+	interface Fragment {
+		/**
+		 * Writes this fragment to {@code writer}.
+		 *
+		 * @param writer the writer to write to
+		 * @throws IOException on IO error
+		 */
+		void write(Writer writer) throws IOException;
+	}
+
+	/**
+	 * Literal or placeholder segment of a {@link CompiledTemplate}
+	 */
+	@Getter
+	@ToString
+	@RequiredArgsConstructor
+	private static final class Segment {
+		/**
+		 * Literal text or empty for placeholders
+		 *
+		 * @return the literal text or empty for placeholders
+		 */
+		Optional<String> literal;
+
+		/**
+		 * Index of the referenced argument or {@code -1} for literals
+		 *
+		 * @return the index of the referenced argument or {@code -1} for literals
+		 */
+		int index;
+
+		/**
+		 * Format specifier without argument index or an empty string for literals
+		 *
+		 * @return the format specifier without argument index
+		 */
+		String format;
+	}
+}
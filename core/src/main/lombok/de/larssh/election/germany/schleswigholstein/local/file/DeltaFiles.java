@@ -0,0 +1,64 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultDelta;
+import lombok.experimental.UtilityClass;
+
+/**
+ * This class contains helper methods to append changes of election results as
+ * newline-delimited JSON.
+ *
+ * <p>
+ * Each {@link LocalElectionResultDelta} is written as a single line containing
+ * one JSON object, so that consumers can follow the count by reading lines
+ * appended to a file or stream, without comparing whole results themselves.
+ */
+@UtilityClass
+public class DeltaFiles {
+	/**
+	 * JSON writer, which does not close the target after writing a value
+	 */
+	private static final ObjectWriter OBJECT_WRITER
+			= LocalElectionResult.createJacksonObjectWriter().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	/**
+	 * Appends the changes from {@code previous} to {@code current} as a single line
+	 * of JSON to {@code writer}. Nothing is written if nothing changed.
+	 *
+	 * @param previous the previous election result
+	 * @param current  the current election result
+	 * @param writer   the writer to append to
+	 * @return {@code true} if a line was written, else {@code false}
+	 * @throws IOException on IO error
+	 */
+	public static boolean append(final LocalElectionResult previous,
+			final LocalElectionResult current,
+			final Writer writer) throws IOException {
+		return append(new LocalElectionResultDelta(previous, current), writer);
+	}
+
+	/**
+	 * Appends {@code delta} as a single line of JSON to {@code writer}. Nothing is
+	 * written for empty deltas.
+	 *
+	 * @param delta  the changes to write
+	 * @param writer the writer to append to
+	 * @return {@code true} if a line was written, else {@code false}
+	 * @throws IOException on IO error
+	 */
+	public static boolean append(final LocalElectionResultDelta delta, final Writer writer) throws IOException {
+		if (delta.isEmpty()) {
+			return false;
+		}
+		OBJECT_WRITER.writeValue(writer, delta);
+		writer.write('\n');
+		writer.flush();
+		return true;
+	}
+}
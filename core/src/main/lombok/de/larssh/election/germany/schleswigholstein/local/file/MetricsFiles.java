@@ -9,9 +9,11 @@ import java.io.OutputStream;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -30,6 +32,8 @@ import org.apache.poi.ss.util.AreaReference;
 import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.ss.util.CellUtil;
 import org.apache.poi.ss.util.SheetUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFColor;
 import org.apache.poi.xssf.usermodel.XSSFFont;
@@ -42,20 +46,22 @@ import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTTableColumn;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.STTotalsRowFunction;
 
-import de.larssh.election.germany.schleswigholstein.Ballot;
 import de.larssh.election.germany.schleswigholstein.Color;
 import de.larssh.election.germany.schleswigholstein.District;
 import de.larssh.election.germany.schleswigholstein.Keys;
 import de.larssh.election.germany.schleswigholstein.Party;
-import de.larssh.election.germany.schleswigholstein.local.LocalBallot;
+import de.larssh.election.germany.schleswigholstein.local.CoOccurrenceMatrix;
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
 import de.larssh.election.germany.schleswigholstein.local.LocalNomination;
 import de.larssh.election.germany.schleswigholstein.local.LocalNominationResult;
 import de.larssh.election.germany.schleswigholstein.local.LocalNominationResultType;
 import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
+import de.larssh.election.germany.schleswigholstein.local.LocalWeightedBallot;
 import de.larssh.utils.OptionalInts;
 import de.larssh.utils.annotations.PackagePrivate;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.experimental.UtilityClass;
 
 /**
@@ -78,7 +84,29 @@ public class MetricsFiles {
 	 */
 	public static void write(final LocalElectionResult result, final OutputStream outputStream, final boolean extended)
 			throws IOException {
-		new MetricsFileWriter(result, outputStream, extended).write();
+		write(result, outputStream, extended, false);
+	}
+
+	/**
+	 * Formats and writes {@code result} to {@code outputStream}.
+	 *
+	 * <p>
+	 * In streaming mode only a window of rows per sheet is held in memory, while
+	 * older rows are written to temporary files. Tables, totals rows and cell
+	 * styles are the same as in the default mode.
+	 *
+	 * @param result       the election result to to write
+	 * @param outputStream the metrics file output stream
+	 * @param extended     if {@code true} additional metrics on ballot basis are
+	 *                     included
+	 * @param streaming    if {@code true} rows are streamed with bounded memory
+	 * @throws IOException on IO error
+	 */
+	public static void write(final LocalElectionResult result,
+			final OutputStream outputStream,
+			final boolean extended,
+			final boolean streaming) throws IOException {
+		new MetricsFileWriter(result, outputStream, extended, streaming).write();
 	}
 
 	/**
@@ -114,6 +142,11 @@ public class MetricsFiles {
 		 */
 		private static final String DATA_FORMAT_PERCENTAGE_WITH_SIGN = "\\+0.0%;\\-0.0%;0.0%";
 
+		/**
+		 * Number of rows per sheet held in memory in streaming mode
+		 */
+		private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
 		/**
 		 * Excel data format for any number with any number of decimal places
 		 */
@@ -141,10 +174,21 @@ public class MetricsFiles {
 		 * @param name  the table name
 		 * @return the created table
 		 */
-		private static XSSFTable createTable(final Sheet sheet, final String name) {
-			final XSSFTable table = ((XSSFSheet) sheet).createTable(new AreaReference(new CellReference(0, 0),
-					new CellReference(sheet.getLastRowNum(), CellUtil.getRow(0, sheet).getLastCellNum() - 1),
+		private XSSFTable createTable(final Sheet sheet, final String name) {
+			final List<String> columnNames = headers.get(sheet).getColumnNames();
+			final XSSFSheet xssfSheet = sheet instanceof SXSSFSheet
+					? ((SXSSFWorkbook) sheet.getWorkbook()).getXSSFWorkbook().getSheet(sheet.getSheetName())
+					: (XSSFSheet) sheet;
+			final XSSFTable table = xssfSheet.createTable(new AreaReference(new CellReference(0, 0),
+					new CellReference(sheet.getLastRowNum(), columnNames.size() - 1),
 					SpreadsheetVersion.EXCEL2007));
+
+			// Streamed header rows are not available to the table anymore
+			final List<CTTableColumn> columns = table.getCTTable().getTableColumns().getTableColumnList();
+			for (int index = 0; index < columns.size(); index += 1) {
+				columns.get(index).setName(columnNames.get(index));
+			}
+
 			table.setName(name);
 			table.setDisplayName(name);
 			table.setStyleName("TableStyleLight1");
@@ -188,12 +232,17 @@ public class MetricsFiles {
 		 *
 		 * <p>
 		 * This method allows setting e.g. precise {@link java.math.BigDecimal} values,
-		 * but does not permit infinite and {@code NaN} values.
+		 * but does not permit infinite and {@code NaN} values. Streamed cells are
+		 * limited to the precision of {@code double} values.
 		 *
 		 * @param cell  the cell to modify
 		 * @param value the value to set
 		 */
 		private static void setCellValue(final Cell cell, final Number value) {
+			if (!(cell instanceof XSSFCell)) {
+				cell.setCellValue(value.doubleValue());
+				return;
+			}
 			final CTCell ctCell = ((XSSFCell) cell).getCTCell();
 			ctCell.setT(STCellType.N);
 			ctCell.setV(DECIMAL_FORMAT.get().format(value));
@@ -221,6 +270,19 @@ public class MetricsFiles {
 		 */
 		boolean extended;
 
+		/**
+		 * Streams rows with bounded memory
+		 *
+		 * @return {@code true} if rows are streamed, else {@code false}
+		 */
+		boolean streaming;
+
+		/**
+		 * Header rows by sheet, recorded as streamed rows are not available after
+		 * writing the sheet
+		 */
+		Map<Sheet, Header> headers = new HashMap<>();
+
 		/**
 		 * Cache to simplify reusing {@link CellStyle} instances
 		 */
@@ -240,12 +302,17 @@ public class MetricsFiles {
 		 * @param outputStream the {@link OutputStream} to write to
 		 * @param extended     if {@code true} additional metrics on ballot basis are
 		 *                     included
+		 * @param streaming    if {@code true} rows are streamed with bounded memory
 		 */
 		@PackagePrivate
-		MetricsFileWriter(final LocalElectionResult result, final OutputStream outputStream, final boolean extended) {
+		MetricsFileWriter(final LocalElectionResult result,
+				final OutputStream outputStream,
+				final boolean extended,
+				final boolean streaming) {
 			this.result = result;
 			this.outputStream = outputStream;
 			this.extended = extended;
+			this.streaming = streaming;
 
 			dataFormatSainteLague = result.getSainteLagueScale() == 0
 					? "0"
@@ -346,21 +413,6 @@ public class MetricsFiles {
 			}
 		}
 
-		/**
-		 * Determines if the votes of {@code ballot} contain at least one nomination
-		 * relating {@code party}.
-		 *
-		 * @param ballot the ballot to search in
-		 * @param party  the party to look for
-		 * @return {@code true} if {@code ballot} contains at least one nomination of
-		 *         {@code party}, else {@code false}
-		 */
-		private static boolean containsParty(final Ballot<?> ballot, final Party party) {
-			return ballot.getNominations()
-					.stream()
-					.anyMatch(nomination -> nomination.getParty().map(party::equals).orElse(Boolean.FALSE));
-		}
-
 		/**
 		 * Returns a {@link CellStyle} instance with the coloring of {@code party} and
 		 * {@code dataFormat}. Cell styles are cached and reused.
@@ -414,37 +466,100 @@ public class MetricsFiles {
 		 */
 		@PackagePrivate
 		void write() throws IOException {
-			try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-				workbook.setCellFormulaValidation(false);
-
-				writeOverview(workbook.createSheet("Übersicht"));
-				writeParties(workbook.createSheet("Gruppierungen"));
-				writeBlockVotes(workbook.createSheet("Blockstimmen"));
-				writeNominations(workbook.createSheet("Kandidierende"));
-				if (extended) {
-					writeVotes(workbook.createSheet("Stimmen"));
-					writeBallots(workbook.createSheet("Stimmzettel"));
+			if (!streaming) {
+				try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+					workbook.setCellFormulaValidation(false);
+					write(workbook);
 				}
+				return;
+			}
 
-				// Auto Size Columns
-				workbook.sheetIterator().forEachRemaining(sheet -> {
-					final int numberOfColumns = sheet.getRow(0).getLastCellNum();
-					for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex += 1) {
-						sheet.autoSizeColumn(columnIndex);
-
-						// Add the width of the auto filter
-						final double widthOfHeader = SheetUtil.getColumnWidth(sheet, columnIndex, false, 0, 0);
-						if (widthOfHeader != -1) {
-							final int intWidth = (int) Math.round(
-									Math.min(CHARACTER_WIDTH * widthOfHeader + AUTO_FILTER_WIDTH, COLUMN_MAX_WIDTH));
-							if (intWidth > sheet.getColumnWidth(columnIndex)) {
-								sheet.setColumnWidth(columnIndex, intWidth);
-							}
-						}
-					}
-				});
+			try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, ROW_ACCESS_WINDOW_SIZE, true)) {
+				try {
+					write(workbook);
+				} finally {
+					workbook.dispose();
+				}
+			}
+		}
+
+		/**
+		 * Formats and writes {@link #result} to {@code workbook} and writes it to
+		 * {@link #outputStream}.
+		 *
+		 * @param workbook the workbook to fill
+		 * @throws IOException on IO error
+		 */
+		private void write(final Workbook workbook) throws IOException {
+			writeOverview(createSheet(workbook, "Übersicht"));
+			writeParties(createSheet(workbook, "Gruppierungen"));
+			writeBlockVotes(createSheet(workbook, "Blockstimmen"));
+			writeNominations(createSheet(workbook, "Kandidierende"));
+			if (extended) {
+				writeVotes(createSheet(workbook, "Stimmen"));
+				writeBallots(createSheet(workbook, "Stimmzettel"));
+			}
+
+			// Auto Size Columns
+			workbook.sheetIterator().forEachRemaining(this::autoSizeColumns);
+
+			workbook.write(outputStream);
+		}
+
+		/**
+		 * Creates a sheet with {@code name}. In streaming mode the widths of all
+		 * columns are tracked while streaming.
+		 *
+		 * @param workbook the workbook to modify
+		 * @param name     the sheet name
+		 * @return the created sheet
+		 */
+		private static Sheet createSheet(final Workbook workbook, final String name) {
+			final Sheet sheet = workbook.createSheet(name);
+			if (sheet instanceof SXSSFSheet) {
+				((SXSSFSheet) sheet).trackAllColumnsForAutoSizing();
+			}
+			return sheet;
+		}
+
+		/**
+		 * Records the header row of its sheet. This method needs to be called directly
+		 * after appending all header cells.
+		 *
+		 * @param row the header row
+		 */
+		private void recordHeader(final Row row) {
+			final Sheet sheet = row.getSheet();
+			final List<String> columnNames = new ArrayList<>();
+			final double[] widths = new double[row.getLastCellNum()];
+			for (int columnIndex = 0; columnIndex < widths.length; columnIndex += 1) {
+				columnNames.add(row.getCell(columnIndex).getStringCellValue());
+				widths[columnIndex] = SheetUtil.getColumnWidth(sheet, columnIndex, false, 0, 0);
+			}
+			headers.put(sheet, new Header(columnNames, widths));
+		}
 
-				workbook.write(outputStream);
+		/**
+		 * Adjusts the widths of all columns of {@code sheet} to their content and the
+		 * auto filter control of their header.
+		 *
+		 * @param sheet the sheet to modify
+		 */
+		private void autoSizeColumns(final Sheet sheet) {
+			final Header header = headers.get(sheet);
+			final int numberOfColumns = header.getColumnNames().size();
+			for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex += 1) {
+				sheet.autoSizeColumn(columnIndex);
+
+				// Add the width of the auto filter
+				final double widthOfHeader = header.getWidths()[columnIndex];
+				if (widthOfHeader != -1) {
+					final int intWidth = (int) Math
+							.round(Math.min(CHARACTER_WIDTH * widthOfHeader + AUTO_FILTER_WIDTH, COLUMN_MAX_WIDTH));
+					if (intWidth > sheet.getColumnWidth(columnIndex)) {
+						sheet.setColumnWidth(columnIndex, intWidth);
+					}
+				}
 			}
 		}
 
@@ -463,6 +578,7 @@ public class MetricsFiles {
 					"ausgezählt",
 					"ausgezählt %",
 					"ungültig");
+			recordHeader(CellUtil.getRow(0, sheet));
 
 			// Content
 			for (final LocalPollingStation pollingStation : result.getElection().getPollingStations()) {
@@ -505,7 +621,7 @@ public class MetricsFiles {
 					"MIN(1, Übersicht[Stimmzettel] / Übersicht[Wahlberechtigte])");
 
 			// ausgezählt
-			appendNumber(row, Optional.empty(), Optional.of(result.getBallots(district).size()));
+			appendNumber(row, Optional.empty(), Optional.of(result.getNumberOfBallots(district)));
 
 			// ausgezählt %
 			appendFormula(row,
@@ -575,6 +691,7 @@ public class MetricsFiles {
 				appendStrings(row, pollingStation.getName(), pollingStation.getName() + " %");
 			}
 			appendStrings(row, "Gesamt", "Gesamt %", "Sitze");
+			recordHeader(row);
 
 			// Content
 			for (final Party party : result.getPartyResults().keySet()) {
@@ -603,10 +720,7 @@ public class MetricsFiles {
 				// Stimmen
 				appendNumber(row,
 						optionalParty,
-						Optional.of(result.filterByDistrict(pollingStation)
-								.getPartyResults()
-								.get(party)
-								.getNumberOfVotes()));
+						Optional.of(result.getPollingStationBreakdown().getNumberOfVotes(pollingStation, party)));
 
 				// Stimmen %
 				appendFormula(row,
@@ -656,6 +770,7 @@ public class MetricsFiles {
 						pollingStation.getName() + " ±%");
 			}
 			appendStrings(row, "Gesamt", "Gesamt %", "Gesamt ±%");
+			recordHeader(row);
 
 			// Content
 			for (final Party party : result.getPartyResults().keySet()) {
@@ -685,10 +800,8 @@ public class MetricsFiles {
 				// Stimmen
 				appendNumber(row,
 						optionalParty,
-						Optional.of(result.filterByDistrict(pollingStation)
-								.getPartyResults()
-								.get(party)
-								.getNumberOfBlockVotings()));
+						Optional.of(
+								result.getPollingStationBreakdown().getNumberOfBlockVotings(pollingStation, party)));
 
 				// Stimmen %
 				appendFormula(row,
@@ -747,6 +860,7 @@ public class MetricsFiles {
 				appendStrings(row, pollingStation.getName());
 			}
 			appendStrings(row, "Gesamt", "Sainte-Laguë-Wert", "Mandat");
+			recordHeader(row);
 
 			// Content
 			for (final LocalNominationResult nominationResult : result.getNominationResults().values()) {
@@ -784,10 +898,7 @@ public class MetricsFiles {
 				// Stimmen
 				appendNumber(row,
 						party,
-						Optional.of(result.filterByDistrict(pollingStation)
-								.getNominationResults()
-								.get(nomination)
-								.getNumberOfVotes()));
+						Optional.of(result.getPollingStationBreakdown().getNumberOfVotes(pollingStation, nomination)));
 			}
 
 			// Gesamt
@@ -817,24 +928,14 @@ public class MetricsFiles {
 		 * @param party the party
 		 */
 		private void writeVote(final Row row, final Party party) {
+			final CoOccurrenceMatrix matrix = result.getCoOccurrenceMatrix();
 			appendString(row, Optional.of(party), party.getShortName());
 			for (final Party column : result.getPartyResults().keySet()) {
-				final long numberOfBallots = result.getBallots()
-						.stream()
-						.filter(ballot -> containsParty(ballot, party))
-						.flatMap(ballot -> ballot.getNominations().stream())
-						.filter(ballot -> ballot.getParty().map(column::equals).orElse(Boolean.FALSE))
-						.count();
-				appendNumber(row, Optional.of(party), Optional.of(numberOfBallots));
+				appendNumber(row, Optional.of(party), Optional.of(matrix.getNumberOfVotes(party, column)));
 			}
 			for (final LocalNomination nomination : result.getNominationResults().keySet()) {
 				if (nomination.isDirectNomination()) {
-					final long numberOfBallots = result.getBallots()
-							.stream()
-							.filter(ballot -> ballot.getNominations().contains(nomination)
-									&& containsParty(ballot, party))
-							.count();
-					appendNumber(row, Optional.of(party), Optional.of(numberOfBallots));
+					appendNumber(row, Optional.of(party), Optional.of(matrix.getNumberOfBallots(party, nomination)));
 				}
 			}
 		}
@@ -846,28 +947,20 @@ public class MetricsFiles {
 		 * @param nomination the nomination
 		 */
 		private void writeVote(final Row row, final LocalNomination nomination) {
+			final CoOccurrenceMatrix matrix = result.getCoOccurrenceMatrix();
 			appendString(row,
 					nomination.getParty(),
 					String.format("%s, %s",
 							nomination.getPerson().getFamilyName(),
 							nomination.getPerson().getGivenName()));
 			for (final Party party : result.getPartyResults().keySet()) {
-				final long numberOfBallots = result.getBallots()
-						.stream()
-						.filter(ballot -> ballot.getNominations().contains(nomination))
-						.flatMap(ballot -> ballot.getNominations().stream())
-						.filter(ballot -> ballot.getParty().map(party::equals).orElse(Boolean.FALSE))
-						.count();
-				appendNumber(row, nomination.getParty(), Optional.of(numberOfBallots));
+				appendNumber(row, nomination.getParty(), Optional.of(matrix.getNumberOfVotes(nomination, party)));
 			}
 			for (final LocalNomination column : result.getNominationResults().keySet()) {
 				if (column.isDirectNomination()) {
-					final long numberOfBallots = result.getBallots()
-							.stream()
-							.filter(ballot -> ballot.getNominations().contains(nomination)
-									&& ballot.getNominations().contains(column))
-							.count();
-					appendNumber(row, nomination.getParty(), Optional.of(numberOfBallots));
+					appendNumber(row,
+							nomination.getParty(),
+							Optional.of(matrix.getNumberOfBallots(nomination, column)));
 				}
 			}
 		}
@@ -893,6 +986,7 @@ public class MetricsFiles {
 									nomination.getPerson().getGivenName()));
 				}
 			}
+			recordHeader(row);
 
 			// Content
 			for (final Party party : result.getPartyResults().keySet()) {
@@ -941,12 +1035,14 @@ public class MetricsFiles {
 									nomination.getPerson().getGivenName()));
 				}
 			}
+			recordHeader(row);
 
 			// Content
-			final Map<Set<LocalNomination>, Integer> ballots = result.getBallots()
+			final Map<Set<LocalNomination>, Integer> ballots = result.getWeightedBallots()
 					.stream()
-					.filter(LocalBallot::isValid)
-					.collect(groupingBy(LocalBallot::getNominations, summingInt(ballot -> 1)));
+					.filter(weightedBallot -> weightedBallot.getBallot().isValid())
+					.collect(groupingBy(weightedBallot -> weightedBallot.getBallot().getNominations(),
+							summingInt(LocalWeightedBallot::getWeight)));
 			ballots.entrySet()
 					.stream()
 					.sorted(Comparator.comparing(Entry::getValue))
@@ -982,5 +1078,27 @@ public class MetricsFiles {
 				}
 			}
 		}
+
+		/**
+		 * Column names and widths of a header row
+		 */
+		@Getter
+		@RequiredArgsConstructor
+		private static final class Header {
+			/**
+			 * Column names
+			 *
+			 * @return the column names
+			 */
+			List<String> columnNames;
+
+			/**
+			 * Widths of the header cells in characters or {@code -1} for empty cells
+			 *
+			 * @return the widths of the header cells
+			 */
+			@SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "private class")
+			double[] widths;
+		}
 	}
 }
@@ -0,0 +1,332 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.joining;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.election.germany.schleswigholstein.local.LocalDistrict;
+import de.larssh.election.germany.schleswigholstein.local.LocalElection;
+import de.larssh.election.germany.schleswigholstein.local.LocalNomination;
+import de.larssh.utils.annotations.PackagePrivate;
+import de.larssh.utils.text.Strings;
+import lombok.ToString;
+
+/**
+ * Resolves the nomination references of polling station result files for the
+ * direct nominations of one district
+ *
+ * <p>
+ * Party short names, given names and family names are simplified once when
+ * creating the matcher. Party short names and names are resolved using hash
+ * lookups. Abbreviations are matched by walking a subsequence automaton per
+ * nomination, taking time linear to the reference's length.
+ *
+ * <p>
+ * Resolved references are cached by their normalized form. Instances of this
+ * class are not thread-safe.
+ */
+@PackagePrivate
+@ToString(onlyExplicitlyIncluded = true)
+final class NominationMatcher {
+	/**
+	 * Reduces the complexity of {@code value} by converting to lower case
+	 * characters, replacing umlauts and removing characters not matching a-z and
+	 * 0-9.
+	 *
+	 * @param value the value to simplify
+	 * @return the simplified value
+	 */
+	@PackagePrivate
+	static String getSimplifiedString(final String value) {
+		return Strings.toLowerCaseNeutral(value)
+				.replace("ä", "ae")
+				.replace("ö", "oe")
+				.replace("ü", "ue")
+				.replace("ß", "ss")
+				.replaceAll("[^a-z0-9]", "");
+	}
+
+	/**
+	 * Normalizes {@code person} to the form nominations are matched on: the lower
+	 * case first character, which might be a party prefix, followed by the
+	 * simplified remainder. References with equal normalized forms resolve to the
+	 * same nomination.
+	 *
+	 * @param person Bewerberin oder Bewerber
+	 * @return the normalized reference
+	 */
+	@PackagePrivate
+	static String getNormalizedReference(final String person) {
+		return person.isEmpty()
+				? person
+				: Character.toLowerCase(person.charAt(0)) + getSimplifiedString(person.substring(1));
+	}
+
+	/**
+	 * Wahlkreis
+	 */
+	@ToString.Include
+	LocalDistrict district;
+
+	/**
+	 * Unmittelbare Wahlvorschläge of {@link #district}
+	 */
+	List<LocalNomination> nominations = new ArrayList<>();
+
+	/**
+	 * Nominations by simplified party short name
+	 */
+	Map<String, List<LocalNomination>> nominationsByPartyShortName = new HashMap<>();
+
+	/**
+	 * Nominations by simplified given name and simplified family name
+	 */
+	Map<String, Set<LocalNomination>> nominationsByName = new HashMap<>();
+
+	/**
+	 * Lower case first character of the party short name per nomination or
+	 * {@code -1} if the nomination has no party short name
+	 */
+	int[] partyIndicators;
+
+	/**
+	 * Automaton matching the simplified given name followed by the family name per
+	 * nomination
+	 */
+	SubsequenceAutomaton[] givenFamilyNames;
+
+	/**
+	 * Automaton matching the simplified family name followed by the given name per
+	 * nomination
+	 */
+	SubsequenceAutomaton[] familyGivenNames;
+
+	/**
+	 * Resolved nominations by normalized reference
+	 */
+	Map<String, LocalNomination> cache = new HashMap<>();
+
+	/**
+	 * Creates the matcher for the direct nominations of {@code district}.
+	 *
+	 * @param election Wahl
+	 * @param district Wahlkreis
+	 */
+	@PackagePrivate
+	NominationMatcher(final LocalElection election, final LocalDistrict district) {
+		this.district = district;
+		for (final LocalNomination nomination : election.getDirectNominations()) {
+			if (nomination.getDistrict().equals(district)) {
+				nominations.add(nomination);
+			}
+		}
+
+		final int size = nominations.size();
+		partyIndicators = new int[size];
+		givenFamilyNames = new SubsequenceAutomaton[size];
+		familyGivenNames = new SubsequenceAutomaton[size];
+		for (int index = 0; index < size; index += 1) {
+			final LocalNomination nomination = nominations.get(index);
+			final String shortName = nomination.getParty().map(Party::getShortName).orElse("");
+			if (shortName.isEmpty()) {
+				partyIndicators[index] = -1;
+			} else {
+				partyIndicators[index] = Character.toLowerCase(shortName.charAt(0));
+				nominationsByPartyShortName.computeIfAbsent(getSimplifiedString(shortName), key -> new ArrayList<>())
+						.add(nomination);
+			}
+
+			final String givenName = nomination.getPerson().getGivenName();
+			final String familyName = nomination.getPerson().getFamilyName();
+			nominationsByName.computeIfAbsent(getSimplifiedString(givenName), key -> new LinkedHashSet<>())
+					.add(nomination);
+			nominationsByName.computeIfAbsent(getSimplifiedString(familyName), key -> new LinkedHashSet<>())
+					.add(nomination);
+			givenFamilyNames[index] = new SubsequenceAutomaton(getSimplifiedString(givenName + familyName));
+			familyGivenNames[index] = new SubsequenceAutomaton(getSimplifiedString(familyName + givenName));
+		}
+	}
+
+	/**
+	 * Determines the correct nomination for {@code person}.
+	 *
+	 * <p>
+	 * This method takes care of the party prefix.
+	 *
+	 * @param person Bewerberin oder Bewerber
+	 * @return Bewerberin oder Bewerber
+	 * @throws ElectionException if no or multiple nominations match
+	 */
+	@PackagePrivate
+	LocalNomination find(final String person) {
+		final String normalizedPerson = getNormalizedReference(person);
+		final LocalNomination cached = cache.get(normalizedPerson);
+		if (cached != null) {
+			return cached;
+		}
+		final LocalNomination nomination = resolve(person);
+		cache.put(normalizedPerson, nomination);
+		return nomination;
+	}
+
+	/**
+	 * Resolves {@code person} without using {@link #cache}.
+	 *
+	 * @param person Bewerberin oder Bewerber
+	 * @return Bewerberin oder Bewerber
+	 * @throws ElectionException if no or multiple nominations match
+	 */
+	private LocalNomination resolve(final String person) {
+		if (person.isEmpty()) {
+			throw new ElectionException("Cannot find a nomination for an empty string in district \"%s\".",
+					district.getName());
+		}
+
+		final String simplifiedPerson = getSimplifiedString(person);
+		final List<LocalNomination> parties = nominationsByPartyShortName.getOrDefault(simplifiedPerson, emptyList());
+		if (parties.size() == 1) {
+			return parties.get(0);
+		}
+
+		final Set<LocalNomination> exactNames = nominationsByName.getOrDefault(simplifiedPerson, emptySet());
+		if (exactNames.size() == 1) {
+			return exactNames.iterator().next();
+		}
+
+		final List<LocalNomination> nominationsWithPartyPrefix
+				= findMatches(Character.toLowerCase(person.charAt(0)), getSimplifiedString(person.substring(1)));
+		if (nominationsWithPartyPrefix.size() == 1) {
+			return nominationsWithPartyPrefix.get(0);
+		}
+
+		final List<LocalNomination> matches = findMatches(-1, simplifiedPerson);
+		if (matches.isEmpty()) {
+			throw new ElectionException("Cannot find a nomination for \"%s\" in district \"%s\".",
+					person,
+					district.getName());
+		}
+		if (matches.size() > 1) {
+			throw new ElectionException("Found %d nominations for \"%s\" in district \"%s\": \"%s\"",
+					matches.size(),
+					person,
+					district.getName(),
+					matches.stream().map(LocalNomination::getKey).collect(joining("\", \"")));
+		}
+		return matches.get(0);
+	}
+
+	/**
+	 * Finds the nominations, whose given and family names (in either order) contain
+	 * {@code simplifiedPerson} as subsequence.
+	 *
+	 * @param partyIndicator   the lower case first character of the party short
+	 *                         name to filter by or {@code -1} to match nominations
+	 *                         of any party
+	 * @param simplifiedPerson the simplified reference
+	 * @return the matching nominations
+	 */
+	private List<LocalNomination> findMatches(final int partyIndicator, final String simplifiedPerson) {
+		final List<LocalNomination> matches = new ArrayList<>();
+		for (int index = 0; index < nominations.size(); index += 1) {
+			if ((partyIndicator == -1 || partyIndicators[index] == partyIndicator)
+					&& (givenFamilyNames[index].accepts(simplifiedPerson)
+							|| familyGivenNames[index].accepts(simplifiedPerson))) {
+				matches.add(nominations.get(index));
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Deterministic automaton accepting all subsequences of a simplified string
+	 *
+	 * <p>
+	 * State {@code n} represents having consumed the first {@code n} characters of
+	 * the string. The transition of a character leads to the state after its next
+	 * occurrence.
+	 */
+	private static final class SubsequenceAutomaton {
+		/**
+		 * Number of characters of simplified strings: a-z and 0-9
+		 */
+		private static final int ALPHABET_SIZE = 36;
+
+		/**
+		 * Number of letters inside the alphabet
+		 */
+		private static final int LETTERS = 26;
+
+		/**
+		 * Determines the index of {@code character} inside the alphabet.
+		 *
+		 * @param character a character of a simplified string
+		 * @return the index or {@code -1} if {@code character} is not part of the
+		 *         alphabet
+		 */
+		private static int getIndex(final char character) {
+			if (character >= 'a' && character <= 'z') {
+				return character - 'a';
+			}
+			if (character >= '0' && character <= '9') {
+				return LETTERS + character - '0';
+			}
+			return -1;
+		}
+
+		/**
+		 * Transitions by state and character index, {@code -1} if there is no further
+		 * occurrence of the character
+		 */
+		int[] transitions;
+
+		/**
+		 * Creates the automaton accepting all subsequences of {@code value}.
+		 *
+		 * @param value simplified string
+		 */
+		SubsequenceAutomaton(final String value) {
+			final int length = value.length();
+			transitions = new int[(length + 1) * ALPHABET_SIZE];
+			for (int index = 0; index < ALPHABET_SIZE; index += 1) {
+				transitions[length * ALPHABET_SIZE + index] = -1;
+			}
+			for (int state = length - 1; state >= 0; state -= 1) {
+				System.arraycopy(transitions,
+						(state + 1) * ALPHABET_SIZE,
+						transitions,
+						state * ALPHABET_SIZE,
+						ALPHABET_SIZE);
+				final int index = getIndex(value.charAt(state));
+				if (index != -1) {
+					transitions[state * ALPHABET_SIZE + index] = state + 1;
+				}
+			}
+		}
+
+		/**
+		 * Checks if {@code simplifiedPerson} is a subsequence of the automaton's
+		 * string.
+		 *
+		 * @param simplifiedPerson the simplified reference
+		 * @return {@code true} if {@code simplifiedPerson} is a subsequence, else
+		 *         {@code false}
+		 */
+		boolean accepts(final String simplifiedPerson) {
+			int state = 0;
+			for (int position = 0; position < simplifiedPerson.length() && state != -1; position += 1) {
+				final int index = getIndex(simplifiedPerson.charAt(position));
+				state = index == -1 ? -1 : transitions[state * ALPHABET_SIZE + index];
+			}
+			return state != -1;
+		}
+	}
+}
@@ -0,0 +1,255 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElection;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFiles.PollingStationResultFileReader;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.NonFinal;
+
+/**
+ * Follows a polling station result file, which is appended to while counting
+ *
+ * <p>
+ * Each call of {@link #read()} reads and parses only the lines appended since
+ * the previous call and counts them into the existing tally. The file is parsed
+ * from its start again if it shrank or if any previously parsed line changed,
+ * e.g. because a line was corrected. The file is expected to be UTF-8 encoded.
+ *
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public final class PollingStationResultFileTail {
+	/**
+	 * Number of bytes to read at once when calculating checksums
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * Wahl
+	 *
+	 * @return Wahl
+	 */
+	LocalElection election;
+
+	/**
+	 * Wahlbezirk
+	 *
+	 * @return Wahlbezirk
+	 */
+	@ToString.Include
+	LocalPollingStation pollingStation;
+
+	/**
+	 * Path to the polling station result file
+	 *
+	 * @return path to the polling station result file
+	 */
+	@ToString.Include
+	Path path;
+
+	/**
+	 * Reader containing the tally of the lines parsed so far
+	 */
+	@NonFinal
+	@Getter(AccessLevel.NONE)
+	PollingStationResultFileReader reader;
+
+	/**
+	 * Number of bytes parsed so far
+	 *
+	 * @return the number of bytes parsed so far
+	 */
+	@NonFinal
+	@ToString.Include
+	long offset = 0;
+
+	/**
+	 * CRC-32 checksum of the bytes parsed so far, updated by the appended bytes
+	 */
+	@NonFinal
+	@Getter(AccessLevel.NONE)
+	CRC32 checksum = new CRC32();
+
+	/**
+	 * Last byte parsed so far, irrelevant as long as {@link #offset} is zero
+	 */
+	@NonFinal
+	@Getter(AccessLevel.NONE)
+	byte lastByte = 0;
+
+	/**
+	 * Follows a polling station result file
+	 *
+	 * @param election       Wahl
+	 * @param pollingStation Wahlbezirk
+	 * @param path           path to the polling station result file
+	 */
+	@SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "Election is no longer modifiable when passed here.")
+	public PollingStationResultFileTail(final LocalElection election,
+			final LocalPollingStation pollingStation,
+			final Path path) {
+		this.election = election;
+		this.pollingStation = pollingStation;
+		this.path = path;
+		reader = new PollingStationResultFileReader(election, pollingStation);
+	}
+
+	/**
+	 * CRC-32 checksum of the bytes parsed so far. As long as the file was parsed
+	 * completely, this is the checksum of the file's content as of the previous
+	 * call of {@link #read()}.
+	 *
+	 * @return the CRC-32 checksum of the bytes parsed so far
+	 */
+	public long getChecksum() {
+		return checksum.getValue();
+	}
+
+	/**
+	 * Parses the lines appended since the previous call and creates a
+	 * {@link LocalElectionResult} of all lines parsed so far.
+	 *
+	 * <p>
+	 * The checksum of the previously parsed bytes is compared before parsing the
+	 * appended bytes only. The file is parsed from its start again if it shrank, if
+	 * any previously parsed byte changed or if an unterminated last line was
+	 * continued.
+	 *
+	 * @return the new result object
+	 * @throws IOException                            on IO error
+	 * @throws PollingStationResultFileParseException if any line could not be
+	 *                                                parsed
+	 */
+	public LocalElectionResult read() throws IOException {
+		try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+			final long size = channel.size();
+			if (size < offset || calculateChecksum(channel, offset) != checksum.getValue()) {
+				reset();
+			}
+
+			byte[] appended = readFully(channel, offset, size - offset);
+			int start = getStartOfAppendedLines(appended);
+			if (start == -1) {
+				reset();
+				appended = readFully(channel, 0, size);
+				start = 0;
+			}
+			reader.read(new StringReader(
+					UTF_8.newDecoder().decode(ByteBuffer.wrap(appended, start, appended.length - start)).toString()));
+
+			checksum.update(appended, 0, appended.length);
+			offset += appended.length;
+			if (appended.length > 0) {
+				lastByte = appended[appended.length - 1];
+			}
+		}
+		return reader.createResult();
+	}
+
+	/**
+	 * Forgets about all lines parsed so far, so that the next call of
+	 * {@link #read()} parses the file from its start again.
+	 */
+	public void reset() {
+		reader = new PollingStationResultFileReader(election, pollingStation);
+		offset = 0;
+		checksum = new CRC32();
+		lastByte = 0;
+	}
+
+	/**
+	 * Calculates the CRC-32 checksum of the first {@code length} bytes of
+	 * {@code channel}.
+	 *
+	 * @param channel the channel to read from
+	 * @param length  the number of bytes to calculate the checksum of
+	 * @return the CRC-32 checksum
+	 * @throws IOException on IO error, including the file ending early
+	 */
+	private static long calculateChecksum(final SeekableByteChannel channel, final long length) throws IOException {
+		final CRC32 prefixChecksum = new CRC32();
+		final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		channel.position(0);
+		for (long remaining = length; remaining > 0; remaining -= buffer.position()) {
+			buffer.clear();
+			buffer.limit((int) Math.min(BUFFER_SIZE, remaining));
+			if (channel.read(buffer) == -1) {
+				throw new EOFException();
+			}
+			prefixChecksum.update(buffer.array(), 0, buffer.position());
+		}
+		return prefixChecksum.getValue();
+	}
+
+	/**
+	 * Reads {@code length} bytes of {@code channel} starting at {@code position}.
+	 *
+	 * @param channel  the channel to read from
+	 * @param position the position of the first byte to read
+	 * @param length   the number of bytes to read
+	 * @return the bytes read
+	 * @throws IOException on IO error, including the file ending early
+	 */
+	private static byte[] readFully(final SeekableByteChannel channel, final long position, final long length)
+			throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException(String.format("Cannot read %d bytes at once.", length));
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate((int) length);
+		channel.position(position);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) == -1) {
+				throw new EOFException();
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Determines the position of the first byte to parse inside {@code appended}.
+	 *
+	 * <p>
+	 * The line break terminating the previously parsed line is skipped if it has
+	 * not been part of the previously parsed bytes. In case the previously parsed
+	 * last line is continued, the file needs to be parsed from its start again.
+	 *
+	 * @param appended the bytes appended since the previous call
+	 * @return the position of the first byte to parse or {@code -1} if the file
+	 *         needs to be parsed from its start again
+	 */
+	private int getStartOfAppendedLines(final byte[] appended) {
+		if (offset == 0 || lastByte == '\n' || appended.length == 0) {
+			return 0;
+		}
+
+		int start = 0;
+		if (lastByte != '\r') {
+			// The previously parsed last line did not end with a line break
+			if (appended[start] != '\r' && appended[start] != '\n') {
+				return -1;
+			}
+			if (appended[start] == '\n') {
+				return start + 1;
+			}
+			start += 1;
+		}
+		return start < appended.length && appended[start] == '\n' ? start + 1 : start;
+	}
+}
@@ -1,9 +1,8 @@
 package de.larssh.election.germany.schleswigholstein.local.file;
 
 import static de.larssh.utils.Collectors.toLinkedHashSet;
-import static java.util.Collections.emptySet;
+import static de.larssh.utils.Finals.lazy;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import java.io.BufferedReader;
@@ -19,27 +18,27 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.IntStream;
 
-import de.larssh.election.germany.schleswigholstein.District;
 import de.larssh.election.germany.schleswigholstein.ElectionException;
 import de.larssh.election.germany.schleswigholstein.Party;
 import de.larssh.election.germany.schleswigholstein.local.LocalBallot;
 import de.larssh.election.germany.schleswigholstein.local.LocalDistrict;
 import de.larssh.election.germany.schleswigholstein.local.LocalElection;
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultBuilder;
 import de.larssh.election.germany.schleswigholstein.local.LocalNomination;
 import de.larssh.election.germany.schleswigholstein.local.LocalPartyResult;
 import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
-import de.larssh.utils.collection.Maps;
+import de.larssh.election.germany.schleswigholstein.local.LocalWeightedBallot;
+import de.larssh.utils.annotations.PackagePrivate;
 import de.larssh.utils.text.Patterns;
 import de.larssh.utils.text.SplitLimit;
 import de.larssh.utils.text.Strings;
 import lombok.RequiredArgsConstructor;
+import lombok.experimental.NonFinal;
 import lombok.experimental.UtilityClass;
 
 /**
@@ -69,6 +68,11 @@ public class PollingStationResultFiles {
 	 */
 	private static final char LINE_COMMENT = '#';
 
+	/**
+	 * Separator of nomination references inside ballot lines
+	 */
+	private static final String REFERENCE_SEPARATOR = " ";
+
 	/**
 	 * Scale (decimal places) of Sainte Laguë values
 	 */
@@ -86,7 +90,7 @@ public class PollingStationResultFiles {
 	public static LocalElectionResult read(final LocalElection election,
 			final LocalPollingStation pollingStation,
 			final Reader reader) throws IOException {
-		return new PollingStationResultFileReader(election, pollingStation, reader).read();
+		return new PollingStationResultFileReader(election, pollingStation).read(reader).createResult();
 	}
 
 	/**
@@ -107,9 +111,13 @@ public class PollingStationResultFiles {
 	/**
 	 * This class reads data from a polling station result file to a
 	 * {@link LocalElectionResult}.
+	 *
+	 * <p>
+	 * Lines are counted into a {@link LocalElectionResultBuilder}. Reading multiple
+	 * times continues the previous state, which allows parsing appended lines only.
 	 */
-	@RequiredArgsConstructor
-	private static class PollingStationResultFileReader {
+	@PackagePrivate
+	static class PollingStationResultFileReader {
 		/**
 		 * Name of the pattern group for the optional count of a ballot line
 		 */
@@ -132,23 +140,6 @@ public class PollingStationResultFiles {
 		private static final Pattern NUMBER_OF_ALL_BALLOTS_PATTERN
 				= Pattern.compile("^(?i)Anzahl\\s+Stimmzettel\\s*:?\\s*(?<" + GROUP_VALUE + ">\\d+)$");
 
-		/**
-		 * Reduces the complexity of {@code value} by converting to lower case
-		 * characters, replacing umlauts and removing characters not matching a-z and
-		 * 0-9.
-		 *
-		 * @param value the value to simplify
-		 * @return the simplified value
-		 */
-		private static String getSimplifiedString(final String value) {
-			return Strings.toLowerCaseNeutral(value)
-					.replace("ä", "ae")
-					.replace("ö", "oe")
-					.replace("ü", "ue")
-					.replace("ß", "ss")
-					.replaceAll("[^a-z0-9]", "");
-		}
-
 		/**
 		 * {@link LOcalElection} to write
 		 *
@@ -164,26 +155,38 @@ public class PollingStationResultFiles {
 		LocalPollingStation pollingStation;
 
 		/**
-		 * Polling Station Result file read
-		 *
-		 * @return the polling station result file read
+		 * Matcher resolving the nominations of the polling station's district
 		 */
-		Reader reader;
+		Supplier<NominationMatcher> nominationMatcher = lazy(this::createNominationMatcher);
 
 		/**
-		 * Cache for patterns to match persons
+		 * Cache of parsed ballot lines. Tally sheets repeat the same lines many times,
+		 * therefore each distinct line is parsed once only.
 		 */
-		Map<String, Pattern> patternCache = new HashMap<>();
+		Map<String, Optional<LocalWeightedBallot>> ballotLineCache = new HashMap<>();
 
 		/**
-		 * Parsed number of all ballots
+		 * Invalid ballot, shared by all lines of invalid ballots
 		 */
-		AtomicReference<OptionalInt> numberOfAllBallots = new AtomicReference<>(OptionalInt.empty());
+		Supplier<LocalBallot> invalidBallot = lazy(this::createInvalidBallot);
 
 		/**
-		 * Successfully parsed ballots
+		 * Cache of shared valid ballots by the normalized references of their ballot
+		 * lines. Distinct lines referencing the same nominations in a different
+		 * spelling or order are resolved once only and share the same ballot.
 		 */
-		List<LocalBallot> ballots = new ArrayList<>();
+		Map<String, LocalBallot> ballotCache = new HashMap<>();
+
+		/**
+		 * Tally of successfully parsed ballots
+		 */
+		LocalElectionResultBuilder builder;
+
+		/**
+		 * Number of lines read so far
+		 */
+		@NonFinal
+		int lineNumber = 0;
 
 		/**
 		 * Collected parse errors
@@ -191,33 +194,77 @@ public class PollingStationResultFiles {
 		List<PollingStationResultFileLineParseException> exceptions = new ArrayList<>();
 
 		/**
-		 * Reads and parses {@link #reader} and creates a {@link LocalElectionResult}
-		 * for {@link #election} in {@link #pollingStation}.
+		 * Creates a reader for results of {@code election} in {@code pollingStation}.
 		 *
-		 * @return the created {@link LocalElectionResult}
+		 * @param election       Wahl
+		 * @param pollingStation Wahlbezirk
+		 */
+		@PackagePrivate
+		PollingStationResultFileReader(final LocalElection election, final LocalPollingStation pollingStation) {
+			this.election = election;
+			this.pollingStation = pollingStation;
+			builder = new LocalElectionResultBuilder(election, SAINTE_LAGUE_SCALE).setNumberOfAllBallots(pollingStation,
+					OptionalInt.empty());
+		}
+
+		/**
+		 * Reads and parses the lines of {@code reader}, continuing the line numbers and
+		 * the tally of previous calls.
+		 *
+		 * @param reader polling station file input
+		 * @return this reader
 		 * @throws IOException on IO error
 		 */
-		public LocalElectionResult read() throws IOException {
+		@PackagePrivate
+		PollingStationResultFileReader read(final Reader reader) throws IOException {
 			try (BufferedReader bufferedReader = new BufferedReader(reader)) {
-				final AtomicInteger lineNumber = new AtomicInteger(0);
-				bufferedReader.lines()
-						.map(line -> Maps.entry(lineNumber.incrementAndGet(), line.trim()))
-						.filter(entry -> !entry.getValue().isEmpty() && entry.getValue().charAt(0) != LINE_COMMENT)
-						.forEachOrdered(entry -> parseLine(entry.getKey(), entry.getValue()));
-
-				final LocalElectionResult result = new LocalElectionResult(election,
-						SAINTE_LAGUE_SCALE,
-						Maps.<District<?>, OptionalInt>builder().put(pollingStation, numberOfAllBallots.get()).get(),
-						emptySet(),
-						emptySet(),
-						ballots);
-				if (exceptions.isEmpty()) {
-					return result;
+				for (String line = bufferedReader.readLine(); line != null; line = bufferedReader.readLine()) {
+					lineNumber += 1;
+					final String trimmedLine = line.trim();
+					if (!trimmedLine.isEmpty() && trimmedLine.charAt(0) != LINE_COMMENT) {
+						parseLine(lineNumber, trimmedLine);
+					}
 				}
-				throw new PollingStationResultFileParseException(exceptions,
-						result,
-						"Failed parsing the polling station's result file.");
 			}
+			return this;
+		}
+
+		/**
+		 * Creates a {@link LocalElectionResult} for {@link #election} in
+		 * {@link #pollingStation} out of the lines read so far.
+		 *
+		 * @return the created {@link LocalElectionResult}
+		 * @throws PollingStationResultFileParseException if any line could not be
+		 *                                                parsed
+		 */
+		@PackagePrivate
+		LocalElectionResult createResult() {
+			final LocalElectionResult result = builder.build();
+			if (exceptions.isEmpty()) {
+				return result;
+			}
+			throw new PollingStationResultFileParseException(exceptions,
+					result,
+					"Failed parsing the polling station's result file.");
+		}
+
+		/**
+		 * Creates the matcher resolving the nominations of the polling station's
+		 * district.
+		 *
+		 * @return the nomination matcher
+		 */
+		private NominationMatcher createNominationMatcher() {
+			return new NominationMatcher(election, pollingStation.getDistrict());
+		}
+
+		/**
+		 * Creates the invalid ballot of the polling station.
+		 *
+		 * @return Stimmzettel
+		 */
+		private LocalBallot createInvalidBallot() {
+			return LocalBallot.createInvalidBallot(election, pollingStation, false);
 		}
 
 		/**
@@ -231,7 +278,7 @@ public class PollingStationResultFiles {
 			// Ballots
 			if (line.charAt(0) != LINE_COMMAND) {
 				try {
-					ballots.addAll(createBallotsFromLine(line));
+					createBallotsFromLine(line).ifPresent(builder::add);
 				} catch (final Exception e) {
 					exceptions.add(new PollingStationResultFileLineParseException(e, lineNumber, line, e.getMessage()));
 				}
@@ -241,14 +288,15 @@ public class PollingStationResultFiles {
 			// Clear Command
 			final String command = line.substring(1).trim();
 			if (Strings.equalsIgnoreCaseAscii(COMMAND_CLEAR, command)) {
-				ballots.clear();
+				builder.clearBallots();
 				return;
 			}
 
 			// Number of all Ballots Command
 			final Optional<Matcher> matcher = Patterns.matches(NUMBER_OF_ALL_BALLOTS_PATTERN, command);
 			if (matcher.isPresent()) {
-				numberOfAllBallots.set(OptionalInt.of(Integer.parseInt(matcher.get().group(GROUP_VALUE))));
+				builder.setNumberOfAllBallots(pollingStation,
+						OptionalInt.of(Integer.parseInt(matcher.get().group(GROUP_VALUE))));
 				return;
 			}
 
@@ -259,136 +307,67 @@ public class PollingStationResultFiles {
 		/**
 		 * Parses a single {@code line} and creates ballots out of it.
 		 *
-		 * @param line the line to create a set of {@link LocalBallot} of
-		 * @return Stimmzettel
+		 * <p>
+		 * Equal lines result in the same {@link LocalWeightedBallot} instance and lines
+		 * referencing the same nominations in the same {@link LocalBallot} instance.
+		 *
+		 * @param line the line to create a {@link LocalWeightedBallot} of
+		 * @return Stimmzettel and its number of occurrences or an empty optional if the
+		 *         line states zero occurrences
 		 */
-		private Collection<LocalBallot> createBallotsFromLine(final String line) {
-			final Matcher matcher = Patterns.matches(BALLOT_PATTERN, line)
-					.orElseThrow(() -> new ElectionException("Failed parsing line \"%s\".", line));
-
-			final LocalBallot ballot;
-			if (BALLOT_INVALID.equals(matcher.group(GROUP_VALUE))) {
-				ballot = LocalBallot.createInvalidBallot(election, pollingStation, false);
-			} else {
-				final Set<LocalNomination> nominations
-						= Arrays.stream(matcher.group(GROUP_VALUE).split("\\s+", SplitLimit.NO_LIMIT))
-								.map(this::findNomination)
-								.collect(toSet());
-				ballot = LocalBallot.createValidBallot(election, pollingStation, false, nominations);
-			}
-
-			final int count = Optional.ofNullable(matcher.group(GROUP_COUNT)).map(Integer::parseInt).orElse(1);
-			return IntStream.range(0, count).mapToObj(index -> ballot).collect(toList());
+		private Optional<LocalWeightedBallot> createBallotsFromLine(final String line) {
+			return ballotLineCache.computeIfAbsent(line, this::parseBallotLine);
 		}
 
 		/**
-		 * Determines the correct nomination for {@code person}.
+		 * Parses a single {@code line} without using {@link #ballotLineCache}.
 		 *
-		 * <p>
-		 * This method takes care of the party prefix.
-		 *
-		 * @param person Bewerberin oder Bewerber
-		 * @return Bewerberin oder Bewerber
+		 * @param line the line to create a {@link LocalWeightedBallot} of
+		 * @return Stimmzettel and its number of occurrences or an empty optional if the
+		 *         line states zero occurrences
 		 */
-		private LocalNomination findNomination(final String person) {
-			final LocalDistrict district = pollingStation.getDistrict();
-			if (person.isEmpty()) {
-				throw new ElectionException("Cannot find a nomination for an empty string in district \"%s\".",
-						district.getName());
-			}
-
-			final Set<LocalNomination> parties = election.getDirectNominations()
-					.stream()
-					.filter(nomination -> nomination.getDistrict().equals(district)
-							&& nomination.getParty().isPresent()
-							&& !nomination.getParty().get().getShortName().isEmpty()
-							&& getSimplifiedString(nomination.getParty().get().getShortName())
-									.equals(getSimplifiedString(person)))
-					.limit(2)
-					.collect(toSet());
-			if (parties.size() == 1) {
-				return parties.iterator().next();
-			}
-
-			final Set<LocalNomination> exactNames = election.getDirectNominations()
-					.stream()
-					.filter(nomination -> nomination.getDistrict().equals(district)
-							&& (getSimplifiedString(nomination.getPerson().getGivenName())
-									.equals(getSimplifiedString(person))
-									|| getSimplifiedString(nomination.getPerson().getFamilyName())
-											.equals(getSimplifiedString(person))))
-					.limit(2)
-					.collect(toSet());
-			if (exactNames.size() == 1) {
-				return exactNames.iterator().next();
-			}
-
-			final char possiblePartyIndicator = Character.toLowerCase(person.charAt(0));
-			final Set<LocalNomination> nominationsWithPartyPrefix = election.getDirectNominations()
-					.stream()
-					.filter(nomination -> nomination.getDistrict().equals(district)
-							&& nomination.getParty().isPresent()
-							&& !nomination.getParty().get().getShortName().isEmpty()
-							&& possiblePartyIndicator == Character
-									.toLowerCase(nomination.getParty().get().getShortName().charAt(0))
-							&& matches(nomination, person.substring(1)))
-					.limit(2)
-					.collect(toSet());
-			if (nominationsWithPartyPrefix.size() == 1) {
-				return nominationsWithPartyPrefix.iterator().next();
-			}
+		private Optional<LocalWeightedBallot> parseBallotLine(final String line) {
+			final Matcher matcher = Patterns.matches(BALLOT_PATTERN, line)
+					.orElseThrow(() -> new ElectionException("Failed parsing line \"%s\".", line));
 
-			final Set<LocalNomination> nominations = election.getDirectNominations()
-					.stream()
-					.filter(nomination -> nomination.getDistrict().equals(district) && matches(nomination, person))
-					.collect(toSet());
-			if (nominations.isEmpty()) {
-				throw new ElectionException("Cannot find a nomination for \"%s\" in district \"%s\".",
-						person,
-						district.getName());
-			}
-			if (nominations.size() > 1) {
-				throw new ElectionException("Found %d nominations for \"%s\" in district \"%s\": \"%s\"",
-						nominations.size(),
-						person,
-						district.getName(),
-						nominations.stream().map(LocalNomination::getKey).collect(joining("\", \"")));
+			final String value = matcher.group(GROUP_VALUE);
+			final LocalBallot ballot;
+			if (BALLOT_INVALID.equals(value)) {
+				ballot = invalidBallot.get();
+			} else {
+				final String[] references = value.split("\\s+", SplitLimit.NO_LIMIT);
+				ballot = ballotCache.computeIfAbsent(getNormalizedReferences(references),
+						key -> createValidBallot(references));
 			}
-			return nominations.iterator().next();
+			final int count = Optional.ofNullable(matcher.group(GROUP_COUNT)).map(Integer::parseInt).orElse(1);
+			return count == 0 ? Optional.empty() : Optional.of(new LocalWeightedBallot(ballot, count));
 		}
 
 		/**
-		 * Checks if {@code nomination} is the correct nomination for {@code person}.
-		 *
-		 * <p>
-		 * This method makes sure, that both, the given and the family name can be in
-		 * either first or second place of order.
+		 * Normalizes the nomination references of a ballot line, so that references
+		 * resolving equally result in the same value independent of their order.
 		 *
-		 * @param nomination Bewerberin oder Bewerber
-		 * @param person     Bewerberin oder Bewerber
-		 * @return {@code true} if {@code nomination} is the correct nomination for
-		 *         {@code person}, else {@code false}
+		 * @param references the nomination references of a ballot line
+		 * @return the normalized references
 		 */
-		private boolean matches(final LocalNomination nomination, final String person) {
-			final String familyName = nomination.getPerson().getFamilyName();
-			final String givenName = nomination.getPerson().getGivenName();
-			return matches(givenName + familyName, person) || matches(familyName + givenName, person);
+		private static String getNormalizedReferences(final String[] references) {
+			return Arrays.stream(references)
+					.map(NominationMatcher::getNormalizedReference)
+					.sorted()
+					.distinct()
+					.collect(joining(REFERENCE_SEPARATOR));
 		}
 
 		/**
-		 * Checks if {@code person} matches {@code value}.
+		 * Creates a valid ballot out of the nomination references of a ballot line.
 		 *
-		 * @param value  the pattern
-		 * @param person Bewerberin oder Bewerber
-		 * @return {@code true} if {@code person} matches {@code value}, else
-		 *         {@code false}
+		 * @param references the nomination references of a ballot line
+		 * @return Stimmzettel
 		 */
-		private boolean matches(final String value, final String person) {
-			final Pattern pattern = patternCache.computeIfAbsent(person,
-					key -> Pattern.compile(getSimplifiedString(key).chars()
-							.mapToObj(v -> Character.toString((char) v))
-							.collect(joining(".*", "^.*", ".*$"))));
-			return Strings.matches(getSimplifiedString(value), pattern);
+		private LocalBallot createValidBallot(final String[] references) {
+			final Set<LocalNomination> nominations
+					= Arrays.stream(references).map(nominationMatcher.get()::find).collect(toSet());
+			return LocalBallot.createValidBallot(election, pollingStation, false, nominations);
 		}
 	}
 
@@ -432,7 +411,7 @@ public class PollingStationResultFiles {
 					.map(LocalNomination::getPerson)
 					.map(person -> person.getFamilyName() + ',' + person.getGivenName())
 					.map(value -> Strings.replaceAll(value, SINGLE_SPACE_PATTERN, "_"))
-					.collect(joining(" "));
+					.collect(joining(REFERENCE_SEPARATOR));
 		}
 
 		/**
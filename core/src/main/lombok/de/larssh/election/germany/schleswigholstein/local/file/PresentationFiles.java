@@ -1,9 +1,10 @@
 package de.larssh.election.germany.schleswigholstein.local.file;
 
 import static de.larssh.utils.Collectors.toLinkedHashSet;
-import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.lang.invoke.MethodHandles;
@@ -14,22 +15,32 @@ import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
 import java.util.function.Supplier;
 
 import de.larssh.election.germany.schleswigholstein.Color;
+import de.larssh.election.germany.schleswigholstein.ElectionException;
 import de.larssh.election.germany.schleswigholstein.Party;
-import de.larssh.election.germany.schleswigholstein.local.LocalBallot;
 import de.larssh.election.germany.schleswigholstein.local.LocalDistrictType;
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalNomination;
 import de.larssh.election.germany.schleswigholstein.local.LocalNominationResult;
 import de.larssh.election.germany.schleswigholstein.local.LocalNominationResultType;
 import de.larssh.election.germany.schleswigholstein.local.LocalPartyResult;
 import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
+import de.larssh.election.germany.schleswigholstein.local.PollingStationBreakdown;
+import de.larssh.election.germany.schleswigholstein.local.file.CompiledTemplate.Fragment;
 import de.larssh.election.utils.BigDecimals;
 import de.larssh.utils.Finals;
 import de.larssh.utils.OptionalInts;
@@ -37,7 +48,9 @@ import de.larssh.utils.annotations.PackagePrivate;
 import de.larssh.utils.io.Resources;
 import de.larssh.utils.text.Strings;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import lombok.experimental.NonFinal;
 import lombok.experimental.UtilityClass;
 
 /**
@@ -58,7 +71,197 @@ public class PresentationFiles {
 	public static void write(final LocalElectionResult result,
 			final Optional<Duration> refreshRate,
 			final Writer writer) throws IOException {
-		new PresentationFileWriter(result, refreshRate, writer).write();
+		new PresentationFileWriter(result, refreshRate, writer, Optional.empty(), true).write();
+	}
+
+	/**
+	 * Formats and writes {@code result} to {@code writer}, reusing the fragments of
+	 * {@code cache}, whose inputs did not change since they were rendered. Rendered
+	 * fragments are stored in {@code cache} for the next call.
+	 *
+	 * @param result      the election result to to write
+	 * @param refreshRate the refresh rate of the HTML file or empty
+	 * @param writer      the live presentation file writer
+	 * @param cache       the cache of rendered fragments
+	 * @throws IOException on IO error
+	 */
+	public static void write(final LocalElectionResult result,
+			final Optional<Duration> refreshRate,
+			final Writer writer,
+			final PresentationFragmentCache cache) throws IOException {
+		new PresentationFileWriter(result, refreshRate, writer, Optional.of(cache), true).write();
+	}
+
+	/**
+	 * Writes a static presentation file, which animates through {@code results}
+	 * without refreshing, e.g. to replay the counting process.
+	 *
+	 * <p>
+	 * The results are rendered once each, reusing unchanged fragments of the
+	 * previous result. Each frame stores the fragments, which were not part of any
+	 * previous frame, and the order of fragments of changed lists only. Polling
+	 * station fragments leave out the election-wide numbers, which are stored once
+	 * per frame instead, so that only the polling stations being counted change. A
+	 * script embedded into the page shows the next frame every
+	 * {@code frameDuration}.
+	 *
+	 * @param results       the election results to animate through in order
+	 * @param frameDuration the duration to show each frame
+	 * @param writer        the time-travel presentation file writer
+	 * @throws IOException on IO error
+	 */
+	public static void writeTimeTravel(final Iterator<LocalElectionResult> results,
+			final Duration frameDuration,
+			final Writer writer) throws IOException {
+		if (!results.hasNext()) {
+			throw new ElectionException("Cannot write a time-travel without any election result.");
+		}
+		final TimeTravelFileWriter timeTravelWriter = new TimeTravelFileWriter();
+		final LocalElectionResult first = results.next();
+		timeTravelWriter.add(first);
+		while (results.hasNext()) {
+			timeTravelWriter.add(results.next());
+		}
+		timeTravelWriter.write(first, frameDuration, writer);
+	}
+
+	/**
+	 * This class collects frames of a time-travel as references into a pool of
+	 * distinct rendered fragments.
+	 */
+	@NoArgsConstructor
+	private static class TimeTravelFileWriter {
+		/**
+		 * HTML end tag of the head element, which the player is injected before
+		 */
+		private static final String HEAD_END_TAG = "</head>";
+
+		/**
+		 * JSON key of the fragments added by a frame
+		 */
+		private static final String KEY_FRAGMENTS = "fragments";
+
+		/**
+		 * Cache of rendered fragments, shared by all frames
+		 */
+		PresentationFragmentCache cache = new PresentationFragmentCache();
+
+		/**
+		 * Ids of all distinct fragments by their content
+		 */
+		Map<String, Integer> fragmentIds = new HashMap<>();
+
+		/**
+		 * Fragment ids by list of the previous frame
+		 */
+		Map<String, List<Integer>> previousLists = new HashMap<>();
+
+		/**
+		 * Election-wide part of the polling station titles of the previous frame
+		 */
+		@NonFinal
+		String previousPollingStationsTotal = "";
+
+		/**
+		 * Frames
+		 */
+		List<Map<String, Object>> frames = new ArrayList<>();
+
+		/**
+		 * Renders {@code result} and adds it as frame.
+		 *
+		 * @param result the election result of the frame
+		 * @throws IOException on IO error
+		 */
+		private void add(final LocalElectionResult result) throws IOException {
+			final PresentationFileWriter presentation = new PresentationFileWriter(result,
+					Optional.empty(),
+					new StringWriter(),
+					Optional.of(cache),
+					false);
+			final Map<String, Object> frame = new LinkedHashMap<>();
+			final List<String> newFragments = new ArrayList<>();
+			frame.put(KEY_FRAGMENTS, newFragments);
+
+			addList(frame, newFragments, "pollingStations", presentation, presentation::writePollingStations);
+			addList(frame, newFragments, "nominationResults", presentation, presentation::writeNominationResults);
+			if (result.getElection().getDistrict().getType() != LocalDistrictType.KREIS) {
+				addList(frame, newFragments, "partyResults", presentation, presentation::writePartyResults);
+			}
+
+			final String pollingStationsTotal = presentation.formatPollingStationsTotal();
+			if (!pollingStationsTotal.equals(previousPollingStationsTotal)) {
+				frame.put("pollingStationsTotal", pollingStationsTotal);
+				previousPollingStationsTotal = pollingStationsTotal;
+			}
+
+			if (newFragments.isEmpty()) {
+				frame.remove(KEY_FRAGMENTS);
+			}
+			frames.add(frame);
+		}
+
+		/**
+		 * Renders a list of {@code presentation} and adds its fragment ids to
+		 * {@code frame} if they changed compared to the previous frame.
+		 *
+		 * @param frame        the frame to add to
+		 * @param newFragments the fragments, which are new to the pool
+		 * @param key          the list's key
+		 * @param presentation the presentation of the frame's election result
+		 * @param list         renders the list
+		 * @throws IOException on IO error
+		 */
+		private void addList(final Map<String, Object> frame,
+				final List<String> newFragments,
+				final String key,
+				final PresentationFileWriter presentation,
+				final Fragment list) throws IOException {
+			list.write(new StringWriter());
+
+			final List<Integer> ids = new ArrayList<>();
+			for (final String fragment : presentation.takeRenderedFragments()) {
+				Integer id = fragmentIds.get(fragment);
+				if (id == null) {
+					id = fragmentIds.size();
+					fragmentIds.put(fragment, id);
+					newFragments.add(fragment);
+				}
+				ids.add(id);
+			}
+			if (!ids.equals(previousLists.get(key))) {
+				frame.put(key, ids);
+				previousLists.put(key, ids);
+			}
+		}
+
+		/**
+		 * Writes the presentation of {@code first} including the player of all frames
+		 * to {@code writer}.
+		 *
+		 * @param first         the election result of the first frame
+		 * @param frameDuration the duration to show each frame
+		 * @param writer        the time-travel presentation file writer
+		 * @throws IOException on IO error
+		 */
+		private void write(final LocalElectionResult first, final Duration frameDuration, final Writer writer)
+				throws IOException {
+			final StringWriter pageWriter = new StringWriter();
+			new PresentationFileWriter(first, Optional.empty(), pageWriter, Optional.of(cache), false).write();
+			final String page = pageWriter.toString();
+			final int headEnd = page.indexOf(HEAD_END_TAG);
+
+			writer.write(page, 0, headEnd);
+			PresentationFileWriter.TEMPLATE_TIME_TRAVEL.get()
+					.write(writer,
+							Locale.ROOT,
+							// Escaping end tags, so that the JSON cannot end its script element
+							LocalElectionResult.createJacksonObjectWriter()
+									.writeValueAsString(frames)
+									.replace("</", "<\\/"),
+							frameDuration.toMillis());
+			writer.write(page, headEnd, page.length() - headEnd);
+		}
 	}
 
 	/**
@@ -75,28 +278,39 @@ public class PresentationFiles {
 		private static final long HUNDRED = 100;
 
 		/**
-		 * Template file body (lazily loaded)
+		 * Compiled template file body (lazily loaded)
+		 */
+		private static final Supplier<CompiledTemplate> TEMPLATE
+				= Finals.lazy(() -> CompiledTemplate.compile(loadResourceRelativeToClass("template.html")));
+
+		/**
+		 * Compiled template file body for the nomination result view (lazily loaded)
+		 */
+		private static final Supplier<CompiledTemplate> TEMPLATE_NOMINATION_RESULT = Finals
+				.lazy(() -> CompiledTemplate.compile(loadResourceRelativeToClass("template-nominationResult.html")));
+
+		/**
+		 * Compiled template file body for the party result view (lazily loaded)
 		 */
-		private static final Supplier<String> TEMPLATE
-				= Finals.lazy(() -> loadResourceRelativeToClass("template.html"));
+		private static final Supplier<CompiledTemplate> TEMPLATE_PARTY_RESULT
+				= Finals.lazy(() -> CompiledTemplate.compile(loadResourceRelativeToClass("template-partyResult.html")));
 
 		/**
-		 * Template file body for the nomination result view (lazily loaded)
+		 * Compiled template file body for the polling station view (lazily loaded)
 		 */
-		private static final Supplier<String> TEMPLATE_NOMINATION_RESULT
-				= Finals.lazy(() -> loadResourceRelativeToClass("template-nominationResult.html"));
+		private static final Supplier<CompiledTemplate> TEMPLATE_POLLING_STATION = Finals
+				.lazy(() -> CompiledTemplate.compile(loadResourceRelativeToClass("template-pollingStation.html")));
 
 		/**
-		 * Template file body for the party result view (lazily loaded)
+		 * Compiled template of the time-travel player (lazily loaded)
 		 */
-		private static final Supplier<String> TEMPLATE_PARTY_RESULT
-				= Finals.lazy(() -> loadResourceRelativeToClass("template-partyResult.html"));
+		private static final Supplier<CompiledTemplate> TEMPLATE_TIME_TRAVEL
+				= Finals.lazy(() -> CompiledTemplate.compile(loadResourceRelativeToClass("template-timeTravel.html")));
 
 		/**
-		 * Template file body for the polling station view (lazily loaded)
+		 * Name to display for nominations without party
 		 */
-		private static final Supplier<String> TEMPLATE_POLLING_STATION
-				= Finals.lazy(() -> loadResourceRelativeToClass("template-pollingStation.html"));
+		private static final String NAME_WITHOUT_PARTY = "parteilos";
 
 		/**
 		 * Time zone for time stamps in presentation files
@@ -167,6 +381,75 @@ public class PresentationFiles {
 		 */
 		Writer writer;
 
+		/**
+		 * Cache of rendered fragments or empty to render all fragments
+		 *
+		 * @return the cache of rendered fragments or empty
+		 */
+		Optional<PresentationFragmentCache> cache;
+
+		/**
+		 * Whether the titles of polling stations include the election-wide numbers.
+		 * Time-travels leave them out, so that the fragment of a polling station
+		 * depends on its own numbers only. The player adds them instead.
+		 *
+		 * @return {@code true} if polling station titles include the election-wide
+		 *         numbers
+		 */
+		boolean pollingStationsTotalInTitles;
+
+		/**
+		 * Fragments written using {@link #cache} since the previous call of
+		 * {@link #takeRenderedFragments()}
+		 */
+		List<String> renderedFragments = new ArrayList<>();
+
+		/**
+		 * Writes the fragment rendered for {@code owner}. If {@link #cache} contains a
+		 * fragment rendered from the same election and {@code inputs}, it is written.
+		 * Else {@code fragment} is rendered and stored in {@link #cache}.
+		 *
+		 * @param writer   the writer to write to
+		 * @param owner    the object the fragment is rendered for
+		 * @param inputs   the inputs affecting the fragment
+		 * @param fragment renders the fragment
+		 * @throws IOException on IO error
+		 */
+		private void writeCached(final Writer writer,
+				final Object owner,
+				final List<Object> inputs,
+				final Fragment fragment) throws IOException {
+			if (!cache.isPresent()) {
+				fragment.write(writer);
+				return;
+			}
+
+			final Optional<String> cached = cache.get().get(result.getElection(), owner, inputs);
+			final String value;
+			if (cached.isPresent()) {
+				value = cached.get();
+			} else {
+				final StringWriter fragmentWriter = new StringWriter();
+				fragment.write(fragmentWriter);
+				value = fragmentWriter.toString();
+				cache.get().put(owner, inputs, value);
+			}
+			renderedFragments.add(value);
+			writer.write(value);
+		}
+
+		/**
+		 * Returns the fragments written using {@link #cache} since the previous call
+		 * and forgets about them.
+		 *
+		 * @return the fragments written using {@link #cache} in order
+		 */
+		private List<String> takeRenderedFragments() {
+			final List<String> fragments = new ArrayList<>(renderedFragments);
+			renderedFragments.clear();
+			return fragments;
+		}
+
 		/**
 		 * Formats and writes {@link #result} to {@link #writer}.
 		 *
@@ -176,30 +459,48 @@ public class PresentationFiles {
 		@SuppressFBWarnings(value = "OI_OPTIONAL_ISSUES_USES_IMMEDIATE_EXECUTION",
 				justification = "The value 0L is nothing that needs to be executed.")
 		void write() throws IOException {
-			writer.write(String.format(TEMPLATE.get(),
-					refreshRate.map(Duration::toMillis).orElse(0L),
-					result.getElection().getDate(),
-					Strings.toLowerCaseAscii(result.getElection().getDistrict().getType().toString()),
-					formatPollingStations(),
-					formatNominationResults(),
-					result.getElection().getDistrict().getType() == LocalDistrictType.KREIS ? "" : formatPartyResults(),
-					LocalDateTime.now(TIME_ZONE)));
+			TEMPLATE.get()
+					.write(writer,
+							refreshRate.map(Duration::toMillis).orElse(0L),
+							result.getElection().getDate(),
+							Strings.toLowerCaseAscii(result.getElection().getDistrict().getType().toString()),
+							(Fragment) this::writePollingStations,
+							(Fragment) this::writeNominationResults,
+							result.getElection().getDistrict().getType() == LocalDistrictType.KREIS
+									? ""
+									: (Fragment) this::writePartyResults,
+							LocalDateTime.now(TIME_ZONE));
 		}
 
 		/**
-		 * Formats the polling stations overview.
+		 * Writes the polling stations overview.
 		 *
-		 * @return the polling stations overview
+		 * @param writer the writer to write to
+		 * @throws IOException on IO error
 		 */
-		private String formatPollingStations() {
+		private void writePollingStations(final Writer writer) throws IOException {
 			final Set<LocalPollingStation> pollingStations = result.getElection().getPollingStations();
+			final BigDecimal estimatedNumberOfAllBallots = estimateNumberOfAllBallots(pollingStations);
 			final BigDecimal evaluationProgressIfUnknown = BigDecimals.divide(HUNDRED, pollingStations.size(), 1);
 
-			return pollingStations.stream()
-					.map(pollingStation -> formatPollingStation(pollingStation,
-							estimateNumberOfAllBallots(pollingStations),
-							evaluationProgressIfUnknown))
-					.collect(joining());
+			final List<Object> inputsOfElection = Arrays.asList(estimatedNumberOfAllBallots,
+					pollingStationsTotalInTitles ? result.getNumberOfBallots() : null,
+					result.getNumberOfAllBallots(),
+					pollingStationsTotalInTitles ? result.getNumberOfInvalidBallots() : null,
+					result.getElection().getNumberOfEligibleVoters());
+			for (final LocalPollingStation pollingStation : pollingStations) {
+				writeCached(writer,
+						pollingStation,
+						Arrays.asList(inputsOfElection,
+								result.getNumberOfBallots(pollingStation),
+								result.getNumberOfAllBallots(pollingStation),
+								result.getNumberOfInvalidBallots(pollingStation),
+								result.getElection().getNumberOfEligibleVoters(pollingStation)),
+						fragmentWriter -> writePollingStation(fragmentWriter,
+								pollingStation,
+								estimatedNumberOfAllBallots,
+								evaluationProgressIfUnknown));
+			}
 		}
 
 		/**
@@ -233,35 +534,37 @@ public class PresentationFiles {
 		}
 
 		/**
-		 * Formats the given {@code pollingStation}.
+		 * Writes the given {@code pollingStation}.
 		 *
-		 * @param pollingStation              the polling station to format
+		 * @param writer                      the writer to write to
+		 * @param pollingStation              the polling station to write
 		 * @param estimatedNumberOfAllBallots the estimated number of all ballots
 		 * @param evaluationProgressIfUnknown the evaluation progress in case the number
 		 *                                    of all ballots is unknown
-		 * @return the formatted polling station
+		 * @throws IOException on IO error
 		 */
-		private String formatPollingStation(final LocalPollingStation pollingStation,
+		private void writePollingStation(final Writer writer,
+				final LocalPollingStation pollingStation,
 				final BigDecimal estimatedNumberOfAllBallots,
-				final BigDecimal evaluationProgressIfUnknown) {
+				final BigDecimal evaluationProgressIfUnknown) throws IOException {
 			final BigDecimal evaluationProgress
 					= result.getEvaluationProgress(1, pollingStation).orElse(BigDecimal.ZERO);
 
-			return String.format(Locale.ROOT,
-					TEMPLATE_POLLING_STATION.get(),
-					pollingStation.getBackgroundColor().toHex(),
-					pollingStation.getFontColor().toHex(),
-					OptionalInts
-							.mapToObj(result.getNumberOfAllBallots(pollingStation),
+			TEMPLATE_POLLING_STATION.get()
+					.write(writer,
+							Locale.ROOT,
+							pollingStation.getBackgroundColor().toHex(),
+							pollingStation.getFontColor().toHex(),
+							OptionalInts.mapToObj(result.getNumberOfAllBallots(pollingStation),
 									numOfBallots -> BigDecimals.isZero(estimatedNumberOfAllBallots)
 											? null
 											: BigDecimals
 													.divide(HUNDRED * numOfBallots, estimatedNumberOfAllBallots, 1))
-							.orElse(evaluationProgressIfUnknown),
-					encodeXml(formatPollingStationTitle(pollingStation)),
-					encodeXml(pollingStation.getName()),
-					BigDecimals.format(evaluationProgress, 1, Locale.GERMAN),
-					evaluationProgress);
+									.orElse(evaluationProgressIfUnknown),
+							encodeXml(formatPollingStationTitle(pollingStation)),
+							encodeXml(pollingStation.getName()),
+							BigDecimals.format(evaluationProgress, 1, Locale.GERMAN),
+							evaluationProgress);
 		}
 
 		/**
@@ -271,16 +574,25 @@ public class PresentationFiles {
 		 * @return the formatted polling station {@code title} attribute
 		 */
 		private String formatPollingStationTitle(final LocalPollingStation pollingStation) {
-			return formatPollingStationTitlePart(result.getBallots(pollingStation).size(),
+			final String title = formatPollingStationTitlePart(result.getNumberOfBallots(pollingStation),
 					result.getNumberOfAllBallots(pollingStation),
 					result.getNumberOfInvalidBallots(pollingStation),
-					result.getElection().getNumberOfEligibleVoters(pollingStation))
+					result.getElection().getNumberOfEligibleVoters(pollingStation));
+			return pollingStationsTotalInTitles ? title + formatPollingStationsTotal() : title;
+		}
 
-					+ String.format(Locale.GERMAN,
-							"\n\nGesamt: %.1f\u202f%%\n",
-							result.getEvaluationProgress(1).orElse(BigDecimal.ZERO))
+		/**
+		 * Formats the election-wide part of the {@code title} attribute of all polling
+		 * stations.
+		 *
+		 * @return the formatted election-wide title part
+		 */
+		private String formatPollingStationsTotal() {
+			return String.format(Locale.GERMAN,
+					"\n\nGesamt: %.1f\u202f%%\n",
+					result.getEvaluationProgress(1).orElse(BigDecimal.ZERO))
 
-					+ formatPollingStationTitlePart(result.getBallots().size(),
+					+ formatPollingStationTitlePart(result.getNumberOfBallots(),
 							result.getNumberOfAllBallots(),
 							result.getNumberOfInvalidBallots(),
 							result.getElection().getNumberOfEligibleVoters());
@@ -327,11 +639,12 @@ public class PresentationFiles {
 		}
 
 		/**
-		 * Formats the nomination results overview.
+		 * Writes the nomination results overview.
 		 *
-		 * @return the nomination results overview
+		 * @param writer the writer to write to
+		 * @throws IOException on IO error
 		 */
-		private String formatNominationResults() {
+		private void writeNominationResults(final Writer writer) throws IOException {
 			final int maxNumberOfVotes = result.getNominationResults()
 					.values()
 					.stream()
@@ -340,44 +653,80 @@ public class PresentationFiles {
 					.orElse(0);
 
 			// Show all direct nominations and probably elected list nominations
-			return result.getNominationResults()
-					.values()
-					.stream()
-					.filter(nominationResult -> nominationResult.getNomination().isDirectNomination()
-							|| nominationResult.getType() != LocalNominationResultType.NOT_ELECTED)
-					.map(nominationResult -> formatNominationResult(nominationResult, maxNumberOfVotes))
-					.collect(joining());
+			for (final LocalNominationResult nominationResult : result.getNominationResults().values()) {
+				if (nominationResult.getNomination().isDirectNomination()
+						|| nominationResult.getType() != LocalNominationResultType.NOT_ELECTED) {
+					writeCached(writer,
+							nominationResult.getNomination(),
+							getNominationResultInputs(nominationResult, maxNumberOfVotes),
+							fragmentWriter -> writeNominationResult(fragmentWriter,
+									nominationResult,
+									maxNumberOfVotes));
+				}
+			}
 		}
 
 		/**
-		 * Formats the given nomination {@code result}.
+		 * Returns the inputs affecting the fragment of the given nomination
+		 * {@code result}.
 		 *
-		 * @param result           the nomination result to format
+		 * @param result           the nomination result
 		 * @param maxNumberOfVotes the max number of votes of all nomination results
-		 * @return the formatted nomination result
-		 */
-		private String formatNominationResult(final LocalNominationResult result, final int maxNumberOfVotes) {
-			final int numberOfBallots = this.result.getBallots(result.getNomination().getDistrict()).size();
-			return String.format(Locale.ROOT,
-					TEMPLATE_NOMINATION_RESULT.get(),
-					result.getElectionResult().getElection().getDistrict().getType() == LocalDistrictType.KREIS
-							? ""
-							: Strings.toLowerCaseAscii(result.getType().toString()),
-					result.getElectionResult().getElection().getDistrict().getType() == LocalDistrictType.KREIS
-							? ""
-							: result.getCertainResultType()
-									.map(certain -> "certain-" + Strings.toLowerCaseAscii(certain.toString()))
-									.orElse("uncertain"),
-					encodeXml(formatNominationResultTitle(result)),
-					encodeXml(result.getNomination().getPerson().getKey()),
-					encodeXml(result.getNomination().getParty().map(Party::getShortName).orElse("unabhängig")),
-					result.getNumberOfVotes(),
-					String.format(Locale.GERMAN,
-							"%.1f",
-							BigDecimals.divideOrZero(HUNDRED * result.getNumberOfVotes(), numberOfBallots, 1)),
-					result.getNomination().getParty().map(Party::getBackgroundColor).orElse(Color.WHITE).toHex(),
-					result.getNomination().getParty().map(Party::getFontColor).orElse(Color.BLACK).toHex(),
-					BigDecimals.divideOrZero(HUNDRED * result.getNumberOfVotes(), maxNumberOfVotes, 1));
+		 * @return the inputs affecting the fragment
+		 */
+		private List<Object> getNominationResultInputs(final LocalNominationResult result, final int maxNumberOfVotes) {
+			final PollingStationBreakdown breakdown = this.result.getPollingStationBreakdown();
+			final List<Object> inputs = new ArrayList<>();
+			inputs.add(maxNumberOfVotes);
+			inputs.add(this.result.getNumberOfBallots(result.getNomination().getDistrict()));
+			inputs.add(result.getType());
+			inputs.add(result.getCertainResultType());
+			inputs.add(result.getNumberOfVotes());
+			inputs.add(result.getSainteLagueValue());
+			for (final LocalPollingStation pollingStation : result.getNomination().getDistrict().getChildren()) {
+				inputs.add(breakdown.getNumberOfVotes(pollingStation, result.getNomination()));
+				inputs.add(this.result.getNumberOfBallots(pollingStation));
+			}
+			return inputs;
+		}
+
+		/**
+		 * Writes the given nomination {@code result}.
+		 *
+		 * @param writer           the writer to write to
+		 * @param result           the nomination result to write
+		 * @param maxNumberOfVotes the max number of votes of all nomination results
+		 * @throws IOException on IO error
+		 */
+		private void writeNominationResult(final Writer writer,
+				final LocalNominationResult result,
+				final int maxNumberOfVotes) throws IOException {
+			final int numberOfBallots = this.result.getNumberOfBallots(result.getNomination().getDistrict());
+			TEMPLATE_NOMINATION_RESULT.get()
+					.write(writer,
+							Locale.ROOT,
+							result.getElectionResult().getElection().getDistrict().getType() == LocalDistrictType.KREIS
+									? ""
+									: Strings.toLowerCaseAscii(result.getType().toString()),
+							result.getElectionResult().getElection().getDistrict().getType() == LocalDistrictType.KREIS
+									? ""
+									: result.getCertainResultType()
+											.map(certain -> "certain-" + Strings.toLowerCaseAscii(certain.toString()))
+											.orElse("uncertain"),
+							encodeXml(formatNominationResultTitle(result)),
+							encodeXml(result.getNomination().getPerson().getKey()),
+							encodeXml(result.getNomination().getParty().map(Party::getShortName).orElse("unabhängig")),
+							result.getNumberOfVotes(),
+							String.format(Locale.GERMAN,
+									"%.1f",
+									BigDecimals.divideOrZero(HUNDRED * result.getNumberOfVotes(), numberOfBallots, 1)),
+							result.getNomination()
+									.getParty()
+									.map(Party::getBackgroundColor)
+									.orElse(Color.WHITE)
+									.toHex(),
+							result.getNomination().getParty().map(Party::getFontColor).orElse(Color.BLACK).toHex(),
+							BigDecimals.divideOrZero(HUNDRED * result.getNumberOfVotes(), maxNumberOfVotes, 1));
 		}
 
 		/**
@@ -388,7 +737,7 @@ public class PresentationFiles {
 		 */
 		@SuppressWarnings("checkstyle:MultipleStringLiterals")
 		private String formatNominationResultTitle(final LocalNominationResult result) {
-			final int numberOfBallots = this.result.getBallots(result.getNomination().getDistrict()).size();
+			final int numberOfBallots = this.result.getNumberOfBallots(result.getNomination().getDistrict());
 			final StringBuilder builder = new StringBuilder(String.format(Locale.GERMAN,
 					"Anteil: %.1f\u202f%%",
 					BigDecimals.divideOrZero(HUNDRED * result.getNumberOfVotes(), numberOfBallots, 1)));
@@ -405,11 +754,9 @@ public class PresentationFiles {
 					.ifPresent(builder::append);
 
 			for (final LocalPollingStation pollingStation : result.getNomination().getDistrict().getChildren()) {
-				final long numberOfVotesInPollingStation = result.getBallots()
-						.stream()
-						.filter(ballot -> ballot.getPollingStation().equals(pollingStation))
-						.count();
-				final long numberOfBallotsInPollingStation = this.result.getBallots(pollingStation).size();
+				final long numberOfVotesInPollingStation = this.result.getPollingStationBreakdown()
+						.getNumberOfVotes(pollingStation, result.getNomination());
+				final long numberOfBallotsInPollingStation = this.result.getNumberOfBallots(pollingStation);
 
 				builder.append(String.format(Locale.GERMAN,
 						"\n\n%s: %.1f\u202f%%\nStimmen: %d",
@@ -424,57 +771,94 @@ public class PresentationFiles {
 		}
 
 		/**
-		 * Formats the party results overview based on all party results and a section
-		 * of the elected non-party nominations.
+		 * Writes the party results overview based on all party results and a section of
+		 * the elected non-party nominations.
 		 *
-		 * @return the party results overview
+		 * @param writer the writer to write to
+		 * @throws IOException on IO error
 		 */
-		private String formatPartyResults() {
-			final int numberOfAllVotes = this.result.getBallots()
-					.stream()
-					.filter(LocalBallot::isValid)
-					.map(LocalBallot::getNominations)
-					.mapToInt(Set::size)
-					.sum();
-			final String formattedParties = result.getPartyResults()
-					.values()
-					.stream()
-					.map(partyResult -> formatPartyResult(partyResult, numberOfAllVotes))
-					.collect(joining());
+		private void writePartyResults(final Writer writer) throws IOException {
+			final int numberOfAllVotes = result.getNumberOfVotes();
+			for (final LocalPartyResult partyResult : result.getPartyResults().values()) {
+				writeCached(writer,
+						partyResult.getParty(),
+						getPartyResultInputs(partyResult, numberOfAllVotes),
+						fragmentWriter -> writePartyResult(fragmentWriter, partyResult, numberOfAllVotes));
+			}
 
 			final Set<LocalNominationResult> nominationResultsWithoutParty = result.getNominationResults()
 					.values()
 					.stream()
 					.filter(nominationResult -> !nominationResult.getNomination().getParty().isPresent())
 					.collect(toLinkedHashSet());
-			if (nominationResultsWithoutParty.isEmpty()) {
-				return formattedParties;
+			if (!nominationResultsWithoutParty.isEmpty()) {
+				final List<LocalNomination> electedNominations = getElectedNominations(nominationResultsWithoutParty);
+				final int numberOfVotes = nominationResultsWithoutParty.stream()
+						.mapToInt(LocalNominationResult::getNumberOfVotes)
+						.sum();
+				writeCached(writer,
+						NAME_WITHOUT_PARTY,
+						Arrays.asList(numberOfAllVotes, numberOfVotes, electedNominations),
+						fragmentWriter -> writePartyResult(fragmentWriter,
+								Color.BLACK,
+								Color.WHITE,
+								"",
+								NAME_WITHOUT_PARTY,
+								electedNominations.size(),
+								numberOfVotes,
+								numberOfAllVotes,
+								nominationResultsWithoutParty));
 			}
+		}
 
-			return formattedParties
-					+ formatPartyResult(Color.BLACK,
-							Color.WHITE,
-							"",
-							"parteilos",
-							(int) nominationResultsWithoutParty.stream()
-									.filter(nominationResult -> nominationResult.getType().isElected())
-									.count(),
-							nominationResultsWithoutParty.stream()
-									.mapToInt(LocalNominationResult::getNumberOfVotes)
-									.sum(),
-							numberOfAllVotes,
-							nominationResultsWithoutParty);
+		/**
+		 * Returns the elected nominations of {@code nominationResults}.
+		 *
+		 * @param nominationResults the nomination results
+		 * @return the elected nominations
+		 */
+		private static List<LocalNomination> getElectedNominations(
+				final Collection<LocalNominationResult> nominationResults) {
+			return nominationResults.stream()
+					.filter(nominationResult -> nominationResult.getType().isElected())
+					.map(LocalNominationResult::getNomination)
+					.collect(toList());
 		}
 
 		/**
-		 * Formats the given party {@code result}.
+		 * Returns the inputs affecting the fragment of the given party {@code result}.
 		 *
-		 * @param result           the party result to format
+		 * @param result           the party result
 		 * @param numberOfAllVotes the sum of votes of all valid ballots
-		 * @return the formatted party result
+		 * @return the inputs affecting the fragment
 		 */
-		private String formatPartyResult(final LocalPartyResult result, final int numberOfAllVotes) {
-			return formatPartyResult(result.getParty().getBackgroundColor(),
+		private List<Object> getPartyResultInputs(final LocalPartyResult result, final int numberOfAllVotes) {
+			final PollingStationBreakdown breakdown = this.result.getPollingStationBreakdown();
+			final List<Object> inputs = new ArrayList<>();
+			inputs.add(numberOfAllVotes);
+			inputs.add(result.getNumberOfCertainSeats());
+			inputs.add(result.getNumberOfVotes());
+			inputs.add(getElectedNominations(result.getNominationResults().values()));
+			for (final LocalPollingStation pollingStation : this.result.getElection().getPollingStations()) {
+				inputs.add(breakdown.getNumberOfVotes(pollingStation, result.getParty()));
+				inputs.add(breakdown.getNumberOfBlockVotings(pollingStation, result.getParty()));
+				inputs.add(this.result.getNumberOfVotes(pollingStation));
+			}
+			return inputs;
+		}
+
+		/**
+		 * Writes the given party {@code result}.
+		 *
+		 * @param writer           the writer to write to
+		 * @param result           the party result to write
+		 * @param numberOfAllVotes the sum of votes of all valid ballots
+		 * @throws IOException on IO error
+		 */
+		private void writePartyResult(final Writer writer, final LocalPartyResult result, final int numberOfAllVotes)
+				throws IOException {
+			writePartyResult(writer,
+					result.getParty().getBackgroundColor(),
 					result.getParty().getFontColor(),
 					formatPartyResultTitle(result),
 					result.getParty().getShortName(),
@@ -485,8 +869,9 @@ public class PresentationFiles {
 		}
 
 		/**
-		 * Formats the given data as party result.
+		 * Writes the given data as party result.
 		 *
+		 * @param writer            the writer to write to
 		 * @param backgroundColor   the background color
 		 * @param fontColor         the font color
 		 * @param title             the content of the title attribute
@@ -495,33 +880,39 @@ public class PresentationFiles {
 		 * @param numberOfVotes     the number of votes of this party
 		 * @param numberOfAllVotes  the sum of votes of all valid ballots
 		 * @param nominationResults the nomination results of this party
-		 * @return the formatted party result
+		 * @throws IOException on IO error
 		 */
 		@SuppressWarnings("checkstyle:ParameterNumber")
-		private String formatPartyResult(final Color backgroundColor,
+		private void writePartyResult(final Writer writer,
+				final Color backgroundColor,
 				final Color fontColor,
 				final String title,
 				final String name,
 				final int numberOfSeats,
 				final int numberOfVotes,
 				final int numberOfAllVotes,
-				final Collection<LocalNominationResult> nominationResults) {
-			return String.format(Locale.ROOT,
-					TEMPLATE_PARTY_RESULT.get(),
-					backgroundColor.toHex(),
-					fontColor.toHex(),
-					encodeXml(title),
-					encodeXml(name),
-					numberOfSeats,
-					BigDecimals.format(BigDecimals.divideOrZero(HUNDRED * numberOfVotes, numberOfAllVotes, 1),
-							1,
-							Locale.GERMAN),
-					nominationResults.stream()
-							.filter(nominationResult -> nominationResult.getType().isElected())
-							.map(nominationResult -> "<li>"
-									+ encodeXml(nominationResult.getNomination().getPerson().getKey())
-									+ "</li>")
-							.collect(joining()));
+				final Collection<LocalNominationResult> nominationResults) throws IOException {
+			TEMPLATE_PARTY_RESULT.get()
+					.write(writer,
+							Locale.ROOT,
+							backgroundColor.toHex(),
+							fontColor.toHex(),
+							encodeXml(title),
+							encodeXml(name),
+							numberOfSeats,
+							BigDecimals.format(BigDecimals.divideOrZero(HUNDRED * numberOfVotes, numberOfAllVotes, 1),
+									1,
+									Locale.GERMAN),
+							(Fragment) electedNominationsWriter -> {
+								for (final LocalNominationResult nominationResult : nominationResults) {
+									if (nominationResult.getType().isElected()) {
+										electedNominationsWriter.write("<li>");
+										electedNominationsWriter.write(
+												encodeXml(nominationResult.getNomination().getPerson().getKey()));
+										electedNominationsWriter.write("</li>");
+									}
+								}
+							});
 		}
 
 		/**
@@ -532,24 +923,22 @@ public class PresentationFiles {
 		 */
 		@SuppressWarnings({ "checkstyle:MultipleStringLiterals", "PMD.InsufficientStringBufferDeclaration" })
 		private String formatPartyResultTitle(final LocalPartyResult result) {
+			final PollingStationBreakdown breakdown = this.result.getPollingStationBreakdown();
+			int numberOfBlockVotings = 0;
+			for (final LocalPollingStation pollingStation : this.result.getElection().getPollingStations()) {
+				numberOfBlockVotings += breakdown.getNumberOfBlockVotings(pollingStation, result.getParty());
+			}
+
 			final StringBuilder builder = new StringBuilder(String.format("%s\n%d Stimmen\ndavon %d Blockstimmen",
 					result.getParty().getName(),
 					result.getNumberOfVotes(),
-					result.getNumberOfBlockVotings()
+					numberOfBlockVotings
 							* Math.min(this.result.getElection().getNumberOfDirectSeatsPerLocalDistrict(),
 									this.result.getElection().getDirectNominations(result.getParty()).size())));
 
 			for (final LocalPollingStation pollingStation : this.result.getElection().getPollingStations()) {
-				final long numberOfPartyVotesInPollingStation = result.getBallots()
-						.stream()
-						.filter(ballot -> ballot.getPollingStation().equals(pollingStation))
-						.mapToLong(ballot -> ballot.getNominations()
-								.stream()
-								.filter(nomination -> nomination.getParty()
-										.filter(result.getParty()::equals)
-										.isPresent())
-								.count())
-						.sum();
+				final long numberOfPartyVotesInPollingStation
+						= breakdown.getNumberOfVotes(pollingStation, result.getParty());
 				final int numberOfVotesInPollingStation = this.result.getNumberOfVotes(pollingStation);
 
 				builder.append(String.format(Locale.GERMAN,
@@ -0,0 +1,111 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElection;
+import de.larssh.utils.annotations.PackagePrivate;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.NonFinal;
+
+/**
+ * Cache of rendered fragments of presentation files, such as polling station
+ * bars, nomination rows and party rows
+ *
+ * <p>
+ * Each fragment is stored together with the inputs it was rendered from.
+ * Passing the same cache to consecutive calls of
+ * {@link PresentationFiles#write(de.larssh.election.germany.schleswigholstein.local.LocalElectionResult, Optional, java.io.Writer, PresentationFragmentCache)}
+ * re-renders only fragments, whose inputs changed, e.g. while watching input
+ * files or time-travelling.
+ *
+ * <p>
+ * Fragments also depend on data of the election, which is not part of their
+ * inputs, such as colors and list positions. Therefore all fragments are
+ * dropped as soon as fragments of another {@link LocalElection} instance are
+ * requested, e.g. after the election file changed while watching.
+ *
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+@NoArgsConstructor
+@ToString(onlyExplicitlyIncluded = true)
+public final class PresentationFragmentCache {
+	/**
+	 * Rendered fragments by the object they are rendered for
+	 */
+	@Getter(AccessLevel.NONE)
+	Map<Object, Fragment> fragments = new HashMap<>();
+
+	/**
+	 * Election of the stored fragments or {@code null} if there are none
+	 */
+	@Nullable
+	@NonFinal
+	@Getter(AccessLevel.NONE)
+	LocalElection election = null;
+
+	/**
+	 * Returns the fragment rendered for {@code owner}, if it was rendered from
+	 * {@code inputs} for {@code election}. All fragments are dropped if
+	 * {@code election} is not the election of the stored fragments.
+	 *
+	 * @param election the election the fragment is rendered for
+	 * @param owner    the object the fragment is rendered for
+	 * @param inputs   the inputs affecting the fragment
+	 * @return the rendered fragment or empty if {@code election} or {@code inputs}
+	 *         changed
+	 */
+	@PackagePrivate
+	Optional<String> get(final LocalElection election, final Object owner, final List<Object> inputs) {
+		if (election != this.election) {
+			fragments.clear();
+			this.election = election;
+		}
+
+		final Fragment fragment = fragments.get(owner);
+		return fragment != null && fragment.getInputs().equals(inputs)
+				? Optional.of(fragment.getValue())
+				: Optional.empty();
+	}
+
+	/**
+	 * Stores the fragment rendered for {@code owner} from {@code inputs}.
+	 *
+	 * @param owner  the object the fragment is rendered for
+	 * @param inputs the inputs affecting the fragment
+	 * @param value  the rendered fragment
+	 */
+	@PackagePrivate
+	void put(final Object owner, final List<Object> inputs, final String value) {
+		fragments.put(owner, new Fragment(inputs, value));
+	}
+
+	/**
+	 * Rendered fragment and its inputs
+	 */
+	@Getter
+	@RequiredArgsConstructor
+	private static final class Fragment {
+		/**
+		 * Inputs affecting the fragment
+		 *
+		 * @return the inputs affecting the fragment
+		 */
+		List<Object> inputs;
+
+		/**
+		 * Rendered fragment
+		 *
+		 * @return the rendered fragment
+		 */
+		String value;
+	}
+}
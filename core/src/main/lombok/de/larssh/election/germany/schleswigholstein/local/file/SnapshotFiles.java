@@ -0,0 +1,469 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeSet;
+
+import de.larssh.election.germany.schleswigholstein.District;
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import de.larssh.election.germany.schleswigholstein.local.LocalBallot;
+import de.larssh.election.germany.schleswigholstein.local.LocalElection;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionIndex;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultBuilder;
+import de.larssh.election.germany.schleswigholstein.local.LocalNomination;
+import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
+import de.larssh.election.germany.schleswigholstein.local.LocalWeightedBallot;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.NonFinal;
+import lombok.experimental.UtilityClass;
+
+/**
+ * This class contains helper methods to read and write compact binary snapshots
+ * of a {@link LocalElectionResult}.
+ *
+ * <p>
+ * A snapshot starts with a dictionary of the keys of all districts and
+ * nominations. All further data references districts and nominations by their
+ * ordinal inside the dictionary. Ballots are stored run-length encoded, each
+ * record holding the polling station, whether the ballot is valid and a postal
+ * vote, its number of occurrences and its nominations as bitset.
+ *
+ * <p>
+ * Snapshots are versioned. Reading a snapshot of an unknown version fails.
+ * Counts, ordinals and weights are checked while reading, so that truncated or
+ * corrupt snapshots fail with an {@link ElectionException} or an
+ * {@link IOException}.
+ */
+@UtilityClass
+public class SnapshotFiles {
+	/**
+	 * Magic number at the start of each snapshot: {@code LERS}
+	 */
+	private static final int MAGIC_NUMBER = 0x4C455253;
+
+	/**
+	 * Current version of the snapshot format
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Error message format in case of an invalid nomination ordinal
+	 */
+	private static final String INVALID_NOMINATION_ORDINAL = "Invalid nomination ordinal %d in snapshot.";
+
+	/**
+	 * Number of bits per byte
+	 */
+	private static final int BITS_PER_BYTE = 8;
+
+	/**
+	 * Reads a snapshot of a result of {@code election}.
+	 *
+	 * @param election    Wahl
+	 * @param inputStream snapshot input
+	 * @return the restored result object
+	 * @throws IOException       on IO error
+	 * @throws ElectionException if the snapshot does not match {@code election},
+	 *                           its version is unknown or it contains invalid data
+	 */
+	public static LocalElectionResult read(final LocalElection election, final InputStream inputStream)
+			throws IOException {
+		return new SnapshotReader(election, new DataInputStream(new BufferedInputStream(inputStream))).read();
+	}
+
+	/**
+	 * Writes a snapshot of {@code result} to {@code outputStream}.
+	 *
+	 * @param result       the election result to write
+	 * @param outputStream snapshot output
+	 * @throws IOException on IO error
+	 */
+	public static void write(final LocalElectionResult result, final OutputStream outputStream) throws IOException {
+		final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+		new SnapshotWriter(result, output).write();
+		output.flush();
+	}
+
+	/**
+	 * Calculates the number of bytes of a nominations bitset.
+	 *
+	 * @param numberOfNominations the number of nominations
+	 * @return the number of bytes of a nominations bitset
+	 */
+	private static int getBitsetLength(final int numberOfNominations) {
+		return (numberOfNominations + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+	}
+
+	/**
+	 * This class reads a snapshot to a {@link LocalElectionResult}.
+	 */
+	@RequiredArgsConstructor
+	private static class SnapshotReader {
+		/**
+		 * Wahl
+		 */
+		LocalElection election;
+
+		/**
+		 * Snapshot input
+		 */
+		DataInputStream input;
+
+		/**
+		 * Districts by ordinal inside the snapshot's dictionary
+		 */
+		List<District<?>> districts = new ArrayList<>();
+
+		/**
+		 * Nominations by ordinal inside the snapshot's dictionary
+		 */
+		List<LocalNomination> nominations = new ArrayList<>();
+
+		/**
+		 * Shared ballots by their binary record
+		 */
+		Map<ByteBuffer, LocalBallot> ballots = new HashMap<>();
+
+		/**
+		 * Number of ballots read so far
+		 */
+		@NonFinal
+		long numberOfBallots = 0;
+
+		/**
+		 * Reads the snapshot.
+		 *
+		 * @return the restored result object
+		 * @throws IOException on IO error
+		 */
+		public LocalElectionResult read() throws IOException {
+			if (input.readInt() != MAGIC_NUMBER) {
+				throw new ElectionException("The given input is no election result snapshot.");
+			}
+			final int version = input.readInt();
+			if (version != VERSION) {
+				throw new ElectionException("Election result snapshots of version %d are not supported.", version);
+			}
+			final int sainteLagueScale = input.readInt();
+			final LocalElectionResultBuilder builder = new LocalElectionResultBuilder(election, sainteLagueScale);
+
+			readDictionary();
+			for (int remaining = readSize(districts.size()); remaining > 0; remaining -= 1) {
+				final District<?> district = readDistrict();
+				builder.setNumberOfAllBallots(district,
+						input.readBoolean() ? OptionalInt.of(readNumberOfAllBallots()) : OptionalInt.empty());
+			}
+			builder.setDirectDrawResults(readNominations());
+			builder.setListDrawResults(readNominations());
+			for (int remaining = readSize(Integer.MAX_VALUE); remaining > 0; remaining -= 1) {
+				builder.add(readWeightedBallot());
+			}
+
+			// Corrupt scales might exceed the range of BigDecimal while calculating
+			try {
+				return builder.build();
+			} catch (final ArithmeticException e) {
+				throw new ElectionException("Invalid Sainte Laguë scale %d in snapshot: %s",
+						sainteLagueScale,
+						e.getMessage());
+			}
+		}
+
+		/**
+		 * Reads a size and checks it to be within {@code 0} and {@code maximum}.
+		 *
+		 * @param maximum the maximum size
+		 * @return the size
+		 * @throws IOException on IO error
+		 */
+		private int readSize(final int maximum) throws IOException {
+			final int size = input.readInt();
+			if (size < 0 || size > maximum) {
+				throw new ElectionException("Invalid size %d in snapshot, expected at most %d.", size, maximum);
+			}
+			return size;
+		}
+
+		/**
+		 * Reads a number of all ballots and checks it to be not negative.
+		 *
+		 * @return the number of all ballots
+		 * @throws IOException on IO error
+		 */
+		private int readNumberOfAllBallots() throws IOException {
+			final int numberOfAllBallots = input.readInt();
+			if (numberOfAllBallots < 0) {
+				throw new ElectionException("Invalid number of all ballots %d in snapshot.", numberOfAllBallots);
+			}
+			return numberOfAllBallots;
+		}
+
+		/**
+		 * Reads the dictionary and resolves its keys using the election's index.
+		 *
+		 * @throws IOException on IO error
+		 */
+		private void readDictionary() throws IOException {
+			final LocalElectionIndex index = election.getIndex();
+
+			final Map<String, District<?>> districtsByKey = new HashMap<>();
+			index.getDistricts().forEach(district -> districtsByKey.put(district.getKey(), district));
+			for (int remaining = readSize(index.getDistricts().size()); remaining > 0; remaining -= 1) {
+				final String key = input.readUTF();
+				final District<?> district = districtsByKey.get(key);
+				if (district == null) {
+					throw new ElectionException("Cannot find a district with key \"%s\" of the snapshot.", key);
+				}
+				districts.add(district);
+			}
+
+			final Map<String, LocalNomination> nominationsByKey = new HashMap<>();
+			index.getNominations().forEach(nomination -> nominationsByKey.put(nomination.getKey(), nomination));
+			for (int remaining = readSize(index.getNominations().size()); remaining > 0; remaining -= 1) {
+				final String key = input.readUTF();
+				final LocalNomination nomination = nominationsByKey.get(key);
+				if (nomination == null) {
+					throw new ElectionException("Cannot find a nomination with key \"%s\" of the snapshot.", key);
+				}
+				nominations.add(nomination);
+			}
+		}
+
+		/**
+		 * Reads a district ordinal.
+		 *
+		 * @return the district
+		 * @throws IOException on IO error
+		 */
+		private District<?> readDistrict() throws IOException {
+			final int ordinal = input.readInt();
+			if (ordinal < 0 || ordinal >= districts.size()) {
+				throw new ElectionException("Invalid district ordinal %d in snapshot.", ordinal);
+			}
+			return districts.get(ordinal);
+		}
+
+		/**
+		 * Reads a nomination ordinal.
+		 *
+		 * @return the nomination
+		 * @throws IOException on IO error
+		 */
+		private LocalNomination readNomination() throws IOException {
+			final int ordinal = input.readInt();
+			if (ordinal < 0 || ordinal >= nominations.size()) {
+				throw new ElectionException(INVALID_NOMINATION_ORDINAL, ordinal);
+			}
+			return nominations.get(ordinal);
+		}
+
+		/**
+		 * Reads a counted list of nomination ordinals.
+		 *
+		 * @return the nominations
+		 * @throws IOException on IO error
+		 */
+		private List<LocalNomination> readNominations() throws IOException {
+			final int size = readSize(this.nominations.size());
+			final List<LocalNomination> nominations = new ArrayList<>(size);
+			for (int index = 0; index < size; index += 1) {
+				nominations.add(readNomination());
+			}
+			return nominations;
+		}
+
+		/**
+		 * Reads a weighted ballot record. Equal records result in the same
+		 * {@link LocalBallot} instance.
+		 *
+		 * @return the weighted ballot
+		 * @throws IOException on IO error
+		 */
+		private LocalWeightedBallot readWeightedBallot() throws IOException {
+			final int pollingStation = input.readInt();
+			final boolean valid = input.readBoolean();
+			final boolean postalVote = input.readBoolean();
+			final int weight = input.readInt();
+			if (weight <= 0) {
+				throw new ElectionException("Invalid weight %d of a ballot in snapshot.", weight);
+			}
+			numberOfBallots += weight;
+			if (numberOfBallots > Integer.MAX_VALUE) {
+				throw new ElectionException("The number of ballots of the snapshot exceeds %d.", Integer.MAX_VALUE);
+			}
+
+			final byte[] ballotRecord = new byte[Integer.BYTES + 2 + getBitsetLength(nominations.size())];
+			final ByteBuffer buffer = ByteBuffer.wrap(ballotRecord)
+					.putInt(pollingStation)
+					.put(valid ? (byte) 1 : 0)
+					.put(postalVote ? (byte) 1 : 0);
+			if (valid) {
+				input.readFully(ballotRecord, buffer.position(), buffer.remaining());
+			}
+
+			final ByteBuffer key = ByteBuffer.wrap(ballotRecord);
+			LocalBallot ballot = ballots.get(key);
+			if (ballot == null) {
+				ballot = createBallot(pollingStation,
+						valid,
+						postalVote,
+						BitSet.valueOf(ByteBuffer.wrap(ballotRecord, buffer.position(), buffer.remaining())));
+				ballots.put(key, ballot);
+			}
+			return new LocalWeightedBallot(ballot, weight);
+		}
+
+		/**
+		 * Creates a ballot out of a binary record.
+		 *
+		 * @param pollingStationOrdinal the ordinal of the polling station
+		 * @param valid                 {@code true} for valid ballots, else
+		 *                              {@code false}
+		 * @param postalVote            {@code true} for postal vote ballots, else
+		 *                              {@code false}
+		 * @param bitset                the nominations bitset
+		 * @return the ballot
+		 */
+		private LocalBallot createBallot(final int pollingStationOrdinal,
+				final boolean valid,
+				final boolean postalVote,
+				final BitSet bitset) {
+			if (pollingStationOrdinal < 0
+					|| pollingStationOrdinal >= districts.size()
+					|| !(districts.get(pollingStationOrdinal) instanceof LocalPollingStation)) {
+				throw new ElectionException("Invalid polling station ordinal %d in snapshot.", pollingStationOrdinal);
+			}
+			final LocalPollingStation pollingStation = (LocalPollingStation) districts.get(pollingStationOrdinal);
+			if (!valid) {
+				return LocalBallot.createInvalidBallot(election, pollingStation, postalVote);
+			}
+
+			final Set<LocalNomination> ballotNominations = new TreeSet<>();
+			for (int ordinal = bitset.nextSetBit(0); ordinal >= 0; ordinal = bitset.nextSetBit(ordinal + 1)) {
+				if (ordinal >= nominations.size()) {
+					throw new ElectionException(INVALID_NOMINATION_ORDINAL, ordinal);
+				}
+				ballotNominations.add(nominations.get(ordinal));
+			}
+			return LocalBallot.createValidBallot(election, pollingStation, postalVote, ballotNominations);
+		}
+	}
+
+	/**
+	 * This class writes a snapshot of a {@link LocalElectionResult}.
+	 */
+	@RequiredArgsConstructor
+	private static class SnapshotWriter {
+		/**
+		 * Result to write
+		 */
+		LocalElectionResult result;
+
+		/**
+		 * Snapshot output
+		 */
+		DataOutputStream output;
+
+		/**
+		 * Writes the snapshot.
+		 *
+		 * @throws IOException on IO error
+		 */
+		public void write() throws IOException {
+			final LocalElectionIndex index = result.getElection().getIndex();
+			output.writeInt(MAGIC_NUMBER);
+			output.writeInt(VERSION);
+			output.writeInt(result.getSainteLagueScale());
+
+			// Dictionary
+			output.writeInt(index.getDistricts().size());
+			for (final District<?> district : index.getDistricts()) {
+				output.writeUTF(district.getKey());
+			}
+			output.writeInt(index.getNominations().size());
+			for (final LocalNomination nomination : index.getNominations()) {
+				output.writeUTF(nomination.getKey());
+			}
+
+			// Number of all Ballots
+			final Map<District<?>, OptionalInt> numberOfAllBallots = result.getNumberOfAllBallotsMap();
+			output.writeInt(numberOfAllBallots.size());
+			for (final Entry<District<?>, OptionalInt> entry : numberOfAllBallots.entrySet()) {
+				output.writeInt(index.getOrdinal(entry.getKey()));
+				output.writeBoolean(entry.getValue().isPresent());
+				if (entry.getValue().isPresent()) {
+					output.writeInt(entry.getValue().getAsInt());
+				}
+			}
+
+			// Draw Results
+			writeNominations(index, result.getDirectDrawResults());
+			writeNominations(index, result.getListDrawResults());
+
+			// Ballots
+			final List<LocalWeightedBallot> weightedBallots = result.getWeightedBallots();
+			final int bitsetLength = getBitsetLength(index.getNominations().size());
+			output.writeInt(weightedBallots.size());
+			for (final LocalWeightedBallot weightedBallot : weightedBallots) {
+				writeWeightedBallot(index, weightedBallot, bitsetLength);
+			}
+		}
+
+		/**
+		 * Writes a counted list of nomination ordinals.
+		 *
+		 * @param index       the election's index
+		 * @param nominations the nominations
+		 * @throws IOException on IO error
+		 */
+		private void writeNominations(final LocalElectionIndex index, final Collection<LocalNomination> nominations)
+				throws IOException {
+			output.writeInt(nominations.size());
+			for (final LocalNomination nomination : nominations) {
+				output.writeInt(index.getOrdinal(nomination));
+			}
+		}
+
+		/**
+		 * Writes a weighted ballot record.
+		 *
+		 * @param index          the election's index
+		 * @param weightedBallot the weighted ballot
+		 * @param bitsetLength   the number of bytes of a nominations bitset
+		 * @throws IOException on IO error
+		 */
+		private void writeWeightedBallot(final LocalElectionIndex index,
+				final LocalWeightedBallot weightedBallot,
+				final int bitsetLength) throws IOException {
+			final LocalBallot ballot = weightedBallot.getBallot();
+			output.writeInt(index.getOrdinal(ballot.getPollingStation()));
+			output.writeBoolean(ballot.isValid());
+			output.writeBoolean(ballot.isPostalVote());
+			output.writeInt(weightedBallot.getWeight());
+			if (ballot.isValid()) {
+				final BitSet bitset = new BitSet(index.getNominations().size());
+				for (final LocalNomination nomination : ballot.getNominations()) {
+					bitset.set(index.getOrdinal(nomination));
+				}
+				output.write(Arrays.copyOf(bitset.toByteArray(), bitsetLength));
+			}
+		}
+	}
+}
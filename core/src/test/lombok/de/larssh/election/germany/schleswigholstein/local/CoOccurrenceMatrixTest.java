@@ -0,0 +1,79 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFilesTest;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link CoOccurrenceMatrix}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class CoOccurrenceMatrixTest {
+	/**
+	 * Counts the votes of the nominations of {@code party} on {@code ballot}.
+	 *
+	 * @param ballot the ballot
+	 * @param party  the party
+	 * @return the number of votes
+	 */
+	private static long countVotes(final LocalBallot ballot, final Party party) {
+		return ballot.getNominations()
+				.stream()
+				.filter(nomination -> nomination.getParty().map(party::equals).orElse(Boolean.FALSE))
+				.count();
+	}
+
+	/**
+	 * Test, that the matrix matches counting each cell by filtering all ballots
+	 */
+	@Test
+	@PackagePrivate
+	void testRethwisch() {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+		final List<LocalBallot> ballots = result.getBallots();
+		final List<Party> parties = result.getElection().getIndex().getParties();
+		final List<LocalNomination> nominations = result.getElection().getIndex().getNominations();
+
+		// when
+		final CoOccurrenceMatrix matrix = result.getCoOccurrenceMatrix();
+
+		// then
+		assertThat(result.getCoOccurrenceMatrix()).isSameAs(matrix);
+		for (final Party row : parties) {
+			for (final Party column : parties) {
+				assertThat(matrix.getNumberOfVotes(row, column)).isEqualTo(ballots.stream()
+						.filter(ballot -> countVotes(ballot, row) > 0)
+						.mapToLong(ballot -> countVotes(ballot, column))
+						.sum());
+			}
+			for (final LocalNomination column : nominations) {
+				assertThat(matrix.getNumberOfBallots(row, column)).isEqualTo(ballots.stream()
+						.filter(ballot -> countVotes(ballot, row) > 0 && ballot.getNominations().contains(column))
+						.count());
+			}
+		}
+		for (final LocalNomination row : nominations) {
+			for (final Party column : parties) {
+				assertThat(matrix.getNumberOfVotes(row, column)).isEqualTo(ballots.stream()
+						.filter(ballot -> ballot.getNominations().contains(row))
+						.mapToLong(ballot -> countVotes(ballot, column))
+						.sum());
+			}
+			for (final LocalNomination column : nominations) {
+				assertThat(matrix.getNumberOfBallots(row, column)).isEqualTo(ballots.stream()
+						.filter(ballot -> ballot.getNominations().contains(row)
+								&& ballot.getNominations().contains(column))
+						.count());
+			}
+		}
+	}
+}
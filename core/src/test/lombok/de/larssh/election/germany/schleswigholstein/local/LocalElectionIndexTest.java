@@ -0,0 +1,68 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFilesTest;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link LocalElectionIndex}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class LocalElectionIndexTest {
+	/**
+	 * Test, that the index matches searching and filtering the election's
+	 * collections
+	 */
+	@Test
+	@PackagePrivate
+	void testIndex() {
+		// given
+		final LocalElection election = PollingStationResultFilesTest.readResultsRethwisch().getElection();
+
+		// when
+		final LocalElectionIndex index = election.getIndex();
+
+		// then
+		assertThat(election.getIndex()).isSameAs(index);
+		assertThat(index.getParties()).containsExactlyElementsOf(election.getNominations()
+				.stream()
+				.map(LocalNomination::getParty)
+				.filter(Optional::isPresent)
+				.map(Optional::get)
+				.distinct()
+				.collect(Collectors.toList()));
+
+		for (final LocalNomination nomination : election.getNominations()) {
+			assertThat(index.getOrdinal(nomination)).isEqualTo(election.getNominations().indexOf(nomination));
+			assertThat(index.isListNomination(nomination)).isTrue();
+			assertThat(index.isDirectNomination(nomination))
+					.isEqualTo(index.getDirectNominations().contains(nomination));
+		}
+		for (final Party party : index.getParties()) {
+			final List<LocalNomination> listNominations = election.getNominations()
+					.stream()
+					.filter(nomination -> nomination.getParty().filter(party::equals).isPresent())
+					.collect(Collectors.toList());
+			assertThat(index.getOrdinal(party)).isEqualTo(index.getParties().indexOf(party));
+			assertThat(index.getListNominations(party)).containsExactlyElementsOf(listNominations);
+			assertThat(index.getDirectNominations(party)).containsExactlyElementsOf(
+					listNominations.subList(0, Math.min(election.getNumberOfDirectSeats(), listNominations.size())));
+			listNominations.forEach(nomination -> assertThat(nomination.getListPosition())
+					.hasValue(listNominations.indexOf(nomination) + 1));
+		}
+		assertThat(index.getDistricts()).first().isEqualTo(election.getDistrict());
+		election.getAllDistricts()
+				.forEach(district -> assertThat(index.getDistricts().get(index.getOrdinal(district)))
+						.isEqualTo(district));
+	}
+}
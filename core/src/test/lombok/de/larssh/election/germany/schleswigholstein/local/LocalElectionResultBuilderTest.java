@@ -0,0 +1,261 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.District;
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFilesTest;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link LocalElectionResultBuilder}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class LocalElectionResultBuilderTest {
+	/**
+	 * Number of added or removed ballots between two snapshots
+	 */
+	private static final int SNAPSHOT_INTERVAL = 100;
+
+	/**
+	 * Creates a builder containing all data of Rethwisch
+	 *
+	 * @param result the result to take the data from
+	 * @return the builder
+	 */
+	private static LocalElectionResultBuilder createBuilder(final LocalElectionResult result) {
+		return new LocalElectionResultBuilder(result.getElection(), result.getSainteLagueScale())
+				.setNumberOfAllBallots(result.getNumberOfAllBallotsMap())
+				.setDirectDrawResults(result.getDirectDrawResults())
+				.setListDrawResults(result.getListDrawResults())
+				.addAll(result.getBallots());
+	}
+
+	/**
+	 * Maps the nomination results to their result types
+	 *
+	 * @param result the result
+	 * @return the result types by nomination
+	 */
+	private static Map<LocalNomination, LocalNominationResultType> getTypes(final LocalElectionResult result) {
+		return result.getNominationResults()
+				.values()
+				.stream()
+				.collect(Collectors.toMap(LocalNominationResult::getNomination, LocalNominationResult::getType));
+	}
+
+	/**
+	 * Test, that a snapshot equals the result calculated from scratch
+	 */
+	@Test
+	@PackagePrivate
+	void testBuild() {
+		// given
+		final LocalElectionResult expected = PollingStationResultFilesTest.readResultsRethwisch();
+
+		// when
+		final LocalElectionResult result = createBuilder(expected).build();
+
+		// then
+		assertThat(result).isEqualTo(expected);
+		assertThat(result.getNominationResults().keySet())
+				.containsExactlyElementsOf(expected.getNominationResults().keySet());
+		assertThat(getTypes(result)).isEqualTo(getTypes(expected));
+		result.getNominationResults()
+				.values()
+				.forEach(nominationResult -> assertThat(nominationResult.getNumberOfVotes())
+						.isEqualTo(nominationResult.getBallots().size()));
+		result.getPartyResults()
+				.values()
+				.forEach(partyResult -> assertThat(partyResult.getNumberOfVotes())
+						.isEqualTo(expected.getPartyResults().get(partyResult.getParty()).getNumberOfVotes()));
+	}
+
+	/**
+	 * Test, that removing ballots updates the counts and snapshots are reused until
+	 * the builder is modified
+	 */
+	@Test
+	@PackagePrivate
+	void testAddAndRemove() {
+		// given
+		final LocalElectionResult original = PollingStationResultFilesTest.readResultsRethwisch();
+		final LocalElectionResultBuilder builder = createBuilder(original);
+		final LocalElectionResult first = builder.build();
+		final LocalBallot ballot = original.getBallots()
+				.stream()
+				.filter(LocalBallot::isValid)
+				.findFirst()
+				.orElseThrow(IllegalStateException::new);
+		final LocalNomination nomination = ballot.getNominations().iterator().next();
+
+		// when
+		builder.remove(ballot);
+		final LocalElectionResult removed = builder.build();
+		builder.add(ballot);
+		final LocalElectionResult added = builder.build();
+
+		// then
+		assertThat(builder.build()).isSameAs(added);
+		assertThat(removed.getBallots()).hasSize(original.getBallots().size() - 1);
+		assertThat(removed.getNominationResults().get(nomination).getNumberOfVotes())
+				.isEqualTo(first.getNominationResults().get(nomination).getNumberOfVotes() - 1);
+		assertThat(added).isEqualTo(first);
+		assertThat(getTypes(added)).isEqualTo(getTypes(first));
+		assertThatThrownBy(() -> new LocalElectionResultBuilder(original.getElection(), 2).remove(ballot))
+				.isInstanceOf(ElectionException.class);
+	}
+
+	/**
+	 * Test, that snapshots are not affected by later modifications of the builder,
+	 * while removing ballots works across chunks of weighted ballots
+	 */
+	@Test
+	@PackagePrivate
+	void testSnapshots() {
+		// given
+		final LocalElectionResult original = PollingStationResultFilesTest.readResultsRethwisch();
+		final LocalElectionResultBuilder builder
+				= new LocalElectionResultBuilder(original.getElection(), original.getSainteLagueScale());
+		final List<LocalBallot> ballots = new ArrayList<>();
+		final List<Entry<LocalElectionResult, List<LocalBallot>>> snapshots = new ArrayList<>();
+		final Random random = new Random(0);
+
+		// when
+		for (final LocalBallot ballot : original.getBallots()) {
+			builder.add(ballot);
+			ballots.add(ballot);
+			if (ballots.size() % SNAPSHOT_INTERVAL == 0) {
+				snapshots.add(new SimpleImmutableEntry<>(builder.build(), new ArrayList<>(ballots)));
+			}
+		}
+		while (!ballots.isEmpty()) {
+			final LocalBallot ballot = ballots.get(random.nextInt(ballots.size()));
+			builder.remove(ballot);
+			ballots.remove(ballots.lastIndexOf(ballot));
+			if (ballots.size() % SNAPSHOT_INTERVAL == 0) {
+				snapshots.add(new SimpleImmutableEntry<>(builder.build(), new ArrayList<>(ballots)));
+			}
+		}
+
+		// then
+		assertThat(original.getWeightedBallots()).hasSizeGreaterThan(SNAPSHOT_INTERVAL);
+		for (final Entry<LocalElectionResult, List<LocalBallot>> snapshot : snapshots) {
+			final LocalElectionResult result = snapshot.getKey();
+			assertThat(result.getBallots()).isEqualTo(snapshot.getValue());
+			for (final District<?> district : original.getElection().getAllDistricts()) {
+				final List<LocalBallot> ballotsOfDistrict = snapshot.getValue()
+						.stream()
+						.filter(ballot -> district.contains(ballot.getPollingStation()))
+						.collect(Collectors.toList());
+				assertThat(result.getBallots(district)).isEqualTo(ballotsOfDistrict);
+				assertThat(result.getNumberOfBallots(district)).isEqualTo(ballotsOfDistrict.size());
+			}
+		}
+		assertThat(builder.getWeightedBallots()).isEmpty();
+	}
+
+	/**
+	 * Test, that consecutive equal ballots are stored as one weighted ballot
+	 */
+	@Test
+	@PackagePrivate
+	void testRunLengthEncoding() {
+		// given
+		final LocalElectionResult original = PollingStationResultFilesTest.readResultsRethwisch();
+		final LocalBallot ballot = original.getBallots()
+				.stream()
+				.filter(LocalBallot::isValid)
+				.findFirst()
+				.orElseThrow(IllegalStateException::new);
+		final LocalNomination nomination = ballot.getNominations().iterator().next();
+		final LocalElectionResultBuilder builder = new LocalElectionResultBuilder(original.getElection(), 2);
+
+		// when
+		builder.add(ballot).add(ballot, 3).add(ballot, 0);
+		final LocalElectionResult result = builder.build();
+
+		// then
+		assertThat(result.getWeightedBallots()).containsExactly(new LocalWeightedBallot(ballot, 4));
+		assertThat(result.getBallots()).hasSize(4).containsOnly(ballot);
+		assertThat(result.getNumberOfBallots()).isEqualTo(4);
+		assertThat(result.getNominationResults().get(nomination).getNumberOfVotes()).isEqualTo(4);
+		assertThat(result.getNominationResults().get(nomination).getWeightedBallots()).hasSize(1);
+		assertThat(result).isEqualTo(
+				new LocalElectionResultBuilder(original.getElection(), 2).addAll(result.getBallots()).build());
+		assertThatThrownBy(() -> new LocalWeightedBallot(ballot, 0)).isInstanceOf(ElectionException.class);
+	}
+
+	/**
+	 * Test, that merging the results of all polling stations equals the complete
+	 * result
+	 */
+	@Test
+	@PackagePrivate
+	void testMerge() {
+		// given
+		final LocalElectionResult expected = PollingStationResultFilesTest.readResultsRethwisch();
+		final List<LocalElectionResult> results = expected.getElection()
+				.getPollingStations()
+				.stream()
+				.map(expected::filterByDistrict)
+				.collect(Collectors.toList());
+
+		// when
+		final LocalElectionResult result
+				= new LocalElectionResultBuilder(expected.getElection(), expected.getSainteLagueScale())
+						.mergeAll(results)
+						.build();
+
+		// then
+		assertThat(result.getNumberOfBallots()).isEqualTo(expected.getNumberOfBallots());
+		assertThat(result.getNumberOfAllBallots()).isEqualTo(expected.getNumberOfAllBallots());
+		assertThat(getTypes(result)).isEqualTo(getTypes(expected));
+		assertThat(expected.add(results.toArray(new LocalElectionResult[0])).getNumberOfBallots())
+				.isEqualTo(expected.getNumberOfBallots() * 2);
+	}
+
+	/**
+	 * Test, that merging results with differing numbers of all ballots of the same
+	 * district fails
+	 */
+	@Test
+	@PackagePrivate
+	void testMergeConflicting() {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+		final LocalPollingStation pollingStation = result.getElection().getPollingStations().iterator().next();
+		final LocalElectionResult conflicting
+				= new LocalElectionResultBuilder(result.getElection(), result.getSainteLagueScale())
+						.setNumberOfAllBallots(pollingStation, OptionalInt.of(1))
+						.build();
+		final LocalElectionResultBuilder builder
+				= new LocalElectionResultBuilder(result.getElection(), result.getSainteLagueScale()).merge(result);
+
+		// when
+		final Throwable throwable = catchThrowable(() -> builder.merge(conflicting));
+
+		// then
+		assertThat(throwable).isInstanceOf(ElectionException.class)
+				.hasMessageContaining(pollingStation.getName())
+				.hasMessageContaining(Integer.toString(result.getNumberOfAllBallots(pollingStation).getAsInt()))
+				.hasMessageContaining(" 1 ");
+		assertThat(builder.build().getNumberOfAllBallots(pollingStation))
+				.isEqualTo(result.getNumberOfAllBallots(pollingStation));
+	}
+}
@@ -0,0 +1,93 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultDelta.NominationDelta;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultDelta.PartyDelta;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultDelta.PollingStationDelta;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFilesTest;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link LocalElectionResultDelta}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class LocalElectionResultDeltaTest {
+	/**
+	 * Test, that the changes after adding the ballots of one polling station match
+	 * the numbers of that polling station
+	 */
+	@Test
+	@PackagePrivate
+	void testOtherPollingStation() {
+		// given
+		final LocalElectionResult current = PollingStationResultFilesTest.readResultsRethwisch();
+		final LocalPollingStation kleinBoden
+				= getPollingStation(current, LocalElectionTest.POLLING_STATION_NAME_KLEIN_BODEN);
+		final LocalPollingStation rethwischdorf
+				= getPollingStation(current, LocalElectionTest.POLLING_STATION_NAME_RETHWISCHDORF);
+		final LocalElectionResult previous = current.filterByDistrict(kleinBoden);
+		final PollingStationBreakdown breakdown = current.getPollingStationBreakdown();
+
+		// when
+		final LocalElectionResultDelta delta = new LocalElectionResultDelta(previous, current);
+
+		// then
+		assertThat(delta.isEmpty()).isFalse();
+		for (final NominationDelta nominationDelta : delta.getNominations()) {
+			assertThat(nominationDelta.getNumberOfVotes())
+					.isEqualTo(breakdown.getNumberOfVotes(rethwischdorf, nominationDelta.getNomination()));
+			assertThat(nominationDelta.getType())
+					.isEqualTo(current.getNominationResults().get(nominationDelta.getNomination()).getType());
+			assertThat(nominationDelta.getPreviousType())
+					.isEqualTo(previous.getNominationResults().get(nominationDelta.getNomination()).getType());
+		}
+		for (final PartyDelta partyDelta : delta.getParties()) {
+			assertThat(partyDelta.getNumberOfVotes())
+					.isEqualTo(breakdown.getNumberOfVotes(rethwischdorf, partyDelta.getParty()));
+			assertThat(partyDelta.getNumberOfSeats())
+					.isEqualTo(current.getPartyResults().get(partyDelta.getParty()).getNumberOfSeats()
+							- previous.getPartyResults().get(partyDelta.getParty()).getNumberOfSeats());
+		}
+		assertThat(delta.getPollingStations()).extracting(PollingStationDelta::getPollingStation)
+				.containsExactly(rethwischdorf);
+		assertThat(delta.getPollingStations().get(0).getNumberOfBallots())
+				.isEqualTo(current.getNumberOfBallots(rethwischdorf));
+	}
+
+	/**
+	 * Test, that comparing a result with itself results in no changes
+	 */
+	@Test
+	@PackagePrivate
+	void testSameResult() {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+
+		// when
+		final LocalElectionResultDelta delta = new LocalElectionResultDelta(result, result);
+
+		// then
+		assertThat(delta.isEmpty()).isTrue();
+	}
+
+	/**
+	 * Finds the polling station of {@code result} by {@code name}.
+	 *
+	 * @param result the election result
+	 * @param name   the polling station's name
+	 * @return the polling station
+	 */
+	private static LocalPollingStation getPollingStation(final LocalElectionResult result, final String name) {
+		return result.getElection()
+				.getPollingStations()
+				.stream()
+				.filter(pollingStation -> pollingStation.getName().equals(name))
+				.findAny()
+				.get();
+	}
+}
@@ -3,17 +3,22 @@ package de.larssh.election.germany.schleswigholstein.local;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.OptionalInt;
+import java.util.Set;
 
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
 
+import de.larssh.election.germany.schleswigholstein.District;
 import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFilesTest;
 import de.larssh.utils.annotations.PackagePrivate;
 import lombok.NoArgsConstructor;
@@ -79,5 +84,38 @@ class LocalElectionResultTest {
 
 		// Compare results
 		assertThat(jsonResult).hasToString(originalResult.toString());
+		assertThat(jsonResult.getWeightedBallots()).isEqualTo(originalResult.getWeightedBallots());
+		assertThat(jsonResult.getNumberOfAllBallots()).isEqualTo(originalResult.getNumberOfAllBallots());
+	}
+
+	/**
+	 * Test, that the numbers per district match the ballots of the district
+	 */
+	@Test
+	@PackagePrivate
+	void testDistricts() {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+		final Set<District<?>> districts = new LinkedHashSet<>(result.getElection().getAllDistricts());
+		districts.add(result.getElection().getDistrict());
+
+		// when
+		final SoftAssertions softAssertions = new SoftAssertions();
+		for (final District<?> district : districts) {
+			final List<LocalBallot> ballots = result.getBallots()
+					.stream()
+					.filter(ballot -> district.contains(ballot.getPollingStation()))
+					.collect(toList());
+
+			// then
+			softAssertions.assertThat(result.getBallots(district)).containsExactlyElementsOf(ballots);
+			softAssertions.assertThat(result.getBallots(district)).isSameAs(result.getBallots(district));
+			softAssertions.assertThat(result.getNumberOfBallots(district)).isEqualTo(ballots.size());
+			softAssertions.assertThat(result.getNumberOfInvalidBallots(district))
+					.isEqualTo(ballots.stream().filter(ballot -> !ballot.isValid()).count());
+			softAssertions.assertThat(result.getNumberOfVotes(district))
+					.isEqualTo(ballots.stream().mapToInt(ballot -> ballot.getNominations().size()).sum());
+		}
+		softAssertions.assertAll();
 	}
 }
@@ -0,0 +1,93 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFilesTest;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link PollingStationBreakdown}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class PollingStationBreakdownTest {
+	/**
+	 * Numbers of ballots of partial results to test
+	 */
+	private static final int[] NUMBERS_OF_BALLOTS = { 0, 1, 10, 57, 100, 200 };
+
+	/**
+	 * Test, that the breakdown matches the results filtered by polling station
+	 */
+	@Test
+	@PackagePrivate
+	void testRethwisch() {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+
+		// when
+		final PollingStationBreakdown breakdown = result.getPollingStationBreakdown();
+
+		// then
+		assertThat(result.getPollingStationBreakdown()).isSameAs(breakdown);
+		for (final LocalPollingStation pollingStation : result.getElection().getPollingStations()) {
+			final LocalElectionResult filtered = result.filterByDistrict(pollingStation);
+
+			assertThat(breakdown.getNumberOfInvalidBallots(pollingStation))
+					.isEqualTo(filtered.getNumberOfInvalidBallots());
+			for (final LocalNominationResult nominationResult : filtered.getNominationResults().values()) {
+				assertThat(breakdown.getNumberOfVotes(pollingStation, nominationResult.getNomination()))
+						.isEqualTo(nominationResult.getNumberOfVotes());
+			}
+			for (final LocalPartyResult partyResult : filtered.getPartyResults().values()) {
+				final Party party = partyResult.getParty();
+				assertThat(breakdown.getNumberOfVotes(pollingStation, party)).isEqualTo(partyResult.getNumberOfVotes());
+				assertThat(breakdown.getNumberOfBlockVotings(pollingStation, party))
+						.isEqualTo(partyResult.getNumberOfBlockVotings());
+			}
+		}
+	}
+
+	/**
+	 * Test, that the Sainte Laguë values match the results filtered by polling
+	 * station, including results of few ballots with many ties
+	 */
+	@Test
+	@PackagePrivate
+	void testSainteLagueValues() {
+		// given
+		final LocalElectionResult complete = PollingStationResultFilesTest.readResultsRethwisch();
+		final List<LocalElectionResult> results = new ArrayList<>();
+		for (final int numberOfBallots : NUMBERS_OF_BALLOTS) {
+			results.add(new LocalElectionResultBuilder(complete.getElection(), complete.getSainteLagueScale())
+					.addAll(complete.getBallots().subList(0, numberOfBallots))
+					.build());
+		}
+		results.add(complete);
+
+		// when and then
+		for (final LocalElectionResult result : results) {
+			final PollingStationBreakdown breakdown = result.getPollingStationBreakdown();
+			for (final LocalPollingStation pollingStation : result.getElection().getPollingStations()) {
+				final Map<LocalNomination, BigDecimal> sainteLagueValues
+						= breakdown.getSainteLagueValues(pollingStation);
+				for (final LocalNominationResult nominationResult : result.filterByDistrict(pollingStation)
+						.getNominationResults()
+						.values()) {
+					assertThat(Optional.ofNullable(sainteLagueValues.get(nominationResult.getNomination())))
+							.isEqualTo(nominationResult.getSainteLagueValue());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package de.larssh.election.germany.schleswigholstein.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.Party;
+import de.larssh.election.germany.schleswigholstein.local.file.PollingStationResultFilesTest;
+import de.larssh.election.utils.BigDecimals;
+import de.larssh.utils.annotations.PackagePrivate;
+import de.larssh.utils.collection.Maps;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link SainteLagueAllocator}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class SainteLagueAllocatorTest {
+	/**
+	 * Calculates the Sainte Laguë values by dividing and sorting {@link BigDecimal}
+	 * values.
+	 *
+	 * @param election     Wahl
+	 * @param scale        the scale of the values
+	 * @param votesOfParty the number of votes per party
+	 * @param votes        the number of votes per nomination
+	 * @return the Sainte Laguë value for each nomination
+	 */
+	@SuppressWarnings("checkstyle:MagicNumber")
+	private static Map<LocalNomination, BigDecimal> getExpected(final LocalElection election,
+			final int scale,
+			final Map<Party, Integer> votesOfParty,
+			final Map<LocalNomination, Integer> votes) {
+		final Map<LocalNomination, BigDecimal> sainteLague = new LinkedHashMap<>();
+		for (final Entry<Party, Integer> entry : votesOfParty.entrySet()) {
+			final List<LocalNomination> nominations = election.getListNominations(entry.getKey());
+			for (int step = 0; step < nominations.size(); step += 1) {
+				sainteLague.put(nominations.get(step),
+						BigDecimals.divide(entry.getValue(), BigDecimal.valueOf(step * 10 + 5, 1), scale));
+			}
+		}
+		return Maps.sort(sainteLague,
+				Comparator.<Entry<LocalNomination, BigDecimal>, BigDecimal>comparing(Entry::getValue)
+						.thenComparing(entry -> votes.getOrDefault(entry.getKey(), 0))
+						.reversed()
+						.thenComparing(Entry::getKey));
+	}
+
+	/**
+	 * Test, that the allocator ranks and ties equal to sorting rounded
+	 * {@link BigDecimal} values
+	 */
+	@Test
+	@PackagePrivate
+	@SuppressWarnings("checkstyle:MagicNumber")
+	void testAllocate() {
+		// given
+		final LocalElection election = PollingStationResultFilesTest.readResultsRethwisch().getElection();
+		final Map<Party, Integer> votesOfParty = new HashMap<>();
+		final Map<LocalNomination, Integer> votes = new HashMap<>();
+		for (final Party party : election.getParties()) {
+			votesOfParty.put(party, votesOfParty.size() % 2 == 0 ? 300 : 100 + votesOfParty.size());
+		}
+		final List<LocalNomination> nominations = new ArrayList<>(election.getNominations());
+		for (int index = 0; index < nominations.size(); index += 1) {
+			votes.put(nominations.get(index), index % 3);
+		}
+
+		for (final int scale : new int[] { -1, 0, 2, 9, 10, 12, 19, 25 }) {
+			// when
+			final SainteLagueAllocator allocator = new SainteLagueAllocator(scale);
+			votesOfParty.forEach((party, votesOfThisParty) -> allocator
+					.add(votesOfThisParty, election.getListNominations(party), votes));
+			final Map<LocalNomination, BigDecimal> sainteLague = allocator.allocate();
+
+			// then
+			final Map<LocalNomination, BigDecimal> expected = getExpected(election, scale, votesOfParty, votes);
+			assertThat(sainteLague).containsExactlyEntriesOf(expected);
+		}
+	}
+
+	/**
+	 * Test, that the allocator handles large numbers of votes at scales, which
+	 * values do not fit into a {@code long} value
+	 */
+	@Test
+	@PackagePrivate
+	@SuppressWarnings("checkstyle:MagicNumber")
+	void testAllocateLargeScale() {
+		// given
+		final LocalElection election = PollingStationResultFilesTest.readResultsRethwisch().getElection();
+		final Map<Party, Integer> votesOfParty = new HashMap<>();
+		final Map<LocalNomination, Integer> votes = new HashMap<>();
+		for (final Party party : election.getParties()) {
+			votesOfParty.put(party, Integer.MAX_VALUE - votesOfParty.size());
+		}
+		final int scale = 20;
+
+		// when
+		final SainteLagueAllocator allocator = new SainteLagueAllocator(scale);
+		votesOfParty.forEach((party, votesOfThisParty) -> allocator
+				.add(votesOfThisParty, election.getListNominations(party), votes));
+		final Map<LocalNomination, BigDecimal> sainteLague = allocator.allocate();
+
+		// then
+		final Map<LocalNomination, BigDecimal> expected = getExpected(election, scale, votesOfParty, votes);
+		assertThat(sainteLague).containsExactlyEntriesOf(expected);
+	}
+}
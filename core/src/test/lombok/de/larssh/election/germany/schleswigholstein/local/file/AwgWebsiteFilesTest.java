@@ -1,15 +1,25 @@
 package de.larssh.election.germany.schleswigholstein.local.file;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
 
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultBuilder;
+import de.larssh.election.germany.schleswigholstein.local.LocalNomination;
+import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
 import de.larssh.utils.annotations.PackagePrivate;
 import de.larssh.utils.io.Resources;
 import de.larssh.utils.text.Strings;
@@ -21,6 +31,51 @@ import lombok.NoArgsConstructor;
 @PackagePrivate
 @NoArgsConstructor
 class AwgWebsiteFilesTest {
+	/**
+	 * Numbers of ballots of partial results with ties to test
+	 */
+	private static final int[] NUMBERS_OF_BALLOTS = { 1, 10, 57, 100, 200 };
+
+	/**
+	 * Name of the function returning the "persons" array, which follows the "data"
+	 * array
+	 */
+	private static final String FUNCTION_PERSONS = "_get_personen()";
+
+	/**
+	 * Pattern matching the entries of polling stations inside the "data" array
+	 */
+	private static final Pattern PATTERN_DATA
+			= Pattern.compile("\\n\\t\\t'[^']+' => array\\((.*?)\\n\\t\\t\\)", Pattern.DOTALL);
+
+	/**
+	 * Pattern matching the nomination identifiers of an entry inside the "data"
+	 * array
+	 */
+	private static final Pattern PATTERN_DATA_NOMINATION = Pattern.compile("\\n\\t\\t\\t'([^']+)' => ");
+
+	/**
+	 * Pattern matching the nomination identifiers inside the "persons" array
+	 */
+	private static final Pattern PATTERN_PERSON
+			= Pattern.compile("\\n\\t\\t'([^']+)' => array\\(\\n\\t\\t\\t'gruppierung'");
+
+	/**
+	 * Returns all first groups of {@code pattern} inside {@code value}.
+	 *
+	 * @param pattern the pattern
+	 * @param value   the value to search
+	 * @return the first groups
+	 */
+	private static List<String> findAll(final Pattern pattern, final String value) {
+		final List<String> groups = new ArrayList<>();
+		final Matcher matcher = pattern.matcher(value);
+		while (matcher.find()) {
+			groups.add(matcher.group(1));
+		}
+		return groups;
+	}
+
 	/**
 	 * Test writing using results of Rethwisch
 	 */
@@ -40,4 +95,51 @@ class AwgWebsiteFilesTest {
 				.get()), Strings.DEFAULT_CHARSET);
 		assertThat(writer.toString()).isEqualTo(expectedString);
 	}
+
+	/**
+	 * Test, that nominations with an equal number of votes are ordered like the
+	 * nomination results of the result filtered by polling station
+	 */
+	@Test
+	@PackagePrivate
+	void testTies() throws IOException {
+		// given
+		final LocalElectionResult complete = PollingStationResultFilesTest.readResultsRethwisch();
+		final List<LocalNomination> nominations = complete.getElection().getNominations();
+
+		for (final int numberOfBallots : NUMBERS_OF_BALLOTS) {
+			final LocalElectionResult result
+					= new LocalElectionResultBuilder(complete.getElection(), complete.getSainteLagueScale())
+							.addAll(complete.getBallots().subList(0, numberOfBallots))
+							.build();
+			final StringWriter writer = new StringWriter();
+
+			// when
+			AwgWebsiteFiles.write(result, writer);
+
+			// then
+			final String output = writer.toString();
+			final List<String> persons = findAll(PATTERN_PERSON, output);
+			assertThat(persons).hasSameSizeAs(nominations);
+			final Map<LocalNomination, String> identifiers = new HashMap<>();
+			for (int index = 0; index < nominations.size(); index += 1) {
+				identifiers.put(nominations.get(index), persons.get(index));
+			}
+
+			final List<String> data = findAll(PATTERN_DATA, output.substring(0, output.indexOf(FUNCTION_PERSONS)));
+			final List<LocalPollingStation> pollingStations
+					= new ArrayList<>(result.getElection().getPollingStations());
+			assertThat(data).hasSameSizeAs(pollingStations);
+			for (int index = 0; index < pollingStations.size(); index += 1) {
+				assertThat(findAll(PATTERN_DATA_NOMINATION, data.get(index)))
+						.isEqualTo(result.filterByDistrict(pollingStations.get(index))
+								.getNominationResults()
+								.keySet()
+								.stream()
+								.filter(LocalNomination::isDirectNomination)
+								.map(identifiers::get)
+								.collect(toList()));
+			}
+		}
+	}
 }
@@ -0,0 +1,70 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.local.file.CompiledTemplate.Fragment;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link CompiledTemplate}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class CompiledTemplateTest {
+	/**
+	 * Template using ordinary, explicit and relative indexes
+	 */
+	private static final String TEMPLATE = "<%s|%3$.1f%%|%<s|%d|%1$s|%2$05d|%4$tY>";
+
+	/**
+	 * Test, that writing a compiled template results in the same output as
+	 * {@link String#format(Locale, String, Object...)}
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testWrite() throws IOException {
+		// given
+		final Object[] arguments = { "a", 12, new BigDecimal("3.45"), LocalDate.of(2018, 5, 6) };
+		final StringWriter writer = new StringWriter();
+
+		// when
+		CompiledTemplate.compile(TEMPLATE).write(writer, Locale.GERMAN, arguments);
+
+		// then
+		assertThat(writer.toString()).isEqualTo(String.format(Locale.GERMAN, TEMPLATE, arguments));
+	}
+
+	/**
+	 * Test, that fragments write themselves into the template's writer
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testFragment() throws IOException {
+		// given
+		final CompiledTemplate template = CompiledTemplate.compile("<ol>%s</ol>");
+		final StringWriter writer = new StringWriter();
+
+		// when
+		template.write(writer, (Fragment) fragmentWriter -> {
+			for (int index = 0; index < 2; index += 1) {
+				fragmentWriter.write("<li>" + index + "</li>");
+			}
+		});
+
+		// then
+		assertThat(writer.toString()).isEqualTo("<ol><li>0</li><li>1</li></ol>");
+	}
+}
@@ -0,0 +1,54 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link DeltaFiles}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class DeltaFilesTest {
+	/**
+	 * Test, that changes are appended as one line of JSON each and that empty
+	 * changes are skipped
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testRethwisch() throws IOException {
+		// given
+		final LocalElectionResult current = PollingStationResultFilesTest.readResultsRethwisch();
+		final LocalPollingStation pollingStation = current.getElection().getPollingStations().iterator().next();
+		final LocalElectionResult previous = current.filterByDistrict(pollingStation);
+		final StringWriter writer = new StringWriter();
+
+		// when
+		final boolean changed = DeltaFiles.append(previous, current, writer);
+		final boolean unchanged = DeltaFiles.append(current, current, writer);
+
+		// then
+		assertThat(changed).isTrue();
+		assertThat(unchanged).isFalse();
+		assertThat(writer.toString()).endsWith("\n").containsOnlyOnce("\n");
+
+		final JsonNode line = new ObjectMapper().readTree(writer.toString());
+		assertThat(line.get("nominations").get(0).get("nomination").isTextual()).isTrue();
+		assertThat(line.get("nominations").get(0).get("numberOfVotes").isInt()).isTrue();
+		assertThat(line.get("parties").isArray()).isTrue();
+		assertThat(line.get("pollingStations")).hasSize(current.getElection().getPollingStations().size() - 1);
+	}
+}
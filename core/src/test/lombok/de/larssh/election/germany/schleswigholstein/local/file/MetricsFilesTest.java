@@ -0,0 +1,132 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFTable;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.utils.annotations.PackagePrivate;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link MetricsFiles}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class MetricsFilesTest {
+	/**
+	 * Width of one character
+	 */
+	private static final int CHARACTER_WIDTH = 256;
+
+	/**
+	 * Writes {@code result} and describes the written workbook line by line,
+	 * including sheets, tables, column widths in characters, cell values and cell
+	 * styles.
+	 *
+	 * @param result    the election result to write
+	 * @param streaming if {@code true} rows are streamed
+	 * @return the description of the written workbook
+	 * @throws IOException on IO error
+	 */
+	private static List<String> describe(final LocalElectionResult result, final boolean streaming) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		MetricsFiles.write(result, outputStream, true, streaming);
+
+		final List<String> lines = new ArrayList<>();
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			for (final Sheet sheet : workbook) {
+				final XSSFSheet xssfSheet = (XSSFSheet) sheet;
+				lines.add("sheet "
+						+ sheet.getSheetName()
+						+ " "
+						+ xssfSheet.getPaneInformation().getVerticalSplitLeftColumn()
+						+ " "
+						+ xssfSheet.getPaneInformation().getHorizontalSplitTopRow());
+				for (final XSSFTable table : xssfSheet.getTables()) {
+					lines.add("table " + table.getName() + " " + table.getArea().formatAsString());
+					lines.add("totals " + table.getCTTable().getTotalsRowCount());
+					table.getCTTable()
+							.getTableColumns()
+							.getTableColumnList()
+							.forEach(column -> lines.add("column "
+									+ column.getName()
+									+ " "
+									+ column.getTotalsRowFunction()
+									+ " "
+									+ column.getTotalsRowLabel()));
+				}
+				for (final Row row : sheet) {
+					for (final Cell cell : row) {
+						lines.add(cell.getAddress() + " " + describe(cell));
+					}
+				}
+				for (int columnIndex = 0; columnIndex < sheet.getRow(0).getLastCellNum(); columnIndex += 1) {
+					// Streaming rounds auto sized widths slightly different
+					lines.add("width " + columnIndex + " " + sheet.getColumnWidth(columnIndex) / CHARACTER_WIDTH);
+				}
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Describes the value and style of {@code cell}.
+	 *
+	 * @param cell the cell
+	 * @return the description of {@code cell}
+	 */
+	private static String describe(final Cell cell) {
+		final XSSFCellStyle style = (XSSFCellStyle) cell.getCellStyle();
+		final XSSFColor color = style.getFillForegroundXSSFColor();
+		final String value;
+		if (cell.getCellType() == CellType.FORMULA) {
+			value = "=" + cell.getCellFormula();
+		} else if (cell.getCellType() == CellType.NUMERIC) {
+			value = Double.toString(cell.getNumericCellValue());
+		} else {
+			value = cell.getStringCellValue();
+		}
+		return value
+				+ " "
+				+ style.getDataFormatString()
+				+ " "
+				+ (color == null ? "" : color.getARGBHex())
+				+ " "
+				+ (style.getFont().getXSSFColor() == null ? "" : style.getFont().getXSSFColor().getARGBHex());
+	}
+
+	/**
+	 * Test, that the streaming mode writes the same workbook as the default mode
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testRethwischStreaming() throws IOException {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+
+		// when
+		final List<String> actual = describe(result, true);
+
+		// then
+		assertThat(actual).containsExactlyElementsOf(describe(result, false));
+		assertThat(actual).contains("column ungültig custom null");
+	}
+}
@@ -0,0 +1,179 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.local.LocalElection;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionTest;
+import de.larssh.election.germany.schleswigholstein.local.LocalPollingStation;
+import de.larssh.utils.annotations.PackagePrivate;
+import de.larssh.utils.collection.Maps;
+import de.larssh.utils.io.Resources;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link PollingStationResultFileTail}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class PollingStationResultFileTailTest {
+	/**
+	 * Step size (number of characters) to append at once
+	 */
+	private static final int STEP_SIZE = 37;
+
+	/**
+	 * Reads the content of the Klein Boden result file
+	 *
+	 * @return the content of the Klein Boden result file
+	 * @throws IOException on IO error
+	 */
+	private static String readKleinBoden() throws IOException {
+		final Path path
+				= Resources
+						.getResourceRelativeTo(PollingStationResultFilesTest.class,
+								Paths.get(PollingStationResultFiles.class.getSimpleName()
+										+ "-"
+										+ LocalElectionTest.POLLING_STATION_NAME_KLEIN_BODEN
+										+ ".txt"))
+						.orElseThrow(IllegalStateException::new);
+		return new String(Files.readAllBytes(path), UTF_8);
+	}
+
+	/**
+	 * Calculates the CRC-32 checksum of the UTF-8 encoded {@code content}
+	 *
+	 * @param content the content
+	 * @return the CRC-32 checksum
+	 */
+	private static long checksum(final String content) {
+		final CRC32 checksum = new CRC32();
+		final byte[] bytes = content.getBytes(UTF_8);
+		checksum.update(bytes, 0, bytes.length);
+		return checksum.getValue();
+	}
+
+	/**
+	 * Determines the result or the incomplete result in case of parsing errors
+	 * together with the line numbers and messages of all errors
+	 *
+	 * @param reader the reading function
+	 * @return the result and the line numbers and messages of all errors
+	 * @throws IOException on IO error
+	 */
+	private static Map.Entry<LocalElectionResult, List<String>> getResultAndErrors(final ResultReader reader)
+			throws IOException {
+		try {
+			return Maps.entry(reader.read(), emptyList());
+		} catch (final PollingStationResultFileParseException e) {
+			return Maps.entry(e.getIncompleteResult(),
+					e.getSuppressedLineParseExceptions()
+							.stream()
+							.map(exception -> exception.getLineNumber() + ": " + exception.getMessage())
+							.collect(Collectors.toList()));
+		}
+	}
+
+	/**
+	 * Test, that appending to a file in steps results in the same results as
+	 * parsing the whole file, including line breaks, lines split between steps,
+	 * corrections and corrections of earlier lines together with appended lines
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testAppendedFile() throws IOException {
+		// given
+		final LocalElection election = LocalElectionTest.createElection();
+		final LocalPollingStation pollingStation
+				= LocalElectionTest.findPollingStation(election, LocalElectionTest.POLLING_STATION_NAME_KLEIN_BODEN);
+		final String kleinBoden = readKleinBoden();
+		final String content = kleinBoden.replace("\n", "\r\n") + "* clear\n" + kleinBoden + "\r\nunknown\r2 pop";
+		final Path path = Files.createTempFile(getClass().getSimpleName(), ".txt");
+		try {
+			final PollingStationResultFileTail tail = new PollingStationResultFileTail(election, pollingStation, path);
+
+			for (int end = 0; end < content.length() + STEP_SIZE; end += STEP_SIZE) {
+				// when
+				final String current = content.substring(0, Math.min(end, content.length()));
+				Files.write(path, current.getBytes(UTF_8));
+				final Map.Entry<LocalElectionResult, List<String>> actual = getResultAndErrors(tail::read);
+
+				// then
+				final Map.Entry<LocalElectionResult, List<String>> expected = getResultAndErrors(
+						() -> PollingStationResultFiles.read(election, pollingStation, new StringReader(current)));
+				assertThat(actual.getKey()).isEqualTo(expected.getKey());
+				assertThat(actual.getKey().getNumberOfAllBallots(pollingStation))
+						.isEqualTo(expected.getKey().getNumberOfAllBallots(pollingStation));
+				assertThat(actual.getValue()).isEqualTo(expected.getValue());
+			}
+
+			// when
+			final String corrected = content.replace("2 pop", "3 pop");
+			Files.write(path, corrected.getBytes(UTF_8));
+			final Map.Entry<LocalElectionResult, List<String>> actual = getResultAndErrors(tail::read);
+
+			// then
+			final Map.Entry<LocalElectionResult, List<String>> expected = getResultAndErrors(
+					() -> PollingStationResultFiles.read(election, pollingStation, new StringReader(corrected)));
+			assertThat(actual.getKey()).isEqualTo(expected.getKey());
+			assertThat(actual.getValue()).isEqualTo(expected.getValue());
+			assertThat(tail.getChecksum()).isEqualTo(checksum(corrected));
+
+			// when
+			final String correctedEarly = corrected.replace("106 pop", "105 pop");
+			Files.write(path, correctedEarly.getBytes(UTF_8));
+			final Map.Entry<LocalElectionResult, List<String>> actualEarly = getResultAndErrors(tail::read);
+
+			// then
+			final Map.Entry<LocalElectionResult, List<String>> expectedEarly = getResultAndErrors(
+					() -> PollingStationResultFiles.read(election, pollingStation, new StringReader(correctedEarly)));
+			assertThat(actualEarly.getKey()).isEqualTo(expectedEarly.getKey());
+			assertThat(actualEarly.getValue()).isEqualTo(expectedEarly.getValue());
+
+			// when
+			final String correctedAndAppended = correctedEarly.replace("105 pop", "104 pop") + "\n1 pop";
+			Files.write(path, correctedAndAppended.getBytes(UTF_8));
+			final Map.Entry<LocalElectionResult, List<String>> actualAppended = getResultAndErrors(tail::read);
+
+			// then
+			final Map.Entry<LocalElectionResult, List<String>> expectedAppended
+					= getResultAndErrors(() -> PollingStationResultFiles
+							.read(election, pollingStation, new StringReader(correctedAndAppended)));
+			assertThat(actualAppended.getKey()).isEqualTo(expectedAppended.getKey());
+			assertThat(actualAppended.getValue()).isEqualTo(expectedAppended.getValue());
+			assertThat(tail.getChecksum()).isEqualTo(checksum(correctedAndAppended));
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	/**
+	 * Reading function of a result
+	 */
+	@FunctionalInterface
+	private interface ResultReader {
+		/**
+		 * Reads a result.
+		 *
+		 * @return the result
+		 * @throws IOException on IO error
+		 */
+		LocalElectionResult read() throws IOException;
+	}
+}
@@ -117,6 +117,29 @@ public class PollingStationResultFilesTest {
 		assertThat(result.getNumberOfInvalidBallots()).isEqualTo(3);
 	}
 
+	/**
+	 * Test, that references spelled or ordered differently result in the same
+	 * ballot
+	 */
+	@Test
+	@PackagePrivate
+	void testSpellings() throws IOException {
+		// given
+		final LocalElection election = LocalElectionTest.createElection();
+		final LocalPollingStation pollingStation
+				= LocalElectionTest.findPollingStation(election, LocalElectionTest.POLLING_STATION_NAME_KLEIN_BODEN);
+		final String content = "Poppinga,Jens Schöning,Mathias\n2 schoening,mathias POPPINGA,JENS\n";
+
+		// when
+		final LocalElectionResult result
+				= PollingStationResultFiles.read(election, pollingStation, new StringReader(content));
+
+		// then
+		assertThat(result.getBallots()).hasSize(3);
+		assertThat(result.getWeightedBallots()).hasSize(1);
+		assertThat(result.getWeightedBallots().get(0).getWeight()).isEqualTo(3);
+	}
+
 	/**
 	 * Test parsing using results of Rethwischdorf
 	 */
@@ -3,18 +3,30 @@ package de.larssh.election.germany.schleswigholstein.local.file;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import java.io.IOException;
 import java.io.StringWriter;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.larssh.election.germany.schleswigholstein.Color;
 import de.larssh.election.germany.schleswigholstein.local.LocalElection;
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
 import de.larssh.election.germany.schleswigholstein.local.LocalElectionTest;
 import de.larssh.utils.annotations.PackagePrivate;
+import de.larssh.utils.text.Strings;
 import lombok.NoArgsConstructor;
 
 /**
@@ -23,6 +35,36 @@ import lombok.NoArgsConstructor;
 @PackagePrivate
 @NoArgsConstructor
 class PresentationFilesTest {
+	/**
+	 * Pattern matching the time stamp, which differs between two writes
+	 */
+	private static final Pattern TIMESTAMP = Pattern.compile("<div class=\"timestamp\">[^<]*</div>");
+
+	/**
+	 * Pattern matching the JSON frames of a time-travel
+	 */
+	private static final Pattern TIME_TRAVEL_FRAMES
+			= Pattern.compile("<script type=\"application/json\" id=\"time-travel-frames\">(?<frames>.*?)</script>");
+
+	/**
+	 * Writes {@code result} and removes the time stamp.
+	 *
+	 * @param result the election result to write
+	 * @param cache  the cache of rendered fragments or empty
+	 * @return the presentation file without time stamp
+	 * @throws IOException on IO error
+	 */
+	private static String write(final LocalElectionResult result, final Optional<PresentationFragmentCache> cache)
+			throws IOException {
+		final StringWriter writer = new StringWriter();
+		if (cache.isPresent()) {
+			PresentationFiles.write(result, Optional.empty(), writer, cache.get());
+		} else {
+			PresentationFiles.write(result, Optional.empty(), writer);
+		}
+		return Strings.replaceAll(writer.toString(), TIMESTAMP, "");
+	}
+
 	/**
 	 * Test writing using an empty election result
 	 *
@@ -62,4 +104,92 @@ class PresentationFilesTest {
 			PresentationFiles.write(result, Optional.of(Duration.ofSeconds(1)), new StringWriter());
 		});
 	}
+
+	/**
+	 * Test, that writing using a cache filled by a previous result equals writing
+	 * without cache
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testCache() throws IOException {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+		final PresentationFragmentCache cache = new PresentationFragmentCache();
+		write(result.filterByDistrict(result.getElection().getPollingStations().iterator().next()), Optional.of(cache));
+
+		// when
+		final String actual = write(result, Optional.of(cache));
+
+		// then
+		assertThat(actual).isEqualTo(write(result, Optional.empty()));
+		assertThat(write(result, Optional.of(cache))).isEqualTo(actual);
+	}
+
+	/**
+	 * Test, that a cache filled by a result of another election instance, e.g.
+	 * before the election file changed, is not used
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testCacheOfOtherElection() throws IOException {
+		// given
+		final PresentationFragmentCache cache = new PresentationFragmentCache();
+		write(PollingStationResultFilesTest.readResultsRethwisch(), Optional.of(cache));
+
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+		result.getElection().getParties().forEach(party -> party.setBackgroundColor(Color.GREEN));
+
+		// when
+		final String actual = write(result, Optional.of(cache));
+
+		// then
+		assertThat(actual).isEqualTo(write(result, Optional.empty()));
+	}
+
+	/**
+	 * Test, that the frames of a time-travel reproduce the nomination results of
+	 * each election result, that polling stations without changes reuse their
+	 * fragments and that unchanged frames are empty
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testTimeTravel() throws IOException {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+		final LocalElectionResult partialResult
+				= result.filterByDistrict(result.getElection().getPollingStations().iterator().next());
+		final StringWriter writer = new StringWriter();
+
+		// when
+		PresentationFiles.writeTimeTravel(Arrays.asList(partialResult, result, result).iterator(),
+				Duration.ofSeconds(1),
+				writer);
+
+		// then
+		final Matcher matcher = TIME_TRAVEL_FRAMES.matcher(writer.toString());
+		assertThat(matcher.find()).isTrue();
+		final JsonNode frames = new ObjectMapper().readTree(matcher.group("frames"));
+		assertThat(frames).hasSize(3);
+		assertThat(frames.get(2).size()).isZero();
+		assertThat(frames.get(1).get("pollingStations").get(0)).isEqualTo(frames.get(0).get("pollingStations").get(0));
+		assertThat(frames.get(1).get("pollingStationsTotal")).isNotEqualTo(frames.get(0).get("pollingStationsTotal"));
+
+		final List<String> fragments = new ArrayList<>();
+		for (int index = 0; index < 2; index += 1) {
+			frames.get(index).get("fragments").forEach(fragment -> fragments.add(fragment.asText()));
+
+			final StringBuilder nominationResults = new StringBuilder();
+			frames.get(index)
+					.get("nominationResults")
+					.forEach(id -> nominationResults.append(fragments.get(id.asInt())));
+			assertThat(write(index == 0 ? partialResult : result, Optional.empty()))
+					.contains("<ol class=\"nomination-results\">" + nominationResults + "\n\t\t</ol>");
+		}
+	}
 }
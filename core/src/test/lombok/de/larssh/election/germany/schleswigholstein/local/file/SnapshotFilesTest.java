@@ -0,0 +1,189 @@
+package de.larssh.election.germany.schleswigholstein.local.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.larssh.election.germany.schleswigholstein.ElectionException;
+import de.larssh.election.germany.schleswigholstein.local.LocalElection;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResult;
+import de.larssh.election.germany.schleswigholstein.local.LocalElectionResultBuilder;
+import de.larssh.utils.annotations.PackagePrivate;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link SnapshotFiles}
+ */
+@NoArgsConstructor
+@PackagePrivate
+class SnapshotFilesTest {
+	/**
+	 * Values to overwrite parts of a snapshot with
+	 */
+	private static final int[] CORRUPT_VALUES = { -1, Integer.MIN_VALUE, Integer.MAX_VALUE };
+
+	/**
+	 * Number of weighted ballots of the snapshot to corrupt
+	 */
+	private static final int NUMBER_OF_CORRUPT_BALLOTS = 8;
+
+	/**
+	 * Sainte Laguë scales to write and read, including scales beyond the range of
+	 * {@code long} values
+	 */
+	private static final int[] SAINTE_LAGUE_SCALES = { -1, 0, 10, 25 };
+
+	/**
+	 * Reads {@code snapshot} and returns the exception thrown while reading.
+	 *
+	 * @param election Wahl
+	 * @param snapshot the snapshot
+	 * @return the exception or {@code null} if reading succeeded
+	 */
+	@Nullable
+	private static Throwable readCatching(final LocalElection election, final byte[] snapshot) {
+		return catchThrowable(() -> SnapshotFiles.read(election, new ByteArrayInputStream(snapshot)));
+	}
+
+	/**
+	 * Copies {@code result} using another Sainte Laguë scale.
+	 *
+	 * @param result           the result to copy
+	 * @param sainteLagueScale Scale (decimal places) of Sainte Laguë values
+	 * @return the copied result
+	 */
+	private static LocalElectionResult withSainteLagueScale(final LocalElectionResult result,
+			final int sainteLagueScale) {
+		return new LocalElectionResultBuilder(result.getElection(), sainteLagueScale)
+				.setNumberOfAllBallots(result.getNumberOfAllBallotsMap())
+				.addAllWeighted(result.getWeightedBallots())
+				.build();
+	}
+
+	/**
+	 * Test, that reading a written snapshot results in an equal result
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testRethwisch() throws IOException {
+		// given
+		final LocalElectionResult expected = PollingStationResultFilesTest.readResultsRethwisch();
+
+		// when
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		SnapshotFiles.write(expected, outputStream);
+		final LocalElectionResult actual
+				= SnapshotFiles.read(expected.getElection(), new ByteArrayInputStream(outputStream.toByteArray()));
+
+		// then
+		assertThat(actual).isEqualTo(expected);
+		assertThat(actual.getWeightedBallots()).isEqualTo(expected.getWeightedBallots());
+		assertThat(new HashMap<>(actual.getNumberOfAllBallotsMap()))
+				.isEqualTo(new HashMap<>(expected.getNumberOfAllBallotsMap()));
+		assertThat(actual.getDirectDrawResults()).isEqualTo(expected.getDirectDrawResults());
+		assertThat(actual.getListDrawResults()).isEqualTo(expected.getListDrawResults());
+		assertThat(actual.getSainteLagueScale()).isEqualTo(expected.getSainteLagueScale());
+	}
+
+	/**
+	 * Test, that reading written snapshots of negative and large Sainte Laguë
+	 * scales results in equal results
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testSainteLagueScale() throws IOException {
+		final LocalElectionResult rethwisch = PollingStationResultFilesTest.readResultsRethwisch();
+		for (final int sainteLagueScale : SAINTE_LAGUE_SCALES) {
+			// given
+			final LocalElectionResult expected = withSainteLagueScale(rethwisch, sainteLagueScale);
+
+			// when
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			SnapshotFiles.write(expected, outputStream);
+			final LocalElectionResult actual
+					= SnapshotFiles.read(expected.getElection(), new ByteArrayInputStream(outputStream.toByteArray()));
+
+			// then
+			assertThat(actual).isEqualTo(expected);
+			assertThat(actual.getSainteLagueScale()).isEqualTo(sainteLagueScale);
+			assertThat(actual.getNominationResults()).isEqualTo(expected.getNominationResults());
+		}
+	}
+
+	/**
+	 * Test, that reading truncated or corrupt snapshots fails with an
+	 * {@link ElectionException} or an {@link IOException} only
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testCorrupt() throws IOException {
+		// given
+		final LocalElectionResult complete = PollingStationResultFilesTest.readResultsRethwisch();
+		final LocalElectionResult result
+				= new LocalElectionResultBuilder(complete.getElection(), complete.getSainteLagueScale())
+						.setNumberOfAllBallots(complete.getNumberOfAllBallotsMap())
+						.addAllWeighted(complete.getWeightedBallots().subList(0, NUMBER_OF_CORRUPT_BALLOTS))
+						.build();
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		SnapshotFiles.write(result, outputStream);
+		final byte[] snapshot = outputStream.toByteArray();
+
+		// when
+		final List<Throwable> throwables = new ArrayList<>();
+		for (int length = 0; length < snapshot.length; length += 1) {
+			throwables.add(readCatching(result.getElection(), Arrays.copyOf(snapshot, length)));
+		}
+		for (int position = 0; position <= snapshot.length - Integer.BYTES; position += 1) {
+			for (final int value : CORRUPT_VALUES) {
+				final byte[] corrupt = snapshot.clone();
+				ByteBuffer.wrap(corrupt).putInt(position, value);
+				throwables.add(readCatching(result.getElection(), corrupt));
+			}
+		}
+
+		// then
+		assertThat(throwables).allSatisfy(throwable -> {
+			if (throwable != null) {
+				assertThat(throwable).isInstanceOfAny(ElectionException.class, IOException.class);
+			}
+		});
+	}
+
+	/**
+	 * Test, that reading a snapshot of an unknown version fails
+	 *
+	 * @throws IOException on IO error
+	 */
+	@Test
+	@PackagePrivate
+	void testUnknownVersion() throws IOException {
+		// given
+		final LocalElectionResult result = PollingStationResultFilesTest.readResultsRethwisch();
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		SnapshotFiles.write(result, outputStream);
+		final byte[] snapshot = outputStream.toByteArray();
+		ByteBuffer.wrap(snapshot).putInt(Integer.BYTES, Integer.MAX_VALUE);
+
+		// when and then
+		assertThatThrownBy(() -> SnapshotFiles.read(result.getElection(), new ByteArrayInputStream(snapshot)))
+				.isInstanceOf(ElectionException.class);
+	}
+}